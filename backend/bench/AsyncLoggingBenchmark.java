@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AsyncLoggingBenchmark
+ *
+ * Request throughput with every request access-logged (request-logging.sample-rate=1.0) through
+ * the synchronous console appender (default profiles) and through the prod profile's bounded
+ * AsyncAppender (logback-spring.xml). Starts the packaged application as a child process and reads
+ * its console output itself, either as fast as it comes (file: copied to a temporary file) or
+ * throttled to a fixed rate (slow: like a log shipper or terminal that cannot keep up). Everything
+ * else is set the same for both runs: log levels, show-sql off, no lazy initialization, in-memory H2.
+ *
+ * Usage (run from backend/ after mvn package):
+ *   java bench/AsyncLoggingBenchmark.java slow 16 10 32768
+ *   arguments: sink file|slow (slow), clients (16), seconds (10), slow sink bytes/s (32768)
+ *
+ * Prints requests/s and p50 / p99 of GET /auth/test, and access lines/s that reached the output.
+ * When the output cannot keep up, the synchronous appender slows requests down to its pace, while
+ * the async one drops INFO lines once its queue is mostly full and keeps serving.
+ */
+public class AsyncLoggingBenchmark {
+
+    private static final String JAR = "target/movie-dash-backend-1.0.0.jar";
+
+    public static void main(String[] args) throws Exception {
+        String sink = args.length > 0 ? args[0] : "slow";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long bytesPerSecond = args.length > 3 ? Long.parseLong(args[3]) : 32_768;
+
+        System.out.printf("sink=%s clients=%d seconds=%d%s%n", sink, clients, seconds,
+                sink.equals("slow") ? " rate=" + bytesPerSecond + " B/s" : "");
+        for (boolean async : new boolean[]{false, true}) {
+            run(async, sink, clients, seconds, bytesPerSecond);
+        }
+    }
+
+    private static void run(boolean async, String sink, int clients, int seconds, long bytesPerSecond) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", JAR,
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:logging;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.lazy-initialization=false",
+                "--limiter.enabled=false",
+                "--logging.level.root=INFO",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.moviedash=INFO",
+                "--request-logging.sample-rate=1.0"));
+        if (async) {
+            command.add("--spring.profiles.active=prod");
+        }
+        Process app = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Path file = Files.createTempFile("app-console", ".log");
+        AtomicLong accessLines = new AtomicLong();
+        Thread reader = new Thread(() -> drain(app.getInputStream(), file, sink.equals("slow") ? bytesPerSecond : 0, accessLines));
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            String base = "http://localhost:" + port;
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest test = HttpRequest.newBuilder(URI.create(base + "/auth/test")).build();
+            waitUntilUp(http, test);
+
+            load(http, test, clients, seconds);
+            long linesBefore = accessLines.get();
+            long[] all = load(http, test, clients, seconds);
+            long lines = accessLines.get() - linesBefore;
+            System.out.printf("appender=%-5s %,6.0f requests/s  p50 %6.2f ms  p99 %7.2f ms  %,6.0f access lines/s reached the output%n",
+                    async ? "async" : "sync", all.length / (double) seconds,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, lines / (double) seconds);
+        } finally {
+            app.destroy();
+            app.waitFor();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Copy the application's console output to the file, at most bytesPerSecond (0: unthrottled),
+     * counting access log lines
+     */
+    private static void drain(InputStream output, Path file, long bytesPerSecond, AtomicLong accessLines) {
+        byte[] buffer = new byte[4096];
+        byte[] marker = "com.moviedash.access".getBytes(StandardCharsets.US_ASCII);
+        int matched = 0;
+        try (OutputStream copy = Files.newOutputStream(file)) {
+            int read;
+            while ((read = output.read(buffer)) > 0) {
+                copy.write(buffer, 0, read);
+                for (int i = 0; i < read; i++) {
+                    matched = buffer[i] == marker[matched] ? matched + 1 : (buffer[i] == marker[0] ? 1 : 0);
+                    if (matched == marker.length) {
+                        accessLines.incrementAndGet();
+                        matched = 0;
+                    }
+                }
+                if (bytesPerSecond > 0) {
+                    // Paced per chunk, so a quiet startup builds up no credit
+                    long pauseNanos = read * 1_000_000_000L / bytesPerSecond;
+                    Thread.sleep(pauseNanos / 1_000_000, (int) (pauseNanos % 1_000_000));
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Application stopped
+        }
+    }
+
+    private static void waitUntilUp(HttpClient http, HttpRequest test) throws InterruptedException {
+        for (int attempt = 0; attempt < 240; attempt++) {
+            try {
+                if (http.send(test, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not start");
+    }
+
+    /**
+     * Every client calls the endpoint for the given time; returns the sorted latencies in nanoseconds
+     */
+    private static long[] load(HttpClient http, HttpRequest request, int clients, int seconds) throws InterruptedException {
+        long[][] latencies = new long[clients][];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            new Thread(() -> {
+                long[] samples = new long[1 << 20];
+                int n = 0;
+                while (System.nanoTime() < deadline && n < samples.length) {
+                    long started = System.nanoTime();
+                    try {
+                        http.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        // Counted as a slow sample
+                    }
+                    samples[n++] = System.nanoTime() - started;
+                }
+                latencies[client] = Arrays.copyOf(samples, n);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+}
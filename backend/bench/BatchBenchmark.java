@@ -0,0 +1,145 @@
+import com.moviedash.MovieDashApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * BatchBenchmark
+ *
+ * Page-load time of a profile-like page that reads /auth/me, /favorites, /reviews/user and one
+ * /favorites/check/{movieId} per movie card, sent either as separate GETs over 6 connections (as a
+ * browser does over HTTP/1.1) or as one POST /batch. A simulated round-trip time is slept before
+ * each HTTP exchange, since loopback has none; the batch pays it once, separate requests once per
+ * wave of 6.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/BatchBenchmark.java 20 50 0,20,50
+ *   arguments: check calls per page (20), page loads per measurement (50), round-trip times in ms (0,20,50)
+ *
+ * Prints p50 and p90 page-load milliseconds per mode and round-trip time.
+ */
+public class BatchBenchmark {
+
+    private static final int CONNECTIONS = 6;
+
+    private static final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        int checks = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int pages = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int[] rtts = Arrays.stream((args.length > 2 ? args[2] : "0,20,50").split(",")).mapToInt(Integer::parseInt).toArray();
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplication(MovieDashApplication.class).run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--limiter.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.moviedash=WARN");
+        ExecutorService connections = Executors.newFixedThreadPool(CONNECTIONS);
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String body = send(HttpRequest.newBuilder(URI.create(base + "/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"batch\",\"email\":\"batch@example.com\",\"password\":\"secret1\"}"))
+                    .build(), 0).body();
+            String token = body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+            for (int movie = 1; movie <= checks; movie += 2) {
+                send(HttpRequest.newBuilder(URI.create(base + "/favorites"))
+                        .header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"movieId\":" + movie + "}")).build(), 0);
+            }
+
+            List<String> paths = new ArrayList<>(List.of("/auth/me", "/favorites", "/reviews/user"));
+            for (int movie = 1; movie <= checks; movie++) {
+                paths.add("/favorites/check/" + movie);
+            }
+            String batch = paths.stream().map(path -> "{\"path\":\"" + path + "\"}")
+                    .collect(Collectors.joining(",", "{\"requests\":[", "]}"));
+            System.out.printf("requests per page=%d pages=%d connections=%d%n", paths.size(), pages, CONNECTIONS);
+            System.out.printf("%-10s %-10s %10s %10s%n", "rtt ms", "mode", "p50 ms", "p90 ms");
+
+            for (int rtt : rtts) {
+                double[] separate = time(pages, () -> {
+                    List<Future<?>> pending = new ArrayList<>();
+                    for (String path : paths) {
+                        pending.add(connections.submit(() -> send(HttpRequest.newBuilder(URI.create(base + path))
+                                .header("Authorization", "Bearer " + token).build(), rtt)));
+                    }
+                    for (Future<?> future : pending) {
+                        future.get();
+                    }
+                });
+                double[] batched = time(pages, () -> {
+                    String response = send(HttpRequest.newBuilder(URI.create(base + "/batch"))
+                            .header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(batch)).build(), rtt).body();
+                    if (response.contains("\"status\":5")) {
+                        throw new IllegalStateException("Batch had failed sub-requests: " + response);
+                    }
+                });
+                System.out.printf("%-10d %-10s %10.2f %10.2f%n", rtt, "separate", percentile(separate, 0.5), percentile(separate, 0.9));
+                System.out.printf("%-10d %-10s %10.2f %10.2f%n", rtt, "batch", percentile(batched, 0.5), percentile(batched, 0.9));
+            }
+        } finally {
+            connections.shutdownNow();
+            context.close();
+        }
+    }
+
+    private interface Page {
+        void load() throws Exception;
+    }
+
+    /**
+     * Milliseconds per page load, after as many warm-up loads
+     */
+    private static double[] time(int pages, Page page) throws Exception {
+        double[] millis = new double[pages];
+        for (int i = 0; i < pages; i++) {
+            page.load();
+        }
+        for (int i = 0; i < pages; i++) {
+            long started = System.nanoTime();
+            page.load();
+            millis[i] = (System.nanoTime() - started) / 1e6;
+        }
+        return millis;
+    }
+
+    private static double percentile(double[] values, double percentile) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)];
+    }
+
+    /**
+     * Send after sleeping the simulated round-trip time
+     */
+    private static HttpResponse<String> send(HttpRequest request, int rtt) throws Exception {
+        if (rtt > 0) {
+            Thread.sleep(rtt);
+        }
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,165 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.FavoriteResponse;
+import com.moviedash.dto.response.ReviewResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * BinaryFormatBenchmark
+ *
+ * Size and encode / decode throughput of JSON, CBOR and Smile for the API's large responses:
+ * ApiResponse<List<ReviewResponse>> (GET /reviews/movie/{movieId}, /reviews/user) and
+ * ApiResponse<List<FavoriteResponse>> (GET /favorites). Mappers are set up like the application's
+ * (Blackbird, JavaTimeModule, ISO dates), with one ObjectWriter / ObjectReader per type as the
+ * converters use. Review comments are random words with a realistic length spread.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/BinaryFormatBenchmark.java 200 500 3
+ *   arguments: reviews per list (200), favorites per list (500), seconds per measurement (3)
+ *
+ * Prints bytes (identity and gzip) and encode / decode operations and MB/s per format and payload.
+ */
+public class BinaryFormatBenchmark {
+
+    private static final String[] WORDS = ("the a movie film plot acting great terrible loved ending twist "
+            + "character score soundtrack cinematography slow pacing brilliant director performance script "
+            + "boring masterpiece overrated underrated sequel visuals dialogue cast watch again recommend "
+            + "story scene emotional funny dark").split(" ");
+
+    private static final ObjectMapper JSON = mapper("json");
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int reviews = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int favorites = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 3;
+
+        Random random = new Random(42);
+        ApiResponse<List<ReviewResponse>> reviewList = ApiResponse.success(reviews(random, reviews));
+        ApiResponse<List<FavoriteResponse>> favoriteList = ApiResponse.success(favorites(random, favorites));
+
+        System.out.printf("reviews=%d favorites=%d seconds=%d%n", reviews, favorites, seconds);
+        System.out.printf("%-10s %-6s %9s %9s %12s %9s %12s %9s%n",
+                "payload", "format", "bytes", "gzip", "encode/s", "MB/s", "decode/s", "MB/s");
+        for (String format : new String[]{"json", "cbor", "smile"}) {
+            ObjectMapper mapper = mapper(format);
+            run("reviews", format, mapper, reviewList, new TypeReference<ApiResponse<List<ReviewResponse>>>() {}, seconds);
+            run("favorites", format, mapper, favoriteList, new TypeReference<ApiResponse<List<FavoriteResponse>>>() {}, seconds);
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Spring Boot's builder defaults: well-known modules (JavaTimeModule), ISO dates
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new BlackbirdModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static <T> void run(String payload, String format, ObjectMapper mapper, T value,
+                                TypeReference<T> type, long seconds) throws IOException {
+        JavaType javaType = mapper.getTypeFactory().constructType(type);
+        ObjectWriter writer = mapper.writerFor(javaType);
+        ObjectReader reader = mapper.readerFor(javaType);
+        byte[] bytes = writer.writeValueAsBytes(value);
+        // Same document shape as JSON, and decoding then encoding gives the same document back
+        if (!mapper.readTree(bytes).equals(JSON.readTree(JSON.writeValueAsBytes(value)))
+                || !mapper.readTree(writer.writeValueAsBytes(reader.readValue(bytes))).equals(mapper.readTree(bytes))) {
+            throw new IllegalStateException(format + " does not round-trip the " + payload + " payload");
+        }
+
+        // Warm up both directions before timing
+        measure(seconds, () -> writer.writeValueAsBytes(value));
+        measure(seconds, () -> reader.readValue(bytes));
+        double encodes = measure(seconds, () -> writer.writeValueAsBytes(value));
+        double decodes = measure(seconds, () -> reader.readValue(bytes));
+
+        System.out.printf("%-10s %-6s %9d %9d %12.0f %9.1f %12.0f %9.1f%n",
+                payload, format, bytes.length, gzip(bytes).length,
+                encodes, encodes * bytes.length / 1e6, decodes, decodes * bytes.length / 1e6);
+    }
+
+    private interface Operation {
+        Object run() throws IOException;
+    }
+
+    /**
+     * Operations per second over the given time
+     */
+    private static double measure(long seconds, Operation operation) throws IOException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long started = System.nanoTime();
+        long operations = 0;
+        long now;
+        do {
+            for (int i = 0; i < 64; i++) {
+                sink = operation.run();
+            }
+            operations += 64;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return operations / ((now - started) / 1e9);
+    }
+
+    private static List<ReviewResponse> reviews(Random random, int count) {
+        List<ReviewResponse> reviews = new ArrayList<>(count);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < count; i++) {
+            // Mostly short comments, some long ones
+            int words = random.nextInt(10) < 8 ? 5 + random.nextInt(20) : 40 + random.nextInt(120);
+            StringBuilder comment = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                comment.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            createdAt = createdAt.plusMinutes(random.nextInt(600)).plusSeconds(random.nextInt(60));
+            long userId = 1 + random.nextInt(100_000);
+            reviews.add(new ReviewResponse(1_000_000L + i, 550, 1 + random.nextInt(5), comment.toString(),
+                    createdAt, "user" + userId, userId));
+        }
+        return reviews;
+    }
+
+    private static List<FavoriteResponse> favorites(Random random, int count) {
+        List<FavoriteResponse> favorites = new ArrayList<>(count);
+        LocalDateTime addedAt = LocalDateTime.of(2023, 6, 1, 0, 0);
+        for (int i = 0; i < count; i++) {
+            addedAt = addedAt.plusHours(random.nextInt(48)).plusSeconds(random.nextInt(3600));
+            favorites.add(new FavoriteResponse(5_000_000L + i, 1 + random.nextInt(1_200_000), addedAt));
+        }
+        return favorites;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+}
@@ -0,0 +1,148 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.entity.User;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPoolBenchmark
+ *
+ * Throughput and latency of GET /reviews/user with more concurrent clients than pooled connections,
+ * with spring.jpa.open-in-view on (the setting before connections were held only inside service
+ * transactions) and off (the current setting). Boots the application twice on in-memory H2 with a
+ * small Hikari pool, gives every client its own user with the given number of reviews, and has the
+ * clients read their review list as fast as they can; a warm-up of the same length comes first.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/ConnectionPoolBenchmark.java 32 4 200 10
+ *   arguments: clients (32), Hikari maximum-pool-size (4), reviews per user (200), seconds (10)
+ *
+ * Prints requests/s, client p50 / p99 and errors (the pool's connection-timeout is 2 s), and from
+ * the pool: mean time a connection was held (hikaricp.connections.usage) and mean time requests
+ * waited for one (hikaricp.connections.acquire).
+ */
+public class ConnectionPoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int reviews = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        System.out.printf("clients=%d pool=%d reviews per user=%d seconds=%d%n", clients, poolSize, reviews, seconds);
+        for (boolean openInView : new boolean[]{true, false}) {
+            run(openInView, clients, poolSize, reviews, seconds);
+        }
+    }
+
+    private static void run(boolean openInView, int clients, int poolSize, int reviews, int seconds) throws Exception {
+        SpringApplication application = new SpringApplication(MovieDashApplication.class);
+        ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + Math.max(200, clients),
+                "--spring.datasource.url=jdbc:h2:mem:pool-" + openInView + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=2000",
+                "--spring.jpa.open-in-view=" + openInView,
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--limiter.enabled=false",
+                "--logging.level.root=ERROR",
+                "--logging.level.org.springframework.security=ERROR",
+                "--logging.level.com.moviedash=ERROR");
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            UserService userService = context.getBean(UserService.class);
+            ReviewService reviewService = context.getBean(ReviewService.class);
+            List<String> tokens = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                User user = userService.register("pool" + c, "pool" + c + "@example.com", "secret1");
+                List<ReviewService.ReviewWrite> writes = new ArrayList<>();
+                for (int movie = 1; movie <= reviews; movie++) {
+                    writes.add(new ReviewService.ReviewWrite(user, movie, movie % 5 + 1,
+                            "Seeded review " + movie + " with a comment of realistic length for the list"));
+                }
+                reviewService.createOrUpdateReviews(writes);
+                String body = http.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"email\":\"pool" + c + "@example.com\",\"password\":\"secret1\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString()).body();
+                tokens.add(body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1"));
+            }
+
+            MeterRegistry meters = context.getBean(MeterRegistry.class);
+            read(http, base, tokens, seconds, new AtomicLong());
+            Timer usage = meters.get("hikaricp.connections.usage").timer();
+            Timer acquire = meters.get("hikaricp.connections.acquire").timer();
+            long usageCount = usage.count();
+            double usageTotal = usage.totalTime(TimeUnit.MILLISECONDS);
+            long acquireCount = acquire.count();
+            double acquireTotal = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+            AtomicLong errors = new AtomicLong();
+            long[] all = read(http, base, tokens, seconds, errors);
+            System.out.printf("open-in-view=%-5s %,7.0f requests/s  p50 %7.1f ms  p99 %7.1f ms  errors %d  "
+                            + "connection held %.2f ms, waited for %.2f ms (means)%n",
+                    openInView, all.length / (double) seconds,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, errors.get(),
+                    (usage.totalTime(TimeUnit.MILLISECONDS) - usageTotal) / Math.max(1, usage.count() - usageCount),
+                    (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireTotal) / Math.max(1, acquire.count() - acquireCount));
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Every client reads its own review list for the given time; returns the sorted latencies in nanoseconds
+     */
+    private static long[] read(HttpClient http, String base, List<String> tokens, int seconds, AtomicLong errors)
+            throws InterruptedException {
+        long[][] latencies = new long[tokens.size()][];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(tokens.size());
+        for (int c = 0; c < tokens.size(); c++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/reviews/user"))
+                    .header("Authorization", "Bearer " + tokens.get(c))
+                    .build();
+            int client = c;
+            new Thread(() -> {
+                long[] samples = new long[1 << 16];
+                int n = 0;
+                while (System.nanoTime() < deadline && n < samples.length) {
+                    long started = System.nanoTime();
+                    try {
+                        if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    samples[n++] = System.nanoTime() - started;
+                }
+                latencies[client] = Arrays.copyOf(samples, n);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+}
@@ -0,0 +1,95 @@
+import com.moviedash.favorite.FavoriteLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * FavoriteLogBenchmark
+ *
+ * Crash recovery of the FavoriteLog: writes records (9 adds to 1 remove over 100,000 users and
+ * 2,000 movies), abandons the log without closing it as a crash would, leaves a torn record at the
+ * end, then times reopening it, checks the recovered favorites and times a compaction.
+ *
+ * Usage (single-file program, run from backend/ after mvn compile):
+ *   java -Xmx2g -cp target/classes bench/FavoriteLogBenchmark.java [records]
+ *   default: 10,000,000 records
+ *
+ * Toggles per second against the JPA store are measured by bench/FavoriteStoreBenchmark.java.
+ */
+public class FavoriteLogBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int MOVIES = 2_000;
+
+    public static void main(String[] args) throws IOException {
+        long records = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        Path dir = Files.createTempDirectory("favorite-log-bench");
+        FavoriteLog.Options options = new FavoriteLog.Options(
+                FavoriteLog.Durability.INTERVAL, Duration.ofMillis(10), 64L * 1024 * 1024);
+        try {
+            FavoriteLog crashed = FavoriteLog.open(dir, options);
+            LocalDateTime now = LocalDateTime.now();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long started = System.nanoTime();
+            long attempts = 0;
+            while (crashed.stats().records() < records) {
+                long userId = random.nextLong(USERS) + 1;
+                int movieId = random.nextInt(MOVIES) + 1;
+                if (++attempts % 10 == 0) {
+                    crashed.remove(userId, movieId);
+                } else {
+                    crashed.add(userId, movieId, now);
+                }
+            }
+            long writeMillis = (System.nanoTime() - started) / 1_000_000;
+            FavoriteLog.Stats before = crashed.stats();
+            System.out.printf("wrote %,d records (%,d favorites, %,d MB) in %,d ms: %,.0f writes/s%n",
+                    before.records(), before.live(), before.bytes() >> 20, writeMillis,
+                    before.records() * 1000.0 / Math.max(1, writeMillis));
+
+            // Crash: never closed, and a record cut short at the end of the file. Its memory is released
+            // first, as a restarted process would start empty
+            crashed = null;
+            System.gc();
+            try (FileChannel channel = FileChannel.open(dir.resolve(FavoriteLog.FILE_NAME), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{0x12, 0x34, 0x56, 0x78, 1, 0, 0, 0, 9, 9}), before.bytes());
+            }
+
+            FavoriteLog recovered = FavoriteLog.open(dir, options);
+            FavoriteLog.Stats after = recovered.stats();
+            boolean intact = after.records() == before.records() && after.live() == before.live();
+            System.out.printf("recovered %,d records (%,d favorites of %,d users) in %,d ms%s%n",
+                    after.records(), after.live(), after.users(), after.recoveryMillis(), intact ? "" : "  MISMATCH");
+
+            started = System.nanoTime();
+            recovered.compact();
+            System.out.printf("compacted to %,d MB in %,d ms%n", recovered.stats().bytes() >> 20,
+                    (System.nanoTime() - started) / 1_000_000);
+            recovered.close();
+
+            FavoriteLog reopened = FavoriteLog.open(dir, options);
+            System.out.printf("reopened compacted log (%,d favorites) in %,d ms%n",
+                    reopened.stats().live(), reopened.stats().recoveryMillis());
+            reopened.close();
+            if (!intact || reopened.stats().live() != before.live()) {
+                System.exit(1);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.entity.User;
+import com.moviedash.service.FavoriteService;
+import com.moviedash.service.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * FavoriteStoreBenchmark
+ *
+ * Favorite toggles per second through FavoriteService with either store (favorites.store=jpa|log).
+ * Boots the application without a web server on a fresh H2 database and log directory, registers
+ * one user per thread, and has every thread add or remove a random favorite for the given time.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/FavoriteStoreBenchmark.java jpa 8 10
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/FavoriteStoreBenchmark.java log 8 10 always
+ *   arguments: store, threads (8), seconds (10), favorites.log.fsync always|interval (interval)
+ *
+ * Recovery of the log is measured by bench/FavoriteLogBenchmark.java.
+ */
+public class FavoriteStoreBenchmark {
+
+    private static final int MOVIES = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        toggles(args.length > 0 ? args[0] : "log",
+                args.length > 1 ? Integer.parseInt(args[1]) : 8,
+                args.length > 2 ? Integer.parseInt(args[2]) : 10,
+                args.length > 3 ? args[3] : "interval");
+    }
+
+    private static void toggles(String store, int threads, int seconds, String fsync) throws Exception {
+        Path work = Files.createTempDirectory("favorite-bench");
+        SpringApplication application = new SpringApplication(MovieDashApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        ConfigurableApplicationContext context = application.run(
+                "--spring.datasource.url=" + System.getProperty("bench.db", "jdbc:h2:file:" + work.resolve("db")),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.moviedash=WARN",
+                "--favorites.store=" + store,
+                "--favorites.log.dir=" + work.resolve("log"),
+                "--favorites.log.fsync=" + fsync);
+        try {
+            FavoriteService favoriteService = context.getBean(FavoriteService.class);
+            UserService userService = context.getBean(UserService.class);
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                users.add(userService.register("bench" + i, "bench" + i + "@example.com", "password"));
+            }
+
+            LongAdder toggles = new LongAdder();
+            long[][] latencies = new long[threads][];
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                new Thread(() -> {
+                    User user = users.get(thread);
+                    long[] samples = new long[1 << 20];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        int movieId = ThreadLocalRandom.current().nextInt(MOVIES) + 1;
+                        long started = System.nanoTime();
+                        if (favoriteService.isFavorite(user.getId(), movieId)) {
+                            favoriteService.removeFavorite(user.getId(), movieId);
+                        } else {
+                            favoriteService.addFavorite(user, movieId);
+                        }
+                        if (n < samples.length) {
+                            samples[n++] = System.nanoTime() - started;
+                        }
+                        toggles.increment();
+                    }
+                    latencies[thread] = Arrays.copyOf(samples, n);
+                    done.countDown();
+                }).start();
+            }
+            done.await();
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("store=%s fsync=%s threads=%d: %,.0f toggles/s, p50 %.1f us, p99 %.1f us%n",
+                    store, fsync, threads, toggles.sum() / (double) seconds,
+                    all[all.length / 2] / 1000.0, all[(int) (all.length * 0.99)] / 1000.0);
+        } finally {
+            context.close();
+            deleteRecursively(work);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
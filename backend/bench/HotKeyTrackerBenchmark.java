@@ -0,0 +1,185 @@
+import com.moviedash.hotkeys.HotKeyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HotKeyTrackerBenchmark
+ *
+ * Cost of HotKeyTracker.record() per request, and how well its top 10 matches the exact one.
+ * Requests pick a route, a movie and a user from Zipf distributions (a few popular movies, many
+ * rarely read ones), precomputed so that only record() is timed. Every thread records in a loop for
+ * the given time after as long a warm-up; the slices advance every 100 ms meanwhile, as the
+ * scheduler would.
+ *
+ * A manual harness rather than JMH: the benches are single-file programs run against
+ * target/classes, which leaves no place for JMH's annotation processor. Warm-up, several threads
+ * and a consumed result cover what JMH would add here.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/HotKeyTrackerBenchmark.java 4 5
+ *   arguments: threads (4), seconds (5)
+ *
+ * Prints ns per record() call (on top of the loop's own cost) and the overlap of the reported and exact top 10 movies and users.
+ */
+public class HotKeyTrackerBenchmark {
+
+    private static final int MOVIES = 100_000;
+    private static final int USERS = 50_000;
+    private static final String[] ROUTES = {
+            "GET /reviews/movie/{movieId}", "GET /favorites/check/{movieId}", "GET /reviews/movie/{movieId}/stats",
+            "GET /favorites", "GET /reviews/user", "POST /favorites", "POST /reviews", "GET /auth/me"};
+    private static final int SAMPLES = 1 << 20;
+    private static final double SKEW = 1.1;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] movies = zipf(MOVIES, SAMPLES, random);
+        int[] users = zipf(USERS, SAMPLES, random);
+        int[] routes = zipf(ROUTES.length, SAMPLES, random);
+        Integer[] movieIds = new Integer[MOVIES];
+        Long[] userIds = new Long[USERS];
+        for (int i = 0; i < MOVIES; i++) {
+            movieIds[i] = i + 1;
+        }
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = (long) i + 1;
+        }
+
+        // Speed: the default window sizes, slices advanced by this thread
+        // Speed: the default window sizes, slices advanced by this thread. The baseline runs the same
+        // loop without record(), to subtract what reading the precomputed requests costs
+        HotKeyTracker tracker = new HotKeyTracker(6, 100, 4, 2048, 100, new SimpleMeterRegistry());
+        run(null, threads, seconds, movies, users, routes, movieIds, userIds);
+        double baseline = nanosPerCall(threads, seconds,
+                run(null, threads, seconds, movies, users, routes, movieIds, userIds));
+        run(tracker, threads, seconds, movies, users, routes, movieIds, userIds);
+        LongAdder calls = run(tracker, threads, seconds, movies, users, routes, movieIds, userIds);
+        double nanos = nanosPerCall(threads, seconds, calls);
+        System.out.printf("threads=%d cpus=%d record() calls=%d ns/op=%.1f (loop %.1f, record() %.1f)%n",
+                threads, Runtime.getRuntime().availableProcessors(), calls.sum(), nanos, baseline, nanos - baseline);
+
+        // Accuracy: one window's worth of requests (6 slices), compared with exact counts
+        HotKeyTracker window = new HotKeyTracker(6, 100, 4, 2048, 100, new SimpleMeterRegistry());
+        Map<Integer, Long> exactMovies = new HashMap<>();
+        Map<Long, Long> exactUsers = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            window.record(ROUTES[routes[i]], movieIds[movies[i]], userIds[users[i]]);
+            exactMovies.merge(movieIds[movies[i]], 1L, Long::sum);
+            exactUsers.merge(userIds[users[i]], 1L, Long::sum);
+            if ((i + 1) % (SAMPLES / 6) == 0 && (i + 1) / (SAMPLES / 6) < 6) {
+                window.advance();
+            }
+        }
+        HotKeyTracker.Report report = window.report(10);
+        System.out.printf("top 10 movies: %d/10 exact, top 10 users: %d/10 exact%n",
+                overlap(report.movies(), exactMovies), overlap(report.users(), exactUsers));
+        System.out.printf("%-12s %12s %12s%n", "movie", "estimated", "exact");
+        for (HotKeyTracker.HotKey key : report.movies()) {
+            System.out.printf("%-12s %12d %12d%n", key.key(), key.requests(), exactMovies.get(Integer.valueOf(key.key())));
+        }
+    }
+
+    private static LongAdder run(HotKeyTracker tracker, int threads, int seconds, int[] movies, int[] users,
+                                 int[] routes, Integer[] movieIds, Long[] userIds) throws InterruptedException {
+        LongAdder calls = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * (SAMPLES / threads);
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                long sink = 0;
+                int i = offset;
+                while (true) {
+                    for (int batch = 0; batch < 1024; batch++) {
+                        i = (i + 1) & (SAMPLES - 1);
+                        if (tracker != null) {
+                            tracker.record(ROUTES[routes[i]], movieIds[movies[i]], userIds[users[i]]);
+                        } else {
+                            sink += ROUTES[routes[i]].hashCode() + movieIds[movies[i]] + userIds[users[i]];
+                        }
+                    }
+                    count += 1024;
+                    if (System.nanoTime() >= deadline) {
+                        break;
+                    }
+                }
+                calls.add(count + (sink == 42 ? 1 : 0));
+                done.countDown();
+            });
+            thread.start();
+        }
+        while (done.getCount() > 0) {
+            Thread.sleep(100);
+            if (tracker != null) {
+                tracker.advance();
+            }
+        }
+        if (tracker != null && tracker.report(1).routes().isEmpty()) {
+            throw new IllegalStateException("Nothing recorded");
+        }
+        return calls;
+    }
+
+    /**
+     * CPU time per call: threads beyond the available processors take turns rather than adding time
+     */
+    private static double nanosPerCall(int threads, int seconds, LongAdder calls) {
+        int running = Math.min(threads, Runtime.getRuntime().availableProcessors());
+        return (double) seconds * 1e9 * running / calls.sum();
+    }
+
+    /**
+     * Zero-based ranks drawn from a Zipf distribution over n keys (rank 0 most frequent), shuffled
+     * so that popularity does not follow the key order
+     */
+    private static int[] zipf(int n, int samples, SplittableRandom random) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, SKEW);
+            cumulative[rank] = sum;
+        }
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        int[] drawn = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int rank = java.util.Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            drawn[i] = permutation[rank < 0 ? -rank - 1 : rank];
+        }
+        return drawn;
+    }
+
+    private static <K> int overlap(List<HotKeyTracker.HotKey> reported, Map<K, Long> exact) {
+        List<Map.Entry<K, Long>> ranked = new ArrayList<>(exact.entrySet());
+        ranked.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+        Set<String> top = new HashSet<>();
+        for (int i = 0; i < Math.min(10, ranked.size()); i++) {
+            top.add(String.valueOf(ranked.get(i).getKey()));
+        }
+        return (int) reported.stream().filter(key -> top.contains(key.key())).count();
+    }
+
+}
@@ -0,0 +1,142 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.AuthResponse;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.UserResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JsonWriterAllocationBenchmark
+ *
+ * Bytes allocated and time per JSON response body for the stock MappingJackson2HttpMessageConverter,
+ * with and without the Blackbird module. The
+ * converters are called the way Spring MVC calls them (declared generic type, application/json)
+ * and write to a discarding stream, so only serialization is measured. Allocation is read from the
+ * JVM's per-thread counter (com.sun.management.ThreadMXBean), after a warm-up.
+ *
+ * Payloads: the login response (ApiResponse<AuthResponse>; also as the nested maps AuthController
+ * returned before its typed DTOs) and a review list (ApiResponse<List<ReviewResponse>>).
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/JsonWriterAllocationBenchmark.java 50 200000
+ *   arguments: reviews in the list (50), measured writes per case (200000)
+ */
+public class JsonWriterAllocationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int reviews = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int writes = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        ApiResponse<AuthResponse> login = ApiResponse.success("Login successful", new AuthResponse(
+                "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJhbGljZUBleGFtcGxlLmNvbSJ9.signature",
+                new UserResponse(42L, "alice", "alice@example.com")));
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", 42L);
+        user.put("username", "alice");
+        user.put("email", "alice@example.com");
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("token", login.getData().getToken());
+        data.put("user", user);
+        ApiResponse<Map<String, Object>> loginMap = ApiResponse.success("Login successful", data);
+        List<ReviewResponse> list = new ArrayList<>();
+        for (int i = 0; i < reviews; i++) {
+            list.add(new ReviewResponse((long) i, 550, i % 5 + 1, "A review comment of ordinary length, number " + i,
+                    LocalDateTime.of(2024, 5, 1, 12, 0).plusMinutes(i), "user" + i, (long) i));
+        }
+        ApiResponse<List<ReviewResponse>> reviewList = ApiResponse.success(list);
+
+        Type loginType = JsonWriterAllocationBenchmark.class.getDeclaredMethod("login").getGenericReturnType();
+        Type loginMapType = JsonWriterAllocationBenchmark.class.getDeclaredMethod("loginMap").getGenericReturnType();
+        Type reviewListType = JsonWriterAllocationBenchmark.class.getDeclaredMethod("reviewList").getGenericReturnType();
+
+        MappingJackson2HttpMessageConverter stock = new MappingJackson2HttpMessageConverter(mapper(false));
+        MappingJackson2HttpMessageConverter stockBlackbird = new MappingJackson2HttpMessageConverter(mapper(true));
+
+        System.out.printf("reviews=%d writes=%d%n", reviews, writes);
+        System.out.printf("%-36s %-18s %11s %10s%n", "payload", "converter", "bytes/write", "ns/write");
+        measure("login (maps, before typed DTOs)", "stock", stock, loginMap, loginMapType, writes);
+        for (Object[] payload : new Object[][]{{"login", login, loginType}, {"review list", reviewList, reviewListType}}) {
+            String name = (String) payload[0];
+            measure(name, "stock", stock, payload[1], (Type) payload[2], writes);
+            measure(name, "stock + Blackbird", stockBlackbird, payload[1], (Type) payload[2], writes);
+        }
+    }
+
+    private static ApiResponse<AuthResponse> login() {
+        return null;
+    }
+
+    private static ApiResponse<Map<String, Object>> loginMap() {
+        return null;
+    }
+
+    private static ApiResponse<List<ReviewResponse>> reviewList() {
+        return null;
+    }
+
+    /**
+     * Mapper as Spring Boot builds it (java.time as ISO strings), optionally with Blackbird
+     */
+    private static ObjectMapper mapper(boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private static void measure(String payload, String name, MappingJackson2HttpMessageConverter converter,
+                                Object body, Type type, int writes) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Discarding message = new Discarding();
+        for (int i = 0; i < writes; i++) {
+            converter.write(body, type, MediaType.APPLICATION_JSON, message);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < writes; i++) {
+            converter.write(body, type, MediaType.APPLICATION_JSON, message);
+        }
+        long elapsed = System.nanoTime() - started;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        System.out.printf("%-36s %-18s %11d %10d%n", payload, name, allocated / writes, elapsed / writes);
+    }
+
+    /**
+     * Response stand-in whose body is thrown away; headers are set once, like a real response
+     */
+    private static final class Discarding implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body = OutputStream.nullOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+import com.moviedash.cache.RecentReviewRing;
+import com.moviedash.dto.response.ReviewResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LatestReviewsBenchmark
+ *
+ * Contention benchmark for RecentReviewRing, the store behind GET /reviews/latest: many reader
+ * threads page through the ring while writer threads append and delete reviews. A lock-based ring
+ * (synchronized deque, copy on read) runs the same load as a baseline.
+ *
+ * Usage (single-file program, run from backend/ after mvn compile):
+ *   java -cp target/classes bench/LatestReviewsBenchmark.java [readers] [writers] [seconds] [writes/s per writer] [p99 target us]
+ *   defaults: 64 readers, 4 writers, 10 s per run, 200 writes/s per writer (0 = unthrottled), 10 us
+ *
+ * Reports reads/s, writes/s and read latency percentiles in microseconds; exits with status 1 if
+ * the lock-free ring misses the p99 target in any run.
+ */
+public class LatestReviewsBenchmark {
+
+    private static final int CAPACITY = 200;
+    private static final int PAGE_SIZE = 20;
+    private static final long[] BUCKETS_US = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 5000, 20000, Long.MAX_VALUE};
+
+    interface Store {
+        void append(ReviewResponse review);
+
+        void remove(Long reviewId);
+
+        /**
+         * @return next cursor, or null on the last page
+         */
+        Long page(Long before, int limit);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int writeRate = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        long targetP99 = args.length > 4 ? Long.parseLong(args[4]) : 10;
+
+        System.out.printf("readers=%d writers=%d seconds=%d writes/s per writer=%s capacity=%d page=%d cpus=%d%n",
+                readers, writers, seconds, writeRate == 0 ? "unthrottled" : writeRate, CAPACITY, PAGE_SIZE,
+                Runtime.getRuntime().availableProcessors());
+
+        boolean met = true;
+        met &= run("lock-free, readers only", ringStore(), readers, 0, seconds, writeRate, targetP99);
+        met &= run("lock-free, with writers", ringStore(), readers, writers, seconds, writeRate, targetP99);
+        run("synchronized, with writers", new LockedStore(), readers, writers, seconds, writeRate, -1);
+        System.exit(met ? 0 : 1);
+    }
+
+    private static Store ringStore() {
+        RecentReviewRing ring = new RecentReviewRing(CAPACITY, 0);
+        return new Store() {
+            public void append(ReviewResponse review) {
+                ring.append(review);
+            }
+
+            public void remove(Long reviewId) {
+                ring.remove(reviewId);
+            }
+
+            public Long page(Long before, int limit) {
+                return ring.page(before, limit).nextCursor();
+            }
+        };
+    }
+
+    /**
+     * @param targetP99 p99 target in microseconds, or -1 for a baseline run without a target
+     * @return whether the target was met
+     */
+    private static boolean run(String name, Store store, int readers, int writers, int seconds,
+                               int writeRate, long targetP99) throws InterruptedException {
+        for (long id = 0; id < CAPACITY; id++) {
+            store.append(review(id));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        LongAdder[] latency = new LongAdder[BUCKETS_US.length];
+        for (int i = 0; i < latency.length; i++) {
+            latency[i] = new LongAdder();
+        }
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(readers + writers);
+
+        for (int r = 0; r < readers; r++) {
+            Thread reader = new Thread(() -> {
+                Long cursor = null;
+                while (System.nanoTime() - deadline < 0) {
+                    long start = System.nanoTime();
+                    cursor = store.page(cursor, PAGE_SIZE);
+                    long elapsedUs = (System.nanoTime() - start) / 1_000;
+                    int bucket = 0;
+                    while (elapsedUs > BUCKETS_US[bucket]) {
+                        bucket++;
+                    }
+                    latency[bucket].increment();
+                    reads.increment();
+                }
+                done.countDown();
+            }, "reader-" + r);
+            reader.setDaemon(true);
+            reader.start();
+        }
+        for (int w = 0; w < writers; w++) {
+            long firstId = 1_000_000L * (w + 1);
+            Thread writer = new Thread(() -> {
+                long pauseNanos = writeRate == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / writeRate;
+                long id = firstId;
+                while (System.nanoTime() - deadline < 0) {
+                    // Mostly creates, with an update and a delete mixed in like real traffic
+                    store.append(review(id));
+                    if (id % 10 == 3) {
+                        store.append(review(id - 1));
+                    } else if (id % 10 == 7) {
+                        store.remove(id - 2);
+                    }
+                    id++;
+                    writes.increment();
+                    if (pauseNanos > 0) {
+                        LockSupport.parkNanos(pauseNanos);
+                    }
+                }
+                done.countDown();
+            }, "writer-" + w);
+            writer.setDaemon(true);
+            writer.start();
+        }
+        done.await();
+
+        long total = reads.sum();
+        long p99 = percentile(latency, total, 0.99);
+        System.out.printf("%-28s reads/s=%,.0f writes/s=%,.0f latency p50%s p99%s p99.9%s%s%n", name,
+                (double) total / seconds, (double) writes.sum() / seconds,
+                label(percentile(latency, total, 0.50)), label(p99), label(percentile(latency, total, 0.999)),
+                targetP99 < 0 ? "" : p99 <= targetP99 ? "  (target <=" + targetP99 + "us met)" : "  (target <=" + targetP99 + "us MISSED)");
+        return targetP99 < 0 || p99 <= targetP99;
+    }
+
+    private static long percentile(LongAdder[] latency, long total, double p) {
+        long seen = 0;
+        for (int i = 0; i < latency.length; i++) {
+            seen += latency[i].sum();
+            if (seen >= Math.ceil(total * p)) {
+                return BUCKETS_US[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static String label(long bucket) {
+        return bucket == Long.MAX_VALUE ? ">20000us" : "<=" + bucket + "us";
+    }
+
+    private static ReviewResponse review(long id) {
+        return new ReviewResponse(id, (int) (id % 5000), (int) (id % 5) + 1, "Benchmark review " + id,
+                LocalDateTime.now(), "bench" + (id % 1000), id % 1000);
+    }
+
+    /**
+     * Baseline: bounded deque under one lock; every read copies the page it returns
+     */
+    private static final class LockedStore implements Store {
+
+        private final ArrayDeque<ReviewResponse> reviews = new ArrayDeque<>();
+
+        public synchronized void append(ReviewResponse review) {
+            reviews.removeIf(existing -> existing.getId().equals(review.getId()));
+            reviews.addFirst(review);
+            if (reviews.size() > CAPACITY) {
+                reviews.removeLast();
+            }
+        }
+
+        public synchronized void remove(Long reviewId) {
+            reviews.removeIf(existing -> existing.getId().equals(reviewId));
+        }
+
+        public synchronized Long page(Long before, int limit) {
+            List<ReviewResponse> page = new ArrayList<>(limit);
+            int skip = before == null ? 0 : before.intValue();
+            Iterator<ReviewResponse> iterator = reviews.iterator();
+            for (int i = 0; iterator.hasNext() && page.size() < limit; i++) {
+                ReviewResponse review = iterator.next();
+                if (i >= skip) {
+                    page.add(review);
+                }
+            }
+            int next = skip + page.size();
+            return next < reviews.size() ? (long) next : null;
+        }
+
+    }
+
+}
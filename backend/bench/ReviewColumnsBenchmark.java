@@ -0,0 +1,149 @@
+import com.moviedash.analytics.RatingAggregation;
+import com.moviedash.analytics.ReviewColumns;
+import com.moviedash.analytics.ReviewRow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ReviewColumnsBenchmark
+ *
+ * Memory footprint and scan throughput of the analytics snapshot behind GET /admin/analytics/ratings.
+ *
+ * Usage (single-file program, run from backend/ after mvn compile):
+ *   java -Xmx2g -cp target/classes bench/ReviewColumnsBenchmark.java [rows] [iterations] [threads...]
+ *   defaults: 5,000,000 synthetic reviews, 10 timed scans per query after 3 warm-up scans,
+ *   thread counts 1 and the number of CPUs
+ *
+ * Reports:
+ * - bytes per review in ReviewColumns vs. the same rows held as ReviewRow objects (heap delta)
+ * - for every grouping: scan time and rows/s in total and per thread; with more threads than CPUs
+ *   the per-core figure is total / CPUs
+ */
+public class ReviewColumnsBenchmark {
+
+    private static final int MOVIES = 20_000;
+    private static final int USERS = 200_000;
+    private static final int DAYS = 3 * 365;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            threadCounts.add(Integer.parseInt(args[i]));
+        }
+        int cpus = Runtime.getRuntime().availableProcessors();
+        if (threadCounts.isEmpty()) {
+            threadCounts.add(1);
+            if (cpus > 1) {
+                threadCounts.add(cpus);
+            }
+        }
+
+        System.out.printf("rows=%,d movies=%,d users=%,d days=%d cpus=%d%n", rows, MOVIES, USERS, DAYS, cpus);
+        ReviewColumns columns = columns(rows);
+        System.out.printf("columns: %,d bytes allocated, %d bytes/review (capacity %,d)%n",
+                columns.allocatedBytes(), ReviewColumns.BYTES_PER_ROW, columns.capacity());
+        rowObjectFootprint(Math.min(rows, 1_000_000));
+
+        LocalDate end = LocalDate.of(2026, 1, 1);
+        int lastMonth = (int) end.toEpochDay();
+        RatingAggregation.Filter[] filters = {
+                RatingAggregation.Filter.NONE,
+                new RatingAggregation.Filter(550, null, null, null),
+                new RatingAggregation.Filter(null, null, lastMonth - 30, lastMonth)
+        };
+        String[] filterNames = {"all rows", "movieId=550", "last 30 days"};
+
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            RatingAggregation aggregation = new RatingAggregation(pool);
+            System.out.printf("%nthreads=%d%n", threads);
+            for (RatingAggregation.GroupBy groupBy : RatingAggregation.GroupBy.values()) {
+                for (int f = 0; f < filters.length; f++) {
+                    if (groupBy != RatingAggregation.GroupBy.MOVIE && f == 1 && groupBy != RatingAggregation.GroupBy.MONTH) {
+                        continue;
+                    }
+                    run(aggregation, columns, groupBy, filters[f], filterNames[f], iterations, threads, cpus);
+                }
+            }
+            pool.shutdown();
+        }
+    }
+
+    private static void run(RatingAggregation aggregation, ReviewColumns columns, RatingAggregation.GroupBy groupBy,
+                            RatingAggregation.Filter filter, String filterName, int iterations, int threads, int cpus) {
+        long groups = 0;
+        for (int i = 0; i < 3; i++) {
+            groups = aggregation.aggregate(columns, groupBy, filter, 1000).getGroups().size();
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            aggregation.aggregate(columns, groupBy, filter, 1000);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        double meanSeconds = total / 1e9 / iterations;
+        double rowsPerSecond = columns.size() / meanSeconds;
+        System.out.printf("  by=%-6s %-13s groups=%-5d mean=%7.1f ms best=%7.1f ms  %,6.0f M rows/s  %,6.0f M rows/s/core%n",
+                groupBy.name().toLowerCase(), filterName, groups, meanSeconds * 1e3, best / 1e6,
+                rowsPerSecond / 1e6, rowsPerSecond / Math.min(threads, cpus) / 1e6);
+    }
+
+    private static ReviewColumns columns(int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        int firstDay = (int) LocalDate.of(2026, 1, 1).toEpochDay() - DAYS;
+        short[] cohortByUser = new short[USERS];
+        for (int user = 0; user < USERS; user++) {
+            cohortByUser[user] = ReviewColumns.cohortOf(LocalDate.ofEpochDay(firstDay - 365 + random.nextInt(DAYS + 365)));
+        }
+        ReviewColumns columns = new ReviewColumns(rows, LocalDateTime.now());
+        for (int row = 0; row < rows; row++) {
+            // Days increase with the row like real inserts; popular movies are reviewed more often
+            int day = firstDay + (int) ((long) row * DAYS / rows);
+            int movieId = popular(random, MOVIES);
+            int user = random.nextInt(USERS);
+            int rating = Math.min(5, 1 + random.nextInt(3) + random.nextInt(3));
+            columns.tryAppend(movieId, rating, day, user, cohortByUser[user]);
+        }
+        return columns;
+    }
+
+    private static int popular(SplittableRandom random, int bound) {
+        double u = random.nextDouble();
+        return 1 + (int) (bound * u * u * u);
+    }
+
+    /**
+     * Heap used by the same reviews as one object per row, for comparison with the columns
+     */
+    private static void rowObjectFootprint(int rows) {
+        Runtime runtime = Runtime.getRuntime();
+        LocalDateTime userCreatedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        long before = usedHeap(runtime);
+        List<ReviewRow> objects = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            objects.add(new ReviewRow((long) row, row % MOVIES, 1 + row % 5,
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(row), (long) (row % USERS), userCreatedAt));
+        }
+        long bytes = usedHeap(runtime) - before;
+        System.out.printf("row objects (ReviewRow + LocalDateTime, %,d rows): ~%d bytes/review%n",
+                objects.size(), bytes / rows);
+    }
+
+    private static long usedHeap(Runtime runtime) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,162 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.entity.User;
+import com.moviedash.review.GroupCommitReviewWriter;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * ReviewGroupCommitBenchmark
+ *
+ * Review writes per second and their latency through the direct path (one transaction per write,
+ * ReviewService.createOrUpdateReview) or the group-commit writer (reviews.group-commit.enabled).
+ * Boots the application without a web server on a fresh H2 file database, registers one user per
+ * thread, and has every thread save reviews of random movies for the given time, like a premiere:
+ * many users posting at once, some changing their review again; a warm-up of the same length comes
+ * first. Afterwards each user's reviews are
+ * read back and compared with the last rating that user sent per movie (the last write must win).
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/ReviewGroupCommitBenchmark.java direct 32 10
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/ReviewGroupCommitBenchmark.java group 32 10 2ms
+ *   arguments: mode direct|group, threads (32), seconds (10), reviews.group-commit.max-delay (2ms)
+ */
+public class ReviewGroupCommitBenchmark {
+
+    private static final int MOVIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "group";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String maxDelay = args.length > 3 ? args[3] : "2ms";
+
+        Path work = Files.createTempDirectory("review-bench");
+        SpringApplication application = new SpringApplication(MovieDashApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        ConfigurableApplicationContext context = application.run(
+                "--spring.datasource.url=" + System.getProperty("bench.db", "jdbc:h2:file:" + work.resolve("db")),
+                "--spring.datasource.hikari.maximum-pool-size=" + Math.min(threads, 10),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.moviedash=WARN",
+                "--reviews.group-commit.enabled=" + mode.equals("group"),
+                "--reviews.group-commit.max-delay=" + maxDelay);
+        try {
+            ReviewService reviewService = context.getBean(ReviewService.class);
+            GroupCommitReviewWriter writer = mode.equals("group") ? context.getBean(GroupCommitReviewWriter.class) : null;
+            UserService userService = context.getBean(UserService.class);
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                users.add(userService.register("bench" + i, "bench" + i + "@example.com", "password"));
+            }
+
+            List<Map<Integer, Integer>> lastRatings = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                lastRatings.add(new HashMap<>());
+            }
+            // Warm-up (JIT, connection pool, caches) for as long as the measurement, then measure
+            write(reviewService, writer, users, lastRatings, seconds);
+            long[] all = write(reviewService, writer, users, lastRatings, seconds);
+
+            int mismatches = 0;
+            for (int t = 0; t < threads; t++) {
+                Map<Integer, Integer> stored = new HashMap<>();
+                for (ReviewResponse review : reviewService.getUserReviews(users.get(t).getId())) {
+                    if (stored.put(review.getMovieId(), review.getRating()) != null) {
+                        mismatches++;
+                    }
+                }
+                if (!stored.equals(lastRatings.get(t))) {
+                    mismatches++;
+                }
+            }
+
+            System.out.printf("mode=%s threads=%d max-delay=%s: %,.0f writes/s, p50 %.2f ms, p99 %.2f ms, "
+                            + "users whose stored reviews differ from their last writes: %d%n",
+                    mode, threads, mode.equals("group") ? maxDelay : "-", all.length / (double) seconds,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, mismatches);
+            if (writer != null) {
+                // Warm-up batches included
+                MeterRegistry meters = context.getBean(MeterRegistry.class);
+                Timer commits = meters.get("reviews.group-commit.commit").timer();
+                System.out.printf("batches=%d mean size %.1f, mean commit %.2f ms%n", commits.count(),
+                        meters.get("reviews.group-commit.batch.size").summary().mean(),
+                        commits.mean(java.util.concurrent.TimeUnit.MILLISECONDS));
+            }
+        } finally {
+            context.close();
+            deleteRecursively(work);
+        }
+    }
+
+    /**
+     * Every thread saves reviews as its user for the given time; returns the sorted latencies in nanoseconds
+     */
+    private static long[] write(ReviewService reviewService, GroupCommitReviewWriter writer, List<User> users,
+                                List<Map<Integer, Integer>> lastRatings, int seconds) throws InterruptedException {
+        int threads = users.size();
+        long[][] latencies = new long[threads][];
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            User user = users.get(t);
+            Map<Integer, Integer> sent = lastRatings.get(t);
+            int thread = t;
+            new Thread(() -> {
+                long[] samples = new long[1 << 16];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    int movieId = ThreadLocalRandom.current().nextInt(MOVIES) + 1;
+                    int rating = ThreadLocalRandom.current().nextInt(5) + 1;
+                    String comment = "Seen at the premiere, " + rating + " stars";
+                    long started = System.nanoTime();
+                    ReviewResponse saved = writer != null
+                            ? writer.createOrUpdateReview(user, movieId, rating, comment)
+                            : reviewService.createOrUpdateReview(user, movieId, rating, comment);
+                    if (n == samples.length) {
+                        samples = Arrays.copyOf(samples, n * 2);
+                    }
+                    samples[n++] = System.nanoTime() - started;
+                    if (!saved.getRating().equals(rating)) {
+                        throw new IllegalStateException("Response does not match the write");
+                    }
+                    sent.put(movieId, rating);
+                }
+                latencies[thread] = Arrays.copyOf(samples, n);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+import com.moviedash.shard.ShardRing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShardRingDistribution
+ *
+ * Checks the consistent-hash ring behind sharding: how evenly sequential user IDs spread over the
+ * shards, and how many users move when one shard is added (ideally 1 / (shards + 1) of them).
+ *
+ * Usage (single-file program, run from backend/ after mvn compile):
+ *   java -cp target/classes bench/ShardRingDistribution.java [users] [virtual nodes] [max shards]
+ *   defaults: 1,000,000 users, 128 virtual nodes, up to 8 shards
+ *
+ * Prints, per shard count, the largest and smallest shard relative to a perfect split, the share
+ * of users moved by adding the next shard, and the lookup cost in nanoseconds.
+ */
+public class ShardRingDistribution {
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int virtualNodes = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+        int maxShards = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        System.out.printf("%d users, %d virtual nodes%n", users, virtualNodes);
+        System.out.printf("%-7s %10s %10s %14s %12s%n", "shards", "max/ideal", "min/ideal", "moved (ideal)", "ns/lookup");
+        for (int count = 1; count <= maxShards; count++) {
+            List<Integer> shards = new ArrayList<>();
+            for (int shard = 0; shard < count; shard++) {
+                shards.add(shard);
+            }
+            ShardRing ring = new ShardRing(shards, virtualNodes);
+            ShardRing grown = ring.with(List.of(count));
+
+            int[] perShard = new int[count];
+            int moved = 0;
+            long started = System.nanoTime();
+            for (long userId = 1; userId <= users; userId++) {
+                int owner = ring.shardOf(userId);
+                perShard[owner]++;
+                if (grown.shardOf(userId) != owner) {
+                    moved++;
+                }
+            }
+            double nanosPerLookup = (System.nanoTime() - started) / (2.0 * users);
+
+            double ideal = (double) users / count;
+            int max = 0;
+            int min = Integer.MAX_VALUE;
+            for (int n : perShard) {
+                max = Math.max(max, n);
+                min = Math.min(min, n);
+            }
+            System.out.printf("%-7d %10.3f %10.3f %6.1f%% (%4.1f%%) %11.1f%n",
+                    count, max / ideal, min / ideal,
+                    100.0 * moved / users, 100.0 / (count + 1), nanosPerLookup);
+        }
+    }
+
+}
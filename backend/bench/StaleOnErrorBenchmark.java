@@ -0,0 +1,187 @@
+import com.moviedash.MovieDashApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StaleOnErrorBenchmark
+ *
+ * Latency of GET /reviews/movie/{movieId} while the database is slow or failing, with the public
+ * read circuit breaker off and on (public-reads.enabled). Boots the application twice on in-memory
+ * H2, seeds reviews, reads every movie once so the stale copies exist, then injects the fault into
+ * every statement the application prepares and has concurrent clients read random movies.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/StaleOnErrorBenchmark.java slow 2000 16 20
+ *   arguments: fault slow|fail (slow), delay per statement in ms (2000), clients (16), seconds (20)
+ *
+ * Prints p50 / p99 / max latency and how many answers were fresh, stale (Warning header) or errors.
+ */
+public class StaleOnErrorBenchmark {
+
+    private static final int MOVIES = 20;
+    private static final int USERS = 10;
+
+    private static volatile boolean faulty;
+
+    public static void main(String[] args) throws Exception {
+        String fault = args.length > 0 ? args[0] : "slow";
+        long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        System.out.printf("fault=%s delay=%d ms clients=%d seconds=%d%n", fault, delayMillis, clients, seconds);
+        for (boolean breaker : new boolean[]{false, true}) {
+            run(breaker, fault, delayMillis, clients, seconds);
+        }
+    }
+
+    private static void run(boolean breaker, String fault, long delayMillis, int clients, int seconds) throws Exception {
+        faulty = false;
+        SpringApplication application = new SpringApplication(MovieDashApplication.class);
+        application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        ? faultInjecting(dataSource, fault, delayMillis) : bean;
+            }
+        }));
+        ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:stale-" + breaker + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--limiter.enabled=false",
+                "--public-reads.enabled=" + breaker,
+                "--logging.level.root=ERROR",
+                "--logging.level.org.springframework.security=ERROR",
+                "--logging.level.com.moviedash=ERROR");
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (int u = 0; u < USERS; u++) {
+                String body = http.send(post(base + "/auth/register", null,
+                        "{\"username\":\"stale" + u + "\",\"email\":\"stale" + u + "@example.com\",\"password\":\"secret1\"}"),
+                        HttpResponse.BodyHandlers.ofString()).body();
+                String token = body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+                for (int movie = 1; movie <= MOVIES; movie++) {
+                    http.send(post(base + "/reviews", token, "{\"movieId\":" + movie + ",\"rating\":4,\"comment\":\"Seeded\"}"),
+                            HttpResponse.BodyHandlers.discarding());
+                }
+            }
+            for (int movie = 1; movie <= MOVIES; movie++) {
+                http.send(HttpRequest.newBuilder(URI.create(base + "/reviews/movie/" + movie)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+
+            faulty = true;
+            AtomicLong fresh = new AtomicLong();
+            AtomicLong stale = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            List<long[]> latencies = new ArrayList<>();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            CountDownLatch done = new CountDownLatch(clients);
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 20];
+                int[] count = new int[1];
+                latencies.add(samples);
+                Thread client = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline && count[0] < samples.length - 1) {
+                            int movie = ThreadLocalRandom.current().nextInt(MOVIES) + 1;
+                            long started = System.nanoTime();
+                            HttpResponse<Void> response = http.send(
+                                    HttpRequest.newBuilder(URI.create(base + "/reviews/movie/" + movie)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            samples[1 + count[0]++] = System.nanoTime() - started;
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else if (response.headers().firstValue("Warning").isPresent()) {
+                                stale.incrementAndGet();
+                            } else {
+                                fresh.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        samples[0] = count[0];
+                        done.countDown();
+                    }
+                });
+                client.start();
+            }
+            done.await();
+            faulty = false;
+
+            long[] all = latencies.stream()
+                    .flatMapToLong(samples -> Arrays.stream(samples, 1, 1 + (int) samples[0]))
+                    .sorted().toArray();
+            System.out.printf("breaker=%-5s %6d reads (%.0f/s)  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  "
+                            + "fresh %d, stale %d, errors %d%n",
+                    breaker, all.length, all.length / (double) seconds,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6,
+                    fresh.get(), stale.get(), errors.get());
+        } finally {
+            faulty = false;
+            context.close();
+        }
+    }
+
+    /**
+     * Delays (slow) or fails (fail) every statement prepared while the fault is on
+     */
+    private static DataSource faultInjecting(DataSource dataSource, String fault, long delayMillis) {
+        return (DataSource) Proxy.newProxyInstance(StaleOnErrorBenchmark.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    if (result instanceof Connection connection) {
+                        return Proxy.newProxyInstance(StaleOnErrorBenchmark.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                (p, m, a) -> {
+                                    if (faulty && m.getName().startsWith("prepare")) {
+                                        Thread.sleep(delayMillis);
+                                        if (fault.equals("fail")) {
+                                            throw new SQLTransientConnectionException("Injected failure");
+                                        }
+                                    }
+                                    return invoke(connection, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static HttpRequest post(String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+}
@@ -0,0 +1,173 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.entity.User;
+import com.moviedash.feed.ReviewFeed;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StalledStreamBenchmark
+ *
+ * Live review feed (GET /reviews/movie/{movieId}/stream) with clients that open a stream and never
+ * read it, next to clients that read normally. Boots the application on in-memory H2 and publishes
+ * review updates with large comments, so the stalled connections' socket buffers fill and writes to
+ * them block. Runs twice: with the write deadline off (write-timeout of an hour, no replacement
+ * threads: every blocked write keeps its send thread, as before the deadline existed) and with the
+ * default settings.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/StalledStreamBenchmark.java 16 8 20 20
+ *   arguments: reading clients (16), non-reading clients (8), events/s (20), seconds (20)
+ *
+ * Prints events published, events received per reading client (fewest and mean), reading clients
+ * disconnected, and streams evicted (reviews.stream.evicted). Exits with status 1 if, with the default
+ * settings, a reading client was disconnected or missed events, or a non-reading client was not evicted.
+ */
+public class StalledStreamBenchmark {
+
+    private static final int MOVIE_ID = 550;
+
+    public static void main(String[] args) throws Exception {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int stalled = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int rate = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        System.out.printf("reading clients=%d non-reading clients=%d events/s=%d seconds=%d%n", readers, stalled, rate, seconds);
+        run(false, readers, stalled, rate, seconds);
+        boolean ok = run(true, readers, stalled, rate, seconds);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static boolean run(boolean deadline, int readers, int stalled, int rate, int seconds) throws Exception {
+        List<String> settings = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:stream-" + deadline + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--logging.level.root=ERROR",
+                "--logging.level.org.springframework.security=ERROR",
+                "--logging.level.com.moviedash=ERROR"));
+        if (!deadline) {
+            settings.add("--reviews.stream.write-timeout=3600000");
+            settings.add("--reviews.stream.stalled-write-threads=0");
+        }
+        ConfigurableApplicationContext context = new SpringApplication(MovieDashApplication.class)
+                .run(settings.toArray(String[]::new));
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            ReviewFeed feed = context.getBean(ReviewFeed.class);
+            ReviewService reviewService = context.getBean(ReviewService.class);
+            User user = context.getBean(UserService.class).register("streamer", "streamer@example.com", "secret1");
+
+            AtomicLong[] received = new AtomicLong[readers];
+            AtomicBoolean[] disconnected = new AtomicBoolean[readers];
+            for (int r = 0; r < readers; r++) {
+                received[r] = new AtomicLong();
+                disconnected[r] = new AtomicBoolean();
+                Socket socket = open(port, false);
+                sockets.add(socket);
+                AtomicLong count = received[r];
+                AtomicBoolean closed = disconnected[r];
+                Thread reader = new Thread(() -> read(socket, count, closed));
+                reader.setDaemon(true);
+                reader.start();
+            }
+            for (int s = 0; s < stalled; s++) {
+                sockets.add(open(port, true));
+            }
+            for (int attempt = 0; attempt < 100 && feed.subscriberCount() < readers + stalled; attempt++) {
+                Thread.sleep(50);
+            }
+
+            String comment = "x".repeat(8192);
+            long intervalNanos = 1_000_000_000L / rate;
+            long next = System.nanoTime();
+            long end = next + seconds * 1_000_000_000L;
+            int published = 0;
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+                reviewService.createOrUpdateReview(user, MOVIE_ID, published % 5 + 1, comment);
+                published++;
+                next += intervalNanos;
+            }
+            Thread.sleep(1000);
+
+            long fewest = Long.MAX_VALUE;
+            long total = 0;
+            int cutOff = 0;
+            for (int r = 0; r < readers; r++) {
+                fewest = Math.min(fewest, received[r].get());
+                total += received[r].get();
+                cutOff += disconnected[r].get() ? 1 : 0;
+            }
+            double evicted = context.getBean(MeterRegistry.class).get("reviews.stream.evicted").counter().count();
+            System.out.printf("write deadline=%-3s published %5d  received per reader: fewest %5d mean %7.1f  "
+                            + "readers disconnected %2d  evicted %2.0f  open streams %d%n",
+                    deadline ? "on" : "off", published, fewest, total / (double) readers, cutOff, evicted,
+                    feed.subscriberCount());
+            return fewest == published && cutOff == 0 && evicted >= stalled;
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            context.close();
+        }
+    }
+
+    /**
+     * Open a stream; a non-reading client gets a small receive buffer so the server's writes block soon
+     */
+    private static Socket open(int port, boolean stalled) throws IOException {
+        Socket socket = new Socket();
+        if (stalled) {
+            socket.setReceiveBufferSize(4096);
+        }
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /reviews/movie/" + MOVIE_ID + "/stream HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept: text/event-stream\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    /**
+     * Count event ids until the server closes the stream
+     */
+    private static void read(Socket socket, AtomicLong received, AtomicBoolean disconnected) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    received.incrementAndGet();
+                }
+            }
+            disconnected.set(true);
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                disconnected.set(true);
+            }
+        }
+    }
+
+}
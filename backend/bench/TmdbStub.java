@@ -0,0 +1,96 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TmdbStub
+ *
+ * Local stand-in for the TMDb API behind the movie_metadata store, for trying GET /favorites?expand=movie
+ * without credentials or network access.
+ *
+ * Usage (single-file program, no classpath needed):
+ *   java bench/TmdbStub.java [port] [latency ms] [missing every nth id]
+ *   defaults: port 18191, 200 ms per request, every 13th movie ID answers 404
+ *
+ * Then start the backend with
+ *   --tmdb.base-url=http://localhost:18191/3 --tmdb.api-key=stub
+ *
+ * Serves GET /3/movie/{id} with synthetic details and GET /stats with the request count and the
+ * highest number of requests it saw in flight at once (to check tmdb.max-concurrency). Every request
+ * is printed with the current in-flight count.
+ */
+public class TmdbStub {
+
+    private static final String[] GENRES = {"Action", "Comedy", "Drama", "Horror", "Science Fiction", "Thriller"};
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18191;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        int missingEvery = args.length > 2 ? Integer.parseInt(args[2]) : 13;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 256);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/3/movie/", exchange -> movie(exchange, latencyMillis, missingEvery));
+        server.createContext("/stats", exchange -> respond(exchange, 200, String.format(Locale.ROOT,
+                "{\"requests\":%d,\"inFlight\":%d,\"maxInFlight\":%d}", requests.get(), inFlight.get(), maxInFlight.get())));
+        server.start();
+        System.out.printf("TMDb stub on http://localhost:%d/3 (latency %d ms, 404 for every %dth id)%n",
+                port, latencyMillis, missingEvery);
+    }
+
+    private static void movie(HttpExchange exchange, long latencyMillis, int missingEvery) throws IOException {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String path = exchange.getRequestURI().getPath();
+            System.out.printf("%s (in flight: %d)%n", exchange.getRequestURI(), current);
+            int id;
+            try {
+                id = Integer.parseInt(path.substring("/3/movie/".length()));
+            } catch (NumberFormatException e) {
+                respond(exchange, 404, "{\"success\":false,\"status_code\":34}");
+                return;
+            }
+            Thread.sleep(latencyMillis);
+            if (missingEvery > 0 && id % missingEvery == 0) {
+                respond(exchange, 404, "{\"success\":false,\"status_code\":34,"
+                        + "\"status_message\":\"The resource you requested could not be found.\"}");
+                return;
+            }
+            LocalDate released = LocalDate.of(1950, 1, 1).plusDays(id * 37L % 27_000);
+            respond(exchange, 200, String.format(Locale.ROOT,
+                    "{\"id\":%d,\"title\":\"Stub Movie %d\",\"poster_path\":\"/stub%d.jpg\",\"release_date\":\"%s\","
+                            + "\"genres\":[{\"id\":%d,\"name\":\"%s\"},{\"id\":%d,\"name\":\"%s\"}],\"vote_average\":%.1f}",
+                    id, id, id, released, id % GENRES.length, GENRES[id % GENRES.length],
+                    (id + 1) % GENRES.length, GENRES[(id + 1) % GENRES.length], (id % 100) / 10.0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
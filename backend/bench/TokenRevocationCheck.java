@@ -0,0 +1,176 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.security.JwtUtil;
+import com.moviedash.service.TokenRevocationService;
+import com.moviedash.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * TokenRevocationCheck
+ *
+ * Checks TokenRevocationService and its Bloom filter:
+ * - False-positive rate of a filter sized like the service's (jwt.revocation.expected-entries and
+ *   false-positive-rate), filled with that many random jti values and probed with a million others
+ * - Logout on one node rejects the token there at once, and on a second node sharing the database
+ *   once jwt.revocation.sync-interval has passed
+ * - purgeExpired deletes revocations whose token has expired and keeps the live ones revoked
+ *
+ * Boots the application twice (two nodes) on one local H2 database with a short sync interval.
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/TokenRevocationCheck.java
+ *
+ * Prints one line per check; exits with status 1 if any of them fails.
+ */
+public class TokenRevocationCheck {
+
+    private static final long SYNC_MILLIS = 500;
+    private static final int PROBES = 1_000_000;
+
+    private static boolean passed = true;
+
+    public static void main(String[] args) throws Exception {
+        Path work = Files.createTempDirectory("revocation-check");
+        String url = "jdbc:h2:file:" + work.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE";
+        ConfigurableApplicationContext nodeA = start(url);
+        ConfigurableApplicationContext nodeB = start(url);
+        try {
+            falsePositiveRate(nodeA.getEnvironment());
+
+            HttpClient http = HttpClient.newHttpClient();
+            String a = "http://localhost:" + nodeA.getEnvironment().getProperty("local.server.port");
+            String b = "http://localhost:" + nodeB.getEnvironment().getProperty("local.server.port");
+            String body = http.send(HttpRequest.newBuilder(URI.create(a + "/auth/register"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"username\":\"revoker\",\"email\":\"revoker@example.com\",\"password\":\"secret1\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            String token = body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+            check("token accepted on node B before logout", status(http, b, token) == 200);
+            http.send(HttpRequest.newBuilder(URI.create(a + "/auth/logout"))
+                            .header("Authorization", "Bearer " + token)
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            int statusA = status(http, a, token);
+            check("token rejected on node A right after logout (" + statusA + ")", statusA == 401 || statusA == 403);
+            System.out.printf("info  node B right after logout: %d (accepted until its next sync)%n", status(http, b, token));
+            Thread.sleep(SYNC_MILLIS * 2 + 200);
+            int statusB = status(http, b, token);
+            check("token rejected on node B after " + SYNC_MILLIS + " ms sync interval (" + statusB + ")",
+                    statusB == 401 || statusB == 403);
+
+            purge(nodeA, url, token);
+        } finally {
+            nodeB.close();
+            nodeA.close();
+            deleteRecursively(work);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static void falsePositiveRate(Environment environment) {
+        int expected = environment.getRequiredProperty("jwt.revocation.expected-entries", Integer.class);
+        double configured = environment.getRequiredProperty("jwt.revocation.false-positive-rate", Double.class);
+        for (int fill : new int[]{expected, expected * 2}) {
+            BloomFilter filter = new BloomFilter(expected, configured);
+            for (int i = 0; i < fill; i++) {
+                filter.add(UUID.randomUUID().toString());
+            }
+            int hits = 0;
+            for (int i = 0; i < PROBES; i++) {
+                if (filter.mightContain(UUID.randomUUID().toString())) {
+                    hits++;
+                }
+            }
+            double rate = hits / (double) PROBES;
+            String name = String.format("false-positive rate with %,d of %,d expected entries: %.5f (configured %.5f)",
+                    fill, expected, rate, configured);
+            if (fill == expected) {
+                check(name, rate <= configured * 1.5);
+            } else {
+                // Past its size the rate degrades; rebuild() sizes the next filter for twice the live entries
+                System.out.println("info  " + name);
+            }
+        }
+    }
+
+    private static void purge(ConfigurableApplicationContext node, String url, String liveToken) throws Exception {
+        TokenRevocationService revocations = node.getBean(TokenRevocationService.class);
+        Claims live = node.getBean(JwtUtil.class).parseClaims(liveToken);
+        String shortLived = UUID.randomUUID().toString();
+        revocations.revoke(shortLived, LocalDateTime.now().plusSeconds(1));
+        check("short-lived revocation is revoked", revocations.isRevoked(shortLived));
+        Thread.sleep(1500);
+
+        revocations.purgeExpired();
+        check("expired revocation deleted from revoked_tokens", rows(url, shortLived) == 0);
+        check("live revocation kept in revoked_tokens", rows(url, live.getId()) == 1);
+        check("live token still revoked after the Bloom filter rebuild", revocations.isRevoked(live.getId()));
+        check("expired revocation no longer reported", !revocations.isRevoked(shortLived));
+    }
+
+    private static int rows(String url, String jti) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT COUNT(*) FROM revoked_tokens WHERE jti = '" + jti + "'")) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    private static int status(HttpClient http, String base, String token) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + "/reviews/user"))
+                        .header("Authorization", "Bearer " + token)
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplication(MovieDashApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--jwt.revocation.sync-interval=" + SYNC_MILLIS,
+                "--request-logging.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.moviedash=WARN");
+    }
+
+    private static void check(String name, boolean ok) {
+        passed &= ok;
+        System.out.printf("%-5s %s%n", ok ? "ok" : "FAIL", name);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+import com.moviedash.MovieDashApplication;
+import com.moviedash.service.FavoriteService;
+import com.moviedash.service.ReviewService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * UserListProjectionBenchmark
+ *
+ * Payload size and query time of a user's review and favorite lists in full and with the
+ * view=summary, fields= and view=count projections. Boots the application on a file-based H2
+ * database (so comments are read from disk), inserts the reviews and favorites of one user directly
+ * (comments of 50 to 1500 characters), then measures:
+ * - per HTTP variant: response bytes, median and p90 latency over loopback
+ * - per service call: median time of the query and mapping alone, without HTTP and JSON
+ * - the H2 plans of the count and summary queries
+ *
+ * Usage (single-file program, run from backend/ after mvn package; needs the dependencies):
+ *   mkdir -p target/bench-lib && (cd target/bench-lib && jar -xf ../movie-dash-backend-1.0.0.jar BOOT-INF/lib)
+ *   java -cp "target/classes:target/bench-lib/BOOT-INF/lib/*" bench/UserListProjectionBenchmark.java 10000 1000 50
+ *   arguments: reviews (10000), favorites (1000), calls per measurement (50)
+ *   -Dbench.db=<jdbc url> uses that database instead of a temporary H2 file
+ */
+public class UserListProjectionBenchmark {
+
+    private static final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        int reviews = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int favorites = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int calls = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        Path directory = Files.createTempDirectory("projection-bench");
+        String url = System.getProperty("bench.db", "jdbc:h2:file:" + directory.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE");
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplication(MovieDashApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--limiter.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.moviedash=WARN");
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            String body = send(HttpRequest.newBuilder(URI.create(base + "/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"projection\",\"email\":\"projection@example.com\",\"password\":\"secret1\"}"))
+                    .build()).body();
+            String token = body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+            Long userId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'projection@example.com'", Long.class);
+            seed(jdbc, userId, reviews, favorites);
+            System.out.printf("reviews=%d favorites=%d calls=%d db=%s%n", reviews, favorites, calls, url);
+
+            System.out.printf("%n%-40s %10s %10s %10s%n", "HTTP", "bytes", "p50 ms", "p90 ms");
+            for (String path : List.of("/reviews/user", "/reviews/user?view=summary", "/reviews/user?fields=movieId,rating",
+                    "/reviews/user?view=count", "/favorites", "/favorites?view=summary", "/favorites?fields=movieId",
+                    "/favorites?view=count")) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Authorization", "Bearer " + token).build();
+                int bytes = send(request).body().getBytes().length;
+                double[] millis = time(calls, () -> send(request));
+                System.out.printf("%-40s %10d %10.2f %10.2f%n", "GET " + path, bytes, percentile(millis, 0.5), percentile(millis, 0.9));
+            }
+
+            ReviewService reviewService = context.getBean(ReviewService.class);
+            FavoriteService favoriteService = context.getBean(FavoriteService.class);
+            System.out.printf("%n%-40s %10s %10s%n", "Query (service call)", "p50 ms", "p90 ms");
+            query("ReviewService.getUserReviews", calls, () -> reviewService.getUserReviews(userId));
+            query("getUserReviewFields(SUMMARY_FIELDS)", calls,
+                    () -> reviewService.getUserReviewFields(userId, ReviewService.SUMMARY_FIELDS));
+            query("getUserReviewFields(movieId,rating)", calls,
+                    () -> reviewService.getUserReviewFields(userId, List.of("movieId", "rating")));
+            query("ReviewService.countUserReviews", calls, () -> reviewService.countUserReviews(userId));
+            query("FavoriteService.getUserFavorites", calls, () -> favoriteService.getUserFavorites(userId));
+            query("getUserFavoriteFields(SUMMARY_FIELDS)", calls,
+                    () -> favoriteService.getUserFavoriteFields(userId, FavoriteService.SUMMARY_FIELDS));
+            query("FavoriteService.countUserFavorites", calls, () -> favoriteService.countUserFavorites(userId));
+
+            if (url.startsWith("jdbc:h2:")) {
+                System.out.println();
+                for (String sql : List.of(
+                        "SELECT COUNT(r.id) FROM reviews r WHERE r.user_id = " + userId,
+                        "SELECT r.id, r.movie_id, r.rating, r.created_at FROM reviews r WHERE r.user_id = " + userId + " ORDER BY r.id",
+                        "SELECT COUNT(f.id) FROM favorites f WHERE f.user_id = " + userId)) {
+                    System.out.println(jdbc.queryForObject("EXPLAIN " + sql, String.class).replaceAll("\\s+", " "));
+                }
+            }
+        } finally {
+            context.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbc, Long userId, int reviews, int favorites) {
+        Random random = new Random(42);
+        String[] words = "the movie plot acting great terrible ending twist character score slow brilliant script".split(" ");
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>(reviews);
+        for (int i = 0; i < reviews; i++) {
+            int length = 50 + random.nextInt(1450);
+            StringBuilder comment = new StringBuilder(length + 16);
+            while (comment.length() < length) {
+                comment.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            createdAt = createdAt.plusMinutes(1 + random.nextInt(240));
+            rows.add(new Object[]{userId, i + 1, 1 + random.nextInt(5), comment.toString(), Timestamp.valueOf(createdAt)});
+        }
+        jdbc.batchUpdate("INSERT INTO reviews (user_id, movie_id, rating, comment, created_at) VALUES (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 0; i < favorites; i++) {
+            rows.add(new Object[]{userId, 1_000_000 + i, Timestamp.valueOf(createdAt.plusMinutes(i))});
+        }
+        jdbc.batchUpdate("INSERT INTO favorites (user_id, movie_id, added_at) VALUES (?, ?, ?)", rows);
+    }
+
+    private static void query(String name, int calls, Supplier<Object> call) {
+        double[] millis = time(calls, call::get);
+        System.out.printf("%-40s %10.2f %10.2f%n", name, percentile(millis, 0.5), percentile(millis, 0.9));
+    }
+
+    private interface Call {
+        Object run() throws Exception;
+    }
+
+    /**
+     * Milliseconds per call, after as many warm-up calls
+     */
+    private static double[] time(int calls, Call call) {
+        double[] millis = new double[calls];
+        try {
+            for (int i = 0; i < calls; i++) {
+                call.run();
+            }
+            for (int i = 0; i < calls; i++) {
+                long started = System.nanoTime();
+                call.run();
+                millis[i] = (System.nanoTime() - started) / 1e6;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return millis;
+    }
+
+    private static double percentile(double[] values, double percentile) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)];
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+}
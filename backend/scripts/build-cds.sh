@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+#
+# build-cds.sh
+#
+# Unpacks the executable jar into a plain classpath and records an AppCDS archive for it.
+#
+# Usage: scripts/build-cds.sh [app jar] [output dir]
+#   defaults: target/movie-dash-backend-1.0.0.jar target/cds
+#
+# Output:
+#   <out>/application.jar   application classes (CDS only archives classes loaded from jars)
+#   <out>/lib/*.jar         dependencies
+#   <out>/java.args         launcher argfile: classpath, main class and AOT flag
+#   <out>/app.jsa           AppCDS archive from a training run that stops after context refresh
+#
+# Start the app with scripts/run-fast.sh. The archive is only valid for the same JDK build and the
+# same absolute classpath, so build it where it will run (or at the same path in the image).
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR="$(realpath "${1:-target/movie-dash-backend-1.0.0.jar}")"
+OUT="$(realpath -m "${2:-target/cds}")"
+
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+(cd "$OUT/unpacked" && jar -xf "$JAR")
+
+# The boot jar keeps the application's META-INF resources (spring.factories, AOT output) at its
+# root; put them back with the classes. The manifest, Maven metadata and the loader's services stay out
+mkdir -p "$OUT/unpacked/BOOT-INF/classes/META-INF"
+(cd "$OUT/unpacked/META-INF" && find . -mindepth 1 -maxdepth 1 ! -name MANIFEST.MF ! -name maven ! -name services \
+    -exec cp -r {} "$OUT/unpacked/BOOT-INF/classes/META-INF/" \;)
+(cd "$OUT/unpacked/BOOT-INF/classes" && jar -cf "$OUT/application.jar" .)
+cp "$OUT"/unpacked/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+# Keep the dependency order Spring Boot recorded in classpath.idx
+CLASSPATH="$OUT/application.jar"
+while IFS= read -r entry; do
+    CLASSPATH="$CLASSPATH:$OUT/lib/$(basename "$entry")"
+done < <(sed -n 's/^- "\(.*\)"$/\1/p' "$OUT/unpacked/BOOT-INF/classpath.idx")
+
+MAIN_CLASS="$(sed -n 's/^Start-Class: *//p' "$OUT/unpacked/META-INF/MANIFEST.MF" | tr -d '\r')"
+MAIN_PATH="${MAIN_CLASS//.//}"
+
+# Use the AOT-generated bean definitions when the jar was built with -Paot
+AOT_ENABLED=false
+if [ -f "$OUT/unpacked/BOOT-INF/classes/${MAIN_PATH}__ApplicationContextInitializer.class" ]; then
+    AOT_ENABLED=true
+fi
+
+cat > "$OUT/java.args" <<EOF
+-cp $CLASSPATH
+-Dspring.aot.enabled=$AOT_ENABLED
+$MAIN_CLASS
+EOF
+rm -rf "$OUT/unpacked"
+
+# Training run: refresh the context against a throwaway in-memory database, then exit and dump
+# every class that was loaded
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -Dspring.context.exit=onRefresh @"$OUT/java.args" \
+    --spring.profiles.active=prod \
+    --spring.datasource.url=jdbc:h2:mem:cds-training \
+    --spring.jpa.hibernate.ddl-auto=create-drop \
+    --server.port=0 \
+    > "$OUT/training.log" 2>&1 || {
+    echo "CDS training run failed, see $OUT/training.log" >&2
+    exit 1
+}
+
+echo "CDS archive written to $OUT/app.jsa (spring.aot.enabled=$AOT_ENABLED)"
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+#
+# run-fast.sh
+#
+# Starts the app from the unpacked classpath produced by build-cds.sh, using the AppCDS archive
+# and (when built with -Paot) the AOT-generated bean definitions. Extra arguments are passed to
+# the application, e.g. scripts/run-fast.sh --server.port=9090
+#
+# Environment:
+#   CDS_DIR            output of build-cds.sh (default target/cds)
+#   SPRING_PROFILES_ACTIVE  defaults to prod; must match the profile used for AOT processing
+#   JAVA_OPTS          extra JVM options
+#
+set -euo pipefail
+
+CDS_DIR="$(realpath "${CDS_DIR:-$(dirname "$0")/../target/cds}")"
+if [ ! -f "$CDS_DIR/java.args" ]; then
+    echo "No $CDS_DIR/java.args, run scripts/build-cds.sh (or mvn -Paot package) first" >&2
+    exit 1
+fi
+
+SHARE_OPTS=()
+if [ -f "$CDS_DIR/app.jsa" ]; then
+    SHARE_OPTS=(-XX:SharedArchiveFile="$CDS_DIR/app.jsa" -Xshare:auto)
+fi
+
+export SPRING_PROFILES_ACTIVE="${SPRING_PROFILES_ACTIVE:-prod}"
+# shellcheck disable=SC2086
+exec java "${SHARE_OPTS[@]}" ${JAVA_OPTS:-} @"$CDS_DIR/java.args" "$@"
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+#
+# startup-benchmark.sh
+#
+# Measures cold start: time from process launch to the first successful request, and resident
+# memory (RSS) right after that request.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [mode...]
+#   modes: dev   java -jar, default profile (ddl-auto=update, eager beans)
+#          prod  java -jar, prod profile (lazy beans, no schema diffing)
+#          fast  scripts/run-fast.sh: prod profile + AOT bean definitions + AppCDS
+#   default: 5 runs of "dev prod fast" (fast is skipped if target/cds has not been built)
+#
+# Every run uses a fresh copy of a pre-built H2 database, so no mode pays for creating the schema.
+# The probe is GET /reviews/movie/{id}: public, and it goes through the controller, service,
+# repository and JSON layers that lazy initialization defers.
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-5}"
+shift || true
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(dev prod)
+    [ -f target/cds/java.args ] && MODES+=(fast)
+fi
+
+JAR=target/movie-dash-backend-1.0.0.jar
+PORT="${BENCH_PORT:-18181}"
+PROBE="http://localhost:$PORT/reviews/movie/550"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+# Build the schema once; -Dspring.context.exit=onRefresh stops right after startup
+java -Dspring.context.exit=onRefresh -jar "$JAR" \
+    --spring.datasource.url="jdbc:h2:file:$WORK/seed/moviedash" \
+    --spring.jpa.hibernate.ddl-auto=update --server.port=0 > "$WORK/seed.log" 2>&1
+
+now_ms() { date +%s%3N; }
+
+run_once() {
+    local mode="$1" db="$WORK/run"
+    rm -rf "$db" && cp -r "$WORK/seed" "$db"
+    local args=(--server.port="$PORT" --spring.datasource.url="jdbc:h2:file:$db/moviedash")
+    local start; start=$(now_ms)
+    case "$mode" in
+        dev)  java -jar "$JAR" "${args[@]}" > "$WORK/app.log" 2>&1 & ;;
+        prod) java -jar "$JAR" --spring.profiles.active=prod "${args[@]}" > "$WORK/app.log" 2>&1 & ;;
+        fast) scripts/run-fast.sh "${args[@]}" > "$WORK/app.log" 2>&1 & ;;
+        *)    echo "unknown mode $mode" >&2; exit 1 ;;
+    esac
+    local pid=$!
+    until curl -sf -o /dev/null "$PROBE"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$mode: app exited before serving a request, last log lines:" >&2
+            tail -20 "$WORK/app.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local elapsed=$(( $(now_ms) - start ))
+    local rss; rss=$(awk '/^VmRSS:/ { print int($2 / 1024) }' "/proc/$pid/status")
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+printf '%-6s %28s %14s\n' mode "first request (ms, median)" "RSS (MB)"
+for mode in "${MODES[@]}"; do
+    : > "$WORK/$mode.results"
+    for _ in $(seq "$RUNS"); do
+        run_once "$mode" >> "$WORK/$mode.results"
+    done
+    printf '%-6s %28s %14s   runs: %s\n' "$mode" \
+        "$(cut -d' ' -f1 "$WORK/$mode.results" | median)" \
+        "$(cut -d' ' -f2 "$WORK/$mode.results" | median)" \
+        "$(cut -d' ' -f1 "$WORK/$mode.results" | paste -sd, -)"
+done
@@ -0,0 +1,122 @@
+package com.moviedash.analytics;
+
+import com.moviedash.dto.response.ReviewStatsResponse;
+import com.moviedash.entity.MovieTotals;
+import com.moviedash.entity.OutboxEvent;
+import com.moviedash.favorite.FavoriteStore;
+import com.moviedash.favorite.JpaFavoriteStore;
+import com.moviedash.outbox.OutboxConsumer;
+import com.moviedash.repository.FavoriteRepository;
+import com.moviedash.repository.MovieTotalsRepository;
+import com.moviedash.service.ReviewService;
+import com.moviedash.shard.ShardTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MovieTotalsProjection
+ *
+ * Keeps movie_totals (review count, average rating, favorite count per movie) up to date from the
+ * outbox, so the most favorited or reviewed movies are one indexed query instead of a GROUP BY over
+ * every shard, and review and favorite writes do not pay for it.
+ *
+ * - Partitioned by movie, so one movie's totals are only ever written by one lane at a time
+ * - Each movie in a batch is recounted once from the reviews and favorites tables, however many
+ *   events it had; recounting is idempotent, so redelivered batches do no harm
+ * - The recount reads the primary (a read-write transaction), since with datasource.routing a
+ *   replica may not have the events' writes yet and a stale count would stay until the next event
+ * - Favorites are counted in the favorites table. With favorites.store=log they are not in it and
+ *   write no events, so they are not counted at all (countsFavorites) and cannot be sorted by
+ */
+@Component
+public class MovieTotalsProjection implements OutboxConsumer {
+
+    public enum SortBy {
+        FAVORITES("favoriteCount"),
+        REVIEWS("reviewCount"),
+        RATING("averageRating");
+
+        private final String property;
+
+        SortBy(String property) {
+            this.property = property;
+        }
+    }
+
+    private final ReviewService reviewService;
+    private final FavoriteRepository favoriteRepository;
+    private final MovieTotalsRepository movieTotalsRepository;
+    private final ShardTemplate shardTemplate;
+    // Read-write, so reads are routed to the primary
+    private final TransactionTemplate primaryRead;
+    private final boolean countsFavorites;
+
+    public MovieTotalsProjection(ReviewService reviewService,
+                                 FavoriteRepository favoriteRepository,
+                                 FavoriteStore favoriteStore,
+                                 MovieTotalsRepository movieTotalsRepository,
+                                 ShardTemplate shardTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.reviewService = reviewService;
+        this.favoriteRepository = favoriteRepository;
+        this.movieTotalsRepository = movieTotalsRepository;
+        this.shardTemplate = shardTemplate;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.countsFavorites = favoriteStore instanceof JpaFavoriteStore;
+    }
+
+    /**
+     * Whether favoriteCount is kept: only when favorites are stored in the favorites table
+     */
+    public boolean countsFavorites() {
+        return countsFavorites;
+    }
+
+    @Override
+    public String name() {
+        return "movie-totals";
+    }
+
+    @Override
+    public void accept(List<OutboxEvent> events) {
+        Set<Integer> movieIds = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            movieIds.add(event.getMovieId());
+        }
+        for (Integer movieId : movieIds) {
+            primaryRead.executeWithoutResult(status -> recount(movieId));
+        }
+    }
+
+    private void recount(Integer movieId) {
+        ReviewStatsResponse reviews = reviewService.getMovieReviewStats(movieId);
+        long favorites = !countsFavorites ? 0 : shardTemplate.scatter(() -> favoriteRepository.countByMovieId(movieId))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        movieTotalsRepository.save(new MovieTotals(movieId, reviews.getReviewCount(),
+                reviews.getAverageRating(), favorites, LocalDateTime.now()));
+    }
+
+    /**
+     * Movies with the highest totals first, ties by movie ID
+     *
+     * @throws IllegalArgumentException for FAVORITES when favorites are not counted
+     */
+    public List<MovieTotals> top(SortBy sortBy, int limit) {
+        if (sortBy == SortBy.FAVORITES && !countsFavorites) {
+            throw new IllegalArgumentException("Favorites are not counted with favorites.store=log");
+        }
+        Sort sort = Sort.by(Sort.Order.desc(sortBy.property).nullsLast(), Sort.Order.asc("movieId"));
+        return movieTotalsRepository.findAll(PageRequest.of(0, Math.max(1, limit), sort)).getContent();
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.moviedash.analytics;
+
+import com.moviedash.dto.response.RatingAnalyticsResponse;
+import com.moviedash.dto.response.RatingGroupResponse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * RatingAggregation
+ *
+ * Rating distribution queries over a ReviewColumns snapshot.
+ *
+ * The rows are split into chunks that are scanned as a parallel stream on the given fork-join
+ * pool. Each chunk counts into its own RatingCounts; the partial results are merged, so the scan
+ * itself shares nothing between threads. There are only a few chunks per worker: every chunk
+ * builds and merges a table of all its groups, which costs more than the scan when chunks are small.
+ *
+ * Plain Java with no Spring dependencies (see bench/ReviewColumnsBenchmark.java).
+ */
+public final class RatingAggregation {
+
+    static final int MIN_CHUNK_ROWS = 1 << 16;
+    static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+
+    public RatingAggregation(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public enum GroupBy {
+        MOVIE,
+        DAY,
+        WEEK,
+        MONTH,
+        COHORT;
+
+        boolean isPeriod() {
+            return this == DAY || this == WEEK || this == MONTH;
+        }
+    }
+
+    /**
+     * Row filter; null fields match everything
+     *
+     * @param fromDay first epoch day included
+     * @param toDay last epoch day included
+     */
+    public record Filter(Integer movieId, Long userId, Integer fromDay, Integer toDay) {
+
+        public static final Filter NONE = new Filter(null, null, null, null);
+
+    }
+
+    /**
+     * Rating histogram per group
+     *
+     * @param limit maximum number of groups: the most reviewed movies, or the most recent periods
+     *              and cohorts
+     */
+    public RatingAnalyticsResponse aggregate(ReviewColumns columns, GroupBy groupBy, Filter filter, int limit) {
+        long start = System.nanoTime();
+        int rows = columns.size();
+        int chunkRows = Math.max(MIN_CHUNK_ROWS, (int) Math.ceil((double) rows / (pool.getParallelism() * CHUNKS_PER_WORKER)));
+        int chunks = (rows + chunkRows - 1) / chunkRows;
+        RatingCounts counts = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> scan(columns, chunk * chunkRows, Math.min(rows, (chunk + 1) * chunkRows),
+                                groupBy, filter))
+                        .reduce(RatingCounts::merge)
+                        .orElseGet(RatingCounts::new))
+                .join();
+        long scanMicros = (System.nanoTime() - start) / 1_000;
+
+        // Counted before groups() applies the limit
+        long[] matched = new long[1];
+        counts.forEach((key, histogram) -> matched[0] += total(histogram));
+        List<RatingGroupResponse> groups = groups(counts, groupBy, limit);
+        return new RatingAnalyticsResponse(groupBy.name().toLowerCase(), rows, matched[0], scanMicros,
+                pool.getParallelism(), columns.builtAt(), groups);
+    }
+
+    /**
+     * Count rows [from, to) into a fresh RatingCounts
+     */
+    static RatingCounts scan(ReviewColumns columns, int from, int to, GroupBy groupBy, Filter filter) {
+        int[] movieIds = columns.movieIds();
+        byte[] ratings = columns.ratings();
+        int[] epochDays = columns.epochDays();
+        long[] userIds = columns.userIds();
+        short[] cohorts = columns.cohorts();
+        boolean byMovie = filter.movieId() != null;
+        int movieId = byMovie ? filter.movieId() : 0;
+        boolean byUser = filter.userId() != null;
+        long userId = byUser ? filter.userId() : 0;
+        int fromDay = filter.fromDay() != null ? filter.fromDay() : Integer.MIN_VALUE;
+        int toDay = filter.toDay() != null ? filter.toDay() : Integer.MAX_VALUE;
+
+        RatingCounts counts = new RatingCounts();
+        // Rows arrive roughly in creation order, so consecutive rows usually share a day
+        int lastDay = Integer.MIN_VALUE;
+        int lastMonth = 0;
+        for (int row = from; row < to; row++) {
+            int day = epochDays[row];
+            if (day < fromDay || day > toDay
+                    || (byMovie && movieIds[row] != movieId)
+                    || (byUser && userIds[row] != userId)) {
+                continue;
+            }
+            int key;
+            switch (groupBy) {
+                case MOVIE -> key = movieIds[row];
+                case DAY -> key = day;
+                case WEEK -> key = Math.floorDiv(day + 3, 7); // weeks start on Monday; day 0 was a Thursday
+                case MONTH -> {
+                    if (day != lastDay) {
+                        lastDay = day;
+                        lastMonth = ReviewColumns.monthIndex(LocalDate.ofEpochDay(day));
+                    }
+                    key = lastMonth;
+                }
+                default -> key = cohorts[row];
+            }
+            counts.add(key, ratings[row]);
+        }
+        return counts;
+    }
+
+    private static List<RatingGroupResponse> groups(RatingCounts counts, GroupBy groupBy, int limit) {
+        List<KeyedHistogram> all = new ArrayList<>(counts.groups());
+        counts.forEach((key, histogram) -> all.add(new KeyedHistogram(key, histogram, total(histogram))));
+
+        List<KeyedHistogram> keyed = all;
+        if (groupBy == GroupBy.MOVIE) {
+            all.sort(Comparator.comparingLong(KeyedHistogram::count).reversed()
+                    .thenComparingInt(KeyedHistogram::key));
+            keyed = all.subList(0, Math.min(limit, all.size()));
+        } else {
+            all.sort(Comparator.comparingInt(KeyedHistogram::key));
+        }
+
+        List<RatingGroupResponse> groups = new ArrayList<>(keyed.size());
+        long runningCount = 0;
+        long runningStars = 0;
+        for (KeyedHistogram group : keyed) {
+            long stars = stars(group.histogram());
+            runningCount += group.count();
+            runningStars += stars;
+            groups.add(new RatingGroupResponse(label(groupBy, group.key()), group.count(),
+                    group.count() == 0 ? null : (double) stars / group.count(),
+                    group.histogram(),
+                    groupBy.isPeriod() ? (double) runningStars / runningCount : null));
+        }
+        if (groupBy != GroupBy.MOVIE && groups.size() > limit) {
+            // Most recent periods; cumulative averages above still cover the whole range
+            groups = new ArrayList<>(groups.subList(groups.size() - limit, groups.size()));
+        }
+        return groups;
+    }
+
+    private record KeyedHistogram(int key, long[] histogram, long count) {
+    }
+
+    private static String label(GroupBy groupBy, int key) {
+        return switch (groupBy) {
+            case MOVIE -> Integer.toString(key);
+            case DAY -> LocalDate.ofEpochDay(key).toString();
+            case WEEK -> LocalDate.ofEpochDay(key * 7L - 3).toString();
+            case MONTH, COHORT -> String.format("%04d-%02d", 1970 + Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1);
+        };
+    }
+
+    private static long total(long[] histogram) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static long stars(long[] histogram) {
+        long stars = 0;
+        for (int r = 0; r < histogram.length; r++) {
+            stars += histogram[r] * (r + 1);
+        }
+        return stars;
+    }
+
+}
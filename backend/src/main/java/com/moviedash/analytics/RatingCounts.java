@@ -0,0 +1,113 @@
+package com.moviedash.analytics;
+
+import java.util.Arrays;
+
+/**
+ * RatingCounts
+ *
+ * Per-group rating histogram (1-5 stars) keyed by an int group key: an open-addressing hash table
+ * over primitive arrays, so counting a row does not allocate or box. Each scan task fills its own
+ * instance; the results are merged afterwards. Not thread-safe.
+ */
+final class RatingCounts {
+
+    static final int RATINGS = 5;
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private long[] counts;
+    private int groups;
+
+    RatingCounts() {
+        this(64);
+    }
+
+    private RatingCounts(int slots) {
+        keys = new int[slots];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[slots * RATINGS];
+    }
+
+    /**
+     * @param key group key, anything but Integer.MIN_VALUE
+     * @param rating 1-5
+     */
+    void add(int key, int rating) {
+        // slot() may resize, so it must run before counts is read
+        int slot = slot(key);
+        counts[slot * RATINGS + rating - 1]++;
+    }
+
+    RatingCounts merge(RatingCounts other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                int base = slot(other.keys[i]) * RATINGS;
+                for (int r = 0; r < RATINGS; r++) {
+                    counts[base + r] += other.counts[i * RATINGS + r];
+                }
+            }
+        }
+        return this;
+    }
+
+    int groups() {
+        return groups;
+    }
+
+    /**
+     * Calls the visitor once per group with a copy of its 1-5 star counts
+     */
+    void forEach(GroupVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], Arrays.copyOfRange(counts, i * RATINGS, (i + 1) * RATINGS));
+            }
+        }
+    }
+
+    interface GroupVisitor {
+        void visit(int key, long[] histogram);
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (true) {
+            int existing = keys[slot];
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == EMPTY) {
+                if ((groups + 1) * 2 > keys.length) {
+                    resize();
+                    return slot(key);
+                }
+                keys[slot] = key;
+                groups++;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[keys.length * RATINGS];
+        groups = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                System.arraycopy(oldCounts, i * RATINGS, counts, slot * RATINGS, RATINGS);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
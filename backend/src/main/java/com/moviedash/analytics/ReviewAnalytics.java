@@ -0,0 +1,214 @@
+package com.moviedash.analytics;
+
+import com.moviedash.dto.response.RatingAnalyticsResponse;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.event.ReviewChangedEvent;
+import com.moviedash.service.ReviewService;
+import com.moviedash.shard.ShardSchema;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReviewAnalytics
+ *
+ * Rating analytics for admins, answered from an in-memory ReviewColumns snapshot instead of
+ * GROUP BY queries on the reviews table.
+ *
+ * Snapshot lifecycle:
+ * - Built by streaming the table once (read-only transaction, so a replica when routing is enabled)
+ * - New reviews are appended after commit, so they show up immediately
+ * - Edits and deletes only mark the snapshot stale; it is rebuilt on the next check
+ *   (analytics.rebuild-interval), and at least every analytics.max-age so reviews written
+ *   through other nodes are picked up
+ *
+ * Queries run on a dedicated fork-join pool (analytics.parallelism) so a large scan never competes
+ * with the common pool.
+ *
+ * Metrics: reviews.analytics.rows, reviews.analytics.bytes, reviews.analytics.rebuild
+ */
+@Slf4j
+@Component
+public class ReviewAnalytics {
+
+    private final ReviewService reviewService;
+    private final ForkJoinPool pool;
+    private final RatingAggregation aggregation;
+    private final Duration maxAge;
+    private final int maxGroups;
+    private final Timer rebuildTimer;
+
+    private final Object rebuildLock = new Object();
+    private volatile ReviewColumns columns = new ReviewColumns(0, null);
+    private volatile boolean stale = true;
+
+    // Guarded by this
+    private Map<Long, Short> cohortByUser = new HashMap<>();
+    private List<ReviewRow> appendedDuringRebuild;
+
+    public ReviewAnalytics(ReviewService reviewService,
+                           @Value("${analytics.parallelism:0}") int parallelism,
+                           @Value("${analytics.max-age:1h}") Duration maxAge,
+                           @Value("${analytics.max-groups:1000}") int maxGroups,
+                           MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        AtomicInteger workers = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    worker.setName("review-analytics-" + workers.incrementAndGet());
+                    return worker;
+                }, null, false);
+        this.aggregation = new RatingAggregation(pool);
+        this.maxAge = maxAge;
+        this.maxGroups = maxGroups;
+        this.rebuildTimer = Timer.builder("reviews.analytics.rebuild").register(meterRegistry);
+        Gauge.builder("reviews.analytics.rows", this, analytics -> analytics.columns.size()).register(meterRegistry);
+        Gauge.builder("reviews.analytics.bytes", this, analytics -> analytics.columns.allocatedBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rating histogram per group
+     *
+     * @param limit maximum number of groups, clamped to analytics.max-groups
+     */
+    public RatingAnalyticsResponse ratings(RatingAggregation.GroupBy groupBy, RatingAggregation.Filter filter, int limit) {
+        if (columns.builtAt() == null) {
+            synchronized (rebuildLock) {
+                if (columns.builtAt() == null) {
+                    rebuild();
+                }
+            }
+        }
+        return aggregation.aggregate(columns, groupBy, filter, Math.max(1, Math.min(limit, maxGroups)));
+    }
+
+    /**
+     * Rebuild if edits or deletes happened since the last build, or the snapshot is older than
+     * analytics.max-age
+     */
+    @Scheduled(fixedDelayString = "${analytics.rebuild-interval:600000}")
+    public void rebuildIfStale() {
+        LocalDateTime builtAt = columns.builtAt();
+        if (stale || builtAt == null || builtAt.plus(maxAge).isBefore(LocalDateTime.now())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Load a fresh snapshot from the database and swap it in
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildTimer.record(this::load);
+        }
+        log.info("Review analytics snapshot rebuilt: {} rows, {} bytes", columns.size(), columns.allocatedBytes());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getType() != ReviewChangedEvent.Type.CREATED) {
+            stale = true;
+            return;
+        }
+        ReviewResponse review = event.getReview();
+        appendCreated(new ReviewRow(review.getId(), review.getMovieId(), review.getRating(),
+                review.getCreatedAt(), review.getUserId(), null));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The streaming load holds only the rebuild lock, so new reviews keep being appended to the current
+     * snapshot meanwhile. They are also recorded and re-applied to the new snapshot unless the load
+     * already returned them.
+     */
+    private void load() {
+        synchronized (this) {
+            stale = false;
+            appendedDuringRebuild = new ArrayList<>();
+        }
+        ReviewColumns[] loaded = {new ReviewColumns(Math.max(1024, columns.size()), LocalDateTime.now())};
+        Map<Long, Short> cohorts = new HashMap<>();
+        // Highest id loaded per shard ID range: shards are streamed one after another, each in id order
+        Map<Long, Long> lastLoadedId = new HashMap<>();
+        try {
+            reviewService.forEachAnalyticsRow(row -> {
+                short cohort = cohorts.computeIfAbsent(row.userId(),
+                        userId -> ReviewColumns.cohortOf(row.userCreatedAt().toLocalDate()));
+                lastLoadedId.put(ShardSchema.idRange(row.id()), row.id());
+                loaded[0] = append(loaded[0], row, cohort);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                stale = true;
+                appendedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            ReviewColumns target = loaded[0];
+            for (ReviewRow row : appendedDuringRebuild) {
+                if (row.id() > lastLoadedId.getOrDefault(ShardSchema.idRange(row.id()), Long.MIN_VALUE)) {
+                    target = append(target, row, cohorts.computeIfAbsent(row.userId(), userId -> cohortOf(row)));
+                } else {
+                    // Committed with a lower id than rows the load had already passed; it may be missing
+                    stale = true;
+                }
+            }
+            appendedDuringRebuild = null;
+            cohortByUser = cohorts;
+            columns = target;
+        }
+    }
+
+    private synchronized void appendCreated(ReviewRow row) {
+        short cohort = cohortByUser.computeIfAbsent(row.userId(), userId -> cohortOf(row));
+        columns = append(columns, row, cohort);
+        if (appendedDuringRebuild != null) {
+            appendedDuringRebuild.add(row);
+        }
+    }
+
+    private static ReviewColumns append(ReviewColumns target, ReviewRow row, short cohort) {
+        int epochDay = (int) row.createdAt().toLocalDate().toEpochDay();
+        ReviewColumns current = target;
+        while (!current.tryAppend(row.movieId(), row.rating(), epochDay, row.userId(), cohort)) {
+            current = current.grow();
+        }
+        return current;
+    }
+
+    /**
+     * Cohort of a reviewer not in the snapshot yet: they signed up after the last rebuild, so this month
+     */
+    private static short cohortOf(ReviewRow row) {
+        return row.userCreatedAt() != null
+                ? ReviewColumns.cohortOf(row.userCreatedAt().toLocalDate())
+                : ReviewColumns.cohortOf(LocalDate.now());
+    }
+
+}
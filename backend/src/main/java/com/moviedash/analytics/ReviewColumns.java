@@ -0,0 +1,132 @@
+package com.moviedash.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * ReviewColumns
+ *
+ * Column-oriented copy of the reviews table for analytics scans, one primitive array per column:
+ * - movieIds (int), ratings (byte, 1-5), epochDays (int, day the review was created)
+ * - userIds (long) and cohorts (short, months since 1970-01 of the reviewer's sign-up)
+ *
+ * 19 bytes per review, with no object headers or pointers, so a full scan streams through memory.
+ *
+ * Concurrency: a single writer appends while any number of readers scan. Readers take size()
+ * first and only read rows below it; the volatile write of size publishes the row. When the arrays
+ * are full the writer copies them into a larger instance (grow) and publishes that instead.
+ */
+public final class ReviewColumns {
+
+    public static final int BYTES_PER_ROW = Integer.BYTES + Byte.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES;
+
+    private final int[] movieIds;
+    private final byte[] ratings;
+    private final int[] epochDays;
+    private final long[] userIds;
+    private final short[] cohorts;
+    private final LocalDateTime builtAt;
+    private volatile int size;
+
+    public ReviewColumns(int capacity, LocalDateTime builtAt) {
+        int length = Math.max(16, capacity);
+        this.movieIds = new int[length];
+        this.ratings = new byte[length];
+        this.epochDays = new int[length];
+        this.userIds = new long[length];
+        this.cohorts = new short[length];
+        this.builtAt = builtAt;
+    }
+
+    private ReviewColumns(ReviewColumns source, int capacity) {
+        int rows = source.size;
+        this.movieIds = Arrays.copyOf(source.movieIds, capacity);
+        this.ratings = Arrays.copyOf(source.ratings, capacity);
+        this.epochDays = Arrays.copyOf(source.epochDays, capacity);
+        this.userIds = Arrays.copyOf(source.userIds, capacity);
+        this.cohorts = Arrays.copyOf(source.cohorts, capacity);
+        this.builtAt = source.builtAt;
+        this.size = rows;
+    }
+
+    /**
+     * Append one review (single writer only)
+     *
+     * @return false if the arrays are full; grow() and retry
+     */
+    public boolean tryAppend(int movieId, int rating, int epochDay, long userId, short cohort) {
+        int row = size;
+        if (row == movieIds.length) {
+            return false;
+        }
+        movieIds[row] = movieId;
+        ratings[row] = (byte) rating;
+        epochDays[row] = epochDay;
+        userIds[row] = userId;
+        cohorts[row] = cohort;
+        size = row + 1;
+        return true;
+    }
+
+    /**
+     * Copy of these columns with twice the capacity (single writer only)
+     */
+    public ReviewColumns grow() {
+        return new ReviewColumns(this, movieIds.length * 2);
+    }
+
+    /**
+     * Sign-up month of a user, as stored in the cohort column
+     */
+    public static short cohortOf(LocalDate signUpDate) {
+        return (short) monthIndex(signUpDate);
+    }
+
+    /**
+     * Months since 1970-01
+     */
+    public static int monthIndex(LocalDate date) {
+        return (date.getYear() - 1970) * 12 + date.getMonthValue() - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return movieIds.length;
+    }
+
+    /**
+     * Heap used by the column arrays, including unused capacity
+     */
+    public long allocatedBytes() {
+        return (long) capacity() * BYTES_PER_ROW;
+    }
+
+    public LocalDateTime builtAt() {
+        return builtAt;
+    }
+
+    int[] movieIds() {
+        return movieIds;
+    }
+
+    byte[] ratings() {
+        return ratings;
+    }
+
+    int[] epochDays() {
+        return epochDays;
+    }
+
+    long[] userIds() {
+        return userIds;
+    }
+
+    short[] cohorts() {
+        return cohorts;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.moviedash.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * One review as loaded into ReviewColumns (JPQL constructor projection, no entities)
+ */
+public record ReviewRow(Long id, Integer movieId, Integer rating, LocalDateTime createdAt,
+                        Long userId, LocalDateTime userCreatedAt) {
+}
@@ -0,0 +1,322 @@
+package com.moviedash.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.moviedash.config.BatchProperties;
+import com.moviedash.datasource.ConnectionHoldTime;
+import com.moviedash.datasource.SqlStatementCount;
+import com.moviedash.dto.request.BatchRequest;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.BatchResultResponse;
+import com.moviedash.filter.ConcurrencyLimitFilter;
+import com.moviedash.filter.EventStreams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BatchDispatcher
+ *
+ * Runs the sub-requests of POST /batch concurrently through the DispatcherServlet, so each one is
+ * handled exactly like the same GET sent on its own (controllers, validation, exception handlers,
+ * caching) and answered with its own status and body.
+ *
+ * - GET only: writes in one batch would run in no defined order, so other methods are answered 405
+ * - Each sub-request runs as the batch's caller: the security chain's authorization rules are
+ *   checked for it (403 when not allowed) and it runs with the caller's Authentication in its
+ *   SecurityContext. Paths go through the same StrictHttpFirewall checks as top-level requests
+ *   (400). Batches cannot be nested and event streams cannot be batched (400)
+ * - Sub-requests share a bounded pool (batch.threads, batch.queue-capacity); those that find it
+ *   full are answered 503
+ * - Each sub-request takes its own permit from the concurrency limiter, in the caller's traffic
+ *   class, when it starts; one shed by the limiter is answered 503
+ * - batch.timeout counts from the start of the batch; sub-requests still running then are answered
+ *   504. They are not interrupted (an interrupt inside a JDBC call can close the connection, or an
+ *   H2 file database) but finish on their thread and their response is dropped
+ * - Bodies above batch.max-response-size are answered 502
+ *
+ * Apart from the limiter, sub-requests skip the servlet filters and are logged and timed as part
+ * of the batch. Their SQL statements and connection hold time are added to the batch's
+ * (request.sql.statements, db.connection.hold, Server-Timing); their allocation, on other threads,
+ * is not.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchDispatcher {
+
+    private static final String BATCH_PATH = "/batch";
+
+    /**
+     * Looked up on first use: contexts without a web server (benchmarks) have no DispatcherServlet
+     */
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final List<SecurityFilterChain> securityFilterChains;
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final StrictHttpFirewall firewall = new StrictHttpFirewall();
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Counter> outcomes;
+
+    public BatchDispatcher(ObjectProvider<DispatcherServlet> dispatcherServlet, List<SecurityFilterChain> securityFilterChains,
+                           ConcurrencyLimitFilter concurrencyLimit, ObjectMapper objectMapper, BatchProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.securityFilterChains = securityFilterChains;
+        this.concurrencyLimit = concurrencyLimit;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, properties.getThreads());
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), task -> {
+            Thread thread = new Thread(task, "batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.outcomes = Stream.of("dispatched", "invalid", "forbidden", "rejected", "timeout", "too_large", "failed")
+                .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        outcome -> Counter.builder("batch.subrequests").tag("outcome", outcome).register(meterRegistry)));
+    }
+
+    /**
+     * Run the sub-requests and return their results in request order
+     *
+     * @param batch the POST /batch request, whose headers and connection details the sub-requests copy
+     * @throws IllegalArgumentException when there are more than batch.max-requests sub-requests
+     */
+    public List<BatchResultResponse> dispatch(HttpServletRequest batch, List<BatchRequest.Item> items,
+                                              Authentication authentication) {
+        if (items.size() > properties.getMaxRequests()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxRequests() + " requests can be batched");
+        }
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        int maxBody = (int) Math.min(Integer.MAX_VALUE, properties.getMaxResponseSize().toBytes());
+
+        // Check and submit everything first, so the sub-requests run side by side
+        List<BatchResultResponse> results = new ArrayList<>(items.size());
+        List<Future<Outcome>> futures = new ArrayList<>(items.size());
+        for (BatchRequest.Item item : items) {
+            Future<Outcome> future = null;
+            BatchResultResponse result = checkItem(item);
+            if (result == null) {
+                SubRequest request = new SubRequest(batch, item.getPath(), authentication);
+                result = checkRequest(request, authentication);
+                if (result == null) {
+                    try {
+                        future = executor.submit(new DelegatingSecurityContextCallable<>(
+                                () -> run(request, maxBody), context(authentication)));
+                    } catch (RejectedExecutionException e) {
+                        result = error("rejected", HttpStatus.SERVICE_UNAVAILABLE, "Too many batched requests in progress");
+                    }
+                }
+            }
+            results.add(result);
+            futures.add(future);
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Outcome> future = futures.get(i);
+            if (future != null) {
+                Outcome outcome = await(future, deadline, items.get(i).getPath());
+                SqlStatementCount.add(outcome.statements());
+                ConnectionHoldTime.record(outcome.heldNanos());
+                results.set(i, outcome.result());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Why the item cannot become a sub-request, or null if it can
+     */
+    private BatchResultResponse checkItem(BatchRequest.Item item) {
+        if (!"GET".equalsIgnoreCase(item.getMethod())) {
+            return error("invalid", HttpStatus.METHOD_NOT_ALLOWED, "Only GET requests can be batched");
+        }
+        String path = item.getPath();
+        if (!path.startsWith("/")) {
+            return error("invalid", HttpStatus.BAD_REQUEST, "Path must start with /");
+        }
+        String rawPath = path.indexOf('?') >= 0 ? path.substring(0, path.indexOf('?')) : path;
+        if (rawPath.equals(BATCH_PATH) || rawPath.startsWith(BATCH_PATH + "/")) {
+            return error("invalid", HttpStatus.BAD_REQUEST, "Batches cannot be nested");
+        }
+        return null;
+    }
+
+    /**
+     * Why the sub-request cannot run, or null if it can
+     */
+    private BatchResultResponse checkRequest(SubRequest request, Authentication authentication) {
+        try {
+            firewall.getFirewalledRequest(request);
+        } catch (RequestRejectedException e) {
+            return error("invalid", HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (EventStreams.isEventStream(request)) {
+            // An SSE response needs startAsync, which a sub-request does not support
+            return error("invalid", HttpStatus.BAD_REQUEST, "Event streams cannot be batched");
+        }
+        if (!isAllowed(request, authentication)) {
+            return error("forbidden", HttpStatus.FORBIDDEN, "Access denied");
+        }
+        return null;
+    }
+
+    /**
+     * What the AuthorizationFilter of the first matching security chain would decide for the request.
+     * (WebInvocationPrivilegeEvaluator cannot be used: with the H2 console servlet registered, the
+     * request matchers need the request's servlet mapping, which its stand-in request lacks.)
+     */
+    private boolean isAllowed(SubRequest request, Authentication authentication) {
+        for (SecurityFilterChain chain : securityFilterChains) {
+            if (chain.matches(request)) {
+                for (jakarta.servlet.Filter filter : chain.getFilters()) {
+                    if (filter instanceof AuthorizationFilter authorizationFilter) {
+                        AuthorizationDecision decision =
+                                authorizationFilter.getAuthorizationManager().check(() -> authentication, request);
+                        return decision == null || decision.isGranted();
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A sub-request's result and what it cost on its thread
+     */
+    private record Outcome(BatchResultResponse result, int statements, long heldNanos) {
+        Outcome(BatchResultResponse result) {
+            this(result, 0, 0L);
+        }
+    }
+
+    private Outcome run(SubRequest request, int maxBody) {
+        ConcurrencyLimitFilter.Permit permit = concurrencyLimit.tryAcquire(request);
+        if (permit == null) {
+            return new Outcome(error("rejected", HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry shortly"));
+        }
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        SqlStatementCount.begin();
+        ConnectionHoldTime.begin();
+        try {
+            BatchResultResponse result = serve(request, maxBody);
+            status = result.getStatus();
+            return new Outcome(result, SqlStatementCount.current(), ConnectionHoldTime.current());
+        } finally {
+            SqlStatementCount.end();
+            ConnectionHoldTime.end();
+            permit.release(status);
+        }
+    }
+
+    private BatchResultResponse serve(SubRequest request, int maxBody) {
+        SubResponse response = new SubResponse(maxBody);
+        try {
+            dispatcherServlet.getObject().service(request, response);
+        } catch (Exception e) {
+            if (!response.overflowed()) {
+                log.warn("Batched request {} failed", request.getRequestURI(), e);
+                return error("failed", HttpStatus.INTERNAL_SERVER_ERROR, "Request failed");
+            }
+        }
+        if (response.overflowed()) {
+            return error("too_large", HttpStatus.BAD_GATEWAY,
+                    "Response exceeds the batch limit of " + maxBody + " bytes");
+        }
+        outcomes.get("dispatched").increment();
+        return new BatchResultResponse(response.getStatus(), body(response));
+    }
+
+    private Outcome await(Future<Outcome> future, long deadline, String path) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            return new Outcome(error("timeout", HttpStatus.GATEWAY_TIMEOUT,
+                    "No response within " + properties.getTimeout().toMillis() + " ms"));
+        } catch (ExecutionException e) {
+            log.warn("Batched request {} failed", path, e.getCause());
+            return new Outcome(error("failed", HttpStatus.INTERNAL_SERVER_ERROR, "Request failed"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            return new Outcome(error("failed", HttpStatus.SERVICE_UNAVAILABLE, "Batch interrupted"));
+        }
+    }
+
+    /**
+     * The body as JSON; an empty error body (sendError) becomes the usual ApiResponse error
+     */
+    private JsonNode body(SubResponse response) {
+        byte[] body = response.body();
+        if (body.length == 0) {
+            if (response.getStatus() < 400) {
+                return null;
+            }
+            HttpStatus status = HttpStatus.resolve(response.getStatus());
+            String message = response.errorMessage() != null ? response.errorMessage()
+                    : status != null ? status.getReasonPhrase() : "Error";
+            return objectMapper.valueToTree(ApiResponse.error(message));
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return TextNode.valueOf(new String(body, Charset.forName(response.getCharacterEncoding())));
+        }
+    }
+
+    private BatchResultResponse error(String outcome, HttpStatus status, String message) {
+        outcomes.get(outcome).increment();
+        return new BatchResultResponse(status.value(), objectMapper.valueToTree(ApiResponse.error(message)));
+    }
+
+    private static SecurityContext context(Authentication authentication) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        return context;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,568 @@
+package com.moviedash.batch;
+
+import com.moviedash.security.CurrentUser;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.MappingMatch;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A GET sub-request of a batch, dispatched to the DispatcherServlet on a batch thread
+ *
+ * Everything it answers (headers, locale, principal, connection details) is copied from the batch
+ * request when it is created, so it never reads the container's request: a sub-request that is
+ * still running after its batch timed out cannot see the next request on the same connection.
+ * Accept is JSON (the result is embedded in the batch response) and Accept-Encoding is dropped.
+ */
+class SubRequest implements HttpServletRequest {
+
+    private static final String DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private final ServletContext servletContext;
+    private final String contextPath;
+    private final String requestUri;
+    private final String servletPath;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<Locale> locales;
+    private final Principal principal;
+    private final String scheme;
+    private final String serverName;
+    private final int serverPort;
+    private final String remoteAddr;
+    private final int remotePort;
+    private final String localAddr;
+    private final int localPort;
+    private final String protocol;
+    private String characterEncoding;
+
+    /**
+     * @param batch the batch request; only read here, on the thread serving it
+     * @param path the sub-request's path and query, relative to the context path
+     */
+    SubRequest(HttpServletRequest batch, String path, Principal principal) {
+        int query = path.indexOf('?');
+        String rawPath = query >= 0 ? path.substring(0, query) : path;
+        this.servletContext = batch.getServletContext();
+        this.contextPath = batch.getContextPath();
+        this.requestUri = contextPath + rawPath;
+        this.servletPath = UriUtils.decode(rawPath, StandardCharsets.UTF_8);
+        this.queryString = query >= 0 ? path.substring(query + 1) : null;
+        this.parameters = parseQuery(queryString);
+        this.principal = principal;
+        Object userId = batch.getAttribute(CurrentUser.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            attributes.put(CurrentUser.USER_ID_ATTRIBUTE, userId);
+        }
+        for (Enumeration<String> names = batch.getHeaderNames(); names.hasMoreElements(); ) {
+            String name = names.nextElement();
+            if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE) && !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+                    && !name.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING) && !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)) {
+                headers.put(name, Collections.list(batch.getHeaders(name)));
+            }
+        }
+        headers.put(HttpHeaders.ACCEPT, List.of(MediaType.APPLICATION_JSON_VALUE));
+        this.locales = Collections.list(batch.getLocales());
+        this.scheme = batch.getScheme();
+        this.serverName = batch.getServerName();
+        this.serverPort = batch.getServerPort();
+        this.remoteAddr = batch.getRemoteAddr();
+        this.remotePort = batch.getRemotePort();
+        this.localAddr = batch.getLocalAddr();
+        this.localPort = batch.getLocalPort();
+        this.protocol = batch.getProtocol();
+    }
+
+    private static Map<String, String[]> parseQuery(String queryString) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        if (queryString != null) {
+            for (String pair : queryString.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = decodeQuery(equals >= 0 ? pair.substring(0, equals) : pair);
+                String value = equals >= 0 ? decodeQuery(pair.substring(equals + 1)) : "";
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(String[]::new)));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    private static String decodeQuery(String value) {
+        return UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8);
+    }
+
+    // Request line and mapping
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(scheme).append("://").append(serverName);
+        if (!(scheme.equals("http") && serverPort == 80) && !(scheme.equals("https") && serverPort == 443)) {
+            url.append(':').append(serverPort);
+        }
+        return url.append(requestUri);
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return new HttpServletMapping() {
+            @Override
+            public String getMatchValue() {
+                return "";
+            }
+
+            @Override
+            public String getPattern() {
+                return "/";
+            }
+
+            @Override
+            public String getServletName() {
+                return "dispatcherServlet";
+            }
+
+            @Override
+            public MappingMatch getMappingMatch() {
+                return MappingMatch.DEFAULT;
+            }
+        };
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return scheme.equals("https");
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    // Parameters and body (sub-requests have no body)
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values.clone();
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return -1;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(jakarta.servlet.ReadListener readListener) {
+                throw new UnsupportedOperationException("Batched requests are synchronous");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(InputStream.nullInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return List.of();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return null;
+    }
+
+    // Headers
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT, Locale.US);
+            format.setTimeZone(java.util.TimeZone.getTimeZone("GMT"));
+            return format.parse(value).getTime();
+        } catch (java.text.ParseException e) {
+            throw new IllegalArgumentException("Cannot parse date header " + name + ": " + value, e);
+        }
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locales.isEmpty() ? Locale.getDefault() : locales.get(0);
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(locales.isEmpty() ? List.of(Locale.getDefault()) : locales);
+    }
+
+    // Attributes
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    // Security: the batch's authentication; no sessions
+
+    @Override
+    public Principal getUserPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return principal == null ? null : principal.getName();
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return principal instanceof org.springframework.security.core.Authentication authentication
+                && authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        return principal != null;
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw new UnsupportedOperationException("Batched requests use the batch's authentication");
+    }
+
+    @Override
+    public void logout() {
+        throw new UnsupportedOperationException("Batched requests use the batch's authentication");
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new IllegalStateException("Batched requests have no session");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("Batched requests have no session");
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    // Connection
+
+    @Override
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteAddr;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remotePort;
+    }
+
+    @Override
+    public String getLocalName() {
+        return localAddr;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return localAddr;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return localPort;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return null;
+    }
+
+    @Override
+    public String getRequestId() {
+        return "";
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        throw new UnsupportedOperationException("Batched requests have no connection of their own");
+    }
+
+    // Batched requests are answered synchronously: no async processing or upgrades
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Batched requests are synchronous");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Batched requests are synchronous");
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Batched requests are synchronous");
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw new IllegalStateException("Batched requests cannot be upgraded");
+    }
+
+}
@@ -0,0 +1,361 @@
+package com.moviedash.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The response of a batched sub-request, held in memory until the batch is assembled
+ *
+ * The body is limited to maxBody bytes; past that the sub-request fails with TooLarge instead of
+ * holding on to an unbounded buffer. sendError and sendRedirect only record the status (and message),
+ * since there is no container error page to forward to.
+ */
+class SubResponse implements HttpServletResponse {
+
+    private final int maxBody;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    private int status = SC_OK;
+    private String errorMessage;
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+    private String contentType;
+    private Locale locale = Locale.getDefault();
+    private boolean committed;
+    private boolean overflowed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Thrown when a sub-request writes more than the batch allows for one response
+     */
+    static class TooLarge extends IOException {
+        TooLarge(int maxBody) {
+            super("Response exceeds the batch limit of " + maxBody + " bytes");
+        }
+    }
+
+    SubResponse(int maxBody) {
+        this.maxBody = maxBody;
+    }
+
+    /**
+     * Everything written so far, flushing getWriter()'s buffer first
+     */
+    byte[] body() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Whether the sub-request tried to write more than maxBody; whatever it did afterwards
+     * (an error handler writing its own body, say) is not a usable response
+     */
+    boolean overflowed() {
+        return overflowed;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+
+    // Status
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        if (!committed) {
+            this.status = sc;
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        resetBuffer();
+        this.status = sc;
+        this.errorMessage = msg;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        resetBuffer();
+        setHeader("Location", location);
+        this.status = SC_FOUND;
+        this.committed = true;
+    }
+
+    // Headers
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed) {
+            return;
+        }
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+        } else if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.put(name, new ArrayList<>(List.of(value)));
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (committed || value == null) {
+            return;
+        }
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+        } else {
+            headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) || (name.equalsIgnoreCase("Content-Type") && contentType != null);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return contentType;
+        }
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return contentType == null ? List.of() : List.of(contentType);
+        }
+        return List.copyOf(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(headers.keySet());
+        if (contentType != null) {
+            names.add("Content-Type");
+        }
+        return names;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Sub-requests share the batch's connection and cannot set cookies
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    // Content type and length
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (!committed && writer == null && charset != null) {
+            this.characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) {
+            return;
+        }
+        this.contentType = type;
+        int charset = type == null ? -1 : type.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (charset >= 0) {
+            setCharacterEncoding(type.substring(charset + "charset=".length()).trim());
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // The body is buffered whole; its length is known when the batch is assembled
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // The body is buffered whole; its length is known when the batch is assembled
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        if (!committed && loc != null) {
+            this.locale = loc;
+        }
+    }
+
+    // Body
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new BufferOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return maxBody;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // Always buffered up to maxBody
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        body.reset();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        errorMessage = null;
+    }
+
+    private class BufferOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            if (overflowed || body.size() + 1 > maxBody) {
+                overflowed = true;
+                throw new TooLarge(maxBody);
+            }
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (overflowed || body.size() + len > maxBody) {
+                overflowed = true;
+                throw new TooLarge(maxBody);
+            }
+            body.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            committed = true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Batched responses are synchronous");
+        }
+
+    }
+
+}
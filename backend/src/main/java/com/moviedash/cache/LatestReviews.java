@@ -0,0 +1,84 @@
+package com.moviedash.cache;
+
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.event.ReviewChangedEvent;
+import com.moviedash.service.ReviewService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * LatestReviews
+ *
+ * Backs GET /reviews/latest, the newest reviews across all movies, without touching the database
+ * on reads.
+ *
+ * - Seeded from the newest reviews once all beans exist, before the web server accepts requests
+ * - Kept current from ReviewChangedEvent after commit: creates and updates are appended,
+ *   deletes are filtered out
+ * - Cursors are ring sequence numbers, starting from the boot time so a cursor from before a
+ *   restart simply returns an empty page
+ *
+ * The list is per node: reviews written on another node only appear here after a restart.
+ *
+ * Metrics: reviews.latest.snapshot.builds
+ */
+@Slf4j
+@Component
+public class LatestReviews implements SmartInitializingSingleton {
+
+    private final ReviewService reviewService;
+    private final RecentReviewRing ring;
+    private final int maxPageSize;
+
+    public LatestReviews(ReviewService reviewService,
+                         @Value("${reviews.latest.capacity:200}") int capacity,
+                         @Value("${reviews.latest.max-page-size:50}") int maxPageSize,
+                         MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        this.ring = new RecentReviewRing(capacity, System.currentTimeMillis());
+        this.maxPageSize = maxPageSize;
+        FunctionCounter.builder("reviews.latest.snapshot.builds", ring, RecentReviewRing::snapshotBuilds)
+                .description("Rebuilds of the shared latest-reviews snapshot after writes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seed the ring, oldest first so the newest review ends up at the head
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<ReviewResponse> newest = reviewService.getLatestReviews(ring.capacity());
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            ring.append(newest.get(i));
+        }
+        log.info("Latest reviews seeded with {} reviews", newest.size());
+    }
+
+    /**
+     * Newest reviews first
+     *
+     * @param before cursor from a previous page, or null for the first page
+     * @param limit page size, clamped to 1..reviews.latest.max-page-size
+     */
+    public RecentReviewRing.Page page(Long before, int limit) {
+        return ring.page(before, Math.max(1, Math.min(limit, maxPageSize)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getType() == ReviewChangedEvent.Type.DELETED) {
+            ring.remove(event.getReviewId());
+        } else {
+            ring.append(event.getReview());
+        }
+    }
+
+}
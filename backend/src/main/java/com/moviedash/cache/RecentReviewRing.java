@@ -0,0 +1,197 @@
+package com.moviedash.cache;
+
+import com.moviedash.dto.response.ReviewResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * RecentReviewRing
+ *
+ * Fixed-size, lock-free ring of the most recently written reviews, newest first.
+ *
+ * Design:
+ * - A writer claims the next sequence number with one atomic increment and publishes its slot with
+ *   a compare-and-set, so writers never block each other or readers
+ * - A delete replaces the matching slots with tombstones; an update is appended again and the
+ *   older copy of the same review is skipped when the snapshot is built
+ * - Readers share one immutable snapshot, rebuilt only when the ring has changed since it was
+ *   taken; reads between writes are a volatile read and a sublist
+ *
+ * Plain Java with no Spring dependencies (see bench/LatestReviewsBenchmark.java).
+ * The ReviewResponse objects are shared by every reader and must be treated as read-only.
+ */
+public final class RecentReviewRing {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSequence;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot;
+    private final AtomicLong snapshotBuilds = new AtomicLong();
+
+    /**
+     * @param capacity number of writes kept
+     * @param firstSequence sequence number (cursor value) of the first write
+     */
+    public RecentReviewRing(int capacity, long firstSequence) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+        this.nextSequence = new AtomicLong(firstSequence);
+        this.snapshot = new AtomicReference<>(new Snapshot(0, List.of(), new long[0]));
+    }
+
+    /**
+     * One review write
+     *
+     * @param review the review after the write, or null once it has been deleted
+     */
+    private record Slot(long sequence, ReviewResponse review) {
+    }
+
+    /**
+     * Immutable view of the ring: reviews newest first, at most one entry per review
+     *
+     * @param sequences cursor value of each review, same order (descending)
+     */
+    private record Snapshot(long version, List<ReviewResponse> reviews, long[] sequences) {
+    }
+
+    /**
+     * One page of the latest reviews
+     *
+     * @param nextCursor value to pass as before for the next page, or null on the last page
+     */
+    public record Page(List<ReviewResponse> reviews, Long nextCursor) {
+    }
+
+    /**
+     * Record a created or updated review as the newest entry
+     *
+     * @return the sequence number assigned to the write
+     */
+    public long append(ReviewResponse review) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = index(sequence);
+        Slot slot = new Slot(sequence, review);
+        while (true) {
+            Slot current = slots.get(index);
+            // A writer that lapped this one has already stored a newer write in the slot
+            if (current != null && current.sequence() > sequence) {
+                break;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                break;
+            }
+        }
+        version.incrementAndGet();
+        return sequence;
+    }
+
+    /**
+     * Drop a deleted review from the ring
+     */
+    public void remove(Long reviewId) {
+        for (int i = 0; i < slots.length(); i++) {
+            Slot current = slots.get(i);
+            if (current != null && current.review() != null && reviewId.equals(current.review().getId())) {
+                // Fails only if the slot was overwritten meanwhile, which removed the review anyway
+                slots.compareAndSet(i, current, new Slot(current.sequence(), null));
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Newest reviews, optionally continuing from a cursor
+     *
+     * @param before cursor from a previous page (only reviews older than it are returned), or null
+     * @param limit maximum number of reviews
+     */
+    public Page page(Long before, int limit) {
+        Snapshot current = snapshot();
+        int from = before == null ? 0 : firstOlderThan(current.sequences(), before);
+        int to = Math.min(current.reviews().size(), from + Math.max(0, limit));
+        Long nextCursor = to < current.reviews().size() && to > from ? current.sequences()[to - 1] : null;
+        return new Page(current.reviews().subList(from, to), nextCursor);
+    }
+
+    /**
+     * Number of snapshot rebuilds so far (one per batch of writes that was followed by a read)
+     */
+    public long snapshotBuilds() {
+        return snapshotBuilds.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private Snapshot snapshot() {
+        long currentVersion = version.get();
+        Snapshot current = snapshot.get();
+        if (current.version() == currentVersion) {
+            return current;
+        }
+        Snapshot rebuilt = build(currentVersion);
+        snapshotBuilds.incrementAndGet();
+        // Concurrent readers may rebuild at the same time; keep whichever saw the most writes
+        snapshot.accumulateAndGet(rebuilt, (existing, candidate) ->
+                candidate.version() > existing.version() ? candidate : existing);
+        return rebuilt;
+    }
+
+    /**
+     * Walk the ring from the newest sequence down. Slots still being written (or already reused by a
+     * newer write) do not hold the expected sequence and are skipped; they are picked up by the next
+     * rebuild, since every write bumps the version after publishing its slot.
+     */
+    private Snapshot build(long snapshotVersion) {
+        long newest = nextSequence.get() - 1;
+        long oldest = newest - slots.length() + 1;
+        List<ReviewResponse> reviews = new ArrayList<>(slots.length());
+        long[] sequences = new long[slots.length()];
+        Set<Long> seen = new HashSet<>();
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence() != sequence) {
+                continue;
+            }
+            // Skips tombstones and older copies of a review that was updated since
+            Long reviewId = slot.review() != null ? slot.review().getId() : null;
+            if (reviewId != null && seen.add(reviewId)) {
+                sequences[reviews.size()] = sequence;
+                reviews.add(slot.review());
+            }
+        }
+        return new Snapshot(snapshotVersion, Collections.unmodifiableList(reviews),
+                Arrays.copyOf(sequences, reviews.size()));
+    }
+
+    /**
+     * Index of the first sequence below the cursor (sequences are in descending order)
+     */
+    private static int firstOlderThan(long[] sequences, long before) {
+        int low = 0;
+        int high = sequences.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sequences[middle] >= before) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int index(long sequence) {
+        return (int) Math.floorMod(sequence, (long) slots.length());
+    }
+
+}
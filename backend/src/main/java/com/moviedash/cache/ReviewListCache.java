@@ -0,0 +1,173 @@
+package com.moviedash.cache;
+
+import com.moviedash.event.ReviewChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ReviewListCache
+ *
+ * Bounded cache of fully serialized, gzip-compressed GET /reviews/movie/{movieId} bodies.
+ *
+ * Design:
+ * - The public review list is identical for every caller, so the compressed bytes are built once
+ *   and served as-is to clients that accept gzip
+ * - Bodies are kept off-heap in direct ByteBuffers; readers get a read-only duplicate
+ * - Eviction is least-recently-used and bounded by total compressed bytes, not entry count
+ * - ReviewService writes invalidate the movie's entry after commit; a version counter bumped on
+ *   every invalidation keeps a concurrent reader from re-inserting a body loaded before the write
+ * - Entries have no time limit, so the controller loads them from the primary even with
+ *   datasource.routing (PublicReviewReads.getMovieReviewsFromPrimary); a replica still behind the
+ *   write would otherwise refill the entry with the old list
+ *
+ * Metrics: reviews.cache.requests{result=hit|miss}, reviews.cache.hit.ratio,
+ * reviews.cache.bytes.saved (identity minus gzip bytes per hit), reviews.cache.size.bytes
+ */
+@Component
+public class ReviewListCache {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<Integer, CachedBody> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong version = new AtomicLong();
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ReviewListCache(@Value("${reviews.cache.max-bytes:16777216}") long maxBytes,
+                           MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+        this.hits = Counter.builder("reviews.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("reviews.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.bytesSaved = Counter.builder("reviews.cache.bytes.saved")
+                .description("Uncompressed minus compressed bytes for responses served from the cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("reviews.cache.hit.ratio", this, ReviewListCache::hitRatio).register(meterRegistry);
+        Gauge.builder("reviews.cache.size.bytes", this, ReviewListCache::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached, gzip-compressed body
+     *
+     * @param gzip read-only view of the compressed bytes
+     * @param identityLength size of the uncompressed body
+     */
+    public record CachedBody(ByteBuffer gzip, int identityLength) {
+
+        public CachedBody duplicate() {
+            return new CachedBody(gzip.duplicate(), identityLength);
+        }
+
+    }
+
+    /**
+     * Get the compressed body for a movie, serializing and compressing it on a miss
+     *
+     * @param movieId the TMDb movie ID
+     * @param serializer produces the uncompressed JSON body
+     * @return the cached body, positioned at its start
+     */
+    public CachedBody get(Integer movieId, Supplier<byte[]> serializer) {
+        synchronized (entries) {
+            CachedBody cached = entries.get(movieId);
+            if (cached != null) {
+                hits.increment();
+                bytesSaved.increment(cached.identityLength() - cached.gzip().remaining());
+                return cached.duplicate();
+            }
+        }
+        misses.increment();
+
+        long loadedAt = version.get();
+        CachedBody body = compress(serializer.get());
+        if (body.gzip().remaining() <= maxEntryBytes) {
+            synchronized (entries) {
+                // Skip the insert if a write committed while we were loading
+                if (version.get() == loadedAt) {
+                    put(movieId, body);
+                }
+            }
+        }
+        return body.duplicate();
+    }
+
+    /**
+     * Drop the cached body of a movie once a review change commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        evict(event.getMovieId());
+    }
+
+    public void evict(Integer movieId) {
+        version.incrementAndGet();
+        synchronized (entries) {
+            CachedBody removed = entries.remove(movieId);
+            if (removed != null) {
+                currentBytes -= removed.gzip().capacity();
+            }
+        }
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    public long sizeInBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    private void put(Integer movieId, CachedBody body) {
+        CachedBody previous = entries.put(movieId, body);
+        if (previous != null) {
+            currentBytes -= previous.gzip().capacity();
+        }
+        currentBytes += body.gzip().capacity();
+
+        Iterator<Map.Entry<Integer, CachedBody>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Integer, CachedBody> entry = eldest.next();
+            currentBytes -= entry.getValue().gzip().capacity();
+            eldest.remove();
+        }
+    }
+
+    private static CachedBody compress(byte[] identity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = bytes.toByteArray();
+        ByteBuffer direct = ByteBuffer.allocateDirect(compressed.length);
+        direct.put(compressed).flip();
+        return new CachedBody(direct.asReadOnlyBuffer(), identity.length);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.moviedash.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * AotBuildConditions
+ *
+ * An AOT build (mvn -Paot) decides every @ConditionalOnProperty and the active profiles when it is
+ * built; at run time those properties are no longer read. A jar built with sharding.enabled=false
+ * and started with SHARDING_ENABLED=true would silently run unsharded.
+ *
+ * AotBuildConditionsRecorder writes the build's values to RESOURCE; when the generated bean
+ * definitions are used (spring.aot.enabled=true), this post-processor compares them with the run's
+ * and refuses to start on any difference. Without AOT it does nothing.
+ */
+public class AotBuildConditions implements EnvironmentPostProcessor, Ordered {
+
+    static final String RESOURCE = "META-INF/moviedash/aot-conditions.properties";
+    static final String PROFILES = "(active profiles)";
+
+    /**
+     * Every property a @ConditionalOnProperty of this application reads, with its default
+     */
+    private static final Map<String, String> PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        PROPERTIES.put("datasource.routing.enabled", "false");
+        PROPERTIES.put("sharding.enabled", "false");
+        PROPERTIES.put("favorites.store", "jpa");
+        PROPERTIES.put("outbox.enabled", "true");
+        PROPERTIES.put("outbox.poller-enabled", "true");
+        PROPERTIES.put("reviews.group-commit.enabled", "false");
+        PROPERTIES.put("hot-keys.enabled", "true");
+    }
+
+    /**
+     * The values the conditions are decided on, as the conditions compare them (ignoring case)
+     */
+    static Map<String, String> resolve(Environment environment) {
+        Map<String, String> values = new LinkedHashMap<>();
+        PROPERTIES.forEach((name, defaultValue) ->
+                values.put(name, environment.getProperty(name, defaultValue).trim().toLowerCase(Locale.ROOT)));
+        values.put(PROFILES, String.join(",", environment.getActiveProfiles()));
+        return values;
+    }
+
+    /**
+     * Properties whose value differs from the build's, one description each
+     */
+    static List<String> differences(Properties built, Environment environment) {
+        List<String> differences = new ArrayList<>();
+        resolve(environment).forEach((name, value) -> {
+            String builtValue = built.getProperty(name);
+            if (builtValue != null && !builtValue.equals(value)) {
+                differences.add(name + " is '" + value + "' but the AOT build used '" + builtValue + "'");
+            }
+        });
+        return differences;
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        ClassPathResource resource = new ClassPathResource(RESOURCE, AotBuildConditions.class.getClassLoader());
+        if (!resource.exists()) {
+            return;
+        }
+        Properties built = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            built.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+        List<String> differences = differences(built, environment);
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException("This AOT build does not match the configuration: "
+                    + String.join("; ", differences)
+                    + ". Rebuild with mvn -Paot using these values, or start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    /**
+     * After the config files and profiles are loaded
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+}
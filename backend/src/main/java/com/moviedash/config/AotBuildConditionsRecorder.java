@@ -0,0 +1,33 @@
+package com.moviedash.config;
+
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Writes the values the AOT build decided its conditions on, for AotBuildConditions to check at startup
+ * Registered in META-INF/spring/aot.factories; runs only during mvn -Paot
+ */
+class AotBuildConditionsRecorder implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Properties built = new Properties();
+        built.putAll(AotBuildConditions.resolve(beanFactory.getBean(Environment.class)));
+        StringWriter content = new StringWriter();
+        try {
+            built.store(content, "Values the AOT build decided @ConditionalOnProperty on");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return (generationContext, code) ->
+                generationContext.getGeneratedFiles().addResourceFile(AotBuildConditions.RESOURCE, content.toString());
+    }
+
+}
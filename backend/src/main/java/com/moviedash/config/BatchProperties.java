@@ -0,0 +1,41 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for POST /batch (batch.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+
+    /**
+     * Most sub-requests in one batch
+     */
+    private int maxRequests = 25;
+
+    /**
+     * Threads that run sub-requests, shared by all batches
+     */
+    private int threads = 8;
+
+    /**
+     * Sub-requests that may wait for a thread; beyond that they are answered 503
+     */
+    private int queueCapacity = 200;
+
+    /**
+     * How long after the batch starts each sub-request may take; later ones are answered 504
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Largest body a sub-request may return; larger ones are answered 502
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+}
@@ -0,0 +1,55 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the adaptive concurrency limiter (limiter.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "limiter")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 200;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 1000;
+
+    /**
+     * Requests slower than this shrink the limit
+     */
+    private Duration latencyTarget = Duration.ofMillis(500);
+
+    /**
+     * Multiplier applied to the limit on a slow or failed request, at most once per round trip
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Share of the limit anonymous requests may use
+     */
+    private double anonymousShare = 0.8;
+
+    /**
+     * Share of the limit anonymous GET /reviews/movie/** requests may use
+     */
+    private double publicReviewsShare = 0.5;
+
+    /**
+     * Value of the Retry-After header on shed requests, in seconds
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Paths that are never limited (health checks, cheap probes)
+     */
+    private List<String> bypassPaths = new ArrayList<>(List.of("/actuator/health", "/auth/test"));
+
+}
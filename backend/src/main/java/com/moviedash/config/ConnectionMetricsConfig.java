@@ -0,0 +1,35 @@
+package com.moviedash.config;
+
+import com.moviedash.datasource.ConnectionHoldTimeDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * ConnectionMetricsConfig
+ *
+ * Wraps the application DataSource so connection hold time can be measured per request.
+ *
+ * @see com.moviedash.filter.ConnectionHoldTimeFilter
+ */
+@Configuration
+public class ConnectionMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldTimePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName)
+                        && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
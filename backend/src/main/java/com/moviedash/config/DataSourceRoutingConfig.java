@@ -0,0 +1,81 @@
+package com.moviedash.config;
+
+import com.moviedash.datasource.ReadWriteRoutingDataSource;
+import com.moviedash.datasource.ReadYourWritesTracker;
+import com.moviedash.datasource.ReplicaPool;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSourceRoutingConfig
+ *
+ * Replaces the auto-configured DataSource with a read/write routing one when
+ * datasource.routing.enabled=true. Services opt into replica reads by marking
+ * their read methods @Transactional(readOnly = true).
+ *
+ * Local setup with two H2 databases:
+ *   spring.datasource.url=jdbc:h2:file:./data/moviedash;AUTO_SERVER=TRUE
+ *   datasource.routing.enabled=true
+ *   datasource.routing.replicas[0].url=jdbc:h2:file:./data/moviedash-replica;AUTO_SERVER=TRUE
+ *   datasource.routing.replicas[0].username=sa
+ *
+ * @see ReadWriteRoutingDataSource for the routing rules
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties primaryProperties,
+                                 DataSourceRoutingProperties routingProperties,
+                                 Environment environment) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routingProperties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setDriverClassName(primaryProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(routingProperties.getReplicaPoolSize());
+            pool.setConnectionTimeout(routingProperties.getReplicaConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Do not fail startup because a replica is down; the pool reports it on first use
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(pool);
+        }
+
+        return new ReadWriteRoutingDataSource(
+                primary,
+                new ReplicaPool(replicas, routingProperties.getReplicaCoolDown()),
+                new ReadYourWritesTracker(routingProperties.getReadYourWritesWindow()));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for read/write datasource routing (datasource.routing.*)
+ *
+ * The primary keeps using spring.datasource.*; replicas are listed as
+ * datasource.routing.replicas[n].url / username / password.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Route read-only transactions to the replicas
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long a user's reads stay on the primary after they commit a write
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * How long a replica that failed to hand out a connection is skipped
+     */
+    private Duration replicaCoolDown = Duration.ofSeconds(10);
+
+    /**
+     * How long to wait for a replica connection before trying the next replica
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Maximum pool size of each replica pool
+     */
+    private int replicaPoolSize = 10;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.moviedash.config;
+
+import com.moviedash.favorite.FavoriteLog;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the log favorite store (favorites.log.*), used with favorites.store=log
+ */
+@Data
+@ConfigurationProperties(prefix = "favorites.log")
+public class FavoriteLogProperties {
+
+    /**
+     * Directory holding favorites.log; one process at a time may use it
+     */
+    private String dir = "./data/favorites";
+
+    /**
+     * ALWAYS: force every write to disk before it returns; INTERVAL: force written records every fsyncInterval
+     */
+    private FavoriteLog.Durability fsync = FavoriteLog.Durability.INTERVAL;
+
+    private Duration fsyncInterval = Duration.ofMillis(10);
+
+    /**
+     * Size by which the log file grows and is mapped
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Compact once this share of the records are removed or removes
+     */
+    private double compactGarbageRatio = 0.5;
+
+    /**
+     * Do not compact logs with fewer records than this
+     */
+    private long compactMinRecords = 100_000;
+
+}
@@ -0,0 +1,61 @@
+package com.moviedash.config;
+
+import com.moviedash.favorite.FavoriteLog;
+import com.moviedash.favorite.FavoriteStore;
+import com.moviedash.favorite.JpaFavoriteStore;
+import com.moviedash.favorite.LogFavoriteStore;
+import com.moviedash.repository.FavoriteRepository;
+import com.moviedash.repository.MovieMetadataRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * FavoriteStoreConfig
+ *
+ * Provides the FavoriteStore behind FavoriteService (favorites.store):
+ * - jpa (default): the favorites table
+ * - log: an append-only memory-mapped log under favorites.log.dir, recovered at startup. Favorites
+ *   in the table are not migrated, and the log is not sharded even when sharding is enabled.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(FavoriteLogProperties.class)
+public class FavoriteStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "favorites.store", havingValue = "jpa", matchIfMissing = true)
+    public FavoriteStore jpaFavoriteStore(FavoriteRepository favoriteRepository,
+                                          ApplicationEventPublisher eventPublisher) {
+        return new JpaFavoriteStore(favoriteRepository, eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "favorites.store", havingValue = "log")
+    public LogFavoriteStore logFavoriteStore(FavoriteLogProperties properties,
+                                             MovieMetadataRepository movieMetadataRepository,
+                                             MeterRegistry meterRegistry,
+                                             Environment environment) {
+        if (environment.getProperty("sharding.enabled", Boolean.class, false)) {
+            log.warn("favorites.store=log keeps favorites on this node's disk; they are not sharded");
+        }
+        FavoriteLog favoriteLog;
+        try {
+            favoriteLog = FavoriteLog.open(Path.of(properties.getDir()), new FavoriteLog.Options(
+                    properties.getFsync(), properties.getFsyncInterval(), properties.getChunkSize().toBytes()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the favorite log in " + properties.getDir(), e);
+        }
+        return new LogFavoriteStore(favoriteLog, movieMetadataRepository,
+                properties.getCompactGarbageRatio(), properties.getCompactMinRecords(), meterRegistry);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the transactional outbox and its poller (outbox.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether review and favorite writes add outbox events
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether this node delivers outbox events to its consumers; with several nodes, one is enough
+     */
+    private boolean pollerEnabled = true;
+
+    /**
+     * Most events handed to a consumer at once, per shard
+     */
+    private int batchSize = 200;
+
+    /**
+     * Most batches per consumer and shard in one poll, so a backlog cannot hold the scheduler thread
+     */
+    private int maxBatchesPerPoll = 10;
+
+    /**
+     * Partitions a batch is split into by the consumer's partition key, each delivered on its own thread
+     */
+    private int lanes = 4;
+
+    /**
+     * How long a missing event ID is waited for before it is taken to be a rolled-back write
+     */
+    private Duration gapTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Wait before a failed batch is retried, doubled on every further failure up to maxRetryBackoff
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private Duration maxRetryBackoff = Duration.ofMinutes(1);
+
+    /**
+     * How long delivered events are kept before the cleanup deletes them
+     */
+    private Duration retention = Duration.ofHours(24);
+
+}
@@ -0,0 +1,65 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the circuit breaker and stale copies behind public review reads (public-reads.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "public-reads")
+public class PublicReadsProperties {
+
+    /**
+     * Guard GET /reviews/movie/{movieId} and its stats with the breaker; off = read straight through
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of recent calls the failure and slow-call rates are computed over
+     */
+    private int windowSize = 20;
+
+    /**
+     * Calls needed in the window before the breaker can open
+     */
+    private int minimumCalls = 10;
+
+    /**
+     * Share of failed calls in the window that opens the breaker
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * Calls that take at least this long count as slow
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(1);
+
+    /**
+     * Share of slow calls in the window that opens the breaker
+     */
+    private double slowCallRateThreshold = 0.8;
+
+    /**
+     * How long the breaker stays open before it lets probe calls through
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Probe calls let through while half-open; all must succeed to close the breaker
+     */
+    private int halfOpenProbes = 3;
+
+    /**
+     * Movies whose last good review list and stats are kept for stale answers
+     */
+    private int staleMaxEntries = 10_000;
+
+    /**
+     * Stale copies older than this are not served
+     */
+    private Duration staleMaxAge = Duration.ofHours(1);
+
+}
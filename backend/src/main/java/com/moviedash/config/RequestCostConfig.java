@@ -0,0 +1,24 @@
+package com.moviedash.config;
+
+import com.moviedash.datasource.SqlStatementCount;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RequestCostConfig
+ *
+ * Lets Hibernate report every statement it prepares, so SQL statements can be counted per request.
+ *
+ * @see com.moviedash.filter.RequestCostFilter
+ */
+@Configuration
+public class RequestCostConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCount());
+    }
+
+}
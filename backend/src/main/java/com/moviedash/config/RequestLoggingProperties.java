@@ -0,0 +1,35 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for per-request access logging (request-logging.*)
+ *
+ * Errors and slow requests are always logged; successful requests are sampled.
+ * Per-route rates are keyed by the matched route pattern, e.g.
+ * request-logging.route-sample-rates[/reviews/movie/{movieId}]=0.001
+ */
+@Data
+@ConfigurationProperties(prefix = "request-logging")
+public class RequestLoggingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of successful requests to log when the route has no explicit rate (0.0 - 1.0)
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requests slower than this are always logged
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    private Map<String, Double> routeSampleRates = new HashMap<>();
+
+}
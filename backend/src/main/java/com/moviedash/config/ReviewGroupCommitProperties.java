@@ -0,0 +1,45 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for group-committed review submissions (reviews.group-commit.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "reviews.group-commit")
+public class ReviewGroupCommitProperties {
+
+    /**
+     * Whether POST /reviews goes through the group-commit writer instead of one transaction per request
+     */
+    private boolean enabled = false;
+
+    /**
+     * Writer threads, each with its own queue and connection; a user's submissions always go to the same one
+     */
+    private int writers = 4;
+
+    /**
+     * Most submissions written in one transaction
+     */
+    private int maxBatch = 200;
+
+    /**
+     * How long the writer waits for more submissions after the first one of a batch
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * Submissions that may wait for the writers, split evenly between them; beyond that they are answered 503
+     */
+    private int queueCapacity = 5000;
+
+    /**
+     * How long a request waits for its batch to commit before it is answered 503
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,60 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the live review feed, GET /reviews/movie/{movieId}/stream (reviews.stream.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "reviews.stream")
+public class ReviewStreamProperties {
+
+    /**
+     * Open streams allowed on this node; further subscribers get 503
+     */
+    private int maxSubscribers = 50_000;
+
+    /**
+     * Events queued per subscriber before it is treated as a slow consumer and disconnected
+     */
+    private int subscriberBuffer = 64;
+
+    /**
+     * Most recent events kept for Last-Event-ID resume
+     */
+    private int replayCapacity = 1024;
+
+    /**
+     * Threads writing events to subscriber connections
+     */
+    private int sendThreads = 4;
+
+    /**
+     * A write blocked this long (the client stopped reading) disconnects the subscriber
+     */
+    private Duration writeTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Extra send threads allowed in place of threads whose abandoned writes wait out the socket timeout
+     */
+    private int stalledWriteThreads = 64;
+
+    /**
+     * Comment line sent to every subscriber so dead connections are noticed
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Streams are closed after this long; EventSource clients reconnect with Last-Event-ID
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Reconnect delay suggested to clients (SSE retry field)
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+}
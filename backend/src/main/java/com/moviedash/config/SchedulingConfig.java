@@ -0,0 +1,12 @@
+package com.moviedash.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. revoked token sync)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
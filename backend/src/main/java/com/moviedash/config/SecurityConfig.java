@@ -2,11 +2,12 @@ package com.moviedash.config;
 
 import com.moviedash.security.JwtAuthenticationFilter;
 import com.moviedash.security.JwtUtil;
+import com.moviedash.service.TokenRevocationService;
 import com.moviedash.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,6 +22,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebSecurity
@@ -28,11 +31,18 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
-    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Set<String> adminEmails;
 
-    public SecurityConfig(JwtUtil jwtUtil, @Lazy UserService userService) {
+    public SecurityConfig(JwtUtil jwtUtil, TokenRevocationService tokenRevocationService,
+                          @Value("${admin.emails:}") String adminEmails) {
         this.jwtUtil = jwtUtil;
-        this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Bean
@@ -45,9 +55,14 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * UserService is injected here rather than into the constructor: it needs the PasswordEncoder
+     * above, so this config must exist before it. A method parameter avoids the @Lazy proxy,
+     * whose class clashes with the AOT-generated transaction proxy of UserService.
+     */
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(UserService userService) {
+        return new JwtAuthenticationFilter(jwtUtil, userService, tokenRevocationService, adminEmails);
     }
 
     @Bean
@@ -65,16 +80,20 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**", "/", "/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics, Server-Timing switch, hot keys
                         .requestMatchers("/reviews/movie/**").permitAll() // Public: view movie reviews
+                        .requestMatchers("/reviews/latest").permitAll() // Public: latest reviews across movies
+                        .requestMatchers("/admin/**").hasRole("ADMIN") // Users listed in admin.emails
                         .anyRequest().authenticated())
-                .addFilterBefore(jwtAuthenticationFilter(),
+                .addFilterBefore(jwtAuthenticationFilter,
                         org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
 
         // Allow H2 console frames
@@ -0,0 +1,197 @@
+package com.moviedash.config;
+
+import com.moviedash.entity.ShardMember;
+import com.moviedash.repository.FavoriteRepository;
+import com.moviedash.repository.ReviewRepository;
+import com.moviedash.repository.ShardMemberRepository;
+import com.moviedash.shard.ShardContext;
+import com.moviedash.shard.ShardRebalancer;
+import com.moviedash.shard.ShardRing;
+import com.moviedash.shard.ShardRoutingDataSource;
+import com.moviedash.shard.ShardRoutingInterceptor;
+import com.moviedash.shard.ShardSchema;
+import com.moviedash.shard.ShardTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * ShardingConfig
+ *
+ * Provides the ShardTemplate. With sharding.enabled=true it also replaces the auto-configured
+ * DataSource with a shard routing one and puts the shard router in front of FavoriteRepository and
+ * ReviewRepository; otherwise the template has a single shard and nothing is routed.
+ *
+ * Local setup with three H2 databases:
+ *   spring.datasource.url=jdbc:h2:file:./data/moviedash;AUTO_SERVER=TRUE
+ *   sharding.enabled=true
+ *   sharding.shards[0].url=jdbc:h2:file:./data/moviedash-shard1;AUTO_SERVER=TRUE
+ *   sharding.shards[1].url=jdbc:h2:file:./data/moviedash-shard2;AUTO_SERVER=TRUE
+ *
+ * On startup the other shards get the schema (when ddl-auto creates it), their ID ranges and copies
+ * of the reference tables; the ring is read from shard_members. The first start of an empty
+ * deployment puts every configured shard on the ring; if shard 0 already holds favorites or reviews,
+ * only shard 0 is, and POST /admin/shards/rebalance adds the others.
+ *
+ * Cannot be combined with datasource.routing (replica reads).
+ *
+ * @see ShardTemplate for how services use the shards
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public ShardTemplate shardTemplate() {
+        return new ShardTemplate();
+    }
+
+    @Slf4j
+    @Configuration
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    static class Enabled {
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties primaryProperties,
+                                                             ShardingProperties shardingProperties,
+                                                             Environment environment) {
+            if (environment.getProperty("datasource.routing.enabled", Boolean.class, false)) {
+                throw new IllegalStateException("sharding.enabled and datasource.routing.enabled cannot both be true");
+            }
+            HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+            primary.setPoolName("shard-0");
+
+            List<DataSource> shards = new ArrayList<>();
+            shards.add(primary);
+            for (int i = 0; i < shardingProperties.getShards().size(); i++) {
+                ShardingProperties.Shard shard = shardingProperties.getShards().get(i);
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("shard-" + (i + 1));
+                pool.setJdbcUrl(shard.getUrl());
+                pool.setUsername(shard.getUsername());
+                pool.setPassword(shard.getPassword());
+                pool.setDriverClassName(primaryProperties.determineDriverClassName());
+                pool.setMaximumPoolSize(shardingProperties.getShardPoolSize());
+                pool.setConnectionTimeout(shardingProperties.getShardConnectionTimeout().toMillis());
+                shards.add(pool);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        public static ShardSchema shardSchema() {
+            return new ShardSchema();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchema shardSchema) {
+            return properties -> properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(shardSchema));
+        }
+
+        @Bean
+        public static BeanPostProcessor shardRoutingPostProcessor(ObjectProvider<ShardTemplate> shardTemplate) {
+            ShardRoutingInterceptor router = new ShardRoutingInterceptor(shardTemplate);
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ((bean instanceof FavoriteRepository || bean instanceof ReviewRepository)
+                            && bean instanceof Advised advised) {
+                        // Outermost, so the shard is chosen before the repository's own transaction starts
+                        advised.addAdvice(0, router);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * Depends on the transaction manager, so the EntityManagerFactory (and shard 0's schema) is ready
+         */
+        @Bean
+        public ShardTemplate shardTemplate(ShardRoutingDataSource shardRoutingDataSource,
+                                           ShardSchema shardSchema,
+                                           ShardingProperties properties,
+                                           PlatformTransactionManager transactionManager,
+                                           ShardMemberRepository shardMemberRepository,
+                                           Environment environment) {
+            shardSchema.prepare(shardRoutingDataSource, environment.getProperty("spring.jpa.hibernate.ddl-auto", "none"));
+            for (int shard = 1; shard < shardRoutingDataSource.shardCount(); shard++) {
+                try {
+                    ShardRebalancer.syncReferenceTables(shardRoutingDataSource, shard);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not copy reference tables to shard " + shard, e);
+                }
+            }
+
+            List<Integer> members = new ArrayList<>(shardMemberRepository.findAll().stream()
+                    .map(ShardMember::getShardIndex)
+                    .toList());
+            if (members.isEmpty()) {
+                members = seedMembers(shardRoutingDataSource, shardMemberRepository);
+            }
+            for (int member : members) {
+                if (member >= shardRoutingDataSource.shardCount()) {
+                    throw new IllegalStateException("shard_members lists shard " + member + " but only "
+                            + shardRoutingDataSource.shardCount() + " shards are configured; its users would be unreachable");
+                }
+            }
+            ShardRing ring = new ShardRing(members, properties.getVirtualNodes());
+            log.info("Sharding enabled: {} shards configured, {} on the ring", shardRoutingDataSource.shardCount(), ring.shards());
+            return new ShardTemplate(shardRoutingDataSource, ring, transactionManager, properties.getScatterThreads());
+        }
+
+        @Bean
+        public ShardRebalancer shardRebalancer(ShardTemplate shardTemplate, ShardMemberRepository shardMemberRepository) {
+            return new ShardRebalancer(shardTemplate, shardMemberRepository);
+        }
+
+        private static List<Integer> seedMembers(ShardRoutingDataSource dataSource, ShardMemberRepository repository) {
+            List<Integer> members;
+            try {
+                members = ShardRebalancer.hasRows(dataSource, ShardContext.GLOBAL)
+                        ? List.of(ShardContext.GLOBAL)
+                        : IntStream.range(0, dataSource.shardCount()).boxed().toList();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not inspect shard 0", e);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            repository.saveAll(members.stream().map(shard -> new ShardMember(shard, now)).toList());
+            return new ArrayList<>(members);
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for user-based sharding of favorites and reviews (sharding.*)
+ *
+ * Shard 0 is the primary database (spring.datasource.*); sharding.shards[n] is shard n + 1.
+ */
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    /**
+     * Spread favorites and reviews over the configured shards by user
+     */
+    private boolean enabled = false;
+
+    /**
+     * Points per shard on the consistent-hash ring; more points even out the spread
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Threads running the per-shard queries of cross-shard reads
+     */
+    private int scatterThreads = 8;
+
+    /**
+     * Maximum pool size of each additional shard's pool
+     */
+    private int shardPoolSize = 10;
+
+    /**
+     * How long to wait for a shard connection
+     */
+    private Duration shardConnectionTimeout = Duration.ofSeconds(5);
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+}
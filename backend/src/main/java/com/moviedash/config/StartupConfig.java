@@ -0,0 +1,50 @@
+package com.moviedash.config;
+
+import com.moviedash.cache.LatestReviews;
+import com.moviedash.shard.ShardTemplate;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * StartupConfig
+ *
+ * Keeps critical beans eager when spring.main.lazy-initialization=true (prod profile).
+ *
+ * Always created at startup:
+ * - DataSource and EntityManagerFactory, so the first request does not pay for the Hibernate bootstrap
+ * - Servlet filters (security, limiter, logging)
+ * - Beans with @Scheduled methods, which are only registered with the scheduler once the bean exists
+ * - LatestReviews, which must be seeded before the first request
+ * - ShardTemplate, which prepares the shards and reads the ring before the first request
+ *
+ * Everything else (controllers, services, caches) is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        LazyInitializationExcludeFilter infrastructure = LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, EntityManagerFactory.class, Filter.class, LatestReviews.class,
+                ShardTemplate.class);
+        return (beanName, beanDefinition, beanType) ->
+                infrastructure.isExcluded(beanName, beanDefinition, beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> !found.get() && method.isAnnotationPresent(Scheduled.class));
+        return found.get();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.moviedash.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.filter.RequestTiming;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * TimedJacksonHttpMessageConverter
+ *
+ * Spring's JSON converter, unchanged, with each response body timed as the serialize phase of
+ * Server-Timing (RequestTiming).
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = RequestTiming.startSerialize();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTiming.recordSerialize(started);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.moviedash.config;
+
+import com.moviedash.tmdb.HttpTmdbClient;
+import com.moviedash.tmdb.TmdbClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+
+/**
+ * TmdbConfig
+ *
+ * Provides the TmdbClient used to fill the movie_metadata store.
+ * Without tmdb.api-key or tmdb.read-access-token the client is disabled: favorites are still served,
+ * just without movie details.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TmdbProperties.class)
+public class TmdbConfig {
+
+    @Bean
+    public TmdbClient tmdbClient(TmdbProperties properties, RestClient.Builder restClientBuilder) {
+        if (!properties.hasCredentials()) {
+            log.info("No TMDb credentials (tmdb.api-key / tmdb.read-access-token); movie metadata will not be loaded");
+            return TmdbClient.disabled();
+        }
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+
+        RestClient.Builder builder = restClientBuilder
+                .baseUrl(properties.getBaseUrl())
+                .requestFactory(requestFactory);
+        if (!properties.getReadAccessToken().isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getReadAccessToken());
+        }
+        return new HttpTmdbClient(builder.build(), properties.getApiKey());
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.moviedash.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * TMDb client and movie_metadata store settings (tmdb.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "tmdb")
+public class TmdbProperties {
+
+    /**
+     * TMDb v3 API root; point it at a stub for local testing
+     */
+    private String baseUrl = "https://api.themoviedb.org/3";
+
+    /**
+     * v3 API key (sent as api_key); either this or readAccessToken enables the client
+     */
+    private String apiKey = "";
+
+    /**
+     * v4 read access token (sent as a bearer token)
+     */
+    private String readAccessToken = "";
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Concurrent TMDb requests per node
+     */
+    private int maxConcurrency = 8;
+
+    /**
+     * How long GET /favorites?expand=movie waits for metadata that is not stored yet; movies still
+     * loading after that are returned without details and stored when they arrive
+     */
+    private Duration expandTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Stored metadata older than this is refreshed in the background
+     */
+    private Duration refreshAfter = Duration.ofDays(7);
+
+    /**
+     * Stale rows refreshed per run of the background job
+     */
+    private int refreshBatchSize = 200;
+
+    public boolean hasCredentials() {
+        return !apiKey.isBlank() || !readAccessToken.isBlank();
+    }
+
+}
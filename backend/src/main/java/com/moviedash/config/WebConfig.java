@@ -1,8 +1,12 @@
 package com.moviedash.config;
 
+import com.moviedash.hotkeys.HotKeyInterceptor;
+import com.moviedash.hotkeys.HotKeyTracker;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -11,6 +15,12 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    private final ObjectProvider<HotKeyTracker> hotKeyTracker;
+
+    public WebConfig(ObjectProvider<HotKeyTracker> hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -21,4 +31,12 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600);
     }
 
+    /**
+     * Count requests per movie, user and route (hot-keys.enabled)
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        hotKeyTracker.ifAvailable(tracker -> registry.addInterceptor(new HotKeyInterceptor(tracker)));
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.moviedash.controller;
+
+import com.moviedash.analytics.MovieTotalsProjection;
+import com.moviedash.analytics.RatingAggregation;
+import com.moviedash.analytics.ReviewAnalytics;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.MovieTotalsResponse;
+import com.moviedash.dto.response.RatingAnalyticsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rating analytics for admins (ROLE_ADMIN, see admin.emails)
+ * Answered from the in-memory ReviewAnalytics snapshot, never from the reviews table; movie
+ * totals come from movie_totals, kept up to date from the outbox (MovieTotalsProjection)
+ */
+@RestController
+@RequestMapping("/admin/analytics")
+@RequiredArgsConstructor
+public class AdminAnalyticsController {
+
+    private final ReviewAnalytics reviewAnalytics;
+    private final MovieTotalsProjection movieTotalsProjection;
+
+    /**
+     * Rating distribution per group
+     * GET /admin/analytics/ratings?by=movie|day|week|month|cohort&movieId=&userId=&from=&to=&limit=
+     *
+     * - movie: most reviewed movies first
+     * - day / week / month: chronological, with the cumulative average for rating drift
+     * - cohort: by the reviewer's sign-up month
+     * from / to are ISO dates (inclusive) on the review's creation day.
+     */
+    @GetMapping("/ratings")
+    public ResponseEntity<ApiResponse<RatingAnalyticsResponse>> getRatingDistribution(
+            @RequestParam(defaultValue = "movie") String by,
+            @RequestParam(required = false) Integer movieId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "100") int limit) {
+        RatingAggregation.GroupBy groupBy;
+        try {
+            groupBy = RatingAggregation.GroupBy.valueOf(by.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("by must be one of movie, day, week, month, cohort"));
+        }
+        RatingAggregation.Filter filter = new RatingAggregation.Filter(movieId, userId,
+                from != null ? (int) from.toEpochDay() : null,
+                to != null ? (int) to.toEpochDay() : null);
+        return ResponseEntity.ok(ApiResponse.success(reviewAnalytics.ratings(groupBy, filter, limit)));
+    }
+
+    /**
+     * Movies with the most favorites, reviews or the best average rating
+     * GET /admin/analytics/movies?sort=favorites|reviews|rating&limit=
+     *
+     * Trails review and favorite writes by about one outbox poll (outbox.poll-interval).
+     * With favorites.store=log favorites are not counted: favoriteCount is null, sort defaults to
+     * reviews and sort=favorites is rejected.
+     */
+    @GetMapping("/movies")
+    public ResponseEntity<ApiResponse<List<MovieTotalsResponse>>> getMovieTotals(
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "20") int limit) {
+        boolean countsFavorites = movieTotalsProjection.countsFavorites();
+        if (sort == null) {
+            sort = countsFavorites ? "favorites" : "reviews";
+        }
+        MovieTotalsProjection.SortBy sortBy;
+        try {
+            sortBy = MovieTotalsProjection.SortBy.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("sort must be one of favorites, reviews, rating"));
+        }
+        if (sortBy == MovieTotalsProjection.SortBy.FAVORITES && !countsFavorites) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Favorites are not counted with favorites.store=log; sort by reviews or rating"));
+        }
+        List<MovieTotalsResponse> totals = movieTotalsProjection.top(sortBy, Math.min(limit, 1000)).stream()
+                .map(movie -> new MovieTotalsResponse(movie.getMovieId(), movie.getReviewCount(),
+                        movie.getAverageRating(), countsFavorites ? movie.getFavoriteCount() : null,
+                        movie.getUpdatedAt()))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(totals));
+    }
+
+    /**
+     * Rebuild the snapshot now instead of waiting for the next scheduled check
+     * POST /admin/analytics/rebuild
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuild() {
+        reviewAnalytics.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Analytics snapshot rebuilt", null));
+    }
+
+}
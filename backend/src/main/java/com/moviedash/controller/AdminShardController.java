@@ -0,0 +1,49 @@
+package com.moviedash.controller;
+
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.ShardStatusResponse;
+import com.moviedash.shard.ShardRebalancer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Shard status and rebalancing for admins (ROLE_ADMIN, see admin.emails)
+ * Only present with sharding.enabled=true
+ */
+@RestController
+@RequestMapping("/admin/shards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class AdminShardController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * Ring members, rows per shard and the state of the last rebalance
+     * GET /admin/shards
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<ShardStatusResponse>> getStatus() {
+        return ResponseEntity.ok(ApiResponse.success(shardRebalancer.status()));
+    }
+
+    /**
+     * Move users onto the configured shards that are not on the ring yet
+     * POST /admin/shards/rebalance
+     *
+     * Runs in the background; poll GET /admin/shards for progress.
+     */
+    @PostMapping("/rebalance")
+    public ResponseEntity<ApiResponse<ShardStatusResponse>> rebalance() {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Rebalance started", shardRebalancer.start()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+}
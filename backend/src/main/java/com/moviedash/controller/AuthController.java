@@ -3,18 +3,25 @@ package com.moviedash.controller;
 import com.moviedash.dto.request.LoginRequest;
 import com.moviedash.dto.request.RegisterRequest;
 import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.AuthResponse;
+import com.moviedash.dto.response.AvailabilityResponse;
+import com.moviedash.dto.response.StatusResponse;
+import com.moviedash.dto.response.UserResponse;
 import com.moviedash.entity.User;
 import com.moviedash.security.JwtUtil;
+import com.moviedash.service.TokenRevocationService;
 import com.moviedash.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * AuthController
@@ -29,12 +36,16 @@ import java.util.Map;
  * 2. Server validates credentials and generates JWT token
  * 3. Client stores token and includes it in subsequent requests
  * 4. JwtAuthenticationFilter validates token for protected endpoints
+ * 5. Logout revokes the token's jti server-side until it expires
+ *
+ * The sign-up form checks usernames as they are typed (GET /auth/available), answered from
+ * memory by UserAvailabilityIndex.
  *
  * Security Notes:
  * - Uses JWT (JSON Web Tokens) for stateless authentication
  * - Passwords are hashed using BCrypt before storage
  * - CORS enabled for localhost:3000 (React frontend)
- * - All endpoints return standardized ApiResponse wrapper
+ * - All endpoints return standardized ApiResponse wrapper around typed DTOs
  *
  * @see UserService for business logic
  * @see JwtUtil for token generation and validation
@@ -48,13 +59,18 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Convert User entity to UserResponse DTO
+     */
+    private UserResponse toUserResponse(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail());
+    }
 
     @GetMapping("/test")
-    public ResponseEntity<ApiResponse<Map<String, String>>> test() {
-        Map<String, String> data = new HashMap<>();
-        data.put("status", "running");
-        data.put("message", "MovieDash API is working!");
-        return ResponseEntity.ok(ApiResponse.success(data));
+    public ResponseEntity<ApiResponse<StatusResponse>> test() {
+        return ResponseEntity.ok(ApiResponse.success(new StatusResponse("running", "MovieDash API is working!")));
     }
 
     /**
@@ -64,7 +80,7 @@ public class AuthController {
      * Returns: { "success": true, "data": { "token": "...", "user": {...} } }
      */
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
         try {
             // Register the user
             User user = userService.register(request.getUsername(), request.getEmail(), request.getPassword());
@@ -72,15 +88,7 @@ public class AuthController {
             // Generate JWT token
             String token = jwtUtil.generateToken(user.getEmail());
 
-            // Prepare response data
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", user.getId());
-            userData.put("username", user.getUsername());
-            userData.put("email", user.getEmail());
-
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("token", token);
-            responseData.put("user", userData);
+            AuthResponse responseData = new AuthResponse(token, toUserResponse(user));
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("User registered successfully", responseData));
@@ -94,6 +102,20 @@ public class AuthController {
         }
     }
 
+    /**
+     * Check whether a username is free
+     * GET /auth/available?username=...
+     * Returns: { "success": true, "data": { "username": "...", "available": false, "suggestions": ["...1", ...] } }
+     */
+    @GetMapping("/available")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> available(@RequestParam(required = false) String username) {
+        if (username == null || username.length() < 3 || username.length() > 64) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Username must be between 3 and 64 characters"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(userService.checkUsername(username)));
+    }
+
     /**
      * Login with email and password
      * POST /auth/login
@@ -101,7 +123,7 @@ public class AuthController {
      * Returns: { "success": true, "data": { "token": "...", "user": {...} } }
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
         try {
             // Authenticate the user
             User user = userService.login(request.getEmail(), request.getPassword());
@@ -109,15 +131,7 @@ public class AuthController {
             // Generate JWT token
             String token = jwtUtil.generateToken(user.getEmail());
 
-            // Prepare response data
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", user.getId());
-            userData.put("username", user.getUsername());
-            userData.put("email", user.getEmail());
-
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("token", token);
-            responseData.put("user", userData);
+            AuthResponse responseData = new AuthResponse(token, toUserResponse(user));
 
             return ResponseEntity.ok(ApiResponse.success("Login successful", responseData));
 
@@ -137,19 +151,14 @@ public class AuthController {
      * Returns: { "success": true, "data": { "id": ..., "username": "...", "email": "..." } }
      */
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCurrentUser(@AuthenticationPrincipal User user) {
+    public ResponseEntity<ApiResponse<UserResponse>> getCurrentUser(@AuthenticationPrincipal User user) {
         try {
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(ApiResponse.error("User not authenticated"));
             }
 
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", user.getId());
-            userData.put("username", user.getUsername());
-            userData.put("email", user.getEmail());
-
-            return ResponseEntity.ok(ApiResponse.success(userData));
+            return ResponseEntity.ok(ApiResponse.success(toUserResponse(user)));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -158,15 +167,23 @@ public class AuthController {
     }
 
     /**
-     * Logout (client-side token removal)
+     * Logout
      * POST /auth/logout
+     * Headers: Authorization: Bearer <token>
      * Returns: { "success": true, "message": "Logged out successfully" }
-     * Note: JWT is stateless, so logout is handled client-side by removing the token
+     * Note: The token's jti is revoked server-side until the token expires, so a copied
+     * token stops working too. The client should still discard it.
      */
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout() {
-        // Since JWT is stateless, logout is primarily handled on the client side
-        // This endpoint exists for consistency and potential future server-side logout logic
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            Claims claims = jwtUtil.parseClaims(authorization.substring(7));
+            if (claims != null) {
+                tokenRevocationService.revoke(claims.getId(),
+                        LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+            }
+        }
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
     }
 
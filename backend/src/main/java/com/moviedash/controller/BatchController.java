@@ -0,0 +1,51 @@
+package com.moviedash.controller;
+
+import com.moviedash.batch.BatchDispatcher;
+import com.moviedash.dto.request.BatchRequest;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.BatchResultResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * BatchController
+ *
+ * Several GET requests in one round trip, for pages that load many small resources at once
+ * (profile, favorites with their check calls).
+ *
+ * Base Path: /batch
+ *
+ * - Sub-requests run concurrently as the caller and are answered like separate requests, each with
+ *   its own status and body, in request order; one failing does not fail the others
+ * - Requires authentication; see BatchDispatcher for the limits (batch.*)
+ */
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@CrossOrigin(origins = { "http://localhost:3000", "http://127.0.0.1:3000" })
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    /**
+     * Run GET sub-requests
+     * POST /batch
+     *
+     * Request Body: {"requests": [{"method": "GET", "path": "/favorites/check/550"}, ...]}
+     * Response: [{"status": 200, "body": {...}}, ...]
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<List<BatchResultResponse>>> batch(
+            @Valid @RequestBody BatchRequest request, HttpServletRequest servletRequest,
+            Authentication authentication) {
+        return ResponseEntity.ok(ApiResponse.success(
+                batchDispatcher.dispatch(servletRequest, request.getRequests(), authentication)));
+    }
+
+}
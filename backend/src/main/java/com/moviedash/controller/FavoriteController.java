@@ -2,9 +2,12 @@ package com.moviedash.controller;
 
 import com.moviedash.dto.request.FavoriteRequest;
 import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.FavoriteMovieResponse;
+import com.moviedash.dto.response.FavoriteResponse;
 import com.moviedash.entity.Favorite;
 import com.moviedash.entity.User;
 import com.moviedash.service.FavoriteService;
+import com.moviedash.service.MovieMetadataService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +16,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * FavoriteController
@@ -26,6 +30,10 @@ import java.util.List;
  * - Users can add movies to their favorites (watchlist)
  * - Users can remove movies from their favorites
  * - Users can view all their favorited movies
+ * - GET /favorites?expand=movie returns each favorite with its title, poster, year, genres and
+ *   rating from the local movie_metadata store, so the client needs no TMDb call per movie
+ * - GET /favorites?view=summary|count and ?fields= return less: the movie IDs, the number of
+ *   favorites, or the chosen fields only
  * - Users can check if a specific movie is in their favorites
  *
  * Authentication:
@@ -36,6 +44,7 @@ import java.util.List;
  * - Each favorite links a User to a TMDB movie ID
  * - Stores timestamp of when favorite was added
  * - Prevents duplicate favorites per user
+ * - Responses carry FavoriteResponse DTOs, never the Favorite entity
  *
  * @see FavoriteService for business logic
  * @see Favorite entity for data model
@@ -48,19 +57,20 @@ import java.util.List;
 public class FavoriteController {
 
     private final FavoriteService favoriteService;
+    private final MovieMetadataService movieMetadataService;
 
     /**
      * Get all favorites for the authenticated user
      * GET /favorites
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Favorite>>> getUserFavorites(
+    public ResponseEntity<ApiResponse<List<FavoriteResponse>>> getUserFavorites(
             Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             log.debug("Fetching favorites for user: {}", user.getEmail());
-            List<Favorite> favorites = favoriteService.getUserFavorites(user.getId());
-            log.info("Successfully retrieved {} favorites for user: {}", favorites.size(), user.getEmail());
+            List<FavoriteResponse> favorites = favoriteService.getUserFavorites(user.getId());
+            log.debug("Retrieved {} favorites for user: {}", favorites.size(), user.getEmail());
             return ResponseEntity.ok(ApiResponse.success(favorites));
         } catch (Exception e) {
             log.error("Error getting favorites for user: {}",
@@ -70,37 +80,70 @@ public class FavoriteController {
         }
     }
 
+    /**
+     * Get all favorites for the authenticated user with movie details
+     * GET /favorites?expand=movie
+     */
+    @GetMapping(params = "expand=movie")
+    public ResponseEntity<ApiResponse<List<FavoriteMovieResponse>>> getUserFavoritesWithMovies(
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        List<FavoriteMovieResponse> favorites = favoriteService.getUserFavoritesWithMovies(user.getId());
+        log.debug("Retrieved {} hydrated favorites for user: {}", favorites.size(), user.getEmail());
+        return ResponseEntity.ok(ApiResponse.success(favorites));
+    }
+
+    /**
+     * Get the authenticated user's favorites as id and movieId only
+     * GET /favorites?view=summary
+     */
+    @GetMapping(params = { "view=summary", "!expand" })
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getUserFavoriteSummaries(
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(
+                favoriteService.getUserFavoriteFields(user.getId(), FavoriteService.SUMMARY_FIELDS)));
+    }
+
+    /**
+     * Get the authenticated user's favorites with only the given fields (id, movieId, addedAt)
+     * GET /favorites?fields=movieId
+     */
+    @GetMapping(params = { "fields", "!view", "!expand" })
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getUserFavoriteFields(
+            @RequestParam List<String> fields,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(favoriteService.getUserFavoriteFields(user.getId(), fields)));
+    }
+
+    /**
+     * Count the authenticated user's favorites
+     * GET /favorites?view=count
+     */
+    @GetMapping(params = { "view=count", "!expand" })
+    public ResponseEntity<ApiResponse<Long>> countUserFavorites(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(favoriteService.countUserFavorites(user.getId())));
+    }
+
     /**
      * Add a movie to favorites
      * POST /favorites
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Favorite>> addFavorite(
+    public ResponseEntity<ApiResponse<FavoriteResponse>> addFavorite(
             @Valid @RequestBody FavoriteRequest request,
             Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             log.debug("Adding movie {} to favorites for user: {}", request.getMovieId(), user.getEmail());
-            Favorite favorite = favoriteService.addFavorite(user, request.getMovieId());
-
-            // Create a response with the favorite, ensuring serialization works
-            try {
-                log.info("Successfully added movie {} to favorites for user: {}", request.getMovieId(), user.getEmail());
-                return ResponseEntity.ok(
-                        ApiResponse.success("Added to favorites", favorite)
-                );
-            } catch (Exception e) {
-                // If serialization fails, return a simpler response
-                log.warn("Error serializing favorite for user: {}, falling back to simple response", user.getEmail(), e);
-                // Return just the movieId and id to avoid serialization issues
-                Favorite simpleFavorite = new Favorite();
-                simpleFavorite.setId(favorite.getId());
-                simpleFavorite.setMovieId(favorite.getMovieId());
-                simpleFavorite.setAddedAt(favorite.getAddedAt());
-                return ResponseEntity.ok(
-                        ApiResponse.success("Added to favorites", simpleFavorite)
-                );
-            }
+            FavoriteResponse favorite = favoriteService.addFavorite(user, request.getMovieId());
+            log.debug("Added movie {} to favorites for user: {}", request.getMovieId(), user.getEmail());
+            movieMetadataService.prefetch(request.getMovieId());
+            return ResponseEntity.ok(
+                    ApiResponse.success("Added to favorites", favorite)
+            );
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request to add favorite: {}", e.getMessage());
             return ResponseEntity.badRequest()
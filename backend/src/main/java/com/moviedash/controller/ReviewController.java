@@ -1,17 +1,39 @@
 package com.moviedash.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.cache.LatestReviews;
+import com.moviedash.cache.RecentReviewRing;
+import com.moviedash.cache.ReviewListCache;
 import com.moviedash.dto.request.ReviewRequest;
 import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.LatestReviewsResponse;
 import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
 import com.moviedash.entity.User;
+import com.moviedash.feed.ReviewFeed;
+import com.moviedash.review.GroupCommitReviewWriter;
+import com.moviedash.service.PublicReviewReads;
 import com.moviedash.service.ReviewService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/reviews")
@@ -19,17 +41,99 @@ import java.util.List;
 @CrossOrigin(origins = { "http://localhost:3000", "http://127.0.0.1:3000" })
 public class ReviewController {
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     private final ReviewService reviewService;
+    private final PublicReviewReads publicReviewReads;
+    private final ReviewListCache reviewListCache;
+    private final ReviewFeed reviewFeed;
+    private final LatestReviews latestReviews;
+    private final ObjectMapper objectMapper;
+    private final Optional<GroupCommitReviewWriter> groupCommitReviewWriter;
 
     /**
      * Get all reviews for a specific movie (public endpoint)
      * GET /reviews/movie/{movieId}
+     *
+     * Clients that accept gzip get the pre-compressed body from ReviewListCache,
+     * written directly to the response without re-serializing or re-compressing.
+     * That body is JSON, so clients asking for CBOR or Smile go through content negotiation instead.
+     * When the database cannot answer, the last good list is served uncompressed with
+     * Warning and Age headers (see PublicReviewReads); it is never put in ReviewListCache.
      */
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<ApiResponse<List<ReviewResponse>>> getMovieReviews(
-            @PathVariable Integer movieId) {
-        List<ReviewResponse> reviews = reviewService.getMovieReviews(movieId);
-        return ResponseEntity.ok(ApiResponse.success(reviews));
+            @PathVariable Integer movieId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        if (!acceptsGzip(acceptEncoding) || prefersBinary(accept)) {
+            return respond(publicReviewReads.getMovieReviews(movieId));
+        }
+
+        ReviewListCache.CachedBody body;
+        try {
+            body = reviewListCache.get(movieId, () -> serialize(movieId));
+        } catch (StaleRead stale) {
+            return respond(stale.reviews);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setContentLength(body.gzip().remaining());
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.gzip().hasRemaining()) {
+            channel.write(body.gzip());
+        }
+        // Response already written; a null entity tells Spring MVC there is nothing left to do
+        return null;
+    }
+
+    /**
+     * Get the review count and average rating of a movie (public endpoint)
+     * GET /reviews/movie/{movieId}/stats
+     */
+    @GetMapping("/movie/{movieId}/stats")
+    public ResponseEntity<ApiResponse<ReviewStatsResponse>> getMovieReviewStats(@PathVariable Integer movieId) {
+        return respond(publicReviewReads.getMovieReviewStats(movieId));
+    }
+
+    /**
+     * Live review changes for a movie as Server-Sent Events (public endpoint)
+     * GET /reviews/movie/{movieId}/stream
+     *
+     * Events: created / updated (ReviewResponse), deleted (id, movieId, userId only), and
+     * reset when a Last-Event-ID can no longer be resumed and the list should be reloaded.
+     */
+    @GetMapping(value = "/movie/{movieId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMovieReviews(
+            @PathVariable Integer movieId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) throws IOException {
+        SseEmitter emitter = reviewFeed.subscribe(movieId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        // Tell reverse proxies (nginx) not to buffer the stream
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Get the newest reviews across all movies (public endpoint)
+     * GET /reviews/latest?limit=20&before={nextCursor}
+     *
+     * Served from memory (LatestReviews); pass nextCursor back as before to get the next page.
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<ApiResponse<LatestReviewsResponse>> getLatestReviews(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long before) {
+        RecentReviewRing.Page page = latestReviews.page(before, limit);
+        return ResponseEntity.ok(ApiResponse.success(new LatestReviewsResponse(page.reviews(), page.nextCursor())));
     }
 
     /**
@@ -44,21 +148,66 @@ public class ReviewController {
         return ResponseEntity.ok(ApiResponse.success(reviews));
     }
 
+    /**
+     * Get the authenticated user's reviews without the comment and username
+     * GET /reviews/user?view=summary
+     *
+     * Each review has id, movieId, rating and createdAt (ReviewService.SUMMARY_FIELDS).
+     */
+    @GetMapping(value = "/user", params = "view=summary")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getUserReviewSummaries(
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(
+                reviewService.getUserReviewFields(user.getId(), ReviewService.SUMMARY_FIELDS)));
+    }
+
+    /**
+     * Get the authenticated user's reviews with only the given fields
+     * GET /reviews/user?fields=movieId,rating
+     *
+     * Fields: id, movieId, rating, comment, createdAt, username, userId. Unrequested columns
+     * are not read from the database.
+     */
+    @GetMapping(value = "/user", params = { "fields", "!view" })
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getUserReviewFields(
+            @RequestParam List<String> fields,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(reviewService.getUserReviewFields(user.getId(), fields)));
+    }
+
+    /**
+     * Count the authenticated user's reviews
+     * GET /reviews/user?view=count
+     */
+    @GetMapping(value = "/user", params = "view=count")
+    public ResponseEntity<ApiResponse<Long>> countUserReviews(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(reviewService.countUserReviews(user.getId())));
+    }
+
     /**
      * Create or update a review
      * POST /reviews
+     *
+     * With reviews.group-commit.enabled the review is saved in a batch with others
+     * (GroupCommitReviewWriter); 503 with Retry-After when the writer cannot take it.
      */
     @PostMapping
     public ResponseEntity<ApiResponse<ReviewResponse>> createOrUpdateReview(
             @Valid @RequestBody ReviewRequest request,
             Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        ReviewResponse review = reviewService.createOrUpdateReview(
-                user,
-                request.getMovieId(),
-                request.getRating(),
-                request.getComment()
-        );
+        ReviewResponse review = groupCommitReviewWriter.isPresent()
+                ? groupCommitReviewWriter.get().createOrUpdateReview(
+                        user, request.getMovieId(), request.getRating(), request.getComment())
+                : reviewService.createOrUpdateReview(
+                        user,
+                        request.getMovieId(),
+                        request.getRating(),
+                        request.getComment()
+                );
         return ResponseEntity.ok(ApiResponse.success("Review saved successfully", review));
     }
 
@@ -82,4 +231,81 @@ public class ReviewController {
         }
     }
 
+    private byte[] serialize(Integer movieId) {
+        // Cached until the next write to the movie, so never filled from a lagging replica
+        PublicReviewReads.Result<List<ReviewResponse>> reviews = publicReviewReads.getMovieReviewsFromPrimary(movieId);
+        if (reviews.stale()) {
+            // Leave ReviewListCache without an entry; the caller answers uncompressed
+            throw new StaleRead(reviews);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponse.success(reviews.value()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 200 with the value; a stale value also gets Warning: 110 and its Age in seconds
+     */
+    private static <T> ResponseEntity<ApiResponse<T>> respond(PublicReviewReads.Result<T> result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (result.stale()) {
+            builder.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .header(HttpHeaders.AGE, Long.toString(result.ageSeconds()));
+        }
+        return builder.body(ApiResponse.success(result.value()));
+    }
+
+    /**
+     * Carries a stale review list out of the ReviewListCache loader without caching it
+     */
+    private static final class StaleRead extends RuntimeException {
+
+        private final transient PublicReviewReads.Result<List<ReviewResponse>> reviews;
+
+        StaleRead(PublicReviewReads.Result<List<ReviewResponse>> reviews) {
+            super(null, null, false, false);
+            this.reviews = reviews;
+        }
+
+    }
+
+    /**
+     * Check whether the most preferred type in the Accept header is CBOR or Smile
+     */
+    private static boolean prefersBinary(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        MediaType preferred = null;
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (preferred == null || mediaType.getQualityValue() > preferred.getQualityValue()) {
+                    preferred = mediaType;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return preferred != null && preferred.getQualityValue() > 0
+                && (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(preferred) || SMILE.equalsTypeAndSubtype(preferred));
+    }
+
+    /**
+     * Check whether the Accept-Encoding header allows gzip (and does not give it q=0)
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
 }
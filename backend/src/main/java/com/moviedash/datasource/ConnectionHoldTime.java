@@ -0,0 +1,51 @@
+package com.moviedash.datasource;
+
+/**
+ * ConnectionHoldTime
+ *
+ * Per-thread accumulator of how long JDBC connections were held while serving the current request.
+ * A request opens a scope with begin(), connections report their hold time through record(),
+ * and end() returns the total and closes the scope.
+ */
+public final class ConnectionHoldTime {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private ConnectionHoldTime() {
+    }
+
+    /**
+     * Start accumulating hold time for the current thread
+     */
+    public static void begin() {
+        CURRENT.set(new long[1]);
+    }
+
+    /**
+     * Add the hold time of one connection lease to the current scope, if any
+     */
+    public static void record(long nanos) {
+        long[] total = CURRENT.get();
+        if (total != null) {
+            total[0] += nanos;
+        }
+    }
+
+    /**
+     * Hold time so far in the current scope, or -1 if there is no scope
+     */
+    public static long current() {
+        long[] total = CURRENT.get();
+        return total != null ? total[0] : -1L;
+    }
+
+    /**
+     * Stop accumulating and return the total hold time in nanoseconds
+     */
+    public static long end() {
+        long[] total = CURRENT.get();
+        CURRENT.remove();
+        return total != null ? total[0] : 0L;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.moviedash.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ConnectionHoldTimeDataSource
+ *
+ * Wraps the application DataSource and reports how long each connection is held,
+ * from getConnection() until close(), to ConnectionHoldTime.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    /**
+     * Close the wrapped pool on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection track(Connection target) {
+        long acquiredAt = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        ConnectionHoldTime.record(System.nanoTime() - acquiredAt);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.moviedash.datasource;
+
+import com.moviedash.security.CurrentUser;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ReadWriteRoutingDataSource
+ *
+ * Sends connections for read-only transactions to the replicas and everything else to the primary.
+ *
+ * Routing rules:
+ * - @Transactional(readOnly = true) -> replica (round-robin, unhealthy replicas skipped)
+ * - Read-write transactions and non-transactional access -> primary
+ * - Read-only transactions of a user who wrote within the read-your-writes window -> primary
+ * - No healthy replica -> primary
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager opens the
+ * connection before the read-only flag is bound to the thread, and the lazy proxy defers the
+ * routing decision until the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas, ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!readYourWrites.isPinned(CurrentUser.id())) {
+                Connection replica = replicas.getConnection();
+                if (replica != null) {
+                    return replica;
+                }
+            }
+            return primary.getConnection();
+        }
+        Connection connection = primary.getConnection();
+        trackWrite();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per pool; routing ignores per-call credentials
+        return getConnection();
+    }
+
+    /**
+     * Close the primary and replica pools on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        replicas.close();
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Pin the current user to the primary once their read-write transaction commits
+     */
+    private void trackWrite() {
+        Long userId = CurrentUser.id();
+        if (userId == null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(userId);
+            }
+        });
+    }
+
+}
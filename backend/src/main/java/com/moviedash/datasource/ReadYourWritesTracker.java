@@ -0,0 +1,60 @@
+package com.moviedash.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReadYourWritesTracker
+ *
+ * Remembers which users committed a write recently, so their reads can be
+ * pinned to the primary until the replicas have had time to catch up.
+ *
+ * Notes:
+ * - The window is per node; a user bouncing between nodes may still see replica lag
+ * - Anonymous requests are never pinned
+ */
+public class ReadYourWritesTracker {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Record that the given user just committed a write
+     */
+    public void recordWrite(Long userId) {
+        if (userId == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (pinnedUntil.size() > SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> now - until >= 0);
+        }
+        pinnedUntil.put(userId, now + windowNanos);
+    }
+
+    /**
+     * Check whether the given user wrote within the read-your-writes window
+     */
+    public boolean isPinned(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            pinnedUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+}
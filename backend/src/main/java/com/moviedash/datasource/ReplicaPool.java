@@ -0,0 +1,99 @@
+package com.moviedash.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ReplicaPool
+ *
+ * Hands out connections from a set of read replicas.
+ *
+ * Selection:
+ * - Replicas are tried round-robin, starting one further on every call
+ * - A replica whose pool fails to hand out a connection is marked down for a cool-down period
+ * - Replicas that are marked down are skipped until the cool-down expires
+ * - Returns null when no replica is healthy, so the caller can fall back to the primary
+ */
+@Slf4j
+public class ReplicaPool {
+
+    private final List<DataSource> replicas;
+    private final long coolDownNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray downUntil;
+
+    public ReplicaPool(List<DataSource> replicas, Duration coolDown) {
+        this.replicas = List.copyOf(replicas);
+        this.coolDownNanos = coolDown.toNanos();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    /**
+     * Get a connection from the next healthy replica
+     *
+     * @return a replica connection, or null if every replica is down
+     */
+    public Connection getConnection() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        long now = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            long until = downUntil.get(index);
+            if (until != 0 && now - until < 0) {
+                continue;
+            }
+            try {
+                Connection connection = replicas.get(index).getConnection();
+                downUntil.set(index, 0);
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, skipping it for {} ms: {}",
+                        index, Duration.ofNanos(coolDownNanos).toMillis(), e.getMessage());
+                downUntil.set(index, now + coolDownNanos);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of replicas currently considered healthy
+     */
+    public int healthyCount() {
+        long now = System.nanoTime();
+        int healthy = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            long until = downUntil.get(i);
+            if (until == 0 || now - until >= 0) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    /**
+     * Close every replica pool
+     */
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.moviedash.datasource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * SqlStatementCount
+ *
+ * Per-thread count of the SQL statements Hibernate prepares while serving the current request.
+ * Registered as Hibernate's StatementInspector (see RequestCostConfig); a request opens a scope with
+ * begin() and end() returns the count and closes the scope, like ConnectionHoldTime.
+ *
+ * Only statements issued through Hibernate on the request thread are counted: JdbcTemplate work
+ * (shard copies, the analytics load) and scatter queries on other threads are not. Batched
+ * sub-requests count on their own thread and are added to the batch's scope (add).
+ */
+public final class SqlStatementCount implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start counting statements on the current thread
+     */
+    public static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Add statements counted on another thread for the same request (batched sub-requests) to the
+     * current scope, if any
+     */
+    public static void add(int statements) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0] += statements;
+        }
+    }
+
+    /**
+     * Statements so far in the current scope, or -1 if there is no scope
+     */
+    public static int current() {
+        int[] count = CURRENT.get();
+        return count != null ? count[0] : -1;
+    }
+
+    /**
+     * Stop counting and return the number of statements since begin()
+     */
+    public static int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.moviedash.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+
+    @NotEmpty(message = "At least one request is required")
+    private List<@Valid Item> requests;
+
+    /**
+     * One sub-request, e.g. {"method": "GET", "path": "/favorites/check/550"}
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private String method = "GET";
+
+        @NotBlank(message = "Path is required")
+        private String path; // Including any query string
+
+    }
+
+}
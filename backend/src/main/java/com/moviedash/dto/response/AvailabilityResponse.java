@@ -0,0 +1,16 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private String username;
+    private boolean available;
+    private List<String> suggestions; // Free usernames with this one as prefix; empty when available
+}
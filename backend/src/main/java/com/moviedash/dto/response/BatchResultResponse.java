@@ -0,0 +1,14 @@
+package com.moviedash.dto.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultResponse {
+    private int status;
+    private JsonNode body; // The sub-request's own response body (usually an ApiResponse), or null
+}
@@ -0,0 +1,17 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteMovieResponse {
+    private Long id;
+    private Integer movieId;
+    private LocalDateTime addedAt;
+    private MovieMetadataResponse movie; // null if TMDb details could not be loaded in time
+}
@@ -0,0 +1,16 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteResponse {
+    private Long id;
+    private Integer movieId;
+    private LocalDateTime addedAt;
+}
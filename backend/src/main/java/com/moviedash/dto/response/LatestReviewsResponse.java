@@ -0,0 +1,15 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestReviewsResponse {
+    private List<ReviewResponse> reviews; // Newest first
+    private Long nextCursor; // Pass as before= for the next page; null on the last page
+}
@@ -0,0 +1,21 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieMetadataResponse {
+    private Integer id; // TMDb movie ID
+    private String title;
+    private String posterPath;
+    private LocalDate releaseDate;
+    private Integer releaseYear;
+    private List<String> genres;
+    private Double voteAverage;
+}
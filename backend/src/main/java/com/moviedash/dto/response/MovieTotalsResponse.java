@@ -0,0 +1,18 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieTotalsResponse {
+    private Integer movieId;
+    private Long reviewCount;
+    private Double averageRating; // null when the movie has no reviews
+    private Long favoriteCount; // null with favorites.store=log, where favorites are not counted
+    private LocalDateTime updatedAt; // when the totals were last recounted
+}
@@ -0,0 +1,21 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingAnalyticsResponse {
+    private String groupBy;
+    private long rowsScanned;
+    private long rowsMatched;
+    private long scanMicros;
+    private int parallelism;
+    private LocalDateTime snapshotBuiltAt;
+    private List<RatingGroupResponse> groups;
+}
@@ -0,0 +1,16 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingGroupResponse {
+    private String group; // Movie ID, ISO date (day / week start), or yyyy-MM (month / cohort)
+    private long count;
+    private Double averageRating;
+    private long[] histogram; // Reviews with 1, 2, 3, 4 and 5 stars
+    private Double cumulativeAverage; // Average of this and all earlier periods; null unless grouped by time
+}
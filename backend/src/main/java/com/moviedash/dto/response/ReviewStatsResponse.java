@@ -0,0 +1,14 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewStatsResponse {
+    private Integer movieId;
+    private Long reviewCount;
+    private Double averageRating; // null when the movie has no reviews
+}
@@ -0,0 +1,15 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardResponse {
+    private int index; // 0 = primary database
+    private boolean onRing; // false: configured, waiting for a rebalance
+    private long favorites; // -1 if the shard could not be reached
+    private long reviews;
+}
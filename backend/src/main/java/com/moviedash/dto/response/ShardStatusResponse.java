@@ -0,0 +1,23 @@
+package com.moviedash.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardStatusResponse {
+    private List<ShardResponse> shards;
+    private int virtualNodes;
+    private boolean rebalanceRunning;
+    private List<Integer> rebalanceShards; // shards added by the current or last rebalance
+    private LocalDateTime rebalanceStartedAt;
+    private LocalDateTime rebalanceFinishedAt;
+    private long movedUsers;
+    private long movedRows;
+    private String rebalanceError;
+}
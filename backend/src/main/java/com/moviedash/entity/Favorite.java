@@ -11,7 +11,12 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "favorites")
+@Table(name = "favorites", indexes = {
+        // Lookups by user and movie (exists, remove) and the user's movie IDs (view=summary, view=count)
+        @Index(name = "idx_favorites_user_movie", columnList = "user_id, movieId"),
+        // Favorite counts per movie (MovieTotalsProjection)
+        @Index(name = "idx_favorites_movie", columnList = "movieId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
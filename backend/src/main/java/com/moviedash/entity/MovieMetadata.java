@@ -0,0 +1,44 @@
+package com.moviedash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of the TMDb details of one movie, so watchlists can be rendered without calling TMDb.
+ * Filled on first use and refreshed in the background once fetchedAt is older than tmdb.refresh-after.
+ */
+@Entity
+@Table(name = "movie_metadata", indexes = {
+        @Index(name = "idx_movie_metadata_fetched_at", columnList = "fetchedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieMetadata {
+
+    @Id
+    @Column(name = "movie_id")
+    private Integer movieId;
+
+    private String title;
+
+    private String posterPath;
+
+    private LocalDate releaseDate;
+
+    /**
+     * Genre names, comma-separated
+     */
+    private String genres;
+
+    private Double voteAverage;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+
+}
@@ -0,0 +1,42 @@
+package com.moviedash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Review and favorite totals of one movie across all users (kept on the primary, shard 0).
+ * Maintained from outbox events by MovieTotalsProjection, so it trails the writes by a poll interval.
+ */
+@Entity
+@Table(name = "movie_totals", indexes = {
+        @Index(name = "idx_movie_totals_favorites", columnList = "favoriteCount"),
+        @Index(name = "idx_movie_totals_reviews", columnList = "reviewCount")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieTotals {
+
+    @Id
+    @Column(name = "movie_id")
+    private Integer movieId;
+
+    @Column(nullable = false)
+    private Long reviewCount;
+
+    /**
+     * Null while the movie has no reviews
+     */
+    private Double averageRating;
+
+    @Column(nullable = false)
+    private Long favoriteCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,48 @@
+package com.moviedash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * The last outbox event an outbox consumer has processed on one shard (kept on the primary, shard 0).
+ * Versioned, so two nodes delivering the same batch cannot move a checkpoint back.
+ */
+@Entity
+@Table(name = "outbox_checkpoints")
+@IdClass(OutboxCheckpoint.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String consumer;
+
+    @Id
+    @Column(name = "shard_index")
+    private Integer shardIndex;
+
+    @Column(nullable = false)
+    private Long lastEventId;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String consumer;
+        private Integer shardIndex;
+    }
+
+}
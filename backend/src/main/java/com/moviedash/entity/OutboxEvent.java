@@ -0,0 +1,61 @@
+package com.moviedash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A review or favorite change, written in the same transaction as the change itself (OutboxWriter)
+ * and delivered to the outbox consumers afterwards (OutboxPoller).
+ * With sharding it lives on the shard of the user who made the change; IDs are per shard.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public enum Type {
+        REVIEW_CREATED,
+        REVIEW_UPDATED,
+        REVIEW_DELETED,
+        FAVORITE_ADDED,
+        FAVORITE_REMOVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Column(name = "movie_id", nullable = false)
+    private Integer movieId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * ID of the review or favorite; null where the write does not know it (favorite removals)
+     */
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    /**
+     * The review after the change as JSON (ReviewResponse); null for deletes and favorites
+     */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -12,7 +12,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // A user's reviews without the comment (view=summary, view=count) and lookups by user and movie
+        @Index(name = "idx_reviews_user_movie", columnList = "user_id, movieId, rating, createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
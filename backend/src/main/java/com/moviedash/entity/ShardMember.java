@@ -0,0 +1,28 @@
+package com.moviedash.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A shard that owns users on the consistent-hash ring (kept on the primary, shard 0).
+ * Configured shards without a row hold no users until a rebalance adds them.
+ */
+@Entity
+@Table(name = "shard_members")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMember {
+
+    @Id
+    @Column(name = "shard_index")
+    private Integer shardIndex;
+
+    @Column(nullable = false)
+    private LocalDateTime joinedAt;
+
+}
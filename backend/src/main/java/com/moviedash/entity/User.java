@@ -14,7 +14,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // UserAvailabilityIndex polls for users registered on other nodes
+        @Index(name = "idx_users_created_at", columnList = "createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
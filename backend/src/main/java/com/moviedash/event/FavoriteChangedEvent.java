@@ -0,0 +1,35 @@
+package com.moviedash.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * FavoriteChangedEvent
+ *
+ * Published by JpaFavoriteStore inside the write transaction whenever a favorite is
+ * added or removed. Like ReviewChangedEvent, listeners that maintain derived data
+ * should use @TransactionalEventListener so they only react once the change commits.
+ * The log store (favorites.store=log) has no transaction and publishes none.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class FavoriteChangedEvent {
+
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+
+    private final Type type;
+
+    /**
+     * Null for REMOVED
+     */
+    private final Long favoriteId;
+
+    private final Integer movieId;
+    private final Long userId;
+
+}
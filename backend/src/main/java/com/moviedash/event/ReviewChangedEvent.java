@@ -0,0 +1,36 @@
+package com.moviedash.event;
+
+import com.moviedash.dto.response.ReviewResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ReviewChangedEvent
+ *
+ * Published by ReviewService inside the write transaction whenever a review is
+ * created, edited or deleted. Listeners that maintain derived data (caches, feeds)
+ * should use @TransactionalEventListener so they only react once the change commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReviewChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long reviewId;
+    private final Integer movieId;
+    private final Long userId;
+
+    /**
+     * Snapshot of the review after the change; null for DELETED
+     */
+    private final ReviewResponse review;
+
+}
@@ -1,7 +1,10 @@
 package com.moviedash.exception;
 
 import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.resilience.CircuitOpenException;
+import com.moviedash.review.ReviewWriterBusyException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -21,6 +24,8 @@ import java.util.stream.Collectors;
  *
  * Exception Handling Strategy:
  * - Validation errors (400 Bad Request): Invalid request data
+ * - Open circuit breaker with no stale copy (503 Service Unavailable + Retry-After)
+ * - Review group-commit queue full or batch not committed in time (503 Service Unavailable + Retry-After)
  * - Runtime exceptions (400 Bad Request): Business logic violations
  * - General exceptions (500 Internal Server Error): Unexpected errors
  *
@@ -60,6 +65,38 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(errorMessage));
     }
 
+    /**
+     * Handle reads refused by an open circuit breaker with nothing stale to serve
+     * Returns 503 Service Unavailable with Retry-After
+     *
+     * @param ex CircuitOpenException carrying when the breaker will try again
+     * @return ResponseEntity with error message
+     */
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCircuitOpen(CircuitOpenException ex) {
+        log.warn("Circuit open: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle review submissions the group-commit writer could not take or confirm in time
+     * Returns 503 Service Unavailable with Retry-After
+     *
+     * @param ex ReviewWriterBusyException carrying when to try again
+     * @return ResponseEntity with error message
+     */
+    @ExceptionHandler(ReviewWriterBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleReviewWriterBusy(ReviewWriterBusyException ex) {
+        log.warn("Review writer busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     /**
      * Handle runtime exceptions (business logic errors)
      * Returns 400 Bad Request for client-related errors
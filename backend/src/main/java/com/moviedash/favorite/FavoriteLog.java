@@ -0,0 +1,675 @@
+package com.moviedash.favorite;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * FavoriteLog
+ *
+ * Append-only, memory-mapped log of favorite adds and removes, with every user's favorites held in
+ * memory. Plain Java with no Spring dependencies (see bench/FavoriteLogBenchmark.java).
+ *
+ * File format: favorites.log is a sequence of fixed 40-byte records
+ *   0  int   CRC32C of bytes 4..39
+ *   4  byte  1 = add, 2 = remove
+ *   8  long  sequence number (the favorite's id for adds)
+ *   16 long  user id
+ *   24 int   movie id
+ *   32 long  added at, microseconds of the local date-time since the epoch
+ *
+ * - Writes go to the mapped region after the last record; the file grows one chunk at a time
+ * - Recovery reads the file sequentially, rebuilds the index and truncates the file at the first
+ *   record that is zero or fails its checksum (a torn write at a crash), so nothing after it can be
+ *   replayed later
+ * - Durability: ALWAYS forces each record to disk before the write returns; INTERVAL forces written
+ *   records every fsync interval, so a power loss (not a process crash: the page cache keeps mapped
+ *   writes) can lose up to one interval of acknowledged writes
+ * - Compaction rewrites only the live favorites into a new file and swaps it in with an atomic
+ *   rename. Writes continue while the live set is written; records appended meanwhile are copied
+ *   over under the write lock just before the swap. A remove of movie 0 by user 0 (a no-op) carries
+ *   the last sequence number, so ids of removed favorites are not handed out again after recovery
+ *
+ * Reads never lock: each user's favorites are an immutable snapshot replaced on every write.
+ * The log is local to this process; one process at a time may open a directory.
+ */
+public class FavoriteLog implements Closeable {
+
+    public static final String FILE_NAME = "favorites.log";
+
+    static final int RECORD_BYTES = 40;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int READ_BUFFER_RECORDS = 100_000;
+
+    public enum Durability { ALWAYS, INTERVAL }
+
+    /**
+     * @param chunkBytes size by which the file grows and is mapped, rounded down to whole records
+     */
+    public record Options(Durability durability, Duration fsyncInterval, long chunkBytes) {
+    }
+
+    /**
+     * A live favorite
+     */
+    public record Entry(long id, long userId, int movieId, LocalDateTime addedAt) {
+    }
+
+    public record Stats(long records, long live, int users, long bytes, long recoveryMillis, long compactions) {
+    }
+
+    private final Path directory;
+    private final Path file;
+    private final Options options;
+    private final long chunkBytes;
+    private final ConcurrentHashMap<Long, UserFavorites> index = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final byte[] record = new byte[RECORD_BYTES];
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    // Guarded by writeLock
+    private FileChannel channel;
+    private long position;
+    private long nextId;
+    private long records;
+    private long live;
+    private long chunkStart = -1;
+    private MappedByteBuffer chunk;
+    private long previousChunkStart = -1;
+    private MappedByteBuffer previousChunk;
+    private long flushedUpTo;
+
+    private final long recoveryMillis;
+    private volatile long compactions;
+    private volatile boolean closed;
+
+    private FavoriteLog(Path directory, Options options) throws IOException {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+        this.options = options;
+        this.chunkBytes = Math.max(1, options.chunkBytes() / RECORD_BYTES) * RECORD_BYTES;
+
+        Files.createDirectories(directory);
+        Files.deleteIfExists(compactionFile());
+        long started = System.nanoTime();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        recoveryMillis = (System.nanoTime() - started) / 1_000_000;
+
+        if (options.durability() == Durability.INTERVAL) {
+            flusher = new Thread(this::flushPeriodically, "favorite-log-fsync");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public static FavoriteLog open(Path directory, Options options) throws IOException {
+        return new FavoriteLog(directory, options);
+    }
+
+    /**
+     * The user's favorites, oldest first
+     */
+    public List<Entry> find(long userId) {
+        UserFavorites favorites = index.get(userId);
+        if (favorites == null) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>(favorites.size());
+        for (int i = 0; i < favorites.size(); i++) {
+            entries.add(new Entry(favorites.ids[i], userId, favorites.movieIds[i], fromMicros(favorites.addedAt[i])));
+        }
+        return entries;
+    }
+
+    public int count(long userId) {
+        UserFavorites favorites = index.get(userId);
+        return favorites == null ? 0 : favorites.size();
+    }
+
+    public boolean contains(long userId, int movieId) {
+        UserFavorites favorites = index.get(userId);
+        return favorites != null && favorites.indexOf(movieId) >= 0;
+    }
+
+    /**
+     * @return the new favorite, or null if the user already has this movie
+     */
+    public Entry add(long userId, int movieId, LocalDateTime addedAt) {
+        long micros = toMicros(addedAt);
+        writeLock.lock();
+        try {
+            UserFavorites favorites = index.getOrDefault(userId, UserFavorites.EMPTY);
+            if (favorites.indexOf(movieId) >= 0) {
+                return null;
+            }
+            long id = nextId;
+            append(ADD, id, userId, movieId, micros);
+            index.put(userId, favorites.with(id, movieId, micros));
+            live++;
+            return new Entry(id, userId, movieId, fromMicros(micros));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the user does not have this movie
+     */
+    public boolean remove(long userId, int movieId) {
+        writeLock.lock();
+        try {
+            UserFavorites favorites = index.get(userId);
+            int at = favorites == null ? -1 : favorites.indexOf(movieId);
+            if (at < 0) {
+                return false;
+            }
+            append(REMOVE, nextId, userId, movieId, 0);
+            UserFavorites remaining = favorites.without(at);
+            if (remaining.size() == 0) {
+                index.remove(userId);
+            } else {
+                index.put(userId, remaining);
+            }
+            live--;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Compact when at least minRecords are in the log and garbageRatio of them are not live favorites
+     *
+     * @return whether a compaction ran
+     */
+    public boolean compactIfNeeded(double garbageRatio, long minRecords) {
+        long total;
+        long garbage;
+        writeLock.lock();
+        try {
+            total = records;
+            garbage = records - live;
+        } finally {
+            writeLock.unlock();
+        }
+        if (total < minRecords || garbage < garbageRatio * total) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Rewrite the log with only the live favorites
+     */
+    public void compact() {
+        compactionLock.lock();
+        try {
+            compactLocked();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Compaction of " + file + " failed", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Force every written record to disk
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            forceUpTo(position);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        writeLock.lock();
+        try {
+            return new Stats(records, live, index.size(), position, recoveryMillis, compactions);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            forceUpTo(position);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    private Path compactionFile() {
+        return directory.resolve(FILE_NAME + ".compact");
+    }
+
+    // ---- recovery ----
+
+    private void recover() throws IOException {
+        Map<Long, UserFavorites.Builder> builders = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_BYTES);
+        long size = channel.size();
+        long end = 0;
+        long maxId = 0;
+        long count = 0;
+        scan:
+        while (end < size) {
+            buffer.clear();
+            int read = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, end + read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_BYTES) {
+                int offset = buffer.position();
+                byte op = buffer.get(offset + 4);
+                long id = buffer.getLong(offset + 8);
+                if ((op != ADD && op != REMOVE) || id <= 0 || checksum(crc, buffer.array(), offset) != buffer.getInt(offset)) {
+                    break scan;
+                }
+                long userId = buffer.getLong(offset + 16);
+                int movieId = buffer.getInt(offset + 24);
+                UserFavorites.Builder builder = builders.computeIfAbsent(userId, key -> new UserFavorites.Builder());
+                if (op == ADD) {
+                    builder.add(id, movieId, buffer.getLong(offset + 32));
+                } else {
+                    builder.remove(movieId);
+                }
+                maxId = Math.max(maxId, id);
+                count++;
+                end += RECORD_BYTES;
+                buffer.position(offset + RECORD_BYTES);
+            }
+            if (read < buffer.capacity()) {
+                break;
+            }
+        }
+
+        long liveCount = 0;
+        for (Map.Entry<Long, UserFavorites.Builder> entry : builders.entrySet()) {
+            UserFavorites favorites = entry.getValue().build();
+            if (favorites.size() > 0) {
+                index.put(entry.getKey(), favorites);
+                liveCount += favorites.size();
+            }
+        }
+        if (size > end) {
+            // Zero-filled growth or a torn tail; cut it so stale records past it can never be replayed
+            channel.truncate(end);
+            channel.force(true);
+        }
+        position = end;
+        flushedUpTo = end;
+        nextId = maxId + 1;
+        records = count;
+        live = liveCount;
+    }
+
+    // ---- writes (caller holds writeLock) ----
+
+    private void append(byte op, long id, long userId, int movieId, long addedAtMicros) {
+        if (closed) {
+            throw new IllegalStateException("Favorite log is closed");
+        }
+        ByteBuffer out = ByteBuffer.wrap(record);
+        out.putInt(0, 0);
+        out.put(4, op);
+        out.put(5, (byte) 0).put(6, (byte) 0).put(7, (byte) 0);
+        out.putLong(8, id);
+        out.putLong(16, userId);
+        out.putInt(24, movieId);
+        out.putInt(28, 0);
+        out.putLong(32, addedAtMicros);
+        out.putInt(0, checksum(crc, record, 0));
+
+        MappedByteBuffer target = chunkFor(position);
+        target.put((int) (position - chunkStart), record);
+        position += RECORD_BYTES;
+        nextId = id + 1;
+        records++;
+        if (options.durability() == Durability.ALWAYS) {
+            forceUpTo(position);
+        }
+    }
+
+    private MappedByteBuffer chunkFor(long at) {
+        long start = at - at % chunkBytes;
+        if (start != chunkStart) {
+            try {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, start, chunkBytes);
+                previousChunk = chunk;
+                previousChunkStart = chunkStart;
+                chunk = mapped;
+                chunkStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map " + file + " at " + start, e);
+            }
+        }
+        return chunk;
+    }
+
+    private void forceUpTo(long end) {
+        if (end <= flushedUpTo) {
+            return;
+        }
+        long from = flushedUpTo;
+        if (from < chunkStart) {
+            // Part of the unflushed range lies in an earlier chunk
+            if (previousChunk != null && from >= previousChunkStart) {
+                int offset = (int) (from - previousChunkStart);
+                previousChunk.force(offset, (int) (chunkBytes - offset));
+            } else {
+                forceChannel();
+            }
+            from = chunkStart;
+        }
+        if (from < end) {
+            int offset = (int) (from - chunkStart);
+            chunk.force(offset, (int) (end - from));
+        }
+        previousChunk = null;
+        previousChunkStart = -1;
+        flushedUpTo = end;
+    }
+
+    private void forceChannel() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not force " + file, e);
+        }
+    }
+
+    private void flushPeriodically() {
+        long intervalNanos = Math.max(1, options.fsyncInterval().toNanos());
+        while (!closed) {
+            try {
+                Thread.sleep(intervalNanos / 1_000_000, (int) (intervalNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+            writeLock.lock();
+            try {
+                if (!closed) {
+                    forceUpTo(position);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // ---- compaction ----
+
+    private void compactLocked() throws IOException {
+        Path target = compactionFile();
+        long snapshotEnd;
+        long lastId;
+        List<Map.Entry<Long, UserFavorites>> snapshot = new ArrayList<>();
+        writeLock.lock();
+        try {
+            snapshotEnd = position;
+            lastId = nextId - 1;
+            for (Map.Entry<Long, UserFavorites> entry : index.entrySet()) {
+                snapshot.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            long written = writeLive(out, snapshot, lastId);
+
+            writeLock.lock();
+            try {
+                // Records appended since the snapshot, copied as they are
+                long tail = position - snapshotEnd;
+                forceUpTo(position);
+                long copied = 0;
+                while (copied < tail) {
+                    copied += channel.transferTo(snapshotEnd + copied, tail - copied, out);
+                }
+                out.force(true);
+                Files.move(target, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                forceDirectory();
+
+                FileChannel old = channel;
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                old.close();
+                position = written + tail;
+                flushedUpTo = position;
+                records = position / RECORD_BYTES;
+                chunk = null;
+                chunkStart = -1;
+                previousChunk = null;
+                previousChunkStart = -1;
+                compactions++;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Write an add record per live favorite, each user's oldest first, keeping the ids, then the
+     * sequence marker
+     */
+    private long writeLive(FileChannel out, List<Map.Entry<Long, UserFavorites>> snapshot, long lastId)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_BYTES);
+        CRC32C checksum = new CRC32C();
+        long written = 0;
+        for (Map.Entry<Long, UserFavorites> entry : snapshot) {
+            UserFavorites favorites = entry.getValue();
+            for (int i = 0; i < favorites.size(); i++) {
+                put(buffer, checksum, ADD, favorites.ids[i], entry.getKey(), favorites.movieIds[i], favorites.addedAt[i]);
+                if (!buffer.hasRemaining()) {
+                    written += drain(out, buffer);
+                }
+            }
+        }
+        if (lastId > 0) {
+            put(buffer, checksum, REMOVE, lastId, 0, 0, 0);
+        }
+        written += drain(out, buffer);
+        return written;
+    }
+
+    private static void put(ByteBuffer buffer, CRC32C checksum, byte op, long id, long userId, int movieId,
+                            long addedAtMicros) {
+        int offset = buffer.position();
+        buffer.putInt(0).put(op).put((byte) 0).put((byte) 0).put((byte) 0)
+                .putLong(id)
+                .putLong(userId)
+                .putInt(movieId)
+                .putInt(0)
+                .putLong(addedAtMicros);
+        buffer.putInt(offset, checksum(checksum, buffer.array(), offset));
+    }
+
+    private static long drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        long n = 0;
+        while (buffer.hasRemaining()) {
+            n += out.write(buffer);
+        }
+        buffer.clear();
+        return n;
+    }
+
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename itself is atomic
+        }
+    }
+
+    // ---- encoding ----
+
+    private static int checksum(CRC32C crc, byte[] bytes, int offset) {
+        crc.reset();
+        crc.update(bytes, offset + 4, RECORD_BYTES - 4);
+        return (int) crc.getValue();
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * One user's favorites, oldest first; immutable, replaced on every write
+     */
+    static final class UserFavorites {
+
+        static final UserFavorites EMPTY = new UserFavorites(new long[0], new int[0], new long[0]);
+
+        final long[] ids;
+        final int[] movieIds;
+        final long[] addedAt;
+
+        UserFavorites(long[] ids, int[] movieIds, long[] addedAt) {
+            this.ids = ids;
+            this.movieIds = movieIds;
+            this.addedAt = addedAt;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(int movieId) {
+            for (int i = 0; i < movieIds.length; i++) {
+                if (movieIds[i] == movieId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        UserFavorites with(long id, int movieId, long micros) {
+            int n = size();
+            long[] newIds = Arrays.copyOf(ids, n + 1);
+            int[] newMovieIds = Arrays.copyOf(movieIds, n + 1);
+            long[] newAddedAt = Arrays.copyOf(addedAt, n + 1);
+            newIds[n] = id;
+            newMovieIds[n] = movieId;
+            newAddedAt[n] = micros;
+            return new UserFavorites(newIds, newMovieIds, newAddedAt);
+        }
+
+        UserFavorites without(int at) {
+            int n = size();
+            long[] newIds = new long[n - 1];
+            int[] newMovieIds = new int[n - 1];
+            long[] newAddedAt = new long[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(ids, at + 1, newIds, at, n - at - 1);
+            System.arraycopy(movieIds, 0, newMovieIds, 0, at);
+            System.arraycopy(movieIds, at + 1, newMovieIds, at, n - at - 1);
+            System.arraycopy(addedAt, 0, newAddedAt, 0, at);
+            System.arraycopy(addedAt, at + 1, newAddedAt, at, n - at - 1);
+            return new UserFavorites(newIds, newMovieIds, newAddedAt);
+        }
+
+        /**
+         * Mutable form used while replaying the log
+         */
+        static final class Builder {
+            private long[] ids = new long[4];
+            private int[] movieIds = new int[4];
+            private long[] addedAt = new long[4];
+            private int size;
+
+            void add(long id, int movieId, long micros) {
+                if (indexOf(movieId) >= 0) {
+                    return;
+                }
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    movieIds = Arrays.copyOf(movieIds, size * 2);
+                    addedAt = Arrays.copyOf(addedAt, size * 2);
+                }
+                ids[size] = id;
+                movieIds[size] = movieId;
+                addedAt[size] = micros;
+                size++;
+            }
+
+            void remove(int movieId) {
+                int at = indexOf(movieId);
+                if (at < 0) {
+                    return;
+                }
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                System.arraycopy(movieIds, at + 1, movieIds, at, size - at - 1);
+                System.arraycopy(addedAt, at + 1, addedAt, at, size - at - 1);
+                size--;
+            }
+
+            private int indexOf(int movieId) {
+                for (int i = 0; i < size; i++) {
+                    if (movieIds[i] == movieId) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            UserFavorites build() {
+                return new UserFavorites(Arrays.copyOf(ids, size), Arrays.copyOf(movieIds, size),
+                        Arrays.copyOf(addedAt, size));
+            }
+        }
+    }
+
+}
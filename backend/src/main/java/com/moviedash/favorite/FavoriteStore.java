@@ -0,0 +1,43 @@
+package com.moviedash.favorite;
+
+import com.moviedash.entity.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FavoriteStore
+ *
+ * Storage engine behind FavoriteService, chosen with favorites.store (see FavoriteStoreConfig):
+ * - jpa: the favorites table (JpaFavoriteStore), sharded along with reviews when sharding is enabled
+ * - log: an append-only memory-mapped log on local disk (LogFavoriteStore)
+ */
+public interface FavoriteStore {
+
+    List<StoredFavorite> findByUserId(Long userId);
+
+    /**
+     * The user's favorites with the stored movie_metadata row of each movie (null where there is none)
+     */
+    List<StoredFavorite> findByUserIdWithMovies(Long userId);
+
+    /**
+     * The user's favorites with only the given fields of FavoriteResponse (id, movieId, addedAt)
+     */
+    List<Map<String, Object>> findFieldsByUserId(Long userId, List<String> fields);
+
+    long countByUserId(Long userId);
+
+    boolean exists(Long userId, Integer movieId);
+
+    /**
+     * @return the new favorite, or null if the user already has this movie
+     */
+    StoredFavorite add(User user, Integer movieId);
+
+    /**
+     * @return false if the user does not have this movie
+     */
+    boolean remove(Long userId, Integer movieId);
+
+}
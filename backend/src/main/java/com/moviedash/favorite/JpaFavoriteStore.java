@@ -0,0 +1,89 @@
+package com.moviedash.favorite;
+
+import com.moviedash.entity.Favorite;
+import com.moviedash.entity.MovieMetadata;
+import com.moviedash.entity.User;
+import com.moviedash.event.FavoriteChangedEvent;
+import com.moviedash.repository.FavoriteRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FavoriteStore on the favorites table
+ * Adds and removes publish a FavoriteChangedEvent inside their transaction
+ */
+@Transactional(readOnly = true)
+public class JpaFavoriteStore implements FavoriteStore {
+
+    private final FavoriteRepository favoriteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public JpaFavoriteStore(FavoriteRepository favoriteRepository, ApplicationEventPublisher eventPublisher) {
+        this.favoriteRepository = favoriteRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<StoredFavorite> findByUserId(Long userId) {
+        return favoriteRepository.findByUserId(userId).stream()
+                .map(favorite -> toStored(favorite, null))
+                .toList();
+    }
+
+    @Override
+    public List<StoredFavorite> findByUserIdWithMovies(Long userId) {
+        return favoriteRepository.findWithMovieByUserId(userId).stream()
+                .map(row -> toStored(row.getFavorite(), row.getMovie()))
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, List<String> fields) {
+        return favoriteRepository.findFieldsByUserId(userId, fields);
+    }
+
+    @Override
+    public long countByUserId(Long userId) {
+        return favoriteRepository.countByUserId(userId);
+    }
+
+    @Override
+    public boolean exists(Long userId, Integer movieId) {
+        return favoriteRepository.existsByUserIdAndMovieId(userId, movieId);
+    }
+
+    @Override
+    @Transactional
+    public StoredFavorite add(User user, Integer movieId) {
+        if (favoriteRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
+            return null;
+        }
+        Favorite favorite = new Favorite();
+        favorite.setUser(user);
+        favorite.setMovieId(movieId);
+        Favorite saved = favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(
+                FavoriteChangedEvent.Type.ADDED, saved.getId(), movieId, user.getId()));
+        return toStored(saved, null);
+    }
+
+    @Override
+    @Transactional
+    public boolean remove(Long userId, Integer movieId) {
+        if (!favoriteRepository.existsByUserIdAndMovieId(userId, movieId)) {
+            return false;
+        }
+        favoriteRepository.deleteByUserIdAndMovieId(userId, movieId);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(
+                FavoriteChangedEvent.Type.REMOVED, null, movieId, userId));
+        return true;
+    }
+
+    private static StoredFavorite toStored(Favorite favorite, MovieMetadata movie) {
+        return new StoredFavorite(favorite.getId(), favorite.getMovieId(), favorite.getAddedAt(), movie);
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.moviedash.favorite;
+
+import com.moviedash.entity.MovieMetadata;
+import com.moviedash.entity.User;
+import com.moviedash.repository.MovieMetadataRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * FavoriteStore on a FavoriteLog
+ *
+ * Adds and removes are one appended record and reads come from memory, so no database connection or
+ * transaction is involved; only the movie details of GET /favorites?expand=movie are read from
+ * movie_metadata. The log lives on this node's disk, so use it with a single application node.
+ *
+ * Compaction rewrites the whole log, so it runs on its own thread (favorite-log-compact), not on the
+ * shared scheduler pool that the feed watchdog and the outbox poll need.
+ */
+@Slf4j
+public class LogFavoriteStore implements FavoriteStore {
+
+    private final FavoriteLog favoriteLog;
+    private final MovieMetadataRepository movieMetadataRepository;
+    private final double compactGarbageRatio;
+    private final long compactMinRecords;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "favorite-log-compact");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile CompletableFuture<Void> compacting = CompletableFuture.completedFuture(null);
+
+    public LogFavoriteStore(FavoriteLog favoriteLog, MovieMetadataRepository movieMetadataRepository,
+                            double compactGarbageRatio, long compactMinRecords, MeterRegistry meterRegistry) {
+        this.favoriteLog = favoriteLog;
+        this.movieMetadataRepository = movieMetadataRepository;
+        this.compactGarbageRatio = compactGarbageRatio;
+        this.compactMinRecords = compactMinRecords;
+
+        FavoriteLog.Stats stats = favoriteLog.stats();
+        log.info("Favorite log recovered in {} ms: {} records, {} favorites of {} users",
+                stats.recoveryMillis(), stats.records(), stats.live(), stats.users());
+        Gauge.builder("favorites.log.records", favoriteLog, store -> store.stats().records())
+                .description("Records in the favorite log, including removed favorites")
+                .register(meterRegistry);
+        Gauge.builder("favorites.log.live", favoriteLog, store -> store.stats().live())
+                .description("Favorites in the favorite log")
+                .register(meterRegistry);
+        Gauge.builder("favorites.log.bytes", favoriteLog, store -> store.stats().bytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<StoredFavorite> findByUserId(Long userId) {
+        return favoriteLog.find(userId).stream()
+                .map(entry -> toStored(entry, null))
+                .toList();
+    }
+
+    @Override
+    public List<StoredFavorite> findByUserIdWithMovies(Long userId) {
+        List<FavoriteLog.Entry> entries = favoriteLog.find(userId);
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, MovieMetadata> movies = movieMetadataRepository
+                .findAllById(entries.stream().map(FavoriteLog.Entry::movieId).toList()).stream()
+                .collect(Collectors.toMap(MovieMetadata::getMovieId, Function.identity()));
+        return entries.stream()
+                .map(entry -> toStored(entry, movies.get(entry.movieId())))
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, List<String> fields) {
+        return favoriteLog.find(userId).stream()
+                .map(entry -> {
+                    Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+                    for (String field : fields) {
+                        row.put(field, switch (field) {
+                            case "id" -> entry.id();
+                            case "movieId" -> entry.movieId();
+                            case "addedAt" -> entry.addedAt();
+                            default -> throw new IllegalArgumentException("Unknown field: " + field);
+                        });
+                    }
+                    return row;
+                })
+                .toList();
+    }
+
+    @Override
+    public long countByUserId(Long userId) {
+        return favoriteLog.count(userId);
+    }
+
+    @Override
+    public boolean exists(Long userId, Integer movieId) {
+        return favoriteLog.contains(userId, movieId);
+    }
+
+    @Override
+    public StoredFavorite add(User user, Integer movieId) {
+        FavoriteLog.Entry entry = favoriteLog.add(user.getId(), movieId, LocalDateTime.now());
+        return entry == null ? null : toStored(entry, null);
+    }
+
+    @Override
+    public boolean remove(Long userId, Integer movieId) {
+        return favoriteLog.remove(userId, movieId);
+    }
+
+    /**
+     * Rewrite the log once enough of it is removed favorites (favorites.log.compact-*)
+     * Only hands the check to the compaction thread; skipped while a compaction is still running
+     */
+    @Scheduled(fixedDelayString = "${favorites.log.compact-check-interval:60000}")
+    public void compactIfNeeded() {
+        if (!compacting.isDone()) {
+            return;
+        }
+        compacting = CompletableFuture.runAsync(this::compact, compactor)
+                .exceptionally(error -> {
+                    log.error("Favorite log compaction failed", error);
+                    return null;
+                });
+    }
+
+    private void compact() {
+        long started = System.nanoTime();
+        long before = favoriteLog.stats().bytes();
+        if (favoriteLog.compactIfNeeded(compactGarbageRatio, compactMinRecords)) {
+            log.info("Favorite log compacted from {} to {} bytes in {} ms", before, favoriteLog.stats().bytes(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Let a running compaction finish before the log is closed
+     */
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        compactor.shutdown();
+        if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.warn("Favorite log compaction still running at shutdown");
+        }
+        favoriteLog.close();
+    }
+
+    private static StoredFavorite toStored(FavoriteLog.Entry entry, MovieMetadata movie) {
+        return new StoredFavorite(entry.id(), entry.movieId(), entry.addedAt(), movie);
+    }
+
+}
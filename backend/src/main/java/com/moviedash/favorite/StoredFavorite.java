@@ -0,0 +1,13 @@
+package com.moviedash.favorite;
+
+import com.moviedash.entity.MovieMetadata;
+
+import java.time.LocalDateTime;
+
+/**
+ * A favorite as returned by a FavoriteStore
+ *
+ * @param movie the stored TMDb details, when asked for and available; otherwise null
+ */
+public record StoredFavorite(Long id, Integer movieId, LocalDateTime addedAt, MovieMetadata movie) {
+}
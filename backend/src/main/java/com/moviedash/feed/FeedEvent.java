@@ -0,0 +1,15 @@
+package com.moviedash.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.util.Set;
+
+/**
+ * One review change, already rendered as an SSE frame
+ *
+ * @param id event id (the SSE id field)
+ * @param movieId movie the change belongs to
+ * @param frame the encoded event, shared by every subscriber it is sent to
+ */
+record FeedEvent(long id, Integer movieId, Set<DataWithMediaType> frame) {
+}
@@ -0,0 +1,93 @@
+package com.moviedash.feed;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FeedSendExecutor
+ *
+ * Threads writing frames to subscriber connections (reviews.stream.send-threads).
+ *
+ * - Writes are blocking: a write to a client that stopped reading holds its thread until the
+ *   container's socket timeout fails it
+ * - Such a thread can be written off: the pool gets an extra thread until the write returns, so the
+ *   other subscribers keep the configured number of threads
+ * - At most maxStalled threads are replaced at a time, which bounds the threads a crowd of
+ *   non-reading clients can pin
+ * - Subscribers with a write in progress are tracked, so the watchdog looks at a handful of
+ *   writes rather than every open stream
+ */
+final class FeedSendExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+    private final int threads;
+    private final int maxStalled;
+    private final Set<FeedSubscriber> writing = ConcurrentHashMap.newKeySet();
+    // Guarded by this
+    private int stalled;
+
+    FeedSendExecutor(int threads, int maxStalled) {
+        this.threads = threads;
+        this.maxStalled = maxStalled;
+        AtomicInteger created = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "review-feed-send-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    void writeStarted(FeedSubscriber subscriber) {
+        writing.add(subscriber);
+    }
+
+    void writeFinished(FeedSubscriber subscriber) {
+        writing.remove(subscriber);
+    }
+
+    /**
+     * Subscribers with a write in progress
+     */
+    Set<FeedSubscriber> writing() {
+        return writing;
+    }
+
+    /**
+     * Add a thread in place of one blocked in a write
+     *
+     * @return false if maxStalled threads are already replaced
+     */
+    synchronized boolean replaceStalledThread() {
+        if (stalled >= maxStalled) {
+            return false;
+        }
+        stalled++;
+        pool.setMaximumPoolSize(threads + stalled);
+        pool.setCorePoolSize(threads + stalled);
+        return true;
+    }
+
+    /**
+     * A replaced thread's write returned; shrink the pool back
+     */
+    synchronized void stalledThreadReturned() {
+        stalled--;
+        pool.setCorePoolSize(threads + stalled);
+        pool.setMaximumPoolSize(threads + stalled);
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.moviedash.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FeedSubscriber
+ *
+ * One open stream: a bounded queue of frames in front of an SseEmitter.
+ *
+ * - The dispatcher thread only ever enqueues; it never touches the emitter, so a stalled
+ *   connection cannot hold up fan-out to everyone else
+ * - At most one send task per subscriber runs on the send executor at a time, which keeps
+ *   frames in order
+ * - A full queue means the client is not keeping up: the subscriber is closed and the client
+ *   can resume from Last-Event-ID
+ * - A write blocked for longer than reviews.stream.write-timeout means the client stopped reading:
+ *   the watchdog (ReviewFeed) abandons it, closing the subscriber and replacing its send thread in
+ *   the pool until the write returns
+ * - Once the container reports the request finished (completion, timeout, network error) no
+ *   write is started again; the notification never waits for a write in progress, which fails
+ *   against the closed connection
+ */
+@Slf4j
+final class FeedSubscriber {
+
+    private static final int MAX_FRAMES_PER_SEND = 32;
+
+    private final Integer movieId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final FeedSendExecutor sendExecutor;
+
+    private final Queue<Set<DataWithMediaType>> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Guarded by this
+    private boolean finished;
+    private boolean writing;
+    private long writeStartedAt;
+    private boolean abandoned;
+    private boolean threadReplaced;
+
+    FeedSubscriber(Integer movieId, SseEmitter emitter, int capacity, FeedSendExecutor sendExecutor) {
+        this.movieId = movieId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.sendExecutor = sendExecutor;
+    }
+
+    Integer movieId() {
+        return movieId;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Queue a frame for sending
+     *
+     * @return false if the subscriber is closed or its queue is full
+     */
+    boolean offer(Set<DataWithMediaType> frame) {
+        if (closed.get()) {
+            return false;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            return false;
+        }
+        frames.offer(frame);
+        scheduleSend();
+        return true;
+    }
+
+    /**
+     * Stop accepting frames and complete the response once no send is in progress
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            frames.clear();
+            scheduleSend();
+        }
+    }
+
+    /**
+     * Called from the container's completion, timeout and error callbacks; no send starts afterwards
+     */
+    synchronized void containerFinished() {
+        finished = true;
+        closed.set(true);
+        frames.clear();
+    }
+
+    /**
+     * Watchdog: give up on a write that has been blocked for longer than the timeout. The subscriber
+     * is closed and its send thread is replaced in the pool until the write returns.
+     *
+     * @return true if this call abandoned the write
+     */
+    synchronized boolean abandonStalledWrite(long now, long timeoutNanos) {
+        if (!writing || abandoned || now - writeStartedAt <= timeoutNanos) {
+            return false;
+        }
+        abandoned = true;
+        threadReplaced = sendExecutor.replaceStalledThread();
+        close();
+        return true;
+    }
+
+    private void scheduleSend() {
+        if (sending.compareAndSet(false, true)) {
+            sendExecutor.execute(this::send);
+        }
+    }
+
+    private void send() {
+        try {
+            for (int i = 0; i < MAX_FRAMES_PER_SEND && !closed.get(); i++) {
+                Set<DataWithMediaType> frame = frames.poll();
+                if (frame == null) {
+                    break;
+                }
+                queued.decrementAndGet();
+                synchronized (this) {
+                    if (finished) {
+                        break;
+                    }
+                    writing = true;
+                    writeStartedAt = System.nanoTime();
+                    sendExecutor.writeStarted(this);
+                }
+                try {
+                    emitter.send(frame);
+                } finally {
+                    writeReturned();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the response already completed
+            log.debug("Review stream for movie {} closed: {}", movieId, e.getMessage());
+            closed.set(true);
+        } finally {
+            if (closed.get()) {
+                complete();
+            }
+            sending.set(false);
+            if (!closed.get() && !frames.isEmpty()) {
+                scheduleSend();
+            }
+        }
+    }
+
+    private synchronized void writeReturned() {
+        writing = false;
+        sendExecutor.writeFinished(this);
+        if (threadReplaced) {
+            threadReplaced = false;
+            sendExecutor.stalledThreadReturned();
+        }
+    }
+
+    private synchronized void complete() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.moviedash.feed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplayWindow
+ *
+ * Ring of the most recent feed events, used to resume a stream from Last-Event-ID.
+ *
+ * Only touched by the feed dispatcher thread, so it needs no synchronization.
+ * Event ids are consecutive, which makes the slot of an id simply id % capacity.
+ */
+final class ReplayWindow {
+
+    private final FeedEvent[] events;
+    private final long firstId;
+    private long newestId;
+
+    /**
+     * @param capacity number of events kept
+     * @param firstId id of the first event that will be added
+     */
+    ReplayWindow(int capacity, long firstId) {
+        this.events = new FeedEvent[Math.max(1, capacity)];
+        this.firstId = firstId;
+        this.newestId = firstId - 1;
+    }
+
+    void add(FeedEvent event) {
+        events[slot(event.id())] = event;
+        newestId = event.id();
+    }
+
+    /**
+     * Events of one movie published after lastEventId
+     *
+     * @return the missed events, oldest first, or null if the window no longer covers lastEventId
+     *         (too old, or an id from before a restart)
+     */
+    List<FeedEvent> after(long lastEventId, Integer movieId) {
+        long oldestId = Math.max(firstId, newestId - events.length + 1);
+        if (lastEventId < oldestId - 1 || lastEventId > newestId) {
+            return null;
+        }
+        List<FeedEvent> missed = new ArrayList<>();
+        for (long id = lastEventId + 1; id <= newestId; id++) {
+            FeedEvent event = events[slot(id)];
+            if (event.movieId().equals(movieId)) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) events.length);
+    }
+
+}
@@ -0,0 +1,293 @@
+package com.moviedash.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.config.ReviewStreamProperties;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.event.ReviewChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReviewFeed
+ *
+ * Live review changes per movie, pushed to GET /reviews/movie/{movieId}/stream subscribers.
+ *
+ * Design:
+ * - ReviewChangedEvent is picked up after commit, so rolled-back writes never reach clients
+ * - A single dispatcher thread assigns event ids, records the event in the replay window and
+ *   fans it out; committing threads only enqueue and return
+ * - Subscribers are kept in concurrent per-movie sets, so fan-out iterates without locking and an
+ *   idle stream costs a map entry and an empty queue, not a thread
+ * - Each event is serialized once; subscribers share the encoded frame
+ * - A subscriber whose queue is full (reviews.stream.subscriber-buffer) is disconnected, and so is
+ *   one whose write has been blocked for reviews.stream.write-timeout (the client stopped reading);
+ *   its send thread is replaced so the other streams keep flowing
+ * - Last-Event-ID resumes from the last reviews.stream.replay-capacity events; older (or
+ *   pre-restart) ids get a "reset" event telling the client to reload the list
+ *
+ * The feed is per node: a review written on another node is not pushed from this one.
+ *
+ * Metrics: reviews.stream.subscribers, reviews.stream.events, reviews.stream.evicted
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ReviewStreamProperties.class)
+public class ReviewFeed {
+
+    private final ReviewStreamProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Integer, Set<FeedSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final FeedSendExecutor sendExecutor;
+    private final Thread dispatcher;
+
+    // Dispatcher thread only
+    private final ReplayWindow replayWindow;
+    private long nextId;
+
+    private final Counter events;
+    private final Counter evicted;
+
+    public ReviewFeed(ReviewStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        // Ids continue from the boot time so ids handed out before a restart fall outside the window
+        this.nextId = System.currentTimeMillis();
+        this.replayWindow = new ReplayWindow(properties.getReplayCapacity(), nextId);
+
+        this.sendExecutor = new FeedSendExecutor(properties.getSendThreads(), properties.getStalledWriteThreads());
+        this.dispatcher = new Thread(this::dispatch, "review-feed-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+
+        Gauge.builder("reviews.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.events = Counter.builder("reviews.stream.events").register(meterRegistry);
+        this.evicted = Counter.builder("reviews.stream.evicted")
+                .description("Streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a movie
+     *
+     * @param movieId the TMDb movie ID
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter, or null if this node is at reviews.stream.max-subscribers
+     */
+    public SseEmitter subscribe(Integer movieId, String lastEventId) throws IOException {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        FeedSubscriber subscriber = new FeedSubscriber(movieId, emitter, properties.getSubscriberBuffer(), sendExecutor);
+        emitter.onCompletion(() -> {
+            subscriber.containerFinished();
+            remove(subscriber);
+        });
+        emitter.onTimeout(() -> {
+            subscriber.containerFinished();
+            // End the stream normally instead of letting the timeout surface as an error response
+            emitter.complete();
+            remove(subscriber);
+        });
+        emitter.onError(error -> {
+            subscriber.containerFinished();
+            remove(subscriber);
+        });
+
+        // Sent before the subscriber is visible to the dispatcher, so it is always the first frame
+        emitter.send(SseEmitter.event()
+                .reconnectTime(properties.getReconnectDelay().toMillis())
+                .comment("subscribed"));
+
+        Long resumeFrom = parseEventId(lastEventId);
+        commands.add(() -> register(subscriber, resumeFrom));
+        return emitter;
+    }
+
+    /**
+     * Queue a committed review change for fan-out
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (subscriberCount.get() == 0 && properties.getReplayCapacity() == 0) {
+            return;
+        }
+        commands.add(() -> publish(event));
+    }
+
+    /**
+     * Send a comment line to every stream so connections closed by the client are noticed
+     */
+    @Scheduled(fixedRateString = "${reviews.stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        commands.add(() -> {
+            Set<DataWithMediaType> frame = frame(SseEmitter.event().comment("heartbeat"));
+            subscribers.values().forEach(movieSubscribers -> movieSubscribers.forEach(subscriber -> deliver(subscriber, frame)));
+        });
+    }
+
+    /**
+     * Disconnect subscribers whose write has been blocked for longer than reviews.stream.write-timeout.
+     * Runs four times a second and only looks at writes in progress, so a stalled write is caught
+     * well before the other subscribers' queues fill up behind it.
+     */
+    @Scheduled(fixedRate = 250)
+    public void evictStalledWrites() {
+        long now = System.nanoTime();
+        long timeoutNanos = properties.getWriteTimeout().toNanos();
+        for (FeedSubscriber subscriber : sendExecutor.writing()) {
+            if (subscriber.abandonStalledWrite(now, timeoutNanos)) {
+                evicted.increment();
+                log.debug("Evicted stalled review stream subscriber for movie {}", subscriber.movieId());
+                remove(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+        subscribers.values().forEach(movieSubscribers -> movieSubscribers.forEach(FeedSubscriber::close));
+        sendExecutor.shutdown();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                commands.take().run();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Review feed dispatch failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Dispatcher thread: replay missed events, then start live delivery
+     */
+    private void register(FeedSubscriber subscriber, Long lastEventId) {
+        if (subscriber.isClosed()) {
+            // Disconnected before it was registered; remove() had nothing to take out
+            subscriberCount.decrementAndGet();
+            return;
+        }
+        if (lastEventId != null) {
+            List<FeedEvent> missed = replayWindow.after(lastEventId, subscriber.movieId());
+            if (missed == null || missed.size() >= properties.getSubscriberBuffer()) {
+                subscriber.offer(frame(SseEmitter.event().name("reset").data("{}")));
+            } else {
+                missed.forEach(event -> subscriber.offer(event.frame()));
+            }
+        }
+        subscribers.compute(subscriber.movieId(), (movieId, movieSubscribers) -> {
+            Set<FeedSubscriber> set = movieSubscribers != null ? movieSubscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        // A disconnect that raced with the registration above
+        if (subscriber.isClosed()) {
+            remove(subscriber);
+        }
+    }
+
+    /**
+     * Dispatcher thread: number, record and fan out one change
+     */
+    private void publish(ReviewChangedEvent change) {
+        long id = nextId++;
+        ReviewResponse review = change.getReview() != null
+                ? change.getReview()
+                : new ReviewResponse(change.getReviewId(), change.getMovieId(), null, null, null, null, change.getUserId());
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(review);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize review {} for the feed: {}", change.getReviewId(), e.getMessage());
+            return;
+        }
+        FeedEvent event = new FeedEvent(id, change.getMovieId(), frame(SseEmitter.event()
+                .id(Long.toString(id))
+                .name(change.getType().name().toLowerCase())
+                .data(data)));
+        replayWindow.add(event);
+        events.increment();
+
+        Set<FeedSubscriber> movieSubscribers = subscribers.get(change.getMovieId());
+        if (movieSubscribers != null) {
+            movieSubscribers.forEach(subscriber -> deliver(subscriber, event.frame()));
+        }
+    }
+
+    private void deliver(FeedSubscriber subscriber, Set<DataWithMediaType> frame) {
+        if (subscriber.offer(frame)) {
+            return;
+        }
+        if (!subscriber.isClosed()) {
+            evicted.increment();
+            log.debug("Evicted slow review stream subscriber for movie {}", subscriber.movieId());
+        }
+        remove(subscriber);
+    }
+
+    private void remove(FeedSubscriber subscriber) {
+        subscriber.close();
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.movieId(), (movieId, movieSubscribers) -> {
+            removed[0] = movieSubscribers.remove(subscriber);
+            return movieSubscribers.isEmpty() ? null : movieSubscribers;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static Set<DataWithMediaType> frame(SseEmitter.SseEventBuilder builder) {
+        return Collections.unmodifiableSet(builder.build());
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Unknown id format: the window cannot cover it
+            return Long.MIN_VALUE;
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.moviedash.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.config.ConcurrencyLimitProperties;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.limiter.AdaptiveConcurrencyLimit;
+import com.moviedash.security.JwtUtil;
+import com.moviedash.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ConcurrencyLimitFilter
+ *
+ * Sheds load before it reaches Tomcat's queue, Hikari and the controllers.
+ *
+ * Traffic Classes (share of the adaptive limit each may use):
+ * - AUTHENTICATED: requests with a valid, unrevoked bearer token -> 100%
+ * - ANONYMOUS: other requests -> limiter.anonymous-share
+ * - PUBLIC_REVIEWS: anonymous GET /reviews/movie/** -> limiter.public-reviews-share
+ *
+ * Shed requests get 503 with Retry-After and never touch the database.
+ * Only server faults (an exception, 500, 502, 504) count as failed requests for the limit; a 503 is
+ * the application's own backpressure (group-commit queue full, breaker open, batch pool busy) and
+ * is judged by its latency like any other answer.
+ * Paths in limiter.bypass-paths, CORS preflights and SSE streams are not limited.
+ * Batched sub-requests never pass through this filter; BatchDispatcher takes a permit for each
+ * one with {@link #tryAcquire(HttpServletRequest)}, so a batch costs its fan-out.
+ *
+ * Metrics: limiter.limit, limiter.inflight, limiter.rejected{class}
+ *
+ * @see AdaptiveConcurrencyLimit for how the limit adapts
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    enum TrafficClass {
+        AUTHENTICATED,
+        ANONYMOUS,
+        PUBLIC_REVIEWS
+    }
+
+    private final ConcurrencyLimitProperties properties;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Map<TrafficClass, Counter> rejected = new EnumMap<>(TrafficClass.class);
+
+    /**
+     * A slot held for work this filter does not see; release it once, with the work's HTTP status
+     */
+    @FunctionalInterface
+    public interface Permit {
+        void release(int status);
+    }
+
+    private static final Permit UNLIMITED = status -> {
+    };
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                  JwtUtil jwtUtil,
+                                  TokenRevocationService tokenRevocationService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+        this.limit = new AdaptiveConcurrencyLimit(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getLatencyTarget().toNanos(),
+                properties.getBackoffRatio());
+
+        Gauge.builder("limiter.limit", limit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("limiter.inflight", limit, AdaptiveConcurrencyLimit::getInflight).register(meterRegistry);
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            rejected.put(trafficClass, Counter.builder("limiter.rejected")
+                    .tag("class", trafficClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || properties.getBypassPaths().contains(request.getRequestURI())
+                || EventStreams.isEventStream(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        TrafficClass trafficClass = classify(request);
+        if (!limit.tryAcquire(shareOf(trafficClass))) {
+            rejected.get(trafficClass).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = isServerFault(response.getStatus());
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Take a slot for a request served outside the filter chain (a batched sub-request), in the
+     * request's traffic class
+     *
+     * @return the permit, or null when the request is shed (counted in limiter.rejected)
+     */
+    public Permit tryAcquire(HttpServletRequest request) {
+        if (shouldNotFilter(request)) {
+            return UNLIMITED;
+        }
+        TrafficClass trafficClass = classify(request);
+        if (!limit.tryAcquire(shareOf(trafficClass))) {
+            rejected.get(trafficClass).increment();
+            return null;
+        }
+        long start = System.nanoTime();
+        return status -> limit.release(System.nanoTime() - start, isServerFault(status));
+    }
+
+    private static boolean isServerFault(int status) {
+        return status >= 500 && status != HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private TrafficClass classify(HttpServletRequest request) {
+        // Verify the signature so a forged or revoked token cannot buy priority; no database access here.
+        // The claims stay on the request for JwtAuthenticationFilter
+        Claims claims = jwtUtil.parseClaims(request);
+        if (claims != null && !tokenRevocationService.isRevoked(claims.getId())) {
+            return TrafficClass.AUTHENTICATED;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && request.getRequestURI().startsWith("/reviews/movie/")) {
+            return TrafficClass.PUBLIC_REVIEWS;
+        }
+        return TrafficClass.ANONYMOUS;
+    }
+
+    private double shareOf(TrafficClass trafficClass) {
+        return switch (trafficClass) {
+            case AUTHENTICATED -> 1.0;
+            case ANONYMOUS -> properties.getAnonymousShare();
+            case PUBLIC_REVIEWS -> properties.getPublicReviewsShare();
+        };
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Server is busy, please retry shortly"));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.moviedash.filter;
+
+import com.moviedash.datasource.ConnectionHoldTime;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionHoldTimeFilter
+ *
+ * Records the total time JDBC connections were held per request as the
+ * db.connection.hold timer, tagged with the matched route.
+ *
+ * Runs before the security filter chain so the JWT user lookup is included.
+ * Requests that never touch the database are not recorded.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        ConnectionHoldTime.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long heldNanos = ConnectionHoldTime.end();
+            if (heldNanos > 0) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Timer.builder("db.connection.hold")
+                        .description("Time JDBC connections were held while serving a request")
+                        .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(heldNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.moviedash.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes long-lived Server-Sent Events requests (GET /reviews/movie/{movieId}/stream).
+ * Their lifetime says nothing about server load, so the limiter and access log skip them, and a
+ * batch cannot run them (they need an async request).
+ * Only the exact mapped route counts: a client cannot opt out of the limiter with an Accept
+ * header or a path of its choosing.
+ */
+public final class EventStreams {
+
+    private static final Pattern REVIEW_STREAM = Pattern.compile("/reviews/movie/\\d+/stream");
+
+    private EventStreams() {
+    }
+
+    public static boolean isEventStream(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && REVIEW_STREAM.matcher(request.getRequestURI()).matches();
+    }
+
+}
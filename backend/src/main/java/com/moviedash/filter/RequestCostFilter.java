@@ -0,0 +1,90 @@
+package com.moviedash.filter;
+
+import com.moviedash.datasource.SqlStatementCount;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * RequestCostFilter
+ *
+ * Records what each request costs, tagged with the method and matched route:
+ * - request.sql.statements: SQL statements Hibernate prepared (SqlStatementCount)
+ * - request.allocated.bytes: bytes allocated by the request thread (JVMs without per-thread
+ *   allocation accounting record no allocation)
+ *
+ * Runs before the security filter chain so the JWT user lookup is included. Event streams are
+ * skipped; they hold the request open for minutes. PerformanceBudgetTest checks both values, and
+ * the median latency, against the budgets in src/test/resources/perf-budgets.txt.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 8)
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final com.sun.management.ThreadMXBean allocation;
+
+    public RequestCostFilter(MeterRegistry meterRegistry,
+                             @Value("${request-cost.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        this.allocation = threads instanceof com.sun.management.ThreadMXBean sun
+                && sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled() ? sun : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EventStreams.isEventStream(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long allocatedBefore = allocation != null ? allocation.getCurrentThreadAllocatedBytes() : 0L;
+        SqlStatementCount.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCount.end();
+            long allocated = allocation != null ? allocation.getCurrentThreadAllocatedBytes() - allocatedBefore : -1L;
+            record(request, statements, allocated);
+        }
+    }
+
+    private void record(HttpServletRequest request, int statements, long allocated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("request.sql.statements")
+                .description("SQL statements Hibernate prepared while serving a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+        if (allocated >= 0) {
+            DistributionSummary.builder("request.allocated.bytes")
+                    .description("Bytes allocated by the request thread while serving a request")
+                    .baseUnit("bytes")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(allocated);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.moviedash.filter;
+
+import com.moviedash.config.RequestLoggingProperties;
+import com.moviedash.security.CurrentUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RequestLoggingFilter
+ *
+ * Writes one structured access-log line per request to the "com.moviedash.access" logger.
+ *
+ * Logging Policy:
+ * - 5xx responses and requests that threw: always logged (ERROR)
+ * - Requests slower than request-logging.slow-threshold: always logged (WARN), with the auth / db /
+ *   serialize / queries breakdown while Server-Timing is on
+ * - Everything else: sampled per route (INFO)
+ *
+ * Nothing is formatted for requests that are not logged. In the prod profile the
+ * access logger goes through an asynchronous, bounded appender (see logback-spring.xml),
+ * so the request thread never waits on console or file I/O.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("com.moviedash.access");
+
+    private final RequestLoggingProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || EventStreams.isEventStream(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            log(request, response, System.nanoTime() - start, failure);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long elapsedNanos, Throwable failure) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNMATCHED";
+        int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        long elapsedMs = elapsedNanos / 1_000_000;
+
+        if (status >= 500) {
+            if (accessLog.isErrorEnabled()) {
+                accessLog.error(format(request, route, status, elapsedMs, failure));
+            }
+        } else if (elapsedNanos >= properties.getSlowThreshold().toNanos()) {
+            if (accessLog.isWarnEnabled()) {
+                accessLog.warn(format(request, route, status, elapsedMs, null) + " slow=true" + timing(request));
+            }
+        } else if (accessLog.isInfoEnabled() && sampled(route)) {
+            accessLog.info(format(request, route, status, elapsedMs, null));
+        }
+    }
+
+    /**
+     * Phase breakdown of the request when Server-Timing is on (ServerTimingFilter)
+     */
+    private static String timing(HttpServletRequest request) {
+        return request.getAttribute(ServerTimingFilter.ATTRIBUTE) instanceof RequestTiming timing
+                ? " " + timing.toLogFields() : "";
+    }
+
+    private boolean sampled(String route) {
+        double rate = properties.getRouteSampleRates().getOrDefault(route, properties.getSampleRate());
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static String format(HttpServletRequest request, String route, int status, long elapsedMs,
+                                 Throwable failure) {
+        StringBuilder line = new StringBuilder(160)
+                .append("method=").append(request.getMethod())
+                .append(" route=").append(route)
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" durationMs=").append(elapsedMs);
+        Object userId = request.getAttribute(CurrentUser.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            line.append(" userId=").append(userId);
+        }
+        if (failure != null) {
+            line.append(" error=").append(failure.getClass().getSimpleName());
+        }
+        return line.toString();
+    }
+
+}
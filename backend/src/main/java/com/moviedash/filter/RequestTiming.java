@@ -0,0 +1,137 @@
+package com.moviedash.filter;
+
+import com.moviedash.datasource.ConnectionHoldTime;
+import com.moviedash.datasource.SqlStatementCount;
+
+import java.util.Locale;
+
+/**
+ * RequestTiming
+ *
+ * Per-thread phase timing of the current request, reported as the Server-Timing header by
+ * ServerTimingFilter and appended to slow-request log lines.
+ *
+ * Phases:
+ * - auth: JwtAuthenticationFilter, including its user lookup
+ * - serialize: JSON serialization in TimedJacksonHttpMessageConverter
+ * - db and queries: connection hold time (ConnectionHoldTime) and SQL statements (SqlStatementCount)
+ *   of the request so far
+ *
+ * Code that times a phase calls start() and then the matching record method. Without an active
+ * scope (Server-Timing off, or a thread that is not serving a request) start() returns 0, the record
+ * methods do nothing, and nothing is allocated.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt;
+    private long authNanos;
+    private long serializeNanos;
+    // Start of a serialization still running, or 0
+    private long serializingSince;
+    private long dbNanos = -1;
+    private int queries = -1;
+    private long totalNanos;
+
+    private RequestTiming(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Start of a timed phase: System.nanoTime(), or 0 if the current request is not timed
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    public static void recordAuth(long started) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && started != 0) {
+            timing.authNanos += System.nanoTime() - started;
+        }
+    }
+
+    /**
+     * Start of a serialization; ended by recordSerialize. The response may be committed before it
+     * ends, in which case the header reports the serialization up to that point.
+     */
+    public static long startSerialize() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return 0L;
+        }
+        timing.serializingSince = System.nanoTime();
+        return timing.serializingSince;
+    }
+
+    public static void recordSerialize(long started) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && started != 0) {
+            timing.serializeNanos += System.nanoTime() - started;
+            timing.serializingSince = 0;
+        }
+    }
+
+    /**
+     * Fix the totals as of now: phases still running count up to this moment
+     */
+    void snapshot() {
+        long now = System.nanoTime();
+        totalNanos = now - startedAt;
+        dbNanos = ConnectionHoldTime.current();
+        queries = SqlStatementCount.current();
+        if (serializingSince != 0) {
+            serializeNanos += now - serializingSince;
+            serializingSince = now;
+        }
+    }
+
+    /**
+     * Server-Timing header value, e.g. auth;dur=1.2, db;dur=3.4, serialize;dur=0.5, total;dur=6.1, queries;desc="2"
+     */
+    String toHeader() {
+        StringBuilder header = new StringBuilder(96);
+        header.append("auth;dur=").append(millis(authNanos));
+        if (dbNanos >= 0) {
+            header.append(", db;dur=").append(millis(dbNanos));
+        }
+        header.append(", serialize;dur=").append(millis(serializeNanos))
+                .append(", total;dur=").append(millis(totalNanos));
+        if (queries >= 0) {
+            header.append(", queries;desc=\"").append(queries).append('"');
+        }
+        return header.toString();
+    }
+
+    /**
+     * Log form, e.g. authMs=1.2 dbMs=3.4 serializeMs=0.5 queries=2
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder(64);
+        fields.append("authMs=").append(millis(authNanos));
+        if (dbNanos >= 0) {
+            fields.append(" dbMs=").append(millis(dbNanos));
+        }
+        fields.append(" serializeMs=").append(millis(serializeNanos));
+        if (queries >= 0) {
+            fields.append(" queries=").append(queries);
+        }
+        return fields.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+}
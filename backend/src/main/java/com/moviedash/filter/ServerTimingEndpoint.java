@@ -0,0 +1,37 @@
+package com.moviedash.filter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Switches the Server-Timing header on and off at runtime (ROLE_ADMIN)
+ * GET /actuator/servertiming
+ * POST /actuator/servertiming  {"enabled": true}
+ */
+@Slf4j
+@Component
+@Endpoint(id = "servertiming")
+@RequiredArgsConstructor
+public class ServerTimingEndpoint {
+
+    private final ServerTimingFilter serverTimingFilter;
+
+    @ReadOperation
+    public Map<String, Boolean> status() {
+        return Map.of("enabled", serverTimingFilter.isEnabled());
+    }
+
+    @WriteOperation
+    public Map<String, Boolean> update(boolean enabled) {
+        serverTimingFilter.setEnabled(enabled);
+        log.info("Server-Timing header {}", enabled ? "enabled" : "disabled");
+        return status();
+    }
+
+}
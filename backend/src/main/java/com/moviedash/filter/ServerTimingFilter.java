@@ -0,0 +1,69 @@
+package com.moviedash.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * ServerTimingFilter
+ *
+ * Adds a Server-Timing header with the request's phases (see RequestTiming):
+ *   Server-Timing: auth;dur=0.9, db;dur=2.1, serialize;dur=0.4, total;dur=4.2, queries;desc="2"
+ * total runs until the header is sent, i.e. until the response commits.
+ *
+ * Off by default (server-timing.enabled) and switched at runtime through the servertiming actuator
+ * endpoint. When off, requests pass straight through and nothing is allocated.
+ *
+ * Runs inside ConnectionHoldTimeFilter and RequestCostFilter, whose per-request scopes provide db and
+ * queries, and outside the security filter chain, so auth is included. The timing is left on the
+ * request (ATTRIBUTE) for RequestLoggingFilter's slow-request lines. Event streams are skipped.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 12)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private volatile boolean enabled;
+
+    public ServerTimingFilter(@Value("${server-timing.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EventStreams.isEventStream(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        ServerTimingResponse timed = new ServerTimingResponse(response, timing);
+        request.setAttribute(ATTRIBUTE, timing);
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            timed.finish();
+            RequestTiming.end();
+        }
+    }
+
+}
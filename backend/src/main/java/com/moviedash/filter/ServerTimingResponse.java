@@ -0,0 +1,161 @@
+package com.moviedash.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Adds the Server-Timing header at the last moment it can still be sent: right before the
+ * response commits (its buffer or declared length is exceeded, or it is flushed), or at the end of
+ * the request if the body was small enough to stay buffered.
+ */
+class ServerTimingResponse extends HttpServletResponseWrapper {
+
+    static final String HEADER = "Server-Timing";
+
+    private final RequestTiming timing;
+    private boolean reported;
+    private long written;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+        super(response);
+        this.timing = timing;
+    }
+
+    /**
+     * Take the timing now and add the header, unless that already happened or it is too late
+     */
+    void report() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        timing.snapshot();
+        if (!getResponse().isCommitted()) {
+            setHeader(HEADER, timing.toHeader());
+        }
+    }
+
+    /**
+     * End of the request: push out anything still held in getWriter()'s buffer, then report
+     */
+    void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        report();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        contentLength = len;
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        contentLength = len;
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        report();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        report();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        report();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        report();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TimingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    private void beforeWrite(int len) {
+        if (!reported && (written + len >= getBufferSize() || (contentLength >= 0 && written + len >= contentLength))) {
+            report();
+        }
+        written += len;
+    }
+
+    private class TimingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        TimingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            beforeWrite(1);
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            beforeWrite(len);
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            report();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.moviedash.hotkeys;
+
+import com.moviedash.util.SlidingCountMinSketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HeavyHitters
+ *
+ * The most frequent keys of one kind over a sliding window, in fixed memory: every key is counted
+ * in a SlidingCountMinSketch, and keys whose estimate beats the current threshold become candidates.
+ * advance() (on every slice) re-ranks the candidates, keeps the top `capacity`, and raises the
+ * threshold to the smallest count kept, so a key has to out-count one of them to get in.
+ *
+ * record() takes no lock: the sketch increments are atomic, and the candidate map is only
+ * written when a key not yet tracked crosses the threshold. Keys already tracked (most requests,
+ * being hot) skip the estimate.
+ */
+class HeavyHitters<K> {
+
+    /**
+     * A key and its estimated count over the window
+     */
+    record Ranked<K>(K key, long count) {
+    }
+
+    private final SlidingCountMinSketch sketch;
+    private final int capacity;
+    private final Map<K, Boolean> candidates = new ConcurrentHashMap<>();
+    private volatile long threshold;
+
+    HeavyHitters(int depth, int width, int slices, int capacity) {
+        this.sketch = new SlidingCountMinSketch(depth, width, slices);
+        this.capacity = Math.max(1, capacity);
+    }
+
+    void record(K key) {
+        long hash = SlidingCountMinSketch.hash(key.hashCode());
+        sketch.add(hash);
+        if (!candidates.containsKey(key) && sketch.exceeds(hash, threshold)
+                && candidates.size() < 2 * capacity) {
+            candidates.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Start a new slice and re-rank the candidates; called from one thread only
+     */
+    void advance() {
+        sketch.advance();
+        List<Ranked<K>> ranked = rank();
+        for (int i = capacity; i < ranked.size(); i++) {
+            candidates.remove(ranked.get(i).key());
+        }
+        ranked.stream().filter(entry -> entry.count() == 0).forEach(entry -> candidates.remove(entry.key()));
+        threshold = ranked.size() >= capacity ? ranked.get(capacity - 1).count() : 0;
+    }
+
+    /**
+     * The highest counts first
+     */
+    List<Ranked<K>> top(int limit) {
+        List<Ranked<K>> ranked = rank();
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    long sizeInBytes() {
+        return sketch.sizeInBytes();
+    }
+
+    private List<Ranked<K>> rank() {
+        List<Ranked<K>> ranked = new ArrayList<>(candidates.size());
+        for (K key : candidates.keySet()) {
+            ranked.add(new Ranked<>(key, sketch.estimate(SlidingCountMinSketch.hash(key.hashCode()))));
+        }
+        ranked.sort(Comparator.comparingLong(Ranked<K>::count).reversed());
+        return ranked;
+    }
+
+}
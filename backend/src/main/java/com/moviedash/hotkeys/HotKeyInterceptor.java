@@ -0,0 +1,51 @@
+package com.moviedash.hotkeys;
+
+import com.moviedash.security.CurrentUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Feeds HotKeyTracker from every request mapped to a controller method (batched sub-requests
+ * included), before the controller runs: the route, the {movieId} path variable if the route has
+ * one, and the authenticated user. Static resources and unmapped paths are not counted.
+ */
+public class HotKeyInterceptor implements HandlerInterceptor {
+
+    private final HotKeyTracker tracker;
+
+    public HotKeyInterceptor(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            tracker.record(request.getMethod() + " " + pattern, movieId(request),
+                    (Long) request.getAttribute(CurrentUser.USER_ID_ATTRIBUTE));
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Integer movieId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String movieId = variables == null ? null : variables.get("movieId");
+        if (movieId == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(movieId);
+        } catch (NumberFormatException e) {
+            // The controller answers 400; nothing worth counting
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.moviedash.hotkeys;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * HotKeyTracker
+ *
+ * Which movies, users and routes get the most requests right now, for sizing caches and spotting
+ * abuse. Fed by HotKeyInterceptor for every request that reaches a controller; reported by
+ * GET /actuator/hotkeys.
+ *
+ * Window: hot-keys.slices slices of hot-keys.slice-interval ms each; the oldest slice is dropped as
+ * a new one starts, so counts cover between (slices - 1) and slices intervals.
+ *
+ * Memory is fixed: three SlidingCountMinSketch (slices x depth x width ints, about 200 KB each
+ * with the defaults) and at most 2 x hot-keys.candidates keys per kind. Counts are estimates that
+ * can only be too high, by about e / width of the window's requests; a key is only reported once
+ * its count beats the keys already tracked.
+ *
+ * record() takes no lock and costs well under a microsecond (bench/HotKeyTrackerBenchmark.java).
+ */
+@Component
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeyTracker {
+
+    public record HotKey(String key, long requests, double perSecond) {
+    }
+
+    public record Report(double windowSeconds, List<HotKey> movies, List<HotKey> users, List<HotKey> routes) {
+    }
+
+    private final HeavyHitters<Integer> movies;
+    private final HeavyHitters<Long> users;
+    private final HeavyHitters<String> routes;
+    private final long sliceNanos;
+    private final int slices;
+
+    private volatile long sliceStartedAt = System.nanoTime();
+    private volatile int completedSlices;
+
+    public HotKeyTracker(@Value("${hot-keys.slices:6}") int slices,
+                         @Value("${hot-keys.slice-interval:10000}") long sliceMillis,
+                         @Value("${hot-keys.depth:4}") int depth,
+                         @Value("${hot-keys.width:2048}") int width,
+                         @Value("${hot-keys.candidates:100}") int candidates,
+                         MeterRegistry meterRegistry) {
+        this.slices = Math.max(1, slices);
+        this.sliceNanos = sliceMillis * 1_000_000;
+        this.movies = new HeavyHitters<>(depth, width, this.slices, candidates);
+        this.users = new HeavyHitters<>(depth, width, this.slices, candidates);
+        this.routes = new HeavyHitters<>(depth, width, this.slices, candidates);
+        Gauge.builder("hotkeys.sketch.bytes", this,
+                        tracker -> tracker.movies.sizeInBytes() + tracker.users.sizeInBytes() + tracker.routes.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count one request
+     *
+     * @param route method and route pattern, e.g. "GET /reviews/movie/{movieId}"
+     * @param movieId the movie in the path, or null
+     * @param userId the authenticated user, or null
+     */
+    public void record(String route, Integer movieId, Long userId) {
+        routes.record(route);
+        if (movieId != null) {
+            movies.record(movieId);
+        }
+        if (userId != null) {
+            users.record(userId);
+        }
+    }
+
+    /**
+     * Start the next slice, dropping the oldest
+     */
+    @Scheduled(fixedRateString = "${hot-keys.slice-interval:10000}",
+            initialDelayString = "${hot-keys.slice-interval:10000}")
+    public void advance() {
+        movies.advance();
+        users.advance();
+        routes.advance();
+        sliceStartedAt = System.nanoTime();
+        if (completedSlices < slices - 1) {
+            completedSlices++;
+        }
+    }
+
+    /**
+     * The top movies, users and routes by requests over the current window
+     */
+    public Report report(int limit) {
+        double windowSeconds = (completedSlices * sliceNanos + (System.nanoTime() - sliceStartedAt)) / 1e9;
+        return new Report(windowSeconds,
+                rates(movies.top(limit), windowSeconds),
+                rates(users.top(limit), windowSeconds),
+                rates(routes.top(limit), windowSeconds));
+    }
+
+    private static List<HotKey> rates(List<? extends HeavyHitters.Ranked<?>> ranked, double windowSeconds) {
+        return ranked.stream()
+                .map(entry -> new HotKey(String.valueOf(entry.key()), entry.count(),
+                        windowSeconds > 0 ? entry.count() / windowSeconds : 0))
+                .toList();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.moviedash.hotkeys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Top movies, users and routes by request rate over the sliding window (ROLE_ADMIN)
+ * GET /actuator/hotkeys?limit=10
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @ReadOperation
+    public HotKeyTracker.Report hotKeys(@Nullable Integer limit) {
+        return hotKeyTracker.report(Math.max(1, Math.min(limit == null ? DEFAULT_LIMIT : limit, MAX_LIMIT)));
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.moviedash.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * AdaptiveConcurrencyLimit
+ *
+ * AIMD (additive increase, multiplicative decrease) limit on concurrent requests,
+ * driven by observed latency.
+ *
+ * Algorithm:
+ * - Each completed request is a sample
+ * - Slow (latency above the target) or failed sample: limit = limit * backoffRatio, at most once
+ *   per round trip: samples that started before the last decrease ran under the old limit and are
+ *   ignored, so a burst of slow completions backs off once instead of once per request
+ * - Fast sample while the limit is actually in use (inflight >= limit / 2): limit += 1 / limit,
+ *   i.e. roughly +1 per limit-worth of requests
+ * - The limit stays within [minLimit, maxLimit]
+ *
+ * Callers acquire a slot against a share of the limit, so lower-priority traffic
+ * is shed first while higher-priority traffic can still use the whole limit.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private double limit;
+    private long lastBackoffAt;
+    private volatile int currentLimit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    long latencyTargetNanos, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyTargetNanos, backoffRatio, System::nanoTime);
+    }
+
+    /**
+     * @param clock nanosecond clock the latencies are measured with
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    long latencyTargetNanos, double backoffRatio, LongSupplier clock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+        this.lastBackoffAt = clock.getAsLong();
+    }
+
+    /**
+     * Try to take a slot
+     *
+     * @param share fraction of the limit this caller may use (0.0 - 1.0)
+     * @return true if the caller may proceed and must later call release()
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (currentLimit * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot and feed the request's outcome into the limit
+     *
+     * @param latencyNanos how long the request took
+     * @param failed whether the request failed (server fault or exception)
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inflightBefore = inflight.getAndDecrement();
+        long now = clock.getAsLong();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyTargetNanos) {
+                if (now - latencyNanos - lastBackoffAt >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoffAt = now;
+                }
+            } else if (inflightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.moviedash.outbox;
+
+import com.moviedash.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * OutboxConsumer
+ *
+ * Something derived from review and favorite changes, fed by OutboxPoller. Register one as a bean.
+ *
+ * - Delivery is at least once: a batch that fails is retried whole, and a batch can be delivered
+ *   again after a crash or by a second node, so accept must be idempotent
+ * - Events with the same partition key arrive in the order they were written (per shard), one
+ *   batch at a time; events with different keys may be handled concurrently
+ * - accept runs on a poller thread; while it runs, no further events are read for this consumer
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Stable name, used as the checkpoint key and metric tag; renaming it restarts from the oldest
+     * retained event
+     */
+    String name();
+
+    /**
+     * Key whose events must be handled in order: the movie ID (default) or the user ID
+     */
+    default long partitionKey(OutboxEvent event) {
+        return event.getMovieId();
+    }
+
+    /**
+     * Handle the events of one partition lane, in event order
+     *
+     * @throws Exception to have the whole batch retried after a backoff
+     */
+    void accept(List<OutboxEvent> events) throws Exception;
+
+}
@@ -0,0 +1,370 @@
+package com.moviedash.outbox;
+
+import com.moviedash.config.OutboxProperties;
+import com.moviedash.entity.OutboxCheckpoint;
+import com.moviedash.entity.OutboxEvent;
+import com.moviedash.repository.OutboxCheckpointRepository;
+import com.moviedash.repository.OutboxEventRepository;
+import com.moviedash.shard.ShardContext;
+import com.moviedash.shard.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * OutboxPoller
+ *
+ * Delivers outbox_events to every OutboxConsumer bean, in batches, at least once.
+ *
+ * Each poll (outbox.poll-interval), per consumer and shard:
+ * 1. Read up to outbox.batch-size events after the consumer's checkpoint, in ID order
+ * 2. Cut the batch at the first missing ID younger than outbox.gap-timeout: IDs are taken at
+ *    INSERT but become visible at COMMIT, so a gap is usually a transaction still running, whose
+ *    event must not be skipped. Gaps older than that are rolled-back writes
+ * 3. Split the batch into outbox.lanes lanes by the consumer's partition key and run the lanes in
+ *    parallel, each in event order
+ * 4. Once every lane succeeded, store the last event ID as the consumer's checkpoint (on shard 0).
+ *    If a lane fails, the checkpoint stays and the whole batch is retried after a backoff
+ *
+ * Backpressure: a consumer's next batch is read only after the previous one finished, and at most
+ * outbox.max-batches-per-poll batches per consumer and shard run in one poll; the backlog waits in
+ * the table. Consumers are polled one after another, so a slow one delays the others' next batch.
+ *
+ * Every node with outbox.poller-enabled delivers every event; the versioned checkpoints only keep
+ * them from moving backwards. With several nodes, enable the poller on one.
+ *
+ * Delivered events are deleted once older than outbox.retention (outbox.cleanup-interval).
+ *
+ * Events and checkpoints are always read from the primary, also with datasource.routing: on a
+ * lagging replica a stored checkpoint looks missing and is inserted again, and an event committed
+ * but not yet replicated looks like an old gap and is skipped.
+ *
+ * Metrics, tagged by consumer:
+ * - outbox.lag.events: events not yet delivered (counted by ID, so rolled-back IDs count too)
+ * - outbox.lag.seconds: age of the oldest event not yet delivered, 0 when caught up
+ * - outbox.events.delivered, outbox.batches.failed, outbox.batch (delivery time)
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(name = "outbox.poller-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPoller {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final ShardTemplate shardTemplate;
+    private final OutboxProperties properties;
+    // Read-write, so reads are routed to the primary
+    private final TransactionTemplate primaryRead;
+    private final ExecutorService laneExecutor;
+    private final List<ConsumerState> consumers;
+    // Highest event ID seen per shard, for outbox.lag.events
+    private final long[] headIds;
+
+    public OutboxPoller(OutboxEventRepository outboxEventRepository,
+                        OutboxCheckpointRepository checkpointRepository,
+                        ShardTemplate shardTemplate,
+                        OutboxProperties properties,
+                        ObjectProvider<OutboxConsumer> consumers,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.shardTemplate = shardTemplate;
+        this.properties = properties;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.laneExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getLanes()), task -> {
+            Thread thread = new Thread(task, "outbox-lane-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.headIds = new long[shardTemplate.shards().size()];
+        this.consumers = consumers.orderedStream()
+                .map(consumer -> new ConsumerState(consumer, headIds.length, meterRegistry))
+                .toList();
+        log.info("Outbox poller delivering to {}", this.consumers.stream().map(state -> state.name).toList());
+    }
+
+    /**
+     * Delivery progress of one consumer
+     */
+    private final class ConsumerState {
+
+        private final OutboxConsumer consumer;
+        private final String name;
+        // By shard; the loaded checkpoint entity (null before the first delivery) and the creation time
+        // of the oldest event not delivered yet (null when caught up)
+        private final OutboxCheckpoint[] checkpoints;
+        private final LocalDateTime[] pendingSince;
+        private final Counter delivered;
+        private final Counter failed;
+        private final Timer batchTimer;
+        private int failures;
+        private long retryAt;
+
+        ConsumerState(OutboxConsumer consumer, int shards, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.name = consumer.name();
+            this.checkpoints = new OutboxCheckpoint[shards];
+            this.pendingSince = new LocalDateTime[shards];
+            this.delivered = Counter.builder("outbox.events.delivered").tag("consumer", name).register(meterRegistry);
+            this.failed = Counter.builder("outbox.batches.failed").tag("consumer", name).register(meterRegistry);
+            this.batchTimer = Timer.builder("outbox.batch").tag("consumer", name).register(meterRegistry);
+            Gauge.builder("outbox.lag.events", this, ConsumerState::lagEvents)
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            Gauge.builder("outbox.lag.seconds", this, ConsumerState::lagSeconds)
+                    .tag("consumer", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        long lastId(int shard) {
+            OutboxCheckpoint checkpoint = checkpoints[shard];
+            return checkpoint == null ? 0 : checkpoint.getLastEventId();
+        }
+
+        double lagEvents() {
+            long lag = 0;
+            for (int shard = 0; shard < checkpoints.length; shard++) {
+                lag += Math.max(0, headIds[shard] - lastId(shard));
+            }
+            return lag;
+        }
+
+        double lagSeconds() {
+            LocalDateTime oldest = null;
+            for (LocalDateTime since : pendingSince) {
+                if (since != null && (oldest == null || since.isBefore(oldest))) {
+                    oldest = since;
+                }
+            }
+            return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+        }
+
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:1000}")
+    public void poll() {
+        if (consumers.isEmpty()) {
+            return;
+        }
+        // Checkpoints are re-read every poll, in case another node moved them
+        Map<OutboxCheckpoint.Key, OutboxCheckpoint> saved = loadCheckpoints();
+        for (int shard : shardTemplate.shards()) {
+            Long maxId = shardTemplate.readOnShard(shard, () -> onPrimary(outboxEventRepository::findMaxId));
+            headIds[shard] = maxId == null ? 0 : maxId;
+        }
+
+        for (ConsumerState state : consumers) {
+            if (System.nanoTime() - state.retryAt < 0) {
+                continue;
+            }
+            for (int shard : shardTemplate.shards()) {
+                state.checkpoints[shard] = saved.get(new OutboxCheckpoint.Key(state.name, shard));
+                if (!drain(state, shard)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deliver the consumer's pending events of one shard, a batch at a time
+     *
+     * @return false if a batch failed, so the consumer waits for its backoff
+     */
+    private boolean drain(ConsumerState state, int shard) {
+        for (int batch = 0; batch < properties.getMaxBatchesPerPoll(); batch++) {
+            long afterId = state.lastId(shard);
+            List<OutboxEvent> fetched = shardTemplate.readOnShard(shard, () -> onPrimary(() ->
+                    outboxEventRepository.findAfter(afterId, PageRequest.of(0, properties.getBatchSize()))));
+            List<OutboxEvent> ready = contiguous(afterId, fetched);
+            state.pendingSince[shard] = fetched.isEmpty() ? null : fetched.get(0).getCreatedAt();
+            if (ready.isEmpty()) {
+                return true;
+            }
+
+            long started = System.nanoTime();
+            try {
+                deliver(state.consumer, ready);
+            } catch (Exception e) {
+                state.failed.increment();
+                state.failures++;
+                long backoff = Math.min(properties.getMaxRetryBackoff().toNanos(),
+                        properties.getRetryBackoff().toNanos() << Math.min(state.failures - 1, 20));
+                state.retryAt = System.nanoTime() + backoff;
+                log.warn("Outbox consumer {} failed {} events of shard {} (IDs {}-{}); retrying in {} ms",
+                        state.name, ready.size(), shard, ready.get(0).getId(), ready.get(ready.size() - 1).getId(),
+                        backoff / 1_000_000, e);
+                return false;
+            } finally {
+                state.batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            state.failures = 0;
+            state.delivered.increment(ready.size());
+
+            if (ready.size() < fetched.size()) {
+                // Stopped at a gap: the event after it is the oldest one pending
+                state.pendingSince[shard] = fetched.get(ready.size()).getCreatedAt();
+            } else if (fetched.size() < properties.getBatchSize()) {
+                state.pendingSince[shard] = null;
+            } else {
+                // More may follow; they are no older than the last one delivered
+                state.pendingSince[shard] = ready.get(ready.size() - 1).getCreatedAt();
+            }
+            if (!saveCheckpoint(state, shard, ready.get(ready.size() - 1).getId())
+                    || ready.size() < fetched.size() || fetched.size() < properties.getBatchSize()) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The leading events that can be delivered: up to the first young gap in the IDs
+     */
+    private List<OutboxEvent> contiguous(long afterId, List<OutboxEvent> fetched) {
+        LocalDateTime settled = LocalDateTime.now().minus(properties.getGapTimeout());
+        long expected = afterId + 1;
+        for (int i = 0; i < fetched.size(); i++) {
+            OutboxEvent event = fetched.get(i);
+            if (event.getId() != expected && event.getCreatedAt().isAfter(settled)) {
+                return fetched.subList(0, i);
+            }
+            expected = event.getId() + 1;
+        }
+        return fetched;
+    }
+
+    /**
+     * Split the batch by partition key and run the lanes in parallel; the first failure is rethrown
+     * once every lane has finished
+     */
+    private void deliver(OutboxConsumer consumer, List<OutboxEvent> batch) throws Exception {
+        int laneCount = Math.max(1, properties.getLanes());
+        List<List<OutboxEvent>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (OutboxEvent event : batch) {
+            lanes.get((int) Math.floorMod(consumer.partitionKey(event), (long) laneCount)).add(event);
+        }
+        List<List<OutboxEvent>> used = lanes.stream().filter(lane -> !lane.isEmpty()).toList();
+        if (used.size() == 1) {
+            consumer.accept(used.get(0));
+            return;
+        }
+
+        List<Future<Void>> running = new ArrayList<>(used.size());
+        for (List<OutboxEvent> lane : used) {
+            running.add(laneExecutor.submit(() -> {
+                consumer.accept(lane);
+                return null;
+            }));
+        }
+        Exception failure = null;
+        for (Future<Void> lane : running) {
+            try {
+                lane.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return false if another node moved the checkpoint meanwhile; it is reloaded at the next poll
+     */
+    private boolean saveCheckpoint(ConsumerState state, int shard, long lastEventId) {
+        OutboxCheckpoint checkpoint = state.checkpoints[shard];
+        if (checkpoint == null) {
+            checkpoint = new OutboxCheckpoint(state.name, shard, lastEventId, LocalDateTime.now(), null);
+        } else {
+            checkpoint.setLastEventId(lastEventId);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+        }
+        try {
+            state.checkpoints[shard] = checkpointRepository.save(checkpoint);
+            return true;
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.info("Checkpoint of outbox consumer {} on shard {} was moved by another node", state.name, shard);
+            state.checkpoints[shard] = onPrimary(() -> checkpointRepository
+                    .findById(new OutboxCheckpoint.Key(state.name, shard)).orElse(null));
+            return false;
+        }
+    }
+
+    /**
+     * Delete events every consumer has processed, once they are older than outbox.retention.
+     * Without consumers, every event older than that is deleted.
+     */
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:600000}",
+            initialDelayString = "${outbox.cleanup-interval:600000}")
+    public void cleanup() {
+        Map<OutboxCheckpoint.Key, OutboxCheckpoint> saved = loadCheckpoints();
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        for (int shard : shardTemplate.shards()) {
+            long upToId = Long.MAX_VALUE;
+            for (ConsumerState state : consumers) {
+                OutboxCheckpoint checkpoint = saved.get(new OutboxCheckpoint.Key(state.name, shard));
+                upToId = Math.min(upToId, checkpoint == null ? 0 : checkpoint.getLastEventId());
+            }
+            long limit = upToId;
+            int deleted = ShardContext.call(shard, () -> outboxEventRepository.deleteDelivered(limit, before));
+            if (deleted > 0) {
+                log.info("Deleted {} delivered outbox events on shard {}", deleted, shard);
+            }
+        }
+    }
+
+    private Map<OutboxCheckpoint.Key, OutboxCheckpoint> loadCheckpoints() {
+        return onPrimary(checkpointRepository::findAll).stream()
+                .collect(Collectors.toMap(checkpoint ->
+                        new OutboxCheckpoint.Key(checkpoint.getConsumer(), checkpoint.getShardIndex()), Function.identity()));
+    }
+
+    private <T> T onPrimary(Supplier<T> read) {
+        return primaryRead.execute(status -> read.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        laneExecutor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.moviedash.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.entity.OutboxEvent;
+import com.moviedash.event.FavoriteChangedEvent;
+import com.moviedash.event.ReviewChangedEvent;
+import com.moviedash.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * OutboxWriter
+ *
+ * Turns ReviewChangedEvent and FavoriteChangedEvent into outbox_events rows. A plain @EventListener
+ * runs inside the publisher's transaction, so the row commits or rolls back with the change, and
+ * lands on the same shard (the transaction's connection). The write itself pays one INSERT; everything
+ * derived from it runs later, in OutboxPoller.
+ *
+ * Disabled with outbox.enabled=false.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        OutboxEvent.Type type = switch (event.getType()) {
+            case CREATED -> OutboxEvent.Type.REVIEW_CREATED;
+            case UPDATED -> OutboxEvent.Type.REVIEW_UPDATED;
+            case DELETED -> OutboxEvent.Type.REVIEW_DELETED;
+        };
+        String payload;
+        try {
+            payload = event.getReview() == null ? null : objectMapper.writeValueAsString(event.getReview());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review " + event.getReviewId(), e);
+        }
+        write(new OutboxEvent(null, type, event.getMovieId(), event.getUserId(), event.getReviewId(), payload, null));
+    }
+
+    @EventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        OutboxEvent.Type type = event.getType() == FavoriteChangedEvent.Type.ADDED
+                ? OutboxEvent.Type.FAVORITE_ADDED
+                : OutboxEvent.Type.FAVORITE_REMOVED;
+        write(new OutboxEvent(null, type, event.getMovieId(), event.getUserId(), event.getFavoriteId(), null, null));
+    }
+
+    private void write(OutboxEvent event) {
+        // Outside a transaction the row would commit on its own, and could outlive a failed change
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be published inside the write transaction");
+        }
+        outboxEventRepository.save(event);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.moviedash.repository;
+
+import com.moviedash.entity.Favorite;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Map;
+
+class FavoriteFieldsRepositoryImpl implements FavoriteFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, List<String> fields) {
+        return UserFieldProjection.select(entityManager, Favorite.class, userId, fields);
+    }
+
+}
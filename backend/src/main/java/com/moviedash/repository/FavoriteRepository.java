@@ -1,21 +1,40 @@
 package com.moviedash.repository;
 
 import com.moviedash.entity.Favorite;
+import com.moviedash.entity.MovieMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
+public interface FavoriteRepository extends JpaRepository<Favorite, Long>, FavoriteFieldsRepository {
 
     List<Favorite> findByUserId(Long userId);
 
+    long countByUserId(Long userId);
+
     Optional<Favorite> findByUserIdAndMovieId(Long userId, Integer movieId);
 
     void deleteByUserIdAndMovieId(Long userId, Integer movieId);
 
     boolean existsByUserIdAndMovieId(Long userId, Integer movieId);
 
+    long countByMovieId(Integer movieId);
+
+    /**
+     * A user's favorites with the stored metadata of each movie, in one query
+     * movie is null for movies that have no movie_metadata row yet
+     */
+    @Query("SELECT f AS favorite, m AS movie FROM Favorite f LEFT JOIN MovieMetadata m ON m.movieId = f.movieId "
+            + "WHERE f.user.id = :userId ORDER BY f.id")
+    List<FavoriteWithMovie> findWithMovieByUserId(Long userId);
+
+    interface FavoriteWithMovie {
+        Favorite getFavorite();
+        MovieMetadata getMovie();
+    }
+
 }
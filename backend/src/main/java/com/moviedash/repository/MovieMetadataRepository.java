@@ -0,0 +1,16 @@
+package com.moviedash.repository;
+
+import com.moviedash.entity.MovieMetadata;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MovieMetadataRepository extends JpaRepository<MovieMetadata, Integer> {
+
+    List<MovieMetadata> findByFetchedAtBeforeOrderByFetchedAt(LocalDateTime cutoff, Pageable pageable);
+
+}
@@ -0,0 +1,9 @@
+package com.moviedash.repository;
+
+import com.moviedash.entity.MovieTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MovieTotalsRepository extends JpaRepository<MovieTotals, Integer> {
+}
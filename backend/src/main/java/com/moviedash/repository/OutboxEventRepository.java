@@ -0,0 +1,32 @@
+package com.moviedash.repository;
+
+import com.moviedash.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Not shard-routed: writes join the transaction of the review or favorite change (and so its shard),
+ * the poller picks the shard with ShardTemplate.readOnShard / ShardContext.call
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OutboxEvent> findAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e")
+    Long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :upToId AND e.createdAt < :before")
+    int deleteDelivered(long upToId, LocalDateTime before);
+
+}
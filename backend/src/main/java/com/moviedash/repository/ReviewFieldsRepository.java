@@ -0,0 +1,17 @@
+package com.moviedash.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse-fieldset reads of reviews; part of ReviewRepository
+ */
+public interface ReviewFieldsRepository {
+
+    /**
+     * The user's reviews with only the given fields (field name to value), ordered by ID
+     * The fields must be validated by the caller
+     */
+    List<Map<String, Object>> findFieldsByUserId(Long userId, List<String> fields);
+
+}
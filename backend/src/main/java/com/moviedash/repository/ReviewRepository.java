@@ -1,21 +1,75 @@
 package com.moviedash.repository;
 
+import com.moviedash.analytics.ReviewRow;
 import com.moviedash.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewFieldsRepository {
 
     List<Review> findByUserId(Long userId);
 
-    List<Review> findByMovieId(Integer movieId);
+    long countByUserId(Long userId);
+
+    /**
+     * Reviews of a movie in a stable order, so per-shard results can be merged
+     */
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.movieId = :movieId ORDER BY r.createdAt ASC, r.id ASC")
+    List<Review> findByMovieIdOrdered(Integer movieId);
 
     Optional<Review> findByUserIdAndMovieId(Long userId, Integer movieId);
 
+    /**
+     * IDs of the reviews by any of the users of any of the movies, a superset of the (user, movie) pairs
+     * wanted; read from the (user_id, movieId) index without loading entities. Runs on the shard the
+     * transaction is bound to (ShardTemplate.useUserShard)
+     */
+    @Query("SELECT r.id AS id, r.user.id AS userId, r.movieId AS movieId FROM Review r "
+            + "WHERE r.user.id IN :userIds AND r.movieId IN :movieIds")
+    List<ReviewKey> findKeysByUserIdInAndMovieIdIn(Collection<Long> userIds, Collection<Integer> movieIds);
+
     boolean existsByUserIdAndMovieId(Long userId, Integer movieId);
 
+    @Query("SELECT r FROM Review r JOIN FETCH r.user ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findLatest(Pageable pageable);
+
+    /**
+     * Every review as a flat row for the analytics snapshot; must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.moviedash.analytics.ReviewRow(r.id, r.movieId, r.rating, r.createdAt, u.id, u.createdAt) "
+            + "FROM Review r JOIN r.user u ORDER BY r.id")
+    Stream<ReviewRow> streamAnalyticsRows();
+
+    @Query("SELECT COUNT(r) AS reviewCount, AVG(r.rating) AS averageRating FROM Review r WHERE r.movieId = :movieId")
+    RatingSummary summarizeByMovieId(Integer movieId);
+
+    /**
+     * A review's ID with its user and movie
+     */
+    interface ReviewKey {
+        Long getId();
+        Long getUserId();
+        Integer getMovieId();
+    }
+
+    /**
+     * Review count and average rating of one movie
+     */
+    interface RatingSummary {
+        long getReviewCount();
+        Double getAverageRating();
+    }
+
 }
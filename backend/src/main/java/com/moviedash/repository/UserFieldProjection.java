@@ -0,0 +1,60 @@
+package com.moviedash.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects only the given fields of a user's rows (an entity with a user association)
+ *
+ * The SELECT list holds just those columns, so others (e.g. reviews.comment) are never read, and the
+ * users table is joined only when username is asked for; userId is the row's own user_id column.
+ * Rows come back as field name to value, in the order of the fields, ordered by ID.
+ */
+final class UserFieldProjection {
+
+    private UserFieldProjection() {
+    }
+
+    static List<Map<String, Object>> select(EntityManager entityManager, Class<?> entity, Long userId, List<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(entity);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(path(root, field).alias(field));
+        }
+        query.multiselect(selections)
+                .where(builder.equal(root.get("user").get("id"), userId))
+                .orderBy(builder.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path<?> path(Root<?> root, String field) {
+        return switch (field) {
+            case "userId" -> root.get("user").get("id");
+            case "username" -> root.join("user").get("username");
+            default -> root.get(field);
+        };
+    }
+
+}
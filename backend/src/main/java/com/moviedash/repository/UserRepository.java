@@ -2,8 +2,11 @@ package com.moviedash.repository;
 
 import com.moviedash.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +20,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    List<Names> findAllNames();
+
+    @Query("SELECT u.username AS username, u.email AS email FROM User u WHERE u.createdAt > :since")
+    List<Names> findNamesCreatedAfter(LocalDateTime since);
+
+    /**
+     * Username and email of one user, for UserAvailabilityIndex
+     */
+    interface Names {
+        String getUsername();
+        String getEmail();
+    }
+
 }
@@ -0,0 +1,167 @@
+package com.moviedash.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker
+ *
+ * Count-based circuit breaker: stops calling a dependency that keeps failing or answering slowly,
+ * and lets a few probe calls through after a pause to find out whether it recovered.
+ *
+ * States:
+ * - CLOSED: every call is permitted; the outcomes of the last windowSize calls are kept. Once at
+ *   least minimumCalls are recorded and the failure rate or the slow-call rate reaches its
+ *   threshold, the breaker opens
+ * - OPEN: no call is permitted until openDuration has passed, then the breaker goes half-open
+ * - HALF_OPEN: halfOpenProbes calls are permitted; one failed or slow probe opens the breaker again,
+ *   halfOpenProbes good ones close it with an empty window
+ *
+ * tryAcquire() returns a permit (or -1); the caller reports the call's outcome with that permit.
+ * Outcomes of calls permitted before the last state change are ignored, so a slow call that started
+ * while closed cannot close a breaker that opened in the meantime.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    // Ring of outcomes while closed: 0 = good, 1 = failed, 2 = slow (a slow failure counts as failed)
+    private final byte[] outcomes;
+    private int recorded;
+    private int next;
+    private int failed;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallNanos, double slowCallRateThreshold,
+                          long openNanos, int halfOpenProbes, LongSupplier clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.outcomes = new byte[windowSize];
+    }
+
+    /**
+     * Ask to make a call
+     *
+     * @return a permit to pass to onResult, or -1 if the call must not be made
+     */
+    public synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openNanos) {
+                    return -1;
+                }
+                transition(State.HALF_OPEN);
+                // fall through: this caller is the first probe
+            default:
+                if (probesIssued >= halfOpenProbes) {
+                    return -1;
+                }
+                probesIssued++;
+                return generation;
+        }
+    }
+
+    /**
+     * Report the outcome of a permitted call
+     *
+     * @param permit what tryAcquire returned
+     * @param elapsedNanos how long the call took
+     * @param failure whether the call failed
+     */
+    public synchronized void onResult(long permit, long elapsedNanos, boolean failure) {
+        if (permit != generation) {
+            return;
+        }
+        boolean isSlow = elapsedNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failure || isSlow) {
+                transition(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == windowSize) {
+            forget(outcomes[next]);
+        } else {
+            recorded++;
+        }
+        byte outcome = failure ? (byte) 1 : isSlow ? (byte) 2 : (byte) 0;
+        outcomes[next] = outcome;
+        next = (next + 1) % windowSize;
+        if (outcome == 1) {
+            failed++;
+        } else if (outcome == 2) {
+            slow++;
+        }
+        if (recorded >= minimumCalls
+                && (failed >= failureRateThreshold * recorded || slow >= slowCallRateThreshold * recorded)) {
+            transition(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        // Report an elapsed pause as half-open even before the next call moves the breaker
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Nanoseconds until an open breaker lets a probe through (0 if it is not open)
+     */
+    public synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (clock.getAsLong() - openedAt)) : 0;
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == 1) {
+            failed--;
+        } else if (outcome == 2) {
+            slow--;
+        }
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+        probesIssued = 0;
+        probesSucceeded = 0;
+        if (to == State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (to == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failed = 0;
+            slow = 0;
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.moviedash.resilience;
+
+/**
+ * Thrown when a circuit breaker is open and there is no stale value to answer with
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.moviedash.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StaleCache
+ *
+ * Last known good value per key, kept to answer when the source cannot. Bounded by entry count
+ * with least-recently-used eviction; entries older than maxAge are never served.
+ */
+public class StaleCache<K, V> {
+
+    /**
+     * A remembered value and when it was loaded (System.nanoTime)
+     */
+    public record Entry<V>(V value, long storedAtNanos) {
+
+        public long ageNanos() {
+            return System.nanoTime() - storedAtNanos;
+        }
+
+    }
+
+    private final long maxAgeNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public StaleCache(int maxEntries, long maxAgeNanos) {
+        this.maxAgeNanos = maxAgeNanos;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * The last good value for the key, or null if there is none younger than maxAge
+     */
+    public Entry<V> get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.ageNanos() > maxAgeNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.moviedash.review;
+
+import com.moviedash.config.ReviewGroupCommitProperties;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.entity.User;
+import com.moviedash.service.ReviewService;
+import com.moviedash.shard.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * GroupCommitReviewWriter
+ *
+ * Group commit for POST /reviews (reviews.group-commit.enabled): instead of a transaction and a
+ * commit per request, submissions wait in bounded queues and writer threads save them in multi-row
+ * transactions (ReviewService.createOrUpdateReviews). Each request returns once the batch holding its
+ * submission has committed, with the same response as the direct path.
+ *
+ * Batching:
+ * - Submissions are spread over reviews.group-commit.writers queues by user, each with its own writer
+ *   thread, so batches of different users commit side by side
+ * - A writer takes the first waiting submission, then more for up to reviews.group-commit.max-delay
+ *   or until max-batch; under load the queue fills while a batch commits, so batches grow with it
+ * - With sharding, a batch is split by the users' shards, one transaction each
+ * - A transaction that fails is retried one submission at a time (createOrUpdateReview), so one bad
+ *   submission fails only its own request
+ *
+ * Ordering: all of a user's submissions go to the same queue and are written in the order they were
+ * queued, by that queue's one thread, so they are applied in submission order and the last write to a
+ * (user, movie) wins, also within one batch. A side effect is that two simultaneous first reviews of
+ * the same movie by the same user can no longer both insert a row, as they can on the direct path.
+ *
+ * A full queue, or a batch not committed within reviews.group-commit.timeout, is answered 503 with
+ * Retry-After (ReviewWriterBusyException); a timed-out submission may still be saved, and saving it
+ * again is harmless.
+ *
+ * Metrics: reviews.group-commit.batch.size, reviews.group-commit.commit, reviews.group-commit.queue,
+ * reviews.group-commit.fallbacks, reviews.group-commit.rejected.
+ * bench/ReviewGroupCommitBenchmark.java compares writes/s and latency with the direct path.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ReviewGroupCommitProperties.class)
+@ConditionalOnProperty(name = "reviews.group-commit.enabled", havingValue = "true")
+public class GroupCommitReviewWriter {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ReviewService reviewService;
+    private final ShardTemplate shardTemplate;
+    private final ReviewGroupCommitProperties properties;
+    private final List<BlockingQueue<Submission>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Counter fallbacks;
+    private final Counter rejected;
+
+    private volatile boolean running = true;
+
+    private record Submission(ReviewService.ReviewWrite write, CompletableFuture<ReviewResponse> result) {
+    }
+
+    public GroupCommitReviewWriter(ReviewService reviewService, ShardTemplate shardTemplate,
+                                   ReviewGroupCommitProperties properties, MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        this.shardTemplate = shardTemplate;
+        this.properties = properties;
+        int writerCount = Math.max(1, properties.getWriters());
+        for (int i = 0; i < writerCount; i++) {
+            BlockingQueue<Submission> queue =
+                    new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity() / writerCount));
+            Thread writer = new Thread(() -> run(queue), "review-group-commit-" + (i + 1));
+            writer.setDaemon(true);
+            queues.add(queue);
+            writers.add(writer);
+        }
+        this.batchSize = DistributionSummary.builder("reviews.group-commit.batch.size")
+                .description("Review submissions per committed transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("reviews.group-commit.commit")
+                .description("Time to write and commit one batch")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("reviews.group-commit.fallbacks")
+                .description("Batches that failed and were retried one submission at a time")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reviews.group-commit.rejected")
+                .description("Submissions answered 503 because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("reviews.group-commit.queue", queues,
+                        all -> all.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Submissions waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writers.forEach(Thread::start);
+    }
+
+    /**
+     * Create or update a review through the next batch, waiting until it commits
+     *
+     * @return the created or updated review response, as ReviewService.createOrUpdateReview returns it
+     * @throws ReviewWriterBusyException if the queue is full or the batch did not commit in time
+     */
+    public ReviewResponse createOrUpdateReview(User user, Integer movieId, Integer rating, String comment) {
+        Submission submission = new Submission(
+                new ReviewService.ReviewWrite(user, movieId, rating, comment), new CompletableFuture<>());
+        BlockingQueue<Submission> queue = queues.get(Math.floorMod(Long.hashCode(user.getId()), queues.size()));
+        if (!running || !queue.offer(submission)) {
+            rejected.increment();
+            throw new ReviewWriterBusyException("Too many reviews are being saved, please try again", RETRY_AFTER_SECONDS);
+        }
+        // stop() may have come in between, and the writer may have seen the queue empty and exited.
+        // If the submission is still queued, take it back; if a writer already took it, it is written
+        if (!running && queue.remove(submission)) {
+            rejected.increment();
+            throw new ReviewWriterBusyException("Reviews are not being saved right now, please try again", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return submission.result().get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ReviewWriterBusyException("Review not confirmed within "
+                    + properties.getTimeout().toMillis() + " ms, please try again", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReviewWriterBusyException("Interrupted while saving the review", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void run(BlockingQueue<Submission> queue) {
+        List<Submission> batch = new ArrayList<>();
+        // After stop(), keep going until the queue is empty, so accepted submissions are still written
+        while (running || !queue.isEmpty()) {
+            try {
+                if (collect(queue, batch)) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(submission -> submission.result().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Review group commit failed", e);
+                batch.forEach(submission -> submission.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for a first submission, then gather more for up to max-delay; false if none came
+     */
+    private boolean collect(BlockingQueue<Submission> queue, List<Submission> batch) throws InterruptedException {
+        Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        int maxBatch = Math.max(1, properties.getMaxBatch());
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                break;
+            }
+            Submission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    private void write(List<Submission> batch) {
+        Map<Integer, List<Submission>> byShard = new LinkedHashMap<>();
+        for (Submission submission : batch) {
+            byShard.computeIfAbsent(shardTemplate.shardOf(submission.write().user().getId()), shard -> new ArrayList<>())
+                    .add(submission);
+        }
+        for (List<Submission> group : byShard.values()) {
+            List<ReviewService.ReviewWrite> writes = group.stream().map(Submission::write).toList();
+            List<ReviewResponse> responses;
+            long started = System.nanoTime();
+            try {
+                responses = reviewService.createOrUpdateReviews(writes);
+            } catch (RuntimeException e) {
+                log.warn("Batch of {} reviews failed, writing them one at a time: {}", group.size(), e.toString());
+                fallbacks.increment();
+                writeOneByOne(group);
+                continue;
+            }
+            commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batchSize.record(group.size());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(responses.get(i));
+            }
+        }
+    }
+
+    private void writeOneByOne(List<Submission> group) {
+        for (Submission submission : group) {
+            ReviewService.ReviewWrite write = submission.write();
+            try {
+                submission.result().complete(reviewService.createOrUpdateReview(
+                        write.user(), write.movieId(), write.rating(), write.comment()));
+            } catch (RuntimeException e) {
+                submission.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Stop taking submissions and write the ones already queued
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        for (Thread writer : writers) {
+            writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+
+}
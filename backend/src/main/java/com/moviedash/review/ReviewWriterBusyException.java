@@ -0,0 +1,20 @@
+package com.moviedash.review;
+
+/**
+ * Thrown when a review submission cannot be queued for the group-commit writer, or its batch has not
+ * committed in time. Saving a review is idempotent per user and movie, so the client can retry.
+ */
+public class ReviewWriterBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ReviewWriterBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
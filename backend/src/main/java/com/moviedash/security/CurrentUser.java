@@ -0,0 +1,35 @@
+package com.moviedash.security;
+
+import com.moviedash.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * CurrentUser
+ *
+ * Helpers for code outside the controllers (datasource routing, filters) that needs
+ * to know who the current request belongs to.
+ */
+public final class CurrentUser {
+
+    /**
+     * Request attribute holding the authenticated user's id, set by JwtAuthenticationFilter.
+     * Unlike the SecurityContext it is still readable after the security filter chain returns.
+     */
+    public static final String USER_ID_ATTRIBUTE = CurrentUser.class.getName() + ".userId";
+
+    private CurrentUser() {
+    }
+
+    /**
+     * Id of the user authenticated on the current thread, or null for anonymous requests
+     */
+    public static Long id() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+}
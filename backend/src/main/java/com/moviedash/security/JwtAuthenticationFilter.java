@@ -1,7 +1,10 @@
 package com.moviedash.security;
 
 import com.moviedash.entity.User;
+import com.moviedash.filter.RequestTiming;
+import com.moviedash.service.TokenRevocationService;
 import com.moviedash.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,61 +13,65 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
 
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Lower-case emails of users granted ROLE_ADMIN (admin.emails)
+     */
+    private final Set<String> adminEmails;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
+        long started = RequestTiming.start();
         try {
-            String jwt = getJwtFromRequest(request);
+            // Already verified by ConcurrencyLimitFilter unless the limiter is off
+            Claims claims = jwtUtil.parseClaims(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.getEmailFromToken(jwt);
+            if (claims != null && tokenRevocationService.isRevoked(claims.getId())) {
+                logger.debug("Rejected revoked token {}", claims.getId());
+            } else if (claims != null) {
+                String email = claims.getSubject();
                 User user = userService.findByEmail(email);
 
                 if (user != null) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             user,
                             null,
-                            Collections.emptyList());
+                            adminEmails.contains(email.toLowerCase()) ? ADMIN : Collections.emptyList());
                     authentication.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(CurrentUser.USER_ID_ATTRIBUTE, user.getId());
                     logger.debug("Set authentication for user: {}", email);
                 }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
+        RequestTiming.recordAuth(started);
 
         filterChain.doFilter(request, response);
     }
 
-    /**
-     * Extract JWT token from Authorization header
-     * Expected format: "Bearer <token>"
-     */
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
 }
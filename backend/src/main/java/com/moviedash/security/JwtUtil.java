@@ -2,14 +2,23 @@ package com.moviedash.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    /**
+     * Request attribute holding the result of verifying the request's bearer token (the Claims, or
+     * Boolean.FALSE without a valid one), so the filters that need it verify the signature once
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -22,6 +31,7 @@ public class JwtUtil {
 
     public String generateToken(String email) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
@@ -38,6 +48,41 @@ public class JwtUtil {
                 .getSubject();
     }
 
+    /**
+     * Verify the token and return its claims in a single parse
+     *
+     * @return the claims, or null if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(getSigningKey()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Verify the request's bearer token, once per request
+     *
+     * @return the claims, or null without a bearer token or if it is invalid or expired
+     */
+    public Claims parseClaims(HttpServletRequest request) {
+        Object verified = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (verified != null) {
+            return verified instanceof Claims claims ? claims : null;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Claims claims = authorization != null && authorization.startsWith("Bearer ")
+                ? parseClaims(authorization.substring(7))
+                : null;
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims != null ? claims : Boolean.FALSE);
+        return claims;
+    }
+
     public boolean validateToken(String token) {
         try {
             Jwts.parser()
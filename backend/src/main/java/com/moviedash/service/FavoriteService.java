@@ -1,28 +1,126 @@
 package com.moviedash.service;
 
-import com.moviedash.entity.Favorite;
+import com.moviedash.dto.response.FavoriteMovieResponse;
+import com.moviedash.dto.response.FavoriteResponse;
+import com.moviedash.dto.response.MovieMetadataResponse;
+import com.moviedash.entity.MovieMetadata;
 import com.moviedash.entity.User;
-import com.moviedash.repository.FavoriteRepository;
+import com.moviedash.favorite.FavoriteStore;
+import com.moviedash.favorite.StoredFavorite;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Favorites of users, kept in the configured FavoriteStore (favorites.store)
+ * Transactions, where the store needs them, are the store's own
+ */
 @Service
 @RequiredArgsConstructor
 public class FavoriteService {
 
-    private final FavoriteRepository favoriteRepository;
+    /**
+     * FavoriteResponse fields a user's favorite list can be narrowed to (fields=)
+     */
+    public static final List<String> FIELDS = List.of("id", "movieId", "addedAt");
+
+    /**
+     * view=summary: what is needed to mark and remove favorited movies
+     */
+    public static final List<String> SUMMARY_FIELDS = List.of("id", "movieId");
+
+    private final FavoriteStore favoriteStore;
+    private final MovieMetadataService movieMetadataService;
+
+    /**
+     * Convert a stored favorite to FavoriteResponse DTO
+     */
+    private FavoriteResponse toFavoriteResponse(StoredFavorite favorite) {
+        return new FavoriteResponse(
+                favorite.id(),
+                favorite.movieId(),
+                favorite.addedAt()
+        );
+    }
 
     /**
      * Get all favorites for a user
      *
      * @param userId the user ID
-     * @return list of favorites
+     * @return list of favorite responses
      */
-    public List<Favorite> getUserFavorites(Long userId) {
-        return favoriteRepository.findByUserId(userId);
+    public List<FavoriteResponse> getUserFavorites(Long userId) {
+        return favoriteStore.findByUserId(userId).stream()
+                .map(this::toFavoriteResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a user's favorites with only some of the fields
+     *
+     * @param userId the user ID
+     * @param fields names out of FIELDS
+     * @return one map of field name to value per favorite
+     * @throws IllegalArgumentException if a field is not in FIELDS
+     */
+    public List<Map<String, Object>> getUserFavoriteFields(Long userId, List<String> fields) {
+        return favoriteStore.findFieldsByUserId(userId, SparseFields.select(fields, FIELDS));
+    }
+
+    /**
+     * Count a user's favorites
+     *
+     * @param userId the user ID
+     * @return number of favorites
+     */
+    public long countUserFavorites(Long userId) {
+        return favoriteStore.countByUserId(userId);
+    }
+
+    /**
+     * Get all favorites for a user with the TMDb details of each movie
+     * Stored details come from one query; missing ones are fetched from TMDb (bounded, up to
+     * tmdb.expand-timeout). No connection is held while TMDb answers.
+     *
+     * @param userId the user ID
+     * @return list of favorites; movie is null where the details are not available yet
+     */
+    public List<FavoriteMovieResponse> getUserFavoritesWithMovies(Long userId) {
+        List<StoredFavorite> favorites = favoriteStore.findByUserIdWithMovies(userId);
+        List<Integer> missing = favorites.stream()
+                .filter(favorite -> favorite.movie() == null)
+                .map(StoredFavorite::movieId)
+                .toList();
+        Map<Integer, MovieMetadata> loaded = movieMetadataService.loadMissing(missing);
+
+        return favorites.stream()
+                .map(favorite -> {
+                    MovieMetadata movie = favorite.movie() != null ? favorite.movie() : loaded.get(favorite.movieId());
+                    return new FavoriteMovieResponse(favorite.id(), favorite.movieId(), favorite.addedAt(),
+                            movie == null ? null : toMovieResponse(movie));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert MovieMetadata entity to MovieMetadataResponse DTO
+     */
+    private MovieMetadataResponse toMovieResponse(MovieMetadata movie) {
+        return new MovieMetadataResponse(
+                movie.getMovieId(),
+                movie.getTitle(),
+                movie.getPosterPath(),
+                movie.getReleaseDate(),
+                movie.getReleaseDate() == null ? null : movie.getReleaseDate().getYear(),
+                movie.getGenres() == null || movie.getGenres().isEmpty()
+                        ? List.of()
+                        : Arrays.asList(movie.getGenres().split(",")),
+                movie.getVoteAverage()
+        );
     }
 
     /**
@@ -30,22 +128,15 @@ public class FavoriteService {
      *
      * @param user the user
      * @param movieId the TMDb movie ID
-     * @return the created favorite
+     * @return the created favorite response
      * @throws IllegalArgumentException if movie is already favorited
      */
-    @Transactional
-    public Favorite addFavorite(User user, Integer movieId) {
-        // Check if already exists
-        if (favoriteRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
+    public FavoriteResponse addFavorite(User user, Integer movieId) {
+        StoredFavorite favorite = favoriteStore.add(user, movieId);
+        if (favorite == null) {
             throw new IllegalArgumentException("Movie already in favorites");
         }
-
-        // Create new favorite
-        Favorite favorite = new Favorite();
-        favorite.setUser(user);
-        favorite.setMovieId(movieId);
-
-        return favoriteRepository.save(favorite);
+        return toFavoriteResponse(favorite);
     }
 
     /**
@@ -55,12 +146,10 @@ public class FavoriteService {
      * @param movieId the TMDb movie ID
      * @throws IllegalArgumentException if favorite doesn't exist
      */
-    @Transactional
     public void removeFavorite(Long userId, Integer movieId) {
-        if (!favoriteRepository.existsByUserIdAndMovieId(userId, movieId)) {
+        if (!favoriteStore.remove(userId, movieId)) {
             throw new IllegalArgumentException("Favorite not found");
         }
-        favoriteRepository.deleteByUserIdAndMovieId(userId, movieId);
     }
 
     /**
@@ -71,7 +160,7 @@ public class FavoriteService {
      * @return true if favorited, false otherwise
      */
     public boolean isFavorite(Long userId, Integer movieId) {
-        return favoriteRepository.existsByUserIdAndMovieId(userId, movieId);
+        return favoriteStore.exists(userId, movieId);
     }
 
 }
@@ -0,0 +1,224 @@
+package com.moviedash.service;
+
+import com.moviedash.config.TmdbProperties;
+import com.moviedash.entity.MovieMetadata;
+import com.moviedash.repository.MovieMetadataRepository;
+import com.moviedash.shard.ShardTemplate;
+import com.moviedash.tmdb.TmdbClient;
+import com.moviedash.tmdb.TmdbMovie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MovieMetadataService
+ *
+ * Fills and refreshes the local movie_metadata store from TMDb.
+ *
+ * Loading:
+ * - At most tmdb.max-concurrency TMDb requests run at once per node (fixed pool of fetch threads);
+ *   a batch of missing movies is queued and drained by that pool
+ * - Concurrent requests for the same movie share one fetch
+ * - IDs TMDb does not know are not asked for again until tmdb.refresh-after has passed
+ * - No database connection is held while waiting for TMDb: every fetched movie is saved in its own
+ *   short transaction
+ *
+ * Refresh: rows older than tmdb.refresh-after are re-fetched in the background, oldest first,
+ * tmdb.refresh-batch-size per run. The run only queues the fetches, so the shared scheduler thread is
+ * not held while TMDb answers; a run is skipped while the previous batch is still in flight.
+ *
+ * Metrics: tmdb.requests{result=found|not_found|error}
+ */
+@Slf4j
+@Service
+public class MovieMetadataService {
+
+    private final MovieMetadataRepository movieMetadataRepository;
+    private final TmdbClient tmdbClient;
+    private final TmdbProperties properties;
+    private final ShardTemplate shardTemplate;
+    private final ExecutorService fetchExecutor;
+    private final Map<Integer, CompletableFuture<MovieMetadata>> inFlight = new ConcurrentHashMap<>();
+    // Movie ID -> System.nanoTime() until which a TMDb 404 is remembered
+    private final Map<Integer, Long> notFoundUntil = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Void> refreshing = CompletableFuture.completedFuture(null);
+
+    private final Counter found;
+    private final Counter notFound;
+    private final Counter errors;
+
+    public MovieMetadataService(MovieMetadataRepository movieMetadataRepository, TmdbClient tmdbClient,
+                                TmdbProperties properties, ShardTemplate shardTemplate, MeterRegistry meterRegistry) {
+        this.movieMetadataRepository = movieMetadataRepository;
+        this.tmdbClient = tmdbClient;
+        this.properties = properties;
+        this.shardTemplate = shardTemplate;
+        AtomicInteger threads = new AtomicInteger();
+        this.fetchExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrency()), task -> {
+            Thread thread = new Thread(task, "tmdb-fetch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.found = Counter.builder("tmdb.requests").tag("result", "found").register(meterRegistry);
+        this.notFound = Counter.builder("tmdb.requests").tag("result", "not_found").register(meterRegistry);
+        this.errors = Counter.builder("tmdb.requests").tag("result", "error").register(meterRegistry);
+    }
+
+    /**
+     * Fetch and store metadata for movies that have none yet, waiting at most tmdb.expand-timeout
+     *
+     * @param movieIds TMDb movie IDs without a movie_metadata row
+     * @return the metadata that arrived in time, by movie ID; the rest keeps loading in the background
+     */
+    public Map<Integer, MovieMetadata> loadMissing(Collection<Integer> movieIds) {
+        Map<Integer, MovieMetadata> loaded = new HashMap<>();
+        if (!tmdbClient.isEnabled() || movieIds.isEmpty()) {
+            return loaded;
+        }
+        Map<Integer, CompletableFuture<MovieMetadata>> fetches = new HashMap<>();
+        movieIds.forEach(movieId -> fetches.computeIfAbsent(movieId, this::fetch));
+
+        long deadline = System.nanoTime() + properties.getExpandTimeout().toNanos();
+        for (Map.Entry<Integer, CompletableFuture<MovieMetadata>> fetch : fetches.entrySet()) {
+            try {
+                MovieMetadata metadata = fetch.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (metadata != null) {
+                    loaded.put(fetch.getKey(), metadata);
+                }
+            } catch (TimeoutException e) {
+                log.debug("Metadata for movie {} not loaded within {}", fetch.getKey(), properties.getExpandTimeout());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // fetch() logs and counts its own failures
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Load a movie's metadata in the background if it is not stored yet (e.g. right after it is favorited)
+     */
+    public void prefetch(Integer movieId) {
+        if (!tmdbClient.isEnabled()) {
+            return;
+        }
+        fetchExecutor.execute(() -> {
+            if (!movieMetadataRepository.existsById(movieId)) {
+                fetch(movieId);
+            }
+        });
+    }
+
+    /**
+     * Re-fetch the oldest rows past tmdb.refresh-after
+     */
+    @Scheduled(fixedDelayString = "${tmdb.refresh-interval:3600000}", initialDelayString = "${tmdb.refresh-interval:3600000}")
+    public void refreshStale() {
+        if (!tmdbClient.isEnabled() || !refreshing.isDone()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRefreshAfter());
+        List<MovieMetadata> stale = movieMetadataRepository.findByFetchedAtBeforeOrderByFetchedAt(
+                cutoff, PageRequest.of(0, properties.getRefreshBatchSize()));
+        if (stale.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<MovieMetadata>> refreshes = stale.stream()
+                .map(metadata -> fetch(metadata.getMovieId()))
+                .toList();
+        refreshing = CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new))
+                .whenComplete((done, error) -> log.info("Refreshed metadata of {} movies older than {}",
+                        stale.size(), properties.getRefreshAfter()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Start (or join) the fetch of one movie; completes with null if TMDb does not know it or fails
+     */
+    private CompletableFuture<MovieMetadata> fetch(Integer movieId) {
+        Long until = notFoundUntil.get(movieId);
+        if (until != null) {
+            if (until - System.nanoTime() > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            notFoundUntil.remove(movieId, until);
+        }
+        CompletableFuture<MovieMetadata>[] started = new CompletableFuture[1];
+        CompletableFuture<MovieMetadata> fetch = inFlight.computeIfAbsent(movieId, id -> {
+            started[0] = CompletableFuture.supplyAsync(() -> fetchAndStore(id), fetchExecutor);
+            return started[0];
+        });
+        if (started[0] != null) {
+            fetch.whenComplete((metadata, error) -> inFlight.remove(movieId, fetch));
+        }
+        return fetch;
+    }
+
+    private MovieMetadata fetchAndStore(Integer movieId) {
+        TmdbMovie movie;
+        try {
+            movie = tmdbClient.fetchMovie(movieId).orElse(null);
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.warn("TMDb request for movie {} failed: {}", movieId, e.getMessage());
+            return null;
+        }
+        if (movie == null) {
+            notFound.increment();
+            notFoundUntil.put(movieId, System.nanoTime() + properties.getRefreshAfter().toNanos());
+            return null;
+        }
+        found.increment();
+        MovieMetadata metadata = new MovieMetadata(movieId, movie.title(), movie.posterPath(),
+                parseDate(movie.releaseDate()),
+                movie.genres() == null ? null : String.join(",", movie.genres()),
+                movie.voteAverage(), LocalDateTime.now());
+        try {
+            // Every shard keeps a copy, so the favorites join stays on the user's shard
+            shardTemplate.writeOnEveryShard(() -> movieMetadataRepository.save(metadata));
+            return metadata;
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same movie first; its row is just as good
+            return metadata;
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.moviedash.service;
+
+import com.moviedash.config.PublicReadsProperties;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
+import com.moviedash.resilience.CircuitBreaker;
+import com.moviedash.resilience.CircuitOpenException;
+import com.moviedash.resilience.StaleCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PublicReviewReads
+ *
+ * The public per-movie review reads (list and stats) behind a circuit breaker, answered from the
+ * last known good copy when the database cannot answer.
+ *
+ * - Every successful read is remembered per movie (bounded, public-reads.stale-max-entries)
+ * - A failed read is answered with the remembered copy if there is one; otherwise it fails as before
+ * - Failed and slow reads feed the breaker (public-reads.*); while it is open the database is not
+ *   called at all: the remembered copy is served, or CircuitOpenException (503 + Retry-After) if there
+ *   is none. After open-duration a few probe reads decide whether it closes again
+ *
+ * Stale answers are marked by Result.stale(); the controller adds Warning and Age headers.
+ *
+ * With datasource.routing, the list that fills ReviewListCache is read from the primary
+ * (getMovieReviewsFromPrimary): that entry lives until the next write to the movie, so a lagging
+ * replica must not fill it with the list from before the write that just evicted it.
+ *
+ * Metrics: public.reads.breaker.state (0 closed, 1 open, 2 half-open),
+ * public.reads.fallback{result=stale|unavailable}
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(PublicReadsProperties.class)
+public class PublicReviewReads {
+
+    private final ReviewService reviewService;
+    // Read-write, so the read is routed to the primary; null without datasource.routing
+    private final TransactionTemplate primaryRead;
+    private final boolean enabled;
+    private final CircuitBreaker breaker;
+    private final StaleCache<Integer, List<ReviewResponse>> staleReviews;
+    private final StaleCache<Integer, ReviewStatsResponse> staleStats;
+
+    private final Counter servedStale;
+    private final Counter unavailable;
+
+    public PublicReviewReads(ReviewService reviewService, PublicReadsProperties properties,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${datasource.routing.enabled:false}") boolean routing,
+                             MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        this.primaryRead = routing ? new TransactionTemplate(transactionManager) : null;
+        this.enabled = properties.isEnabled();
+        this.breaker = new CircuitBreaker(properties.getWindowSize(), properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(), properties.getSlowCallDuration().toNanos(),
+                properties.getSlowCallRateThreshold(), properties.getOpenDuration().toNanos(),
+                properties.getHalfOpenProbes(), System::nanoTime);
+        long maxAgeNanos = properties.getStaleMaxAge().toNanos();
+        this.staleReviews = new StaleCache<>(properties.getStaleMaxEntries(), maxAgeNanos);
+        this.staleStats = new StaleCache<>(properties.getStaleMaxEntries(), maxAgeNanos);
+        this.servedStale = Counter.builder("public.reads.fallback").tag("result", "stale").register(meterRegistry);
+        this.unavailable = Counter.builder("public.reads.fallback").tag("result", "unavailable").register(meterRegistry);
+        Gauge.builder("public.reads.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Public review read breaker: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A read's value, and how old it is if it came from the stale copy
+     *
+     * @param ageSeconds -1 for a fresh value
+     */
+    public record Result<T>(T value, long ageSeconds) {
+
+        public boolean stale() {
+            return ageSeconds >= 0;
+        }
+
+    }
+
+    public Result<List<ReviewResponse>> getMovieReviews(Integer movieId) {
+        return read(staleReviews, movieId, () -> reviewService.getMovieReviews(movieId));
+    }
+
+    /**
+     * Like getMovieReviews, but never from a replica
+     */
+    public Result<List<ReviewResponse>> getMovieReviewsFromPrimary(Integer movieId) {
+        if (primaryRead == null) {
+            return getMovieReviews(movieId);
+        }
+        return read(staleReviews, movieId, () -> primaryRead.execute(status -> reviewService.getMovieReviews(movieId)));
+    }
+
+    public Result<ReviewStatsResponse> getMovieReviewStats(Integer movieId) {
+        return read(staleStats, movieId, () -> reviewService.getMovieReviewStats(movieId));
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+
+    private <T> Result<T> read(StaleCache<Integer, T> stale, Integer movieId, Supplier<T> source) {
+        if (!enabled) {
+            return new Result<>(source.get(), -1);
+        }
+        long permit = breaker.tryAcquire();
+        if (permit < 0) {
+            StaleCache.Entry<T> entry = stale.get(movieId);
+            if (entry == null) {
+                unavailable.increment();
+                throw new CircuitOpenException("Reviews are temporarily unavailable",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos() + 999_999_999L)));
+            }
+            return staleResult(entry);
+        }
+
+        long started = System.nanoTime();
+        T value;
+        try {
+            value = source.get();
+        } catch (RuntimeException e) {
+            breaker.onResult(permit, System.nanoTime() - started, true);
+            StaleCache.Entry<T> entry = stale.get(movieId);
+            if (entry == null) {
+                throw e;
+            }
+            log.warn("Serving stale reviews of movie {}: {}", movieId, e.getMessage());
+            return staleResult(entry);
+        }
+        breaker.onResult(permit, System.nanoTime() - started, false);
+        stale.put(movieId, value);
+        return new Result<>(value, -1);
+    }
+
+    private <T> Result<T> staleResult(StaleCache.Entry<T> entry) {
+        servedStale.increment();
+        return new Result<>(entry.value(), TimeUnit.NANOSECONDS.toSeconds(entry.ageNanos()));
+    }
+
+}
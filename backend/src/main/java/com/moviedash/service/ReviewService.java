@@ -1,21 +1,52 @@
 package com.moviedash.service;
 
+import com.moviedash.analytics.ReviewRow;
 import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
 import com.moviedash.entity.Review;
 import com.moviedash.entity.User;
+import com.moviedash.event.ReviewChangedEvent;
 import com.moviedash.repository.ReviewRepository;
+import com.moviedash.shard.ShardTemplate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardTemplate shardTemplate;
+
+    /**
+     * ReviewResponse fields a user's review list can be narrowed to (fields=)
+     */
+    public static final List<String> FIELDS = List.of("id", "movieId", "rating", "comment", "createdAt", "username", "userId");
+
+    /**
+     * view=summary: no comment, and no username (which needs the users join)
+     */
+    public static final List<String> SUMMARY_FIELDS = List.of("id", "movieId", "rating", "createdAt");
+
+    private static final Comparator<ReviewResponse> OLDEST_FIRST =
+            Comparator.comparing(ReviewResponse::getCreatedAt).thenComparing(ReviewResponse::getId);
 
     /**
      * Convert Review entity to ReviewResponse DTO
@@ -33,15 +64,71 @@ public class ReviewService {
     }
 
     /**
-     * Get all reviews for a specific movie
+     * Get all reviews for a specific movie, oldest first
+     * With sharding, every shard is queried in parallel and the sorted results are merged
      *
      * @param movieId the TMDb movie ID
      * @return list of review responses
      */
     public List<ReviewResponse> getMovieReviews(Integer movieId) {
-        return reviewRepository.findByMovieId(movieId).stream()
-                .map(this::toReviewResponse)
-                .collect(Collectors.toList());
+        return shardTemplate.scatterMerge(
+                () -> reviewRepository.findByMovieIdOrdered(movieId).stream()
+                        .map(this::toReviewResponse)
+                        .toList(),
+                OLDEST_FIRST,
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the review count and average rating of a movie
+     *
+     * @param movieId the TMDb movie ID
+     * @return stats; averageRating is null when there are no reviews
+     */
+    public ReviewStatsResponse getMovieReviewStats(Integer movieId) {
+        long reviewCount = 0;
+        double ratingSum = 0;
+        for (ReviewRepository.RatingSummary summary : shardTemplate.scatter(() -> reviewRepository.summarizeByMovieId(movieId))) {
+            if (summary.getReviewCount() > 0) {
+                reviewCount += summary.getReviewCount();
+                ratingSum += summary.getAverageRating() * summary.getReviewCount();
+            }
+        }
+        return new ReviewStatsResponse(movieId, reviewCount, reviewCount == 0 ? null : ratingSum / reviewCount);
+    }
+
+    /**
+     * Get the newest reviews across all movies, newest first
+     * Used to seed LatestReviews; GET /reviews/latest itself is served from memory
+     *
+     * @param limit maximum number of reviews
+     * @return list of review responses
+     */
+    public List<ReviewResponse> getLatestReviews(int limit) {
+        return shardTemplate.scatterMerge(
+                () -> reviewRepository.findLatest(PageRequest.of(0, limit)).stream()
+                        .map(this::toReviewResponse)
+                        .toList(),
+                OLDEST_FIRST.reversed(),
+                limit);
+    }
+
+    /**
+     * Stream every review as a flat row, without loading entities
+     * Used to build the analytics snapshot; runs read-only, so it reads from a replica when routing is enabled
+     * With sharding the shards are streamed one after another on the calling thread
+     *
+     * @param consumer called once per review, in ID order within each shard
+     */
+    public void forEachAnalyticsRow(Consumer<ReviewRow> consumer) {
+        for (int shard : shardTemplate.shards()) {
+            shardTemplate.readOnShard(shard, () -> {
+                try (Stream<ReviewRow> rows = reviewRepository.streamAnalyticsRows()) {
+                    rows.forEach(consumer);
+                }
+                return null;
+            });
+        }
     }
 
     /**
@@ -56,9 +143,33 @@ public class ReviewService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a user's reviews with only some of the fields, ordered by ID
+     * Only the selected columns are read from the database
+     *
+     * @param userId the user ID
+     * @param fields names out of FIELDS
+     * @return one map of field name to value per review
+     * @throws IllegalArgumentException if a field is not in FIELDS
+     */
+    public List<Map<String, Object>> getUserReviewFields(Long userId, List<String> fields) {
+        return reviewRepository.findFieldsByUserId(userId, SparseFields.select(fields, FIELDS));
+    }
+
+    /**
+     * Count a user's reviews
+     *
+     * @param userId the user ID
+     * @return number of reviews
+     */
+    public long countUserReviews(Long userId) {
+        return reviewRepository.countByUserId(userId);
+    }
+
     /**
      * Create or update a review
      * If user has already reviewed this movie, update it; otherwise create new
+     * Publishes a ReviewChangedEvent (CREATED or UPDATED)
      *
      * @param user the user
      * @param movieId the TMDb movie ID
@@ -72,20 +183,88 @@ public class ReviewService {
         Review review = reviewRepository
                 .findByUserIdAndMovieId(user.getId(), movieId)
                 .orElse(new Review());
+        return save(review, new ReviewWrite(user, movieId, rating, comment));
+    }
+
+    /**
+     * One review submission, as passed to createOrUpdateReview
+     */
+    public record ReviewWrite(User user, Integer movieId, Integer rating, String comment) {
+    }
 
+    /**
+     * Create or update several reviews in one transaction, in list order
+     * Same as calling createOrUpdateReview for each, but with one lookup for the existing reviews and
+     * one commit. A later write to the same user and movie updates the review saved by an earlier one
+     * (the last write wins, and Hibernate flushes the review once); every write still gets its own
+     * response and ReviewChangedEvent. All users must be on the same shard.
+     *
+     * @param writes submissions, in the order they were made
+     * @return one response per write, in the same order
+     */
+    @Transactional
+    public List<ReviewResponse> createOrUpdateReviews(List<ReviewWrite> writes) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Integer> movieIds = new HashSet<>();
+        Set<UserMovie> pairs = new HashSet<>();
+        for (ReviewWrite write : writes) {
+            userIds.add(write.user().getId());
+            movieIds.add(write.movieId());
+            pairs.add(new UserMovie(write.user().getId(), write.movieId()));
+        }
+        // The lookup below carries no single user: bind the shard and lock every user's stripe
+        shardTemplate.useUserShards(userIds);
+
+        // Load only the reviews the writes touch: their IDs first, from the index, then the entities
+        Map<Long, UserMovie> wanted = new HashMap<>();
+        for (ReviewRepository.ReviewKey key : reviewRepository.findKeysByUserIdInAndMovieIdIn(userIds, movieIds)) {
+            UserMovie pair = new UserMovie(key.getUserId(), key.getMovieId());
+            if (pairs.contains(pair)) {
+                wanted.putIfAbsent(key.getId(), pair);
+            }
+        }
+        Map<UserMovie, Review> reviews = new HashMap<>();
+        if (!wanted.isEmpty()) {
+            for (Review review : reviewRepository.findAllById(wanted.keySet())) {
+                reviews.putIfAbsent(wanted.get(review.getId()), review);
+            }
+        }
+        List<ReviewResponse> responses = new ArrayList<>(writes.size());
+        for (ReviewWrite write : writes) {
+            Review review = reviews.computeIfAbsent(
+                    new UserMovie(write.user().getId(), write.movieId()), pair -> new Review());
+            responses.add(save(review, write));
+        }
+        return responses;
+    }
+
+    private record UserMovie(Long userId, Integer movieId) {
+    }
+
+    /**
+     * Apply a submission to a new or existing review, save it and publish a ReviewChangedEvent
+     */
+    private ReviewResponse save(Review review, ReviewWrite write) {
         // Set/update fields
-        review.setUser(user);
-        review.setMovieId(movieId);
-        review.setRating(rating);
-        review.setComment(comment);
+        review.setUser(write.user());
+        review.setMovieId(write.movieId());
+        review.setRating(write.rating());
+        review.setComment(write.comment());
 
+        ReviewChangedEvent.Type changeType = review.getId() == null
+                ? ReviewChangedEvent.Type.CREATED
+                : ReviewChangedEvent.Type.UPDATED;
         Review savedReview = reviewRepository.save(review);
-        return toReviewResponse(savedReview);
+        ReviewResponse response = toReviewResponse(savedReview);
+        eventPublisher.publishEvent(new ReviewChangedEvent(
+                changeType, savedReview.getId(), write.movieId(), write.user().getId(), response));
+        return response;
     }
 
     /**
      * Delete a review
      * Only the owner of the review can delete it
+     * Publishes a ReviewChangedEvent (DELETED)
      *
      * @param userId the user ID requesting deletion
      * @param reviewId the review ID to delete
@@ -93,6 +272,8 @@ public class ReviewService {
      */
     @Transactional
     public void deleteReview(Long userId, Long reviewId) {
+        // findById carries no user, so pick the caller's shard explicitly
+        shardTemplate.useUserShard(userId);
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
 
@@ -102,6 +283,8 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(
+                ReviewChangedEvent.Type.DELETED, reviewId, review.getMovieId(), userId, null));
     }
 
 }
@@ -0,0 +1,37 @@
+package com.moviedash.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates the fields= selection of a list endpoint against the fields it offers
+ */
+final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    /**
+     * The requested fields in request order, without repeats
+     *
+     * @throws IllegalArgumentException if nothing is requested or a field is not offered
+     */
+    static List<String> select(List<String> requested, List<String> offered) {
+        List<String> selected = new ArrayList<>(requested.size());
+        for (String field : requested) {
+            String name = field.trim();
+            if (name.isEmpty() || selected.contains(name)) {
+                continue;
+            }
+            if (!offered.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + " (available: " + String.join(",", offered) + ")");
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested (available: " + String.join(",", offered) + ")");
+        }
+        return selected;
+    }
+
+}
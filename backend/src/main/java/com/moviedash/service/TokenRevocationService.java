@@ -0,0 +1,142 @@
+package com.moviedash.service;
+
+import com.moviedash.entity.RevokedToken;
+import com.moviedash.repository.RevokedTokenRepository;
+import com.moviedash.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TokenRevocationService
+ *
+ * Server-side JWT revocation (logout) without a database lookup per request.
+ *
+ * Lookup Path (isRevoked):
+ * 1. Bloom filter: "definitely not revoked" for almost every token, in nanoseconds
+ * 2. Exact in-memory map: confirms or rejects a Bloom filter hit (false positives)
+ *
+ * Consistency:
+ * - Revocations are written to the revoked_tokens table, which is the source of truth
+ * - Every node polls the table (jwt.revocation.sync-interval) so all nodes converge
+ * - Entries are dropped from memory and the table once the token itself has expired,
+ *   and the Bloom filter is periodically rebuilt from the live entries
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    /**
+     * Re-read rows this far behind the last sync to tolerate clock skew and late commits
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync = LocalDateTime.MIN;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Check whether a token id has been revoked
+     *
+     * @param jti the token's jti claim
+     * @return true if revoked and not yet expired
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        LocalDateTime expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * Revoke a token until it expires
+     *
+     * @param jti the token's jti claim
+     * @param expiresAt the token's expiration
+     */
+    @Transactional
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (jti == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, LocalDateTime.now()));
+        remember(jti, expiresAt);
+    }
+
+    /**
+     * Pick up revocations made on other nodes
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5000}",
+            initialDelayString = "${jwt.revocation.sync-interval:5000}")
+    public void sync() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        List<RevokedToken> changes = revokedTokenRepository.findByRevokedAtAfter(lastSync.minus(SYNC_OVERLAP));
+        for (RevokedToken token : changes) {
+            remember(token.getJti(), token.getExpiresAt());
+        }
+        lastSync = syncStart;
+    }
+
+    /**
+     * Drop expired entries from memory and the table, and rebuild the Bloom filter
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired revoked tokens", deleted);
+        }
+        rebuild();
+    }
+
+    private void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(now);
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, live.size() * 2), falsePositiveRate);
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        for (RevokedToken token : live) {
+            revoked.put(token.getJti(), token.getExpiresAt());
+        }
+        revoked.keySet().forEach(fresh::add);
+        bloomFilter = fresh;
+        // Second pass catches tokens revoked while the fresh filter was being filled
+        revoked.keySet().forEach(fresh::add);
+        lastSync = now;
+    }
+
+    private void remember(String jti, LocalDateTime expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloomFilter.add(jti);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.moviedash.service;
+
+import com.moviedash.repository.UserRepository;
+import com.moviedash.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * UserAvailabilityIndex
+ *
+ * Taken usernames and emails in memory, so the sign-up form can check a username on every
+ * keystroke and registration can turn away duplicates without a database round trip.
+ *
+ * Lookup Path (isUsernameTaken, isEmailTaken):
+ * 1. Bloom filter: "definitely free" for almost every unused name, in nanoseconds
+ * 2. Exact set: confirms or rejects a Bloom filter hit (false positives). Usernames are kept
+ *    sorted (skip list), so the taken names sharing a prefix are one range scan for suggestions
+ *
+ * Consistency:
+ * - Loaded from users at startup; registrations on this node are added after they commit
+ * - Every node polls users for newer rows (user-index.sync-interval), so a name registered on
+ *   another node can look free until then; the database still decides (UserService.register
+ *   checks it, and the unique constraints)
+ * - Users are never deleted or renamed, so entries are only ever added; the Bloom filters are
+ *   rebuilt from the exact sets, twice as large, once those outgrow them
+ * - Names are compared exactly, like the unique constraints
+ */
+@Slf4j
+@Service
+public class UserAvailabilityIndex {
+
+    /**
+     * Re-read rows this far behind the last sync to tolerate clock skew and late commits
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private static final int MAX_USERNAME_LENGTH = 64;
+
+    private final UserRepository userRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final int suggestionCount;
+
+    private final NavigableSet<String> usernames = new ConcurrentSkipListSet<>();
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter usernameFilter;
+    private volatile BloomFilter emailFilter;
+    private volatile int filterCapacity;
+    private volatile LocalDateTime lastSync = LocalDateTime.MIN;
+
+    public UserAvailabilityIndex(UserRepository userRepository,
+                                 @Value("${user-index.expected-entries:100000}") int expectedEntries,
+                                 @Value("${user-index.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${user-index.suggestions:3}") int suggestionCount) {
+        this.userRepository = userRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.suggestionCount = suggestionCount;
+        this.usernameFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.emailFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.filterCapacity = expectedEntries;
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime started = LocalDateTime.now();
+        List<UserRepository.Names> all = userRepository.findAllNames();
+        for (UserRepository.Names names : all) {
+            usernames.add(names.getUsername());
+            emails.add(names.getEmail());
+        }
+        rebuildFilters();
+        lastSync = started;
+        log.info("Loaded {} users into the availability index", all.size());
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return usernameFilter.mightContain(username) && usernames.contains(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        return emailFilter.mightContain(email) && emails.contains(email);
+    }
+
+    /**
+     * Record a user; called once their registration has committed
+     */
+    public void add(String username, String email) {
+        usernames.add(username);
+        usernameFilter.add(username);
+        emails.add(email);
+        emailFilter.add(email);
+    }
+
+    /**
+     * Free usernames starting with the given one (username1, username2, ...), lowest suffixes first.
+     * The taken names with that prefix come from one range of the sorted set.
+     */
+    public List<String> suggest(String username) {
+        String base = username.length() > MAX_USERNAME_LENGTH - 3
+                ? username.substring(0, MAX_USERNAME_LENGTH - 3) : username;
+        NavigableSet<String> sharingPrefix = usernames.subSet(base, true, base + Character.MAX_VALUE, true);
+        List<String> suggestions = new ArrayList<>(suggestionCount);
+        for (int suffix = 1; suffix < 1000 && suggestions.size() < suggestionCount; suffix++) {
+            String candidate = base + suffix;
+            if (!sharingPrefix.contains(candidate)) {
+                suggestions.add(candidate);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Pick up users registered on other nodes
+     */
+    @Scheduled(fixedDelayString = "${user-index.sync-interval:5000}",
+            initialDelayString = "${user-index.sync-interval:5000}")
+    public void sync() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        for (UserRepository.Names names : userRepository.findNamesCreatedAfter(lastSync.minus(SYNC_OVERLAP))) {
+            add(names.getUsername(), names.getEmail());
+        }
+        lastSync = syncStart;
+        if (usernames.size() > filterCapacity) {
+            rebuildFilters();
+        }
+    }
+
+    private void rebuildFilters() {
+        int capacity = Math.max(expectedEntries, usernames.size() * 2);
+        BloomFilter freshUsernames = new BloomFilter(capacity, falsePositiveRate);
+        BloomFilter freshEmails = new BloomFilter(capacity, falsePositiveRate);
+        usernames.forEach(freshUsernames::add);
+        emails.forEach(freshEmails::add);
+        usernameFilter = freshUsernames;
+        emailFilter = freshEmails;
+        filterCapacity = capacity;
+        // Second pass catches users added while the fresh filters were being filled
+        usernames.forEach(freshUsernames::add);
+        emails.forEach(freshEmails::add);
+    }
+
+}
@@ -1,23 +1,35 @@
 package com.moviedash.service;
 
+import com.moviedash.dto.response.AvailabilityResponse;
 import com.moviedash.entity.User;
 import com.moviedash.repository.UserRepository;
+import com.moviedash.shard.ShardTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardTemplate shardTemplate;
+    private final UserAvailabilityIndex userAvailabilityIndex;
 
     /**
      * Find user by email address
-     * Used by JWT authentication filter
+     * Used by JWT authentication filter. Read-write, so it reads the primary: it runs before the
+     * request is authenticated, so read-your-writes cannot pin it, and a replica may not have a user
+     * who just registered
      */
+    @Transactional
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
@@ -43,6 +55,17 @@ public class UserService {
         return userRepository.existsByUsername(username);
     }
 
+    /**
+     * Whether a username is free, with free alternatives when it is not
+     * Answered from UserAvailabilityIndex without a query; registration still checks the database
+     */
+    public AvailabilityResponse checkUsername(String username) {
+        if (userAvailabilityIndex.isUsernameTaken(username)) {
+            return new AvailabilityResponse(username, false, userAvailabilityIndex.suggest(username));
+        }
+        return new AvailabilityResponse(username, true, List.of());
+    }
+
     /**
      * Register a new user with email and password
      *
@@ -54,7 +77,15 @@ public class UserService {
      */
     @Transactional
     public User register(String username, String email, String password) {
-        // Check if email already exists
+        // Known duplicates are turned away from memory, before any query or BCrypt
+        if (userAvailabilityIndex.isEmailTaken(email)) {
+            throw new IllegalArgumentException("Email already in use");
+        }
+        if (userAvailabilityIndex.isUsernameTaken(username)) {
+            throw new IllegalArgumentException("Username already taken");
+        }
+
+        // The index can miss users registered on another node since its last sync
         if (userRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already in use");
         }
@@ -70,7 +101,16 @@ public class UserService {
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Favorites and reviews reference the user on their own shard
+        shardTemplate.replicateAfterCommit("users", "id", saved.getId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userAvailabilityIndex.add(username, email);
+            }
+        });
+        return saved;
     }
 
     /**
@@ -81,6 +121,7 @@ public class UserService {
      * @return the authenticated user
      * @throws IllegalArgumentException if credentials are invalid
      */
+    @Transactional // Reads the primary, like findByEmail
     public User login(String email, String password) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
@@ -0,0 +1,102 @@
+package com.moviedash.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * ShardContext
+ *
+ * Which shard the current thread talks to, read by ShardRoutingDataSource when a connection is opened.
+ *
+ * Two bindings:
+ * - Thread: set around a block of code (ShardTemplate, the repository router); wins over the other
+ * - Transaction: the shard the current transaction's connection went to. A transaction uses one
+ *   connection, so it can never span shards: binding it to a second shard throws.
+ */
+public final class ShardContext {
+
+    /**
+     * Shard of the primary database (spring.datasource.*), which also keeps the tables that are not sharded
+     */
+    public static final int GLOBAL = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Shard bound to the current thread, or null
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the action with the thread bound to the given shard, restoring the previous binding afterwards
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Shard the current transaction is bound to, or null if there is none yet
+     */
+    public static Integer transactionShard() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+    }
+
+    /**
+     * Bind the current transaction (if any) to a shard
+     *
+     * @throws IllegalStateException if it is already bound to another shard
+     */
+    public static void bindTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException(
+                        "Transaction is bound to shard " + bound + " and cannot use shard " + shard);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, shard);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.moviedash.shard;
+
+import com.moviedash.dto.response.ShardResponse;
+import com.moviedash.dto.response.ShardStatusResponse;
+import com.moviedash.entity.ShardMember;
+import com.moviedash.repository.ShardMemberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * ShardRebalancer
+ *
+ * Adds configured shards to the ring while the application keeps serving.
+ *
+ * 1. Copy the reference tables (users, movie_metadata) to the new shards
+ * 2. Online pass: every user whose owner changes on the new ring is moved on their own: with the
+ *    user's lock stripe held, their favorites and reviews are copied (IDs kept), the user is routed
+ *    to the new shard, and the old rows are deleted. Other users are not blocked.
+ * 3. Final pass with all stripes locked: users who wrote their first rows during the online pass are
+ *    moved, the new members are stored in shard_members and the new ring takes effect. Routed work
+ *    pauses only for this pass.
+ *
+ * Copies skip rows the target already has, so a failed run can be started again.
+ * Routing state lives in this process: with several application nodes, run the rebalance while only
+ * one node serves favorites and reviews, and restart the others afterwards (they read shard_members).
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String[][] REFERENCE_TABLES = {
+            // table, key column, column that grows on every update (null: rows are never updated)
+            {"users", "id", null},
+            {"movie_metadata", "movie_id", "fetched_at"}
+    };
+
+    private final ShardTemplate shardTemplate;
+    private final ShardMemberRepository shardMemberRepository;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "shard-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private volatile List<Integer> joining = List.of();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private final AtomicLong movedUsers = new AtomicLong();
+    private final AtomicLong movedRows = new AtomicLong();
+
+    public ShardRebalancer(ShardTemplate shardTemplate, ShardMemberRepository shardMemberRepository) {
+        this.shardTemplate = shardTemplate;
+        this.shardMemberRepository = shardMemberRepository;
+    }
+
+    /**
+     * Copy the reference tables from shard 0 to another shard (rows it is missing or has older versions of)
+     */
+    public static void syncReferenceTables(ShardRoutingDataSource dataSource, int shard) throws SQLException {
+        for (String[] table : REFERENCE_TABLES) {
+            int copied = ShardRowCopier.syncReferenceTable(table[0], table[1], table[2],
+                    dataSource.shard(ShardContext.GLOBAL), dataSource.shard(shard));
+            if (copied > 0) {
+                log.info("Copied {} {} rows to shard {}", copied, table[0], shard);
+            }
+        }
+    }
+
+    /**
+     * Whether the shard holds any favorites or reviews
+     */
+    public static boolean hasRows(ShardRoutingDataSource dataSource, int shard) throws SQLException {
+        for (String table : ShardRowCopier.SHARDED_TABLES) {
+            if (ShardRowCopier.count(dataSource.shard(shard), table) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start moving users onto every configured shard that is not on the ring yet
+     *
+     * @throws IllegalStateException if a rebalance is already running
+     * @throws IllegalArgumentException if there is no new shard
+     */
+    public synchronized ShardStatusResponse start() {
+        if (running) {
+            throw new IllegalStateException("A rebalance is already running");
+        }
+        List<Integer> added = new ArrayList<>(shardTemplate.shards());
+        added.removeAll(shardTemplate.ring().shards());
+        if (added.isEmpty()) {
+            throw new IllegalArgumentException("Every configured shard is already on the ring; add one under sharding.shards first");
+        }
+        running = true;
+        joining = List.copyOf(added);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        movedUsers.set(0);
+        movedRows.set(0);
+        runner.execute(this::run);
+        return status();
+    }
+
+    public ShardStatusResponse status() {
+        ShardRoutingDataSource dataSource = shardTemplate.dataSource();
+        List<Integer> members = shardTemplate.ring().shards();
+        List<ShardResponse> shards = new ArrayList<>();
+        for (int shard : shardTemplate.shards()) {
+            DataSource database = dataSource.shard(shard);
+            long favorites = -1;
+            long reviews = -1;
+            try {
+                favorites = ShardRowCopier.count(database, "favorites");
+                reviews = ShardRowCopier.count(database, "reviews");
+            } catch (SQLException e) {
+                log.warn("Could not count rows on shard {}: {}", shard, e.getMessage());
+            }
+            shards.add(new ShardResponse(shard, members.contains(shard), favorites, reviews));
+        }
+        return new ShardStatusResponse(shards, shardTemplate.ring().virtualNodes(), running, joining,
+                startedAt, finishedAt, movedUsers.get(), movedRows.get(), error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run() {
+        ShardRing current = shardTemplate.ring();
+        ShardRing target = current.with(joining);
+        try {
+            for (int shard : joining) {
+                syncReferenceTables(shardTemplate.dataSource(), shard);
+            }
+            movePass(current, target);
+            shardTemplate.lockAll();
+            try {
+                movePass(current, target);
+                LocalDateTime now = LocalDateTime.now();
+                shardMemberRepository.saveAll(joining.stream().map(shard -> new ShardMember(shard, now)).toList());
+                shardTemplate.switchRing(target);
+            } finally {
+                shardTemplate.unlockAll();
+            }
+            log.info("Rebalance onto shards {} finished: {} users, {} rows moved", joining, movedUsers.get(), movedRows.get());
+        } catch (Exception e) {
+            error = e.getMessage();
+            log.error("Rebalance onto shards {} failed; moved users stay routed to their new shard, "
+                    + "start it again to finish", joining, e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running = false;
+        }
+    }
+
+    /**
+     * Move every user on the current members whose shard differs on the target ring
+     */
+    private void movePass(ShardRing current, ShardRing target) throws SQLException {
+        ShardRoutingDataSource dataSource = shardTemplate.dataSource();
+        for (int from : current.shards()) {
+            for (long userId : ShardRowCopier.userIds(dataSource.shard(from))) {
+                int to = target.shardOf(userId);
+                if (to != from) {
+                    moveUser(userId, from, to);
+                }
+            }
+        }
+    }
+
+    private void moveUser(long userId, int from, int to) throws SQLException {
+        ShardRoutingDataSource dataSource = shardTemplate.dataSource();
+        Lock lock = shardTemplate.writeLock(userId);
+        lock.lock();
+        try {
+            int copied = ShardRowCopier.copyUser(userId, dataSource.shard(from), dataSource.shard(to));
+            shardTemplate.markMoved(userId, to);
+            ShardRowCopier.deleteUser(userId, dataSource.shard(from));
+            movedUsers.incrementAndGet();
+            movedRows.addAndGet(copied);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
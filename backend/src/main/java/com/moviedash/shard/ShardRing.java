@@ -0,0 +1,97 @@
+package com.moviedash.shard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * ShardRing
+ *
+ * Consistent-hash ring mapping user IDs to shard indexes. Every shard owns virtualNodes points on a
+ * 64-bit ring; a user belongs to the first point at or after the hash of their ID. Adding a shard
+ * only moves the users that now hash to the new shard's points (about 1/n of them), never users
+ * between the old shards.
+ *
+ * Immutable and plain Java with no Spring dependencies (see bench/ShardRingDistribution.java).
+ */
+public final class ShardRing {
+
+    private final List<Integer> shards;
+    private final int virtualNodes;
+    private final long[] points;
+    private final int[] owners;
+
+    public ShardRing(Collection<Integer> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        this.shards = List.copyOf(new TreeSet<>(shards));
+        this.virtualNodes = virtualNodes;
+
+        long[][] ring = new long[this.shards.size() * virtualNodes][];
+        int i = 0;
+        for (int shard : this.shards) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring[i++] = new long[]{mix(((long) shard << 32) | node), shard};
+            }
+        }
+        // Ties (practically impossible) go to the lower shard index so every node builds the same ring
+        Arrays.sort(ring, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[ring.length];
+        owners = new int[ring.length];
+        for (int p = 0; p < ring.length; p++) {
+            points[p] = ring[p][0];
+            owners[p] = (int) ring[p][1];
+        }
+    }
+
+    /**
+     * Shard that owns the given user
+     */
+    public int shardOf(long userId) {
+        int index = Arrays.binarySearch(points, mix(userId ^ 0x5DEECE66DL));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Shard indexes on the ring, ascending
+     */
+    public List<Integer> shards() {
+        return shards;
+    }
+
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * A ring over these shards plus the given ones
+     */
+    public ShardRing with(Collection<Integer> added) {
+        List<Integer> all = new ArrayList<>(shards);
+        all.addAll(added);
+        return new ShardRing(all, virtualNodes);
+    }
+
+    /**
+     * 64-bit finalizer of MurmurHash3: spreads consecutive IDs evenly over the ring
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
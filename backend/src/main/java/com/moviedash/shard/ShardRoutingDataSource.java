@@ -0,0 +1,81 @@
+package com.moviedash.shard;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * ShardRoutingDataSource
+ *
+ * Sends each connection to one shard database.
+ *
+ * Routing rules:
+ * - Shard bound to the thread (ShardContext.call) -> that shard
+ * - Otherwise the shard the current transaction is bound to
+ * - Otherwise shard 0, the primary, which keeps the tables that are not sharded
+ * The chosen shard is bound to the current transaction, so later statements cannot switch shards.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager opens the connection
+ * before the service code binds a shard, and the lazy proxy defers the choice until the first
+ * statement runs.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    /**
+     * @param shards shard databases by index; index 0 is the primary
+     */
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Integer shard = ShardContext.current();
+        if (shard == null) {
+            shard = ShardContext.transactionShard();
+        }
+        if (shard == null) {
+            shard = ShardContext.GLOBAL;
+        }
+        ShardContext.bindTransaction(shard);
+        return shard(shard).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per pool; routing ignores per-call credentials
+        return getConnection();
+    }
+
+    /**
+     * The database of one shard, for code that works on shards directly (schema, rebalancing)
+     */
+    public DataSource shard(int shard) {
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + shard + " (configured: 0-" + (shards.size() - 1) + ")");
+        }
+        return shards.get(shard);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Close the shard pools on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+}
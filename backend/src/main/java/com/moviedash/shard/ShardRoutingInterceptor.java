@@ -0,0 +1,122 @@
+package com.moviedash.shard;
+
+import com.moviedash.entity.Favorite;
+import com.moviedash.entity.Review;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * ShardRoutingInterceptor
+ *
+ * Shard router in front of FavoriteRepository and ReviewRepository (see ShardingConfig).
+ *
+ * Each call goes to:
+ * - the shard bound to the thread, if any (scatter queries, ShardTemplate.readOnShard)
+ * - else the shard of the user in the arguments: a parameter named userId, or a Favorite/Review
+ *   (or the first of an Iterable of them) whose user is set
+ * - else the shard the current transaction is already bound to (ShardTemplate.useUserShard)
+ * Anything else fails: a query without a user must say which shards it runs on.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final int NO_USER_ARGUMENT = -1;
+
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Integer> userIdParameter = new ConcurrentHashMap<>();
+
+    public ShardRoutingInterceptor(ObjectProvider<ShardTemplate> shardTemplate) {
+        this.shardTemplate = shardTemplate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Integer bound = ShardContext.current();
+        if (bound != null) {
+            ShardContext.bindTransaction(bound);
+            return invocation.proceed();
+        }
+        Long userId = userId(invocation);
+        if (userId != null) {
+            return proceed(() -> shardTemplate.getObject().onUserShard(userId, () -> proceedUnchecked(invocation)));
+        }
+        Integer transactionShard = ShardContext.transactionShard();
+        if (transactionShard != null) {
+            return proceed(() -> ShardContext.call(transactionShard, () -> proceedUnchecked(invocation)));
+        }
+        throw new IllegalStateException("No shard for " + invocation.getMethod().getDeclaringClass().getSimpleName()
+                + "." + invocation.getMethod().getName()
+                + ": pass the user, call ShardTemplate.useUserShard first, or run it through ShardTemplate.scatter");
+    }
+
+    private Long userId(MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        int index = userIdParameter.computeIfAbsent(invocation.getMethod(), this::findUserIdParameter);
+        if (index != NO_USER_ARGUMENT) {
+            return (Long) arguments[index];
+        }
+        for (Object argument : arguments) {
+            Object entity = argument instanceof Iterable<?> iterable && iterable.iterator().hasNext()
+                    ? iterable.iterator().next()
+                    : argument;
+            if (entity instanceof Favorite favorite && favorite.getUser() != null) {
+                return favorite.getUser().getId();
+            }
+            if (entity instanceof Review review && review.getUser() != null) {
+                return review.getUser().getId();
+            }
+        }
+        return null;
+    }
+
+    private int findUserIdParameter(Method method) {
+        String[] names = parameterNames.getParameterNames(method);
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if ("userId".equals(names[i]) && method.getParameterTypes()[i] == Long.class) {
+                    return i;
+                }
+            }
+        }
+        return NO_USER_ARGUMENT;
+    }
+
+    /**
+     * Carries checked exceptions of the repository call through the Supplier-based ShardTemplate API
+     */
+    private static Object proceedUnchecked(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CheckedFailure(e);
+        }
+    }
+
+    private static Object proceed(Supplier<Object> call) throws Throwable {
+        try {
+            return call.get();
+        } catch (CheckedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+
+}
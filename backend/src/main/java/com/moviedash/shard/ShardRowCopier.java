@@ -0,0 +1,263 @@
+package com.moviedash.shard;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ShardRowCopier
+ *
+ * Plain JDBC row copies between shard databases, used to move a user's rows when shards are added
+ * and to keep the reference tables (users, movie_metadata) on every shard. Rows keep their IDs;
+ * copies are idempotent, so an interrupted run can simply be repeated.
+ *
+ * Table and column names come from this class's callers and the database metadata, never from requests.
+ */
+final class ShardRowCopier {
+
+    /**
+     * Tables whose rows belong to one user and live on that user's shard
+     */
+    static final List<String> SHARDED_TABLES = List.of("favorites", "reviews");
+
+    private ShardRowCopier() {
+    }
+
+    /**
+     * IDs of the users with at least one row on this shard
+     */
+    static Set<Long> userIds(DataSource shard) throws SQLException {
+        Set<Long> userIds = new TreeSet<>();
+        try (Connection connection = shard.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String table : SHARDED_TABLES) {
+                try (ResultSet rs = statement.executeQuery("SELECT DISTINCT user_id FROM " + table)) {
+                    while (rs.next()) {
+                        userIds.add(rs.getLong(1));
+                    }
+                }
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Copy all rows of one user from one shard to another, skipping rows the target already has
+     *
+     * @return number of rows inserted
+     */
+    static int copyUser(long userId, DataSource from, DataSource to) throws SQLException {
+        int copied = 0;
+        try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+            target.setAutoCommit(false);
+            try {
+                for (String table : SHARDED_TABLES) {
+                    Rows rows = select(source, "SELECT * FROM " + table + " WHERE user_id = ?", userId);
+                    Set<Object> existing = new HashSet<>(
+                            select(target, "SELECT id FROM " + table + " WHERE user_id = ?", userId).column(0));
+                    rows.values().removeIf(row -> existing.contains(row[rows.indexOf("id")]));
+                    copied += insert(target, table, rows);
+                }
+                target.commit();
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Delete all rows of one user from a shard
+     *
+     * @return number of rows deleted
+     */
+    static int deleteUser(long userId, DataSource shard) throws SQLException {
+        int deleted = 0;
+        try (Connection connection = shard.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (String table : SHARDED_TABLES) {
+                    try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE user_id = ?")) {
+                        delete.setLong(1, userId);
+                        deleted += delete.executeUpdate();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Insert or overwrite the rows of a reference table whose key column is greater than, or whose
+     * version column is newer than, what the target already has
+     *
+     * @param versionColumn column that grows on every update (null: rows are never updated, compare keys)
+     * @return number of rows written
+     */
+    static int syncReferenceTable(String table, String keyColumn, String versionColumn,
+                                  DataSource from, DataSource to) throws SQLException {
+        String column = versionColumn != null ? versionColumn : keyColumn;
+        try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+            Object newest = select(target, "SELECT MAX(" + column + ") FROM " + table).column(0).get(0);
+            Rows rows = newest == null
+                    ? select(source, "SELECT * FROM " + table)
+                    : select(source, "SELECT * FROM " + table + " WHERE " + column + " > ?", newest);
+            return upsert(target, table, keyColumn, rows);
+        }
+    }
+
+    /**
+     * Insert or overwrite one row of a reference table on the target
+     *
+     * @return 1 if the row exists on the source, else 0
+     */
+    static int copyReferenceRow(String table, String keyColumn, Object key, DataSource from, DataSource to)
+            throws SQLException {
+        try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+            return upsert(target, table, keyColumn,
+                    select(source, "SELECT * FROM " + table + " WHERE " + keyColumn + " = ?", key));
+        }
+    }
+
+    static long count(DataSource shard, String table) throws SQLException {
+        try (Connection connection = shard.getConnection()) {
+            return ((Number) select(connection, "SELECT COUNT(*) FROM " + table).column(0).get(0)).longValue();
+        }
+    }
+
+    /**
+     * Make the table's identity column continue at start unless it is already past it, so IDs
+     * generated on different shards never collide and rows can move between shards with their IDs
+     */
+    static void reserveIdRange(DataSource shard, String table, long start) throws SQLException {
+        try (Connection connection = shard.getConnection();
+             Statement statement = connection.createStatement()) {
+            Object max = select(connection, "SELECT MAX(id) FROM " + table).column(0).get(0);
+            if (max != null && ((Number) max).longValue() >= start) {
+                return;
+            }
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            if (product.contains("mysql") || product.contains("mariadb")) {
+                statement.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + start);
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + start);
+            }
+        }
+    }
+
+    private static int upsert(Connection target, String table, String keyColumn, Rows rows) throws SQLException {
+        if (rows.values().isEmpty()) {
+            return 0;
+        }
+        int key = rows.indexOf(keyColumn);
+        boolean autoCommit = target.getAutoCommit();
+        target.setAutoCommit(false);
+        try {
+            Rows missing = new Rows(rows.columns(), new ArrayList<>());
+            StringBuilder set = new StringBuilder();
+            for (String column : rows.columns()) {
+                if (!column.equalsIgnoreCase(keyColumn)) {
+                    set.append(set.isEmpty() ? "" : ", ").append(column).append(" = ?");
+                }
+            }
+            try (PreparedStatement update = target.prepareStatement(
+                    "UPDATE " + table + " SET " + set + " WHERE " + keyColumn + " = ?")) {
+                for (Object[] row : rows.values()) {
+                    int p = 1;
+                    for (int c = 0; c < row.length; c++) {
+                        if (c != key) {
+                            update.setObject(p++, row[c]);
+                        }
+                    }
+                    update.setObject(p, row[key]);
+                    if (update.executeUpdate() == 0) {
+                        missing.values().add(row);
+                    }
+                }
+            }
+            insert(target, table, missing);
+            target.commit();
+            return rows.values().size();
+        } catch (SQLException | RuntimeException e) {
+            target.rollback();
+            throw e;
+        } finally {
+            target.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int insert(Connection target, String table, Rows rows) throws SQLException {
+        if (rows.values().isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", rows.columns()) + ") VALUES ("
+                + String.join(", ", rows.columns().stream().map(column -> "?").toList()) + ")";
+        try (PreparedStatement insert = target.prepareStatement(sql)) {
+            for (Object[] row : rows.values()) {
+                for (int c = 0; c < row.length; c++) {
+                    insert.setObject(c + 1, row[c]);
+                }
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        return rows.values().size();
+    }
+
+    private static Rows select(Connection connection, String sql, Object... args) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                List<String> columns = new ArrayList<>(metaData.getColumnCount());
+                for (int c = 1; c <= metaData.getColumnCount(); c++) {
+                    columns.add(metaData.getColumnLabel(c));
+                }
+                List<Object[]> values = new ArrayList<>();
+                while (rs.next()) {
+                    Object[] row = new Object[columns.size()];
+                    for (int c = 0; c < row.length; c++) {
+                        row[c] = rs.getObject(c + 1);
+                    }
+                    values.add(row);
+                }
+                return new Rows(columns, values);
+            }
+        }
+    }
+
+    private record Rows(List<String> columns, List<Object[]> values) {
+
+        int indexOf(String column) {
+            for (int c = 0; c < columns.size(); c++) {
+                if (columns.get(c).equalsIgnoreCase(column)) {
+                    return c;
+                }
+            }
+            throw new IllegalArgumentException("No column " + column + " in " + columns);
+        }
+
+        List<Object> column(int index) {
+            return values.stream().map(row -> row[index]).toList();
+        }
+
+    }
+
+}
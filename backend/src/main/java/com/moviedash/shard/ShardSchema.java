@@ -0,0 +1,132 @@
+package com.moviedash.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerHaltImpl;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ShardSchema
+ *
+ * Prepares the shard databases other than the primary.
+ *
+ * - Hibernate only creates or updates the schema of the connection it boots with (shard 0). This
+ *   integrator keeps the mapping, so the same schema update runs on every other shard when
+ *   spring.jpa.hibernate.ddl-auto is update (or create)
+ * - Every shard generates IDs in its own range (shard << 40), so favorites and reviews keep their
+ *   IDs when a rebalance moves them and IDs stay unique across shards
+ */
+@Slf4j
+public class ShardSchema implements Integrator {
+
+    static final int ID_RANGE_BITS = 40;
+
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+
+    /**
+     * @param ddlAuto value of spring.jpa.hibernate.ddl-auto; none and validate leave the schema alone
+     */
+    public void prepare(ShardRoutingDataSource dataSource, String ddlAuto) {
+        boolean updateSchema = Set.of("update", "create", "create-drop").contains(ddlAuto);
+        for (int shard = 1; shard < dataSource.shardCount(); shard++) {
+            if (updateSchema) {
+                updateSchema(dataSource, shard);
+            }
+            for (String table : ShardRowCopier.SHARDED_TABLES) {
+                try {
+                    ShardRowCopier.reserveIdRange(dataSource.shard(shard), table, idRangeStart(shard));
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Shard " + shard + " has no usable " + table + " table; "
+                            + "create its schema (spring.jpa.hibernate.ddl-auto=update) before enabling it", e);
+                }
+            }
+        }
+    }
+
+    static long idRangeStart(int shard) {
+        return ((long) shard << ID_RANGE_BITS) + 1;
+    }
+
+    /**
+     * ID range a favorite or review ID was generated in (the shard it was created on)
+     */
+    public static long idRange(long id) {
+        return id >>> ID_RANGE_BITS;
+    }
+
+    /**
+     * Runs Hibernate's schema migrator with its own service registry on the shard's DataSource:
+     * the application's registry knows only shard 0's catalog and would compare against that
+     */
+    private void updateSchema(ShardRoutingDataSource dataSource, int shard) {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate mapping not captured; is ShardSchema registered as an integrator?");
+        }
+        Map<String, Object> settings = new HashMap<>(
+                sessionFactory.getServiceRegistry().getService(ConfigurationService.class).getSettings());
+        settings.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource.shard(shard));
+        // A plain service registry does not read the JPA setting, and the copied settings still name
+        // shard 0's DataSource: hand it the shard's connections directly
+        DatasourceConnectionProviderImpl connections = new DatasourceConnectionProviderImpl();
+        connections.setDataSource(dataSource.shard(shard));
+        connections.configure(Map.of());
+        StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+                .applySettings(settings)
+                .addService(ConnectionProvider.class, connections)
+                .build();
+        try {
+            ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(settings, ExceptionHandlerHaltImpl.INSTANCE);
+            serviceRegistry.getService(SchemaManagementTool.class)
+                    .getSchemaMigrator(settings)
+                    .doMigration(metadata, options, ContributableMatcher.ALL, new TargetDescriptor() {
+                        @Override
+                        public EnumSet<TargetType> getTargetTypes() {
+                            return EnumSet.of(TargetType.DATABASE);
+                        }
+
+                        @Override
+                        public ScriptTargetOutput getScriptTargetOutput() {
+                            return null;
+                        }
+                    });
+        } finally {
+            StandardServiceRegistryBuilder.destroy(serviceRegistry);
+        }
+        log.info("Schema of shard {} updated", shard);
+    }
+
+}
@@ -0,0 +1,378 @@
+package com.moviedash.shard;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * ShardTemplate
+ *
+ * Entry point for code that works with the sharded tables (favorites, reviews).
+ *
+ * - User-scoped work goes to the user's shard: repository calls with a userId argument or a
+ *   Favorite/Review entity are routed automatically (ShardRoutingInterceptor); useUserShard binds a
+ *   transaction explicitly when its first call has neither (e.g. findById)
+ * - Queries across users (reviews of a movie, latest reviews, statistics) run on every shard in
+ *   parallel (scatter) and the sorted per-shard results are merged (scatterMerge)
+ * - Reference tables (users, movie_metadata) are written to every shard, so joins with them stay local
+ *
+ * With sharding disabled there is a single shard and every method runs its action directly.
+ *
+ * Rebalancing (ShardRebalancer) moves users while the application runs. Routed work holds a read lock
+ * on the user's lock stripe until its transaction completes; a move holds the write lock, so a user's
+ * rows are never written while they are copied.
+ */
+@Slf4j
+public class ShardTemplate {
+
+    private static final int LOCK_STRIPES = 256;
+    private static final Object LOCKED_STRIPES_KEY = new Object();
+
+    private final ShardRoutingDataSource dataSource;
+    private final TransactionTemplate readOnShardTransaction;
+    private final ExecutorService scatterExecutor;
+    private final List<Integer> allShards;
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[LOCK_STRIPES];
+
+    private volatile ShardRing ring;
+    // Users already moved by a running rebalance, to their new shard
+    private final Map<Long, Integer> moved = new ConcurrentHashMap<>();
+
+    /**
+     * Single-shard template used when sharding is disabled
+     */
+    public ShardTemplate() {
+        this.dataSource = null;
+        this.readOnShardTransaction = null;
+        this.scatterExecutor = null;
+        this.allShards = List.of(ShardContext.GLOBAL);
+        this.ring = new ShardRing(allShards, 1);
+    }
+
+    /**
+     * @param ring shards that own users; configured shards not on it are empty until a rebalance
+     * @param scatterThreads threads running per-shard queries of scatter/scatterMerge
+     */
+    public ShardTemplate(ShardRoutingDataSource dataSource, ShardRing ring,
+                         PlatformTransactionManager transactionManager, int scatterThreads) {
+        this.dataSource = dataSource;
+        this.readOnShardTransaction = new TransactionTemplate(transactionManager);
+        readOnShardTransaction.setReadOnly(true);
+        // A query on another shard never joins the caller's transaction: that one is bound to its own shard
+        readOnShardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(Math.max(1, scatterThreads), task -> {
+            Thread thread = new Thread(task, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.allShards = IntStream.range(0, dataSource.shardCount()).boxed().toList();
+        this.ring = ring;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return dataSource != null;
+    }
+
+    /**
+     * Shard that holds the given user's favorites and reviews
+     */
+    public int shardOf(long userId) {
+        Integer movedTo = moved.get(userId);
+        return movedTo != null ? movedTo : ring.shardOf(userId);
+    }
+
+    /**
+     * Every configured shard, including shards that do not own users yet
+     */
+    public List<Integer> shards() {
+        return allShards;
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    /**
+     * Bind the current transaction to the user's shard before its first statement
+     * Needed only when that statement carries no user (e.g. findById); a no-op without sharding
+     */
+    public void useUserShard(long userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("useUserShard needs an active transaction");
+        }
+        lockForTransaction(userId);
+        ShardContext.bindTransaction(shardOf(userId));
+    }
+
+    /**
+     * useUserShard for several users on the same shard, e.g. a batch of writes. Their stripes are
+     * locked in stripe order, the order lockAll takes them in, so the batch cannot deadlock with a
+     * rebalance's final pass.
+     */
+    public void useUserShards(Collection<Long> userIds) {
+        userIds.stream()
+                .sorted(Comparator.comparingInt(ShardTemplate::stripeIndex))
+                .forEach(this::useUserShard);
+    }
+
+    /**
+     * Run a repository call on the user's shard, holding the user's lock stripe until the surrounding
+     * transaction completes (or until the call returns outside a transaction)
+     */
+    <T> T onUserShard(long userId, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockForTransaction(userId);
+            int shard = shardOf(userId);
+            ShardContext.bindTransaction(shard);
+            return ShardContext.call(shard, action);
+        }
+        ReentrantReadWriteLock.ReadLock lock = stripe(userId).readLock();
+        lock.lock();
+        try {
+            return ShardContext.call(shardOf(userId), action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run the action in a read-only transaction on one shard
+     */
+    public <T> T readOnShard(int shard, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return ShardContext.call(shard, () -> readOnShardTransaction.execute(status -> action.get()));
+    }
+
+    /**
+     * Run the action on every shard in parallel, each in a read-only transaction
+     *
+     * @return the per-shard results, by shard index
+     */
+    public <T> List<T> scatter(Supplier<T> action) {
+        if (!isEnabled()) {
+            return List.of(action.get());
+        }
+        List<CompletableFuture<T>> results = allShards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> readOnShard(shard, action), scatterExecutor))
+                .toList();
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Run a sorted query on every shard in parallel and merge the results in the same order
+     *
+     * Elements that compare equal are the same row seen on two shards (a user being moved), so only
+     * the first is kept; the order must therefore end with a unique key.
+     *
+     * @param action query whose result is sorted by order
+     * @param limit maximum number of elements returned
+     */
+    public <T> List<T> scatterMerge(Supplier<List<T>> action, Comparator<? super T> order, int limit) {
+        List<List<T>> perShard = scatter(action);
+        if (perShard.size() == 1) {
+            List<T> only = perShard.get(0);
+            return only.size() <= limit ? only : only.subList(0, limit);
+        }
+
+        // k-way merge: one cursor per shard, ordered by the element it points at
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(
+                (a, b) -> order.compare(perShard.get(a[0]).get(a[1]), perShard.get(b[0]).get(b[1])));
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            if (!perShard.get(shard).isEmpty()) {
+                cursors.add(new int[]{shard, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!cursors.isEmpty() && merged.size() < limit) {
+            int[] cursor = cursors.poll();
+            List<T> rows = perShard.get(cursor[0]);
+            T next = rows.get(cursor[1]);
+            if (merged.isEmpty() || order.compare(merged.get(merged.size() - 1), next) != 0) {
+                merged.add(next);
+            }
+            if (++cursor[1] < rows.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Run a write once per shard, for reference tables that every shard keeps a copy of
+     * The action manages its own transaction (e.g. a repository save)
+     */
+    public void writeOnEveryShard(Runnable action) {
+        if (!isEnabled()) {
+            action.run();
+            return;
+        }
+        for (int shard : allShards) {
+            ShardContext.call(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Copy a reference-table row from shard 0 to every other shard once the current transaction commits
+     * A failed copy is logged and repaired by the reference sync at the next startup or rebalance.
+     */
+    public void replicateAfterCommit(String table, String keyColumn, Object key) {
+        if (!isEnabled()) {
+            return;
+        }
+        Runnable copy = () -> {
+            for (int shard : allShards) {
+                if (shard == ShardContext.GLOBAL) {
+                    continue;
+                }
+                try {
+                    ShardRowCopier.copyReferenceRow(table, keyColumn, key,
+                            dataSource.shard(ShardContext.GLOBAL), dataSource.shard(shard));
+                } catch (SQLException e) {
+                    log.warn("Could not copy {} {} to shard {}: {}", table, key, shard, e.getMessage());
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    copy.run();
+                }
+            });
+        } else {
+            copy.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    ShardRoutingDataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Write lock of the user's stripe: no routed work for users of that stripe runs while it is held
+     */
+    ReentrantReadWriteLock.WriteLock writeLock(long userId) {
+        return stripe(userId).writeLock();
+    }
+
+    /**
+     * Acquire every stripe's write lock (in stripe order), pausing all routed work
+     */
+    void lockAll() {
+        for (ReentrantReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Route a user to their new shard before the ring is switched; caller holds the user's write lock
+     */
+    void markMoved(long userId, int shard) {
+        moved.put(userId, shard);
+    }
+
+    /**
+     * Switch to a new ring; caller holds every write lock (lockAll)
+     */
+    void switchRing(ShardRing target) {
+        ring = target;
+        moved.clear();
+    }
+
+    private ReentrantReadWriteLock stripe(long userId) {
+        return stripes[stripeIndex(userId)];
+    }
+
+    private static int stripeIndex(long userId) {
+        return (int) ((userId ^ (userId >>> 32)) & (LOCK_STRIPES - 1));
+    }
+
+    /**
+     * Read-lock the user's stripe once per transaction, released when the transaction completes
+     */
+    @SuppressWarnings("unchecked")
+    private void lockForTransaction(long userId) {
+        ReentrantReadWriteLock stripe = stripe(userId);
+        Set<ReentrantReadWriteLock> locked =
+                (Set<ReentrantReadWriteLock>) TransactionSynchronizationManager.getResource(LOCKED_STRIPES_KEY);
+        if (locked == null) {
+            Set<ReentrantReadWriteLock> held = new HashSet<>();
+            locked = held;
+            TransactionSynchronizationManager.bindResource(LOCKED_STRIPES_KEY, held);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LOCKED_STRIPES_KEY);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(LOCKED_STRIPES_KEY, held);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LOCKED_STRIPES_KEY);
+                    held.forEach(lock -> lock.readLock().unlock());
+                }
+            });
+        }
+        if (locked.add(stripe)) {
+            stripe.readLock().lock();
+        }
+    }
+
+}
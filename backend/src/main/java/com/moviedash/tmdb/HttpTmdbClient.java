@@ -0,0 +1,71 @@
+package com.moviedash.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * HttpTmdbClient
+ *
+ * TmdbClient over the TMDb v3 REST API: GET {tmdb.base-url}/movie/{id}.
+ * The RestClient carries the base URL, bearer token and timeouts (see TmdbConfig); a v3 API key,
+ * if configured, is added as the api_key query parameter.
+ */
+public class HttpTmdbClient implements TmdbClient {
+
+    private final RestClient restClient;
+    private final String apiKey;
+
+    public HttpTmdbClient(RestClient restClient, String apiKey) {
+        this.restClient = restClient;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public Optional<TmdbMovie> fetchMovie(int movieId) {
+        MovieDetails details;
+        try {
+            details = restClient.get()
+                    .uri(uri -> {
+                        uri.path("/movie/{id}");
+                        if (apiKey != null && !apiKey.isBlank()) {
+                            uri.queryParam("api_key", apiKey);
+                        }
+                        return uri.build(movieId);
+                    })
+                    .retrieve()
+                    .body(MovieDetails.class);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+        if (details == null) {
+            return Optional.empty();
+        }
+        List<String> genres = details.genres() == null ? List.of()
+                : details.genres().stream().map(Genre::name).toList();
+        return Optional.of(new TmdbMovie(details.id(), details.title(), details.posterPath(),
+                details.releaseDate(), genres, details.voteAverage()));
+    }
+
+    /**
+     * The subset of TMDb's movie details response that is stored
+     */
+    record MovieDetails(Integer id,
+                        String title,
+                        @JsonProperty("poster_path") String posterPath,
+                        @JsonProperty("release_date") String releaseDate,
+                        List<Genre> genres,
+                        @JsonProperty("vote_average") Double voteAverage) {
+    }
+
+    record Genre(Integer id, String name) {
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.moviedash.tmdb;
+
+import java.util.Optional;
+
+/**
+ * TmdbClient
+ *
+ * Source of movie details for the local movie_metadata store. The default implementation calls
+ * the TMDb API (HttpTmdbClient, see TmdbConfig); local setups can point tmdb.base-url at
+ * a stub or provide another implementation.
+ */
+public interface TmdbClient {
+
+    /**
+     * Fetch one movie
+     *
+     * @return the movie, or empty if TMDb does not know the ID
+     * @throws RuntimeException if TMDb could not be reached or answered with an error
+     */
+    Optional<TmdbMovie> fetchMovie(int movieId);
+
+    /**
+     * Whether calls can succeed at all (false when no TMDb credentials are configured)
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Client used when no TMDb credentials are configured: knows no movies
+     */
+    static TmdbClient disabled() {
+        return new TmdbClient() {
+            @Override
+            public Optional<TmdbMovie> fetchMovie(int movieId) {
+                return Optional.empty();
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.moviedash.tmdb;
+
+import java.util.List;
+
+/**
+ * The fields of a TMDb movie that are stored in movie_metadata
+ *
+ * @param releaseDate ISO date as sent by TMDb; may be empty
+ */
+public record TmdbMovie(Integer id, String title, String posterPath, String releaseDate,
+                        List<String> genres, Double voteAverage) {
+}
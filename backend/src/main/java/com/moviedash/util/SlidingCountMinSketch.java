@@ -0,0 +1,126 @@
+package com.moviedash.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * SlidingCountMinSketch
+ *
+ * Count-Min Sketch over a sliding time window: the window is split into slices, each with its own
+ * depth x width counters, and advance() drops the oldest slice. Estimates never undercount; they
+ * overcount by at most about e / width of the window's total, with probability 1 - e^-depth.
+ *
+ * Notes:
+ * - Thread-safe and lock-free: add() is depth atomic increments, estimate() and exceeds() plain
+ *   volatile reads
+ * - A cell keeps its per-slice counts side by side, so a row costs one cache line in add() and
+ *   estimate() alike, however many slices there are
+ * - Fixed memory: slices * depth * width ints, whatever the number of distinct keys. Counts are
+ *   ints: a window would need over two billion requests for one cell to overflow
+ * - Callers pass a 64-bit hash of the key (hash() mixes an int or long key well enough); each row
+ *   takes its column from the hash with its own multiplier, so two keys sharing one column are
+ *   unlikely to share the others
+ */
+public class SlidingCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int shift;
+    private final long[] multipliers;
+    private final int slices;
+    private final AtomicIntegerArray counters;
+    private volatile int current;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public SlidingCountMinSketch(int depth, int width, int slices) {
+        this.depth = Math.max(1, depth);
+        this.width = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(this.width);
+        this.multipliers = new long[this.depth];
+        for (int row = 0; row < this.depth; row++) {
+            multipliers[row] = hash(row + 1) | 1;
+        }
+        this.slices = Math.max(1, slices);
+        this.counters = new AtomicIntegerArray(this.depth * this.width * this.slices);
+    }
+
+    public void add(long hash) {
+        int slice = current;
+        for (int row = 0; row < depth; row++) {
+            counters.getAndIncrement(cell(row, hash) + slice);
+        }
+    }
+
+    /**
+     * Count of the key over the whole window (every slice), never less than the true count
+     */
+    public long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, sum(cell(row, hash)));
+        }
+        return min;
+    }
+
+    /**
+     * Whether estimate(hash) > threshold; stops at the first row that rules it out, which for the
+     * rarely seen keys that make up most of the traffic is the first one
+     */
+    public boolean exceeds(long hash, long threshold) {
+        for (int row = 0; row < depth; row++) {
+            if (sum(cell(row, hash)) <= threshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start a new slice in place of the oldest one. Only one thread may call this at a time.
+     */
+    public void advance() {
+        int next = (current + 1) % slices;
+        for (int cell = next; cell < counters.length(); cell += slices) {
+            counters.set(cell, 0);
+        }
+        current = next;
+    }
+
+    private long sum(int cell) {
+        long sum = 0;
+        for (int slice = 0; slice < slices; slice++) {
+            sum += counters.get(cell + slice);
+        }
+        return sum;
+    }
+
+    /**
+     * Index of the key's first slice count in the row
+     */
+    private int cell(int row, long hash) {
+        return (row * width + (int) ((hash * multipliers[row]) >>> shift)) * slices;
+    }
+
+    public int slices() {
+        return slices;
+    }
+
+    public long sizeInBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+
+    /**
+     * 64-bit finalizer of MurmurHash3, spreading a key (or a key's hashCode) over both halves
+     */
+    public static long hash(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
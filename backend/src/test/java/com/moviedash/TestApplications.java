@@ -0,0 +1,38 @@
+package com.moviedash;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TestApplications
+ *
+ * Boots the application without a web server, for tests that need more than one context over the
+ * same databases (a schema created by one boot, reused or extended by the next).
+ */
+public final class TestApplications {
+
+    private TestApplications() {
+    }
+
+    /**
+     * Start on the given primary database; args are --name=value overrides
+     */
+    public static ConfigurableApplicationContext start(String primaryUrl, String... args) {
+        SpringApplication application = new SpringApplication(MovieDashApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        List<String> all = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + primaryUrl,
+                "--spring.jpa.show-sql=false",
+                "--request-logging.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.moviedash=WARN"));
+        all.addAll(List.of(args));
+        return application.run(all.toArray(String[]::new));
+    }
+
+}
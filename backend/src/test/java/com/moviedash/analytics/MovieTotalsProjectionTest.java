@@ -0,0 +1,81 @@
+package com.moviedash.analytics;
+
+import com.moviedash.controller.AdminAnalyticsController;
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.MovieTotalsResponse;
+import com.moviedash.entity.OutboxEvent;
+import com.moviedash.entity.User;
+import com.moviedash.service.FavoriteService;
+import com.moviedash.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * MovieTotalsProjectionTest
+ *
+ * With favorites.store=log favorites never reach the favorites table, so the movie totals must
+ * not report a favorite count or sort by one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:movie-totals-log;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.com.moviedash=WARN",
+        "favorites.store=log"})
+class MovieTotalsProjectionTest {
+
+    private static final int MOVIE_ID = 42;
+
+    @Autowired
+    private MovieTotalsProjection movieTotalsProjection;
+
+    @Autowired
+    private AdminAnalyticsController adminAnalyticsController;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @DynamicPropertySource
+    static void favoriteLog(DynamicPropertyRegistry registry) throws IOException {
+        String dir = Files.createTempDirectory("favorite-log").toString();
+        registry.add("favorites.log.dir", () -> dir);
+    }
+
+    @Test
+    void favoritesInTheLogAreNotCounted() {
+        User user = userService.register("fan", "fan@example.com", "password");
+        favoriteService.addFavorite(user, MOVIE_ID);
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEvent.Type.REVIEW_CREATED);
+        event.setMovieId(MOVIE_ID);
+        movieTotalsProjection.accept(List.of(event));
+
+        assertFalse(movieTotalsProjection.countsFavorites());
+        assertThrows(IllegalArgumentException.class,
+                () -> movieTotalsProjection.top(MovieTotalsProjection.SortBy.FAVORITES, 10));
+
+        assertEquals(400, adminAnalyticsController.getMovieTotals("favorites", 10).getStatusCode().value());
+        ResponseEntity<ApiResponse<List<MovieTotalsResponse>>> byDefault = adminAnalyticsController.getMovieTotals(null, 10);
+        assertEquals(200, byDefault.getStatusCode().value());
+        MovieTotalsResponse movie = byDefault.getBody().getData().get(0);
+        assertEquals(MOVIE_ID, movie.getMovieId());
+        assertNull(movie.getFavoriteCount());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.moviedash.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BatchDispatcherTest
+ *
+ * With a concurrency limit of one, the batch itself holds the only permit, so every sub-request
+ * that reaches the limiter is shed; an event stream is refused before that, as a bad request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-dispatcher;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.moviedash=WARN",
+        "limiter.initial-limit=1",
+        "limiter.min-limit=1",
+        "limiter.max-limit=1"})
+class BatchDispatcherTest {
+
+    private static final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String token;
+
+    @BeforeEach
+    void register() throws Exception {
+        String name = "batch" + System.nanoTime();
+        HttpResponse<String> registered = send(HttpRequest.newBuilder(uri("/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + name + "\",\"email\":\"" + name
+                        + "@example.com\",\"password\":\"secret1\"}")));
+        assertEquals(201, registered.statusCode(), registered.body());
+        token = json.readTree(registered.body()).path("data").path("token").asText();
+    }
+
+    @Test
+    void eventStreamsAreRefusedAndSubRequestsTakeLimiterPermits() throws Exception {
+        double rejectedBefore = rejected();
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/batch"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"requests\":[{\"path\":\"/reviews/movie/1/stream\"},"
+                        + "{\"path\":\"/auth/me\"},{\"path\":\"/reviews/user\"}]}")));
+
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode results = json.readTree(response.body()).path("data");
+        assertEquals(3, results.size(), response.body());
+        assertEquals(400, results.get(0).path("status").asInt(), response.body());
+        assertEquals(503, results.get(1).path("status").asInt(), response.body());
+        assertEquals(503, results.get(2).path("status").asInt(), response.body());
+        assertEquals(rejectedBefore + 2, rejected());
+    }
+
+    private double rejected() {
+        return meterRegistry.get("limiter.rejected").tag("class", "authenticated").counter().count();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.moviedash.cache;
+
+import com.moviedash.dto.response.ReviewResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * RecentReviewRingTest
+ *
+ * Newest-first order, wrap-around, tombstones, updated reviews and cursor paging of the ring.
+ */
+class RecentReviewRingTest {
+
+    @Test
+    void keepsTheNewestWritesAfterWrappingAround() {
+        RecentReviewRing ring = new RecentReviewRing(4, 100);
+        for (long id = 1; id <= 10; id++) {
+            assertEquals(99 + id, ring.append(review(id, 1)));
+        }
+        assertEquals(List.of(10L, 9L, 8L, 7L), ids(ring.page(null, 10)));
+    }
+
+    @Test
+    void deletedReviewsAreNotServed() {
+        RecentReviewRing ring = new RecentReviewRing(4, 1);
+        ring.append(review(1, 1));
+        ring.append(review(2, 1));
+        ring.append(review(1, 5));
+        ring.append(review(3, 1));
+
+        ring.remove(1L);
+        ring.remove(42L);
+
+        assertEquals(List.of(3L, 2L), ids(ring.page(null, 10)));
+        // The tombstones still hold their slots until newer writes reuse them
+        ring.append(review(4, 1));
+        assertEquals(List.of(4L, 3L, 2L), ids(ring.page(null, 10)));
+    }
+
+    @Test
+    void anUpdatedReviewIsServedOnceInItsNewPlace() {
+        RecentReviewRing ring = new RecentReviewRing(8, 1);
+        ring.append(review(1, 2));
+        ring.append(review(2, 3));
+        ring.append(review(1, 5));
+
+        RecentReviewRing.Page page = ring.page(null, 10);
+        assertEquals(List.of(1L, 2L), ids(page));
+        assertEquals(5, page.reviews().get(0).getRating());
+    }
+
+    @Test
+    void cursorPagesCoverEveryReviewOnce() {
+        RecentReviewRing ring = new RecentReviewRing(16, 1);
+        for (long id = 1; id <= 10; id++) {
+            ring.append(review(id, 1));
+        }
+        ring.append(review(4, 3));
+
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            RecentReviewRing.Page page = ring.page(cursor, 3);
+            seen.addAll(ids(page));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(4L, 10L, 9L, 8L, 7L, 6L, 5L, 3L, 2L, 1L), seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void aCursorStaysValidWhileNewReviewsArrive() {
+        RecentReviewRing ring = new RecentReviewRing(16, 1);
+        for (long id = 1; id <= 6; id++) {
+            ring.append(review(id, 1));
+        }
+        RecentReviewRing.Page first = ring.page(null, 3);
+        assertEquals(List.of(6L, 5L, 4L), ids(first));
+
+        ring.append(review(7, 1));
+        RecentReviewRing.Page second = ring.page(first.nextCursor(), 3);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(second));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void snapshotIsRebuiltOnlyAfterAWrite() {
+        RecentReviewRing ring = new RecentReviewRing(4, 1);
+        ring.append(review(1, 1));
+        ring.page(null, 10);
+        ring.page(null, 10);
+        assertEquals(1, ring.snapshotBuilds());
+
+        ring.append(review(2, 1));
+        ring.page(null, 10);
+        assertEquals(2, ring.snapshotBuilds());
+    }
+
+    private static ReviewResponse review(long id, int rating) {
+        return new ReviewResponse(id, 550, rating, "review " + id, LocalDateTime.of(2024, 1, 1, 0, 0), "user", 1L);
+    }
+
+    private static List<Long> ids(RecentReviewRing.Page page) {
+        return page.reviews().stream().map(ReviewResponse::getId).toList();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.moviedash.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AotBuildConditionsTest {
+
+    @Test
+    void sameValuesAsTheBuildPass() {
+        MockEnvironment environment = new MockEnvironment().withProperty("sharding.enabled", "FALSE");
+        environment.setActiveProfiles("prod");
+        assertTrue(AotBuildConditions.differences(built(), environment).isEmpty());
+    }
+
+    @Test
+    void everyChangedConditionIsReported() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("sharding.enabled", "true")
+                .withProperty("favorites.store", "log")
+                .withProperty("outbox.poller-enabled", "false");
+        environment.setActiveProfiles("prod");
+
+        List<String> differences = AotBuildConditions.differences(built(), environment);
+
+        assertEquals(List.of(
+                "sharding.enabled is 'true' but the AOT build used 'false'",
+                "favorites.store is 'log' but the AOT build used 'jpa'",
+                "outbox.poller-enabled is 'false' but the AOT build used 'true'"), differences);
+    }
+
+    @Test
+    void aDifferentProfileIsReported() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("local");
+        assertEquals(List.of("(active profiles) is 'local' but the AOT build used 'prod'"),
+                AotBuildConditions.differences(built(), environment));
+    }
+
+    /**
+     * What AotBuildConditionsRecorder writes for a default prod build
+     */
+    private static Properties built() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        Properties built = new Properties();
+        built.putAll(AotBuildConditions.resolve(environment));
+        return built;
+    }
+
+}
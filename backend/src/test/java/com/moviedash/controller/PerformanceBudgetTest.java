@@ -0,0 +1,339 @@
+package com.moviedash.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.entity.MovieMetadata;
+import com.moviedash.repository.MovieMetadataRepository;
+import com.moviedash.security.JwtUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * PerformanceBudgetTest
+ *
+ * Per-endpoint performance budgets for AuthController, ReviewController, FavoriteController and
+ * BatchController, one test per line of perf-budgets.txt (src/test/resources).
+ * Boots the application on an in-memory H2 database, seeds users, reviews, favorites and movie
+ * metadata through the API, then calls every endpoint (warm-up first) and compares against the budget:
+ * - statements: most SQL statements Hibernate prepared for one call (request.sql.statements)
+ * - allocated-kb: median bytes allocated by the request thread (request.allocated.bytes)
+ * - median-ms: median latency seen by the client over loopback
+ *
+ * An endpoint without a budget, or a budget without an endpoint, fails too.
+ * After an intended change, regenerate the file instead of checking it:
+ *   mvn test -Dtest=PerformanceBudgetTest -Dperf-budget.update=true
+ * (statements as measured, allocation and latency with headroom).
+ *
+ * SSE streams (GET /reviews/movie/{movieId}/stream) are not measured; they stay open by design.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf-budget;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "request-cost.enabled=true",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.moviedash=WARN"})
+class PerformanceBudgetTest {
+
+    private static final String BUDGETS = "perf-budgets.txt";
+    private static final Path BUDGETS_SOURCE = Path.of("src/test/resources", BUDGETS);
+
+    private static final int WARMUP = 50;
+    private static final int CALLS = 50;
+    /** Register and login hash passwords with BCrypt; fewer calls keep the run short */
+    private static final int SLOW_WARMUP = 5;
+    private static final int SLOW_CALLS = 10;
+
+    private static final int USERS = 20;
+    private static final int REVIEWED_MOVIES = 30;
+    private static final int FAVORITE_MOVIES = 40;
+    private static final int CREATED_MOVIE_BASE = 100_000;
+
+    private static final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MovieMetadataRepository movieMetadataRepository;
+
+    /** IDs of the reviews the POST /reviews calls created, deleted again by DELETE /reviews/{id} */
+    private final List<Long> createdReviews = new ArrayList<>();
+
+    record Scenario(String name, String method, String route, int warmup, int calls, IntFunction<HttpRequest> request) {
+    }
+
+    record Result(String name, int statements, double allocatedKb, double medianMs) {
+    }
+
+    record Budget(int statements, double allocatedKb, double medianMs) {
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyEndpointStaysWithinItsBudget() throws Exception {
+        boolean update = Boolean.getBoolean("perf-budget.update");
+        Map<String, Budget> budgets = read();
+        List<Scenario> scenarios = scenarios(seed());
+        List<Result> results = new ArrayList<>();
+
+        DynamicTest coverage = dynamicTest("every endpoint has a budget", () -> {
+            if (!update) {
+                assertEquals(List.copyOf(budgets.keySet()), scenarios.stream().map(Scenario::name).toList());
+            }
+        });
+        Stream<DynamicTest> endpoints = scenarios.stream().map(scenario -> dynamicTest(scenario.name(), () -> {
+            Result result = measure(scenario);
+            results.add(result);
+            if (update) {
+                return;
+            }
+            Budget budget = budgets.get(scenario.name());
+            assertNotNull(budget, "no budget in " + BUDGETS);
+            assertTrue(result.statements() <= budget.statements(),
+                    "SQL statements " + result.statements() + " > budget " + budget.statements());
+            assertTrue(result.allocatedKb() <= budget.allocatedKb(), String.format(Locale.ROOT,
+                    "allocated %.1f KB > budget %.1f KB", result.allocatedKb(), budget.allocatedKb()));
+            assertTrue(result.medianMs() <= budget.medianMs(), String.format(Locale.ROOT,
+                    "median %.2f ms > budget %.2f ms", result.medianMs(), budget.medianMs()));
+        }));
+        Stream<DynamicTest> rewrite = update
+                ? Stream.of(dynamicTest("rewrite " + BUDGETS_SOURCE, () -> write(results)))
+                : Stream.empty();
+        return Stream.of(Stream.of(coverage), endpoints, rewrite).flatMap(tests -> tests);
+    }
+
+    /**
+     * Movie metadata for the favorites, USERS users who each review the same movies, favorites of the
+     * first user
+     *
+     * @return the first user's token
+     */
+    private String seed() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        movieMetadataRepository.saveAll(IntStream.rangeClosed(1, FAVORITE_MOVIES)
+                .mapToObj(id -> new MovieMetadata(id, "Movie " + id, "/poster" + id + ".jpg",
+                        now.toLocalDate(), "Drama,Comedy", 7.5, now))
+                .toList());
+        List<String> tokens = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            tokens.add(token(send(post(url("/auth/register"), null,
+                    "{\"username\":\"perf" + u + "\",\"email\":\"perf" + u + "@example.com\",\"password\":\"secret1\"}"))));
+        }
+        for (int movie = 1; movie <= REVIEWED_MOVIES; movie++) {
+            for (int u = 0; u < USERS; u++) {
+                send(post(url("/reviews"), tokens.get(u),
+                        "{\"movieId\":" + movie + ",\"rating\":" + (1 + (movie + u) % 5) + ",\"comment\":\"Seeded review\"}"));
+            }
+        }
+        String token = tokens.get(0);
+        for (int movie = 1; movie <= FAVORITE_MOVIES; movie++) {
+            send(post(url("/favorites"), token, "{\"movieId\":" + movie + "}"));
+        }
+        return token;
+    }
+
+    private List<Scenario> scenarios(String token) {
+        return List.of(
+                new Scenario("GET /auth/test", "GET", "/auth/test", WARMUP, CALLS,
+                        i -> get(url("/auth/test"), null)),
+                new Scenario("POST /auth/register", "POST", "/auth/register", SLOW_WARMUP, SLOW_CALLS,
+                        i -> post(url("/auth/register"), null,
+                                "{\"username\":\"new" + i + "\",\"email\":\"new" + i + "@example.com\",\"password\":\"secret1\"}")),
+                new Scenario("GET /auth/available", "GET", "/auth/available", WARMUP, CALLS,
+                        i -> get(url("/auth/available?username=perf" + (i % USERS)), null)),
+                new Scenario("POST /auth/login", "POST", "/auth/login", SLOW_WARMUP, SLOW_CALLS,
+                        i -> post(url("/auth/login"), null, "{\"email\":\"perf0@example.com\",\"password\":\"secret1\"}")),
+                new Scenario("GET /auth/me", "GET", "/auth/me", WARMUP, CALLS,
+                        i -> get(url("/auth/me"), token)),
+                new Scenario("POST /auth/logout", "POST", "/auth/logout", WARMUP, CALLS,
+                        i -> post(url("/auth/logout"), jwtUtil.generateToken("perf1@example.com"), "")),
+                new Scenario("GET /reviews/movie/{movieId}", "GET", "/reviews/movie/{movieId}", WARMUP, CALLS,
+                        i -> get(url("/reviews/movie/1"), null)),
+                new Scenario("GET /reviews/movie/{movieId} gzip", "GET", "/reviews/movie/{movieId}", WARMUP, CALLS,
+                        i -> HttpRequest.newBuilder(URI.create(url("/reviews/movie/2"))).header("Accept-Encoding", "gzip").build()),
+                new Scenario("GET /reviews/movie/{movieId}/stats", "GET", "/reviews/movie/{movieId}/stats", WARMUP, CALLS,
+                        i -> get(url("/reviews/movie/1/stats"), null)),
+                new Scenario("GET /reviews/latest", "GET", "/reviews/latest", WARMUP, CALLS,
+                        i -> get(url("/reviews/latest?limit=20"), null)),
+                new Scenario("GET /reviews/user", "GET", "/reviews/user", WARMUP, CALLS,
+                        i -> get(url("/reviews/user"), token)),
+                new Scenario("GET /reviews/user?view=summary", "GET", "/reviews/user", WARMUP, CALLS,
+                        i -> get(url("/reviews/user?view=summary"), token)),
+                new Scenario("GET /reviews/user?fields=", "GET", "/reviews/user", WARMUP, CALLS,
+                        i -> get(url("/reviews/user?fields=movieId,rating"), token)),
+                new Scenario("GET /reviews/user?view=count", "GET", "/reviews/user", WARMUP, CALLS,
+                        i -> get(url("/reviews/user?view=count"), token)),
+                new Scenario("POST /reviews", "POST", "/reviews", WARMUP, CALLS,
+                        i -> post(url("/reviews"), token,
+                                "{\"movieId\":" + (CREATED_MOVIE_BASE + i) + ",\"rating\":4,\"comment\":\"Measured review\"}")),
+                new Scenario("DELETE /reviews/{id}", "DELETE", "/reviews/{id}", WARMUP, CALLS,
+                        i -> delete(url("/reviews/" + createdReviews.get(i)), token)),
+                new Scenario("GET /favorites", "GET", "/favorites", WARMUP, CALLS,
+                        i -> get(url("/favorites"), token)),
+                new Scenario("GET /favorites?expand=movie", "GET", "/favorites", WARMUP, CALLS,
+                        i -> get(url("/favorites?expand=movie"), token)),
+                new Scenario("GET /favorites?view=summary", "GET", "/favorites", WARMUP, CALLS,
+                        i -> get(url("/favorites?view=summary"), token)),
+                new Scenario("GET /favorites?fields=", "GET", "/favorites", WARMUP, CALLS,
+                        i -> get(url("/favorites?fields=movieId"), token)),
+                new Scenario("GET /favorites?view=count", "GET", "/favorites", WARMUP, CALLS,
+                        i -> get(url("/favorites?view=count"), token)),
+                new Scenario("GET /favorites/check/{movieId}", "GET", "/favorites/check/{movieId}", WARMUP, CALLS,
+                        i -> get(url("/favorites/check/7"), token)),
+                new Scenario("POST /favorites", "POST", "/favorites", WARMUP, CALLS,
+                        i -> post(url("/favorites"), token, "{\"movieId\":" + (CREATED_MOVIE_BASE + i) + "}")),
+                new Scenario("DELETE /favorites/{movieId}", "DELETE", "/favorites/{movieId}", WARMUP, CALLS,
+                        i -> delete(url("/favorites/" + (CREATED_MOVIE_BASE + i)), token)),
+                // The profile page's reads in one round trip; statements include the sub-requests'
+                new Scenario("POST /batch", "POST", "/batch", WARMUP, CALLS,
+                        i -> post(url("/batch"), token, "{\"requests\":[{\"path\":\"/auth/me\"},"
+                                + "{\"path\":\"/favorites\"},{\"path\":\"/reviews/user\"},"
+                                + "{\"path\":\"/favorites/check/7\"}]}")));
+    }
+
+    private Result measure(Scenario scenario) throws Exception {
+        DistributionSummary statements = registry.summary("request.sql.statements",
+                "method", scenario.method(), "uri", scenario.route());
+        DistributionSummary allocated = registry.summary("request.allocated.bytes",
+                "method", scenario.method(), "uri", scenario.route());
+        int maxStatements = 0;
+        double[] allocatedKb = new double[scenario.calls()];
+        double[] millis = new double[scenario.calls()];
+        for (int i = 0; i < scenario.warmup() + scenario.calls(); i++) {
+            long count = statements.count();
+            double statementsBefore = statements.totalAmount();
+            double allocatedBefore = allocated.totalAmount();
+            HttpRequest request = scenario.request().apply(i);
+            long started = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            double elapsedMs = (System.nanoTime() - started) / 1_000_000.0;
+            if (scenario.name().equals("POST /reviews")) {
+                createdReviews.add(json.readTree(response.body()).path("data").path("id").asLong());
+            }
+            // The filter records after the response may already be on its way; wait for it
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (statements.count() == count && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertTrue(statements.count() > count, "no request.sql.statements recorded");
+            int at = i - scenario.warmup();
+            if (at >= 0) {
+                maxStatements = Math.max(maxStatements, (int) (statements.totalAmount() - statementsBefore));
+                allocatedKb[at] = (allocated.totalAmount() - allocatedBefore) / 1024.0;
+                millis[at] = elapsedMs;
+            }
+        }
+        return new Result(scenario.name(), maxStatements, median(allocatedKb), median(millis));
+    }
+
+    /**
+     * Lines of "<endpoint> <statements> <allocated-kb> <median-ms>"; the endpoint may contain spaces
+     */
+    private static Map<String, Budget> read() throws IOException {
+        Map<String, Budget> budgets = new LinkedHashMap<>();
+        try (InputStream in = PerformanceBudgetTest.class.getClassLoader().getResourceAsStream(BUDGETS)) {
+            assertNotNull(in, BUDGETS + " not on the test classpath");
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = trimmed.split("\\s+");
+                String name = String.join(" ", Arrays.copyOf(fields, fields.length - 3));
+                budgets.put(name, new Budget(Integer.parseInt(fields[fields.length - 3]),
+                        Double.parseDouble(fields[fields.length - 2]), Double.parseDouble(fields[fields.length - 1])));
+            }
+        }
+        return budgets;
+    }
+
+    private static void write(List<Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Performance budgets per endpoint, checked by PerformanceBudgetTest (mvn test)");
+        lines.add("# statements: most SQL statements per call; allocated-kb: median request-thread allocation;");
+        lines.add("# median-ms: median client latency. Raise a budget only with a reason in the commit message.");
+        lines.add(String.format("%-38s %10s %13s %10s", "# endpoint", "statements", "allocated-kb", "median-ms"));
+        for (Result result : results) {
+            // Allocation and latency vary between runs and machines; statements do not
+            lines.add(String.format(Locale.ROOT, "%-38s %10d %13.0f %10.0f", result.name(), result.statements(),
+                    Math.ceil(result.allocatedKb() * 1.5 / 16) * 16, Math.max(10, Math.ceil(result.medianMs() * 4))));
+        }
+        Files.write(BUDGETS_SOURCE, lines);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private static HttpRequest get(String url, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        return authorized(builder, token).GET().build();
+    }
+
+    private static HttpRequest post(String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+        return authorized(builder, token).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static HttpRequest delete(String url, String token) {
+        return authorized(HttpRequest.newBuilder(URI.create(url)), token).DELETE().build();
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder builder, String token) {
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, request.method() + " " + request.uri() + " returned "
+                + response.statusCode() + ": " + response.body());
+        return response;
+    }
+
+    private static String token(HttpResponse<String> response) throws IOException {
+        return json.readTree(response.body()).path("data").path("token").asText();
+    }
+
+}
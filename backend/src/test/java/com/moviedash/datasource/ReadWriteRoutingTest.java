@@ -0,0 +1,214 @@
+package com.moviedash.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.TestApplications;
+import com.moviedash.analytics.MovieTotalsProjection;
+import com.moviedash.entity.MovieTotals;
+import com.moviedash.entity.OutboxEvent;
+import com.moviedash.entity.User;
+import com.moviedash.repository.MovieTotalsRepository;
+import com.moviedash.service.PublicReviewReads;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ReadWriteRoutingTest
+ *
+ * datasource.routing against two H2 file databases. The replica gets the schema from a first boot,
+ * then the users and reviews the primary does not have, so every read shows which database
+ * answered it. The routed boot also serves HTTP, for the sign-up flow.
+ */
+class ReadWriteRoutingTest {
+
+    private static final long WINDOW_MILLIS = 3000;
+    private static final long REPLICA_ONLY_REVIEWS = 5;
+    private static final int REPLICA_ONLY_MOVIE = 1001;
+
+    @TempDir
+    static Path work;
+
+    private static String replicaUrl;
+    private static int port;
+    private static ConfigurableApplicationContext context;
+    private static ReviewService reviewService;
+    private static User writer;
+    private static User other;
+
+    @BeforeAll
+    static void start() throws Exception {
+        String primaryUrl = "jdbc:h2:file:" + work.resolve("primary");
+        replicaUrl = "jdbc:h2:file:" + work.resolve("replica");
+        Path snapshot = work.resolve("snapshot.sql");
+        // Startup already reads through the routing, so the replica needs the schema first
+        TestApplications.start(primaryUrl).close();
+        try (Connection primary = DriverManager.getConnection(primaryUrl, "sa", "");
+             Statement statement = primary.createStatement()) {
+            statement.execute("SCRIPT NODATA TO '" + snapshot + "'");
+        }
+        try (Connection replica = DriverManager.getConnection(replicaUrl, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("RUNSCRIPT FROM '" + snapshot + "'");
+        }
+
+        context = TestApplications.start(primaryUrl,
+                "--datasource.routing.enabled=true",
+                "--datasource.routing.read-your-writes-window=" + WINDOW_MILLIS + "ms",
+                "--datasource.routing.replicas[0].url=" + replicaUrl,
+                "--datasource.routing.replicas[0].username=sa",
+                "--spring.main.web-application-type=servlet",
+                "--server.port=0");
+        port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        reviewService = context.getBean(ReviewService.class);
+        UserService userService = context.getBean(UserService.class);
+        writer = userService.register("writer", "writer@example.com", "password");
+        other = userService.register("other", "other@example.com", "password");
+
+        try (Connection replica = DriverManager.getConnection(replicaUrl, "sa", "")) {
+            try (PreparedStatement insert = replica.prepareStatement(
+                    "INSERT INTO users (id, username, email, password, created_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)")) {
+                for (User user : List.of(writer, other)) {
+                    insert.setLong(1, user.getId());
+                    insert.setString(2, user.getUsername());
+                    insert.setString(3, user.getEmail());
+                    insert.setString(4, user.getPassword());
+                    insert.executeUpdate();
+                }
+            }
+            try (PreparedStatement insert = replica.prepareStatement(
+                    "INSERT INTO reviews (user_id, movie_id, rating, comment, created_at) "
+                            + "VALUES (?, ?, 3, 'replica only', CURRENT_TIMESTAMP)")) {
+                for (User user : List.of(writer, other)) {
+                    for (int movieId = 1; movieId <= REPLICA_ONLY_REVIEWS; movieId++) {
+                        insert.setLong(1, user.getId());
+                        insert.setInt(2, REPLICA_ONLY_MOVIE - 1 + movieId);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void anonymousReadOnlyTransactionReadsTheReplica() {
+        assertEquals(REPLICA_ONLY_REVIEWS, reviewService.countUserReviews(other.getId()));
+    }
+
+    @Test
+    void readInsideReadWriteTransactionReadsThePrimary() {
+        TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Long count = readWrite.execute(status -> reviewService.countUserReviews(other.getId()));
+        assertEquals(0L, count);
+    }
+
+    @Test
+    void newUserCanUseTheirTokenAndLogInRightAway() throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ObjectMapper json = new ObjectMapper();
+        String credentials = "\"email\":\"newcomer@example.com\",\"password\":\"password\"";
+
+        HttpResponse<String> registered = http.send(HttpRequest.newBuilder(uri("/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"newcomer\"," + credentials + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, registered.statusCode(), registered.body());
+        String token = json.readTree(registered.body()).path("data").path("token").asText();
+
+        HttpResponse<String> me = http.send(HttpRequest.newBuilder(uri("/auth/me"))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, me.statusCode(), me.body());
+        assertEquals("newcomer", json.readTree(me.body()).path("data").path("username").asText());
+
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{" + credentials + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, login.statusCode(), login.body());
+    }
+
+    @Test
+    void movieTotalsAreRecountedFromThePrimary() {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEvent.Type.REVIEW_CREATED);
+        event.setMovieId(REPLICA_ONLY_MOVIE);
+        context.getBean(MovieTotalsProjection.class).accept(List.of(event));
+
+        TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        MovieTotals totals = readWrite.execute(status ->
+                context.getBean(MovieTotalsRepository.class).findById(REPLICA_ONLY_MOVIE).orElseThrow());
+        assertEquals(0L, totals.getReviewCount());
+    }
+
+    @Test
+    void writerReadsThePrimaryForTheReadYourWritesWindow() throws InterruptedException {
+        as(writer, () -> reviewService.createOrUpdateReview(writer, 550, 5, "written to the primary"));
+
+        assertEquals(1L, countAs(writer), "writer");
+        assertEquals(REPLICA_ONLY_REVIEWS, countAs(other), "other user");
+        assertEquals(REPLICA_ONLY_REVIEWS, reviewService.countUserReviews(writer.getId()), "anonymous caller");
+        PublicReviewReads publicReviewReads = context.getBean(PublicReviewReads.class);
+        assertEquals(0, publicReviewReads.getMovieReviews(550).value().size(), "public review list");
+        assertEquals(1, publicReviewReads.getMovieReviewsFromPrimary(550).value().size(),
+                "public review list for ReviewListCache");
+
+        Thread.sleep(WINDOW_MILLIS + 200);
+        assertEquals(REPLICA_ONLY_REVIEWS, countAs(writer),
+                "writer after the window");
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * The writer's reviews, read as the given user
+     */
+    private static long countAs(User caller) {
+        return as(caller, () -> reviewService.countUserReviews(writer.getId()));
+    }
+
+    /**
+     * Run as the given user, the way JwtAuthenticationFilter authenticates a request
+     */
+    private static <T> T as(User user, Supplier<T> action) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.moviedash.favorite;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FavoriteLogTest
+ *
+ * Recovery, chunked writes and compaction of the favorite log, reopening it from a temp directory
+ * after every scenario the way a restart would.
+ */
+class FavoriteLogTest {
+
+    private static final LocalDateTime ADDED_AT = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+    private static final int RECORD = FavoriteLog.RECORD_BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void favoritesSurviveReopen() throws IOException {
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            log.add(1, 10, ADDED_AT);
+            log.add(1, 11, ADDED_AT.plusSeconds(1));
+            log.add(2, 10, ADDED_AT);
+            assertNull(log.add(1, 10, ADDED_AT), "duplicate add");
+            assertTrue(log.remove(2, 10));
+            assertFalse(log.remove(2, 10), "second remove");
+        }
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            assertEquals(List.of(
+                    new FavoriteLog.Entry(1, 1, 10, ADDED_AT),
+                    new FavoriteLog.Entry(2, 1, 11, ADDED_AT.plusSeconds(1))), log.find(1));
+            assertEquals(0, log.count(2));
+            assertEquals(new FavoriteLog.Stats(4, 2, 1, 4L * RECORD, log.stats().recoveryMillis(), 0), log.stats());
+        }
+    }
+
+    @Test
+    void recoveryCutsATornTailAndNeverReplaysPastIt() throws IOException {
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            log.add(1, 10, ADDED_AT);
+            log.add(1, 11, ADDED_AT);
+            log.add(1, 12, ADDED_AT);
+        }
+        // A torn write of the second record: its checksum no longer matches
+        try (FileChannel file = FileChannel.open(logFile(), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[]{42}), RECORD + 30);
+        }
+
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            assertEquals(List.of(10), movies(log.find(1)));
+            assertEquals(RECORD, Files.size(logFile()), "file cut at the torn record");
+            assertEquals(2, log.add(1, 13, ADDED_AT).id(), "ids continue after the last good record");
+        }
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            assertEquals(List.of(10, 13), movies(log.find(1)), "record 12 must not come back");
+        }
+    }
+
+    @Test
+    void halfWrittenRecordAtTheEndIsDropped() throws IOException {
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            log.add(1, 10, ADDED_AT);
+        }
+        byte[] half = new byte[RECORD / 2];
+        half[4] = 1;
+        half[8] = 2;
+        try (FileChannel file = FileChannel.open(logFile(), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(half), RECORD);
+        }
+
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            assertEquals(List.of(10), movies(log.find(1)));
+            assertEquals(RECORD, Files.size(logFile()));
+        }
+    }
+
+    @Test
+    void writesAcrossManyChunksAreFlushedAndRecovered() throws IOException {
+        // Two records per chunk; flush() then has to force a previous chunk, or several at once
+        try (FavoriteLog log = open(FavoriteLog.Durability.INTERVAL, 2 * RECORD)) {
+            for (int movie = 1; movie <= 3; movie++) {
+                log.add(1, movie, ADDED_AT);
+            }
+            log.flush();
+            for (int movie = 4; movie <= 11; movie++) {
+                log.add(1, movie, ADDED_AT);
+            }
+            log.flush();
+            log.add(1, 12, ADDED_AT);
+            log.flush();
+        }
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 2 * RECORD)) {
+            assertEquals(12, log.count(1));
+            assertEquals(13, log.add(1, 13, ADDED_AT).id());
+        }
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 2 * RECORD)) {
+            assertEquals(13, log.count(1));
+        }
+    }
+
+    @Test
+    void idsAreNotReusedAfterCompaction() throws IOException {
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            log.add(1, 10, ADDED_AT);
+            log.add(1, 11, ADDED_AT);
+            log.remove(1, 11);
+            log.compact();
+            assertEquals(1, log.stats().compactions());
+            assertEquals(2, log.stats().records(), "one live favorite and the sequence marker");
+        }
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 1 << 16)) {
+            assertEquals(List.of(10), movies(log.find(1)));
+            assertEquals(1, log.stats().live());
+            assertEquals(4, log.add(1, 12, ADDED_AT).id(), "ids 2 and 3 were already used");
+        }
+    }
+
+    @Test
+    void compactionKeepsWritesMadeWhileItRuns() throws Exception {
+        Map<Long, List<FavoriteLog.Entry>> expected = new HashMap<>();
+        try (FavoriteLog log = open(FavoriteLog.Durability.INTERVAL, 64 * RECORD)) {
+            for (long user = 1; user <= 50; user++) {
+                for (int movie = 1; movie <= 40; movie++) {
+                    log.add(user, movie, ADDED_AT);
+                }
+                for (int movie = 1; movie <= 30; movie++) {
+                    log.remove(user, movie);
+                }
+            }
+            assertTrue(log.compactIfNeeded(0.5, 100));
+            assertEquals(50 * 10 + 1, log.stats().records(), "live favorites plus the sequence marker");
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread writer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (running.get()) {
+                        long user = random.nextLong(1, 51);
+                        int movie = random.nextInt(1, 61);
+                        if (log.add(user, movie, ADDED_AT) == null) {
+                            log.remove(user, movie);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            writer.start();
+            for (int i = 0; i < 20; i++) {
+                log.compact();
+            }
+            running.set(false);
+            writer.join();
+            assertNull(failure.get());
+
+            FavoriteLog.Stats stats = log.stats();
+            assertEquals(21, stats.compactions());
+            for (long user = 1; user <= 50; user++) {
+                expected.put(user, log.find(user));
+            }
+        }
+        assertFalse(Files.exists(dir.resolve(FavoriteLog.FILE_NAME + ".compact")));
+        try (FavoriteLog log = open(FavoriteLog.Durability.ALWAYS, 64 * RECORD)) {
+            for (long user = 1; user <= 50; user++) {
+                assertEquals(expected.get(user), log.find(user), "user " + user);
+            }
+            FavoriteLog.Entry added = log.add(1, 1000, ADDED_AT);
+            assertNotNull(added);
+            long maxId = expected.values().stream().flatMap(List::stream)
+                    .mapToLong(FavoriteLog.Entry::id).max().orElse(0);
+            assertTrue(added.id() > maxId, "new id " + added.id() + " after " + maxId);
+        }
+    }
+
+    private FavoriteLog open(FavoriteLog.Durability durability, long chunkBytes) throws IOException {
+        return FavoriteLog.open(dir, new FavoriteLog.Options(durability, Duration.ofHours(1), chunkBytes));
+    }
+
+    private Path logFile() {
+        return dir.resolve(FavoriteLog.FILE_NAME);
+    }
+
+    private static List<Integer> movies(List<FavoriteLog.Entry> entries) {
+        return entries.stream().map(FavoriteLog.Entry::movieId).toList();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.moviedash.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.config.ConcurrencyLimitProperties;
+import com.moviedash.security.JwtUtil;
+import com.moviedash.service.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ConcurrencyLimitFilterTest
+ *
+ * Which answers shrink the adaptive limit: server faults do, the application's own 503s do not.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private static final int INITIAL_LIMIT = 100;
+
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(INITIAL_LIMIT);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(properties, mock(JwtUtil.class), mock(TokenRevocationService.class),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void serverFaultShrinksTheLimit() throws Exception {
+        call(500);
+        assertTrue(limit() < INITIAL_LIMIT, "limit after a 500: " + limit());
+    }
+
+    @Test
+    void gatewayTimeoutShrinksTheLimit() throws Exception {
+        call(504);
+        assertTrue(limit() < INITIAL_LIMIT, "limit after a 504: " + limit());
+    }
+
+    @Test
+    void applicationBackpressureDoesNotShrinkTheLimit() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            call(503);
+        }
+        assertEquals(INITIAL_LIMIT, limit());
+    }
+
+    @Test
+    void exceptionShrinksTheLimit() {
+        FilterChain chain = (request, response) -> {
+            throw new IllegalStateException("handler failed");
+        };
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/reviews/user"), new MockHttpServletResponse(), chain);
+        } catch (Exception expected) {
+            // Propagated to the container, which answers 500
+        }
+        assertTrue(limit() < INITIAL_LIMIT, "limit after an exception: " + limit());
+    }
+
+    private void call(int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/reviews/user"), response,
+                (req, res) -> response.setStatus(status));
+        assertEquals(status, response.getStatus());
+    }
+
+    private double limit() {
+        return meterRegistry.get("limiter.limit").gauge().value();
+    }
+
+}
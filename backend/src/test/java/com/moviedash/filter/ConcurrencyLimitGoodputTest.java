@@ -0,0 +1,157 @@
+package com.moviedash.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ConcurrencyLimitGoodputTest
+ *
+ * Drives GET /reviews/user past saturation: Tomcat takes far more requests than the limiter admits,
+ * so the excess reaches ConcurrencyLimitFilter. Every shed request must be a 503 with Retry-After,
+ * and goodput (200s within the latency target per second) under that overload must stay close to
+ * goodput with fewer clients than the limit. Clients wait the Retry-After they are given, the way
+ * a well-behaved client does.
+ *
+ * A wall-clock load test of about half a minute whose thresholds assume an otherwise idle machine,
+ * so it is tagged load and runs only with mvn test -Pload.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:limiter-goodput;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.moviedash=WARN",
+        "server.tomcat.threads.max=64",
+        "limiter.initial-limit=4",
+        "limiter.min-limit=2",
+        "limiter.max-limit=8",
+        "limiter.latency-target=250ms",
+        "limiter.retry-after-seconds=1"})
+class ConcurrencyLimitGoodputTest {
+
+    private static final Duration RUN = Duration.ofSeconds(4);
+    private static final long LATENCY_TARGET_NANOS = Duration.ofMillis(250).toNanos();
+    private static final int UNDER_LIMIT_CLIENTS = 2;
+    private static final int OVERLOAD_CLIENTS = 48;
+
+    private static final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    private String token;
+
+    record Run(double goodput, long good, long rejected, long rejectedWithoutRetryAfter, ConcurrentHashMap<Integer, AtomicLong> statuses) {
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        String name = "goodput" + System.nanoTime();
+        HttpResponse<String> registered = http.send(HttpRequest.newBuilder(uri("/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + name + "\",\"email\":\"" + name
+                        + "@example.com\",\"password\":\"secret1\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, registered.statusCode(), registered.body());
+        token = json.readTree(registered.body()).path("data").path("token").asText();
+        for (int movie = 1; movie <= 20; movie++) {
+            http.send(HttpRequest.newBuilder(uri("/reviews"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"movieId\":" + movie + ",\"rating\":4,\"comment\":\"Seeded\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    @Test
+    void overloadIsShedWithRetryAfterWhileGoodputHolds() throws Exception {
+        run(UNDER_LIMIT_CLIENTS, Duration.ofSeconds(2));
+        Run underLimit = run(UNDER_LIMIT_CLIENTS, RUN);
+        Run overload = run(OVERLOAD_CLIENTS, RUN);
+
+        assertEquals(0, underLimit.rejected(), "shed under the limit: " + underLimit);
+        assertTrue(overload.rejected() > 0, "nothing shed under overload: " + overload);
+        assertEquals(0, overload.rejectedWithoutRetryAfter(), "503 without Retry-After: " + overload);
+        assertEquals(Set.of(200, 503), overload.statuses().keySet(), "statuses under overload");
+        assertTrue(overload.goodput() >= underLimit.goodput() * 0.5,
+                String.format("goodput fell from %.0f/s under the limit to %.0f/s under overload", underLimit.goodput(), overload.goodput()));
+    }
+
+    /**
+     * Closed-loop clients that send the next request as soon as the last one is answered
+     */
+    private Run run(int clients, Duration duration) throws InterruptedException {
+        AtomicLong good = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong withoutRetryAfter = new AtomicLong();
+        ConcurrentHashMap<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        HttpRequest request = HttpRequest.newBuilder(uri("/reviews/user"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        long end = System.nanoTime() + duration.toNanos();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Thread client = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    long started = System.nanoTime();
+                    HttpResponse<Void> response;
+                    try {
+                        response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        statuses.computeIfAbsent(-1, status -> new AtomicLong()).incrementAndGet();
+                        continue;
+                    }
+                    long latency = System.nanoTime() - started;
+                    statuses.computeIfAbsent(response.statusCode(), status -> new AtomicLong()).incrementAndGet();
+                    if (response.statusCode() == 200 && latency <= LATENCY_TARGET_NANOS) {
+                        good.incrementAndGet();
+                    } else if (response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                        Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+                        if (retryAfter.isEmpty()) {
+                            withoutRetryAfter.incrementAndGet();
+                            continue;
+                        }
+                        try {
+                            Thread.sleep(Long.parseLong(retryAfter.get()) * 1000);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            }, "client-" + c);
+            client.start();
+            threads.add(client);
+        }
+        for (Thread client : threads) {
+            client.join();
+        }
+        return new Run(good.get() / (duration.toNanos() / 1e9), good.get(), rejected.get(), withoutRetryAfter.get(), statuses);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,303 @@
+package com.moviedash.review;
+
+import com.moviedash.config.ReviewGroupCommitProperties;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.entity.Review;
+import com.moviedash.entity.User;
+import com.moviedash.event.ReviewChangedEvent;
+import com.moviedash.repository.ReviewRepository;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import com.moviedash.shard.ShardTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GroupCommitReviewWriterTest
+ *
+ * POST /reviews through the group-commit writer. One writer thread, so every submission goes to the
+ * same queue; to put several submissions in one batch in a known order, a write to GATE_MOVIE holds
+ * the writer inside its batch (in the event listener) while the others are queued behind it.
+ * Events are recorded after commit, as the real listeners see them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.com.moviedash=ERROR",
+        "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+        "reviews.group-commit.enabled=true",
+        "reviews.group-commit.writers=1",
+        "reviews.group-commit.max-batch=100",
+        "reviews.group-commit.max-delay=20ms",
+        "reviews.group-commit.timeout=10s"})
+class GroupCommitReviewWriterTest {
+
+    private static final int GATE_MOVIE = 999_999;
+    private static final int MOVIE_ID = 550;
+
+    private static final ExecutorService clients = Executors.newCachedThreadPool();
+    private static final AtomicInteger users = new AtomicInteger();
+
+    @Autowired
+    private GroupCommitReviewWriter writer;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private ReviewGroupCommitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Events events;
+
+    @TestConfiguration
+    static class Listeners {
+        @Bean
+        Events events() {
+            return new Events();
+        }
+    }
+
+    static class Events {
+        final ConcurrentLinkedQueue<ReviewChangedEvent> committed = new ConcurrentLinkedQueue<>();
+        volatile CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        @EventListener
+        void published(ReviewChangedEvent event) throws InterruptedException {
+            if (event.getMovieId() == GATE_MOVIE) {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+        }
+
+        @TransactionalEventListener
+        void committed(ReviewChangedEvent event) {
+            committed.add(event);
+        }
+
+        List<ReviewChangedEvent> of(User user) {
+            return committed.stream().filter(event -> event.getUserId().equals(user.getId())).toList();
+        }
+    }
+
+    @BeforeEach
+    void openGate() {
+        events.release.countDown();
+    }
+
+    @AfterAll
+    static void stopClients() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void oneBatchAppliesAUsersWritesInOrderAndTheLastOneWins() {
+        User user = newUser();
+        holdWriter();
+        List<CompletableFuture<ReviewResponse>> responses = new ArrayList<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            responses.add(submit(user, MOVIE_ID, rating, "take " + rating));
+            awaitQueued(rating);
+        }
+        releaseWriter();
+
+        Long reviewId = responses.get(0).join().getId();
+        for (int i = 0; i < responses.size(); i++) {
+            ReviewResponse response = responses.get(i).join();
+            assertEquals(reviewId, response.getId());
+            assertEquals(i + 1, response.getRating(), "each request gets its own write back");
+            assertEquals("take " + (i + 1), response.getComment());
+        }
+        assertTrue(meterRegistry.get("reviews.group-commit.batch.size").summary().max() >= 5, "the five writes shared a batch");
+
+        List<ReviewChangedEvent> changes = events.of(user);
+        assertEquals(List.of(1, 2, 3, 4, 5), changes.stream().map(event -> event.getReview().getRating()).toList());
+        assertEquals(ReviewChangedEvent.Type.CREATED, changes.get(0).getType());
+        assertTrue(changes.stream().skip(1).allMatch(event -> event.getType() == ReviewChangedEvent.Type.UPDATED));
+
+        Review saved = reviewRepository.findByUserIdAndMovieId(user.getId(), MOVIE_ID).orElseThrow();
+        assertEquals(5, saved.getRating());
+        assertEquals("take 5", saved.getComment());
+    }
+
+    @Test
+    void concurrentWritesToTheSamePairLeaveOneRowWithTheLastWrite() {
+        User user = newUser();
+        int threads = 8;
+        int writesPerThread = 5;
+        List<CompletableFuture<List<ReviewResponse>>> clientsDone = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int client = t;
+            clientsDone.add(CompletableFuture.supplyAsync(() -> {
+                List<ReviewResponse> responses = new ArrayList<>();
+                for (int i = 0; i < writesPerThread; i++) {
+                    int rating = (client + i) % 5 + 1;
+                    responses.add(writer.createOrUpdateReview(user, MOVIE_ID, rating, client + "-" + i));
+                }
+                return responses;
+            }, clients));
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (int t = 0; t < threads; t++) {
+            List<ReviewResponse> responses = clientsDone.get(t).join();
+            for (int i = 0; i < writesPerThread; i++) {
+                assertEquals(t + "-" + i, responses.get(i).getComment());
+                assertEquals((t + i) % 5 + 1, responses.get(i).getRating());
+                ids.add(responses.get(i).getId());
+            }
+        }
+        assertEquals(1, ids.size(), "every write hit the same review");
+        assertEquals(1, reviewRepository.findKeysByUserIdInAndMovieIdIn(Set.of(user.getId()), Set.of(MOVIE_ID)).size());
+
+        List<ReviewChangedEvent> changes = events.of(user);
+        assertEquals(threads * writesPerThread, changes.size());
+        assertEquals(ReviewChangedEvent.Type.CREATED, changes.get(0).getType());
+        assertTrue(changes.stream().skip(1).allMatch(event -> event.getType() == ReviewChangedEvent.Type.UPDATED));
+        for (int t = 0; t < threads; t++) {
+            String client = t + "-";
+            List<String> own = changes.stream().map(event -> event.getReview().getComment())
+                    .filter(comment -> comment.startsWith(client)).toList();
+            assertEquals(List.of(client + 0, client + 1, client + 2, client + 3, client + 4), own,
+                    "a client's writes are applied in the order it made them");
+        }
+
+        ReviewResponse last = changes.get(changes.size() - 1).getReview();
+        Review saved = reviewRepository.findByUserIdAndMovieId(user.getId(), MOVIE_ID).orElseThrow();
+        assertEquals(last.getRating(), saved.getRating());
+        assertEquals(last.getComment(), saved.getComment());
+    }
+
+    @Test
+    void aFailedBatchIsRetriedOneSubmissionAtATime() {
+        User first = newUser();
+        User second = newUser();
+        double fallbacks = meterRegistry.get("reviews.group-commit.fallbacks").counter().count();
+        holdWriter();
+        CompletableFuture<ReviewResponse> good = submit(first, MOVIE_ID, 4, "good");
+        awaitQueued(1);
+        CompletableFuture<ReviewResponse> bad = submit(first, MOVIE_ID + 1, null, "no rating");
+        awaitQueued(2);
+        CompletableFuture<ReviewResponse> other = submit(second, MOVIE_ID, 2, "other");
+        awaitQueued(3);
+        releaseWriter();
+
+        assertEquals(4, good.join().getRating());
+        assertEquals(2, other.join().getRating());
+        CompletionException failure = assertThrows(CompletionException.class, bad::join);
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        assertEquals(fallbacks + 1, meterRegistry.get("reviews.group-commit.fallbacks").counter().count());
+
+        // The failed batch's writes were rolled back, so each saved review has one event
+        assertEquals(List.of("good"), events.of(first).stream().map(event -> event.getReview().getComment()).toList());
+        assertEquals(List.of("other"), events.of(second).stream().map(event -> event.getReview().getComment()).toList());
+        assertTrue(reviewRepository.findByUserIdAndMovieId(first.getId(), MOVIE_ID + 1).isEmpty());
+    }
+
+    @Test
+    void submissionsAreRejectedAfterStop() throws InterruptedException {
+        GroupCommitReviewWriter stopping =
+                new GroupCommitReviewWriter(reviewService, shardTemplate, properties, new SimpleMeterRegistry());
+        stopping.start();
+        User user = newUser();
+        assertEquals(3, stopping.createOrUpdateReview(user, MOVIE_ID, 3, "before stop").getRating());
+
+        stopping.stop();
+
+        assertThrows(ReviewWriterBusyException.class,
+                () -> stopping.createOrUpdateReview(user, MOVIE_ID, 1, "after stop"));
+        assertEquals(3, reviewRepository.findByUserIdAndMovieId(user.getId(), MOVIE_ID).orElseThrow().getRating());
+    }
+
+    private User newUser() {
+        int n = users.incrementAndGet();
+        return userService.register("writer" + n, "writer" + n + "@example.com", "password");
+    }
+
+    private CompletableFuture<ReviewResponse> submit(User user, int movieId, Integer rating, String comment) {
+        return CompletableFuture.supplyAsync(() -> writer.createOrUpdateReview(user, movieId, rating, comment), clients);
+    }
+
+    /**
+     * Start a batch that blocks in its event listener until releaseWriter()
+     */
+    private void holdWriter() {
+        events.entered = new CountDownLatch(1);
+        events.release = new CountDownLatch(1);
+        submit(newUser(), GATE_MOVIE, 5, "gate");
+        await(events.entered);
+    }
+
+    private void releaseWriter() {
+        events.release.countDown();
+    }
+
+    private void awaitQueued(int submissions) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("reviews.group-commit.queue").gauge().value() < submissions) {
+            assertTrue(System.nanoTime() < deadline, "submission " + submissions + " was not queued");
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "writer did not reach the gate");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
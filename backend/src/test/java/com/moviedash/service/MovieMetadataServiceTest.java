@@ -0,0 +1,243 @@
+package com.moviedash.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.entity.MovieMetadata;
+import com.moviedash.entity.User;
+import com.moviedash.repository.MovieMetadataRepository;
+import com.moviedash.repository.UserRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * MovieMetadataServiceTest
+ *
+ * The movie_metadata store against a local TMDb stub (tmdb.base-url): prefetch after POST /favorites,
+ * GET /favorites?expand=movie giving up after tmdb.expand-timeout while the fetch completes in the
+ * background, TMDb 404s remembered, and the refresh of rows older than tmdb.refresh-after.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:movie-metadata;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.moviedash=WARN",
+        "tmdb.api-key=stub",
+        "tmdb.expand-timeout=500ms",
+        "tmdb.refresh-after=7d"})
+class MovieMetadataServiceTest {
+
+    /** IDs from here on answer after SLOW_MILLIS, well past tmdb.expand-timeout */
+    private static final int SLOW_FROM = 900;
+    private static final long SLOW_MILLIS = 2000;
+    /** Every MISSING_EVERY-th ID answers 404 */
+    private static final int MISSING_EVERY = 13;
+
+    private static final HttpServer stub = startStub();
+    private static final Map<Integer, AtomicInteger> stubRequests = new ConcurrentHashMap<>();
+    private static volatile String titlePrefix = "Stub Movie";
+
+    private static final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MovieMetadataService movieMetadataService;
+
+    @Autowired
+    private MovieMetadataRepository movieMetadataRepository;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+    private User user;
+
+    @DynamicPropertySource
+    static void tmdb(DynamicPropertyRegistry registry) {
+        registry.add("tmdb.base-url", () -> "http://localhost:" + stub.getAddress().getPort() + "/3");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @BeforeEach
+    void register() throws Exception {
+        String name = "tmdb" + System.nanoTime();
+        HttpResponse<String> registered = send(HttpRequest.newBuilder(uri("/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + name + "\",\"email\":\"" + name
+                        + "@example.com\",\"password\":\"secret1\"}")));
+        token = json.readTree(registered.body()).path("data").path("token").asText();
+        user = userRepository.findByEmail(name + "@example.com").orElseThrow();
+    }
+
+    @Test
+    void addingAFavoritePrefetchesItsMetadata() throws Exception {
+        send(authorized("/favorites").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"movieId\":11}")));
+
+        await("metadata of movie 11 stored", () -> movieMetadataRepository.existsById(11));
+        JsonNode favorite = favorites().get(0);
+        assertEquals("Stub Movie 11", favorite.path("movie").path("title").asText());
+        assertEquals(1, requestsFor(11), "TMDb requests for movie 11");
+    }
+
+    @Test
+    void expandGivesUpAfterTheTimeoutAndTheFetchCompletesInTheBackground() throws Exception {
+        int slow = SLOW_FROM + 1;
+        favoriteService.addFavorite(user, slow);
+
+        long started = System.nanoTime();
+        JsonNode favorite = favorites().get(0);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertTrue(favorite.path("movie").isNull(), "movie before TMDb answered: " + favorite);
+        assertTrue(elapsedMillis < SLOW_MILLIS, "expand waited " + elapsedMillis + " ms");
+
+        await("metadata of movie " + slow + " stored", () -> movieMetadataRepository.existsById(slow));
+        assertEquals("Stub Movie " + slow, favorites().get(0).path("movie").path("title").asText());
+        assertEquals(1, requestsFor(slow), "TMDb requests for movie " + slow);
+    }
+
+    @Test
+    void moviesTmdbDoesNotKnowAreNotAskedForAgain() throws Exception {
+        int missing = MISSING_EVERY * 3;
+        favoriteService.addFavorite(user, missing);
+
+        assertTrue(favorites().get(0).path("movie").isNull());
+        assertTrue(favorites().get(0).path("movie").isNull());
+        assertEquals(1, requestsFor(missing), "TMDb requests for movie " + missing);
+    }
+
+    @Test
+    void refreshRefetchesRowsOlderThanRefreshAfter() throws Exception {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        movieMetadataRepository.save(new MovieMetadata(21, "Old Title 21", null, null, null, null, old));
+        movieMetadataRepository.save(new MovieMetadata(22, "Fresh Title 22", null, null, null, null, LocalDateTime.now()));
+        titlePrefix = "Renamed Movie";
+        try {
+            movieMetadataService.refreshStale();
+            await("movie 21 refreshed",
+                    () -> movieMetadataRepository.findById(21).map(m -> m.getTitle().equals("Renamed Movie 21")).orElse(false));
+        } finally {
+            titlePrefix = "Stub Movie";
+        }
+        assertTrue(movieMetadataRepository.findById(21).orElseThrow().getFetchedAt().isAfter(old));
+        assertEquals("Fresh Title 22", movieMetadataRepository.findById(22).orElseThrow().getTitle());
+        assertEquals(0, requestsFor(22), "TMDb requests for the fresh movie 22");
+    }
+
+    private JsonNode favorites() throws IOException, InterruptedException {
+        return json.readTree(send(authorized("/favorites?expand=movie").GET()).body()).path("data");
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, response.statusCode() + ": " + response.body());
+        return response;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int requestsFor(int movieId) {
+        AtomicInteger requests = stubRequests.get(movieId);
+        return requests == null ? 0 : requests.get();
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("timed out waiting for " + what);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * GET /3/movie/{id} with synthetic details; slow from SLOW_FROM on, 404 for every MISSING_EVERY-th ID
+     */
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/3/movie/", MovieMetadataServiceTest::movie);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void movie(HttpExchange exchange) throws IOException {
+        int id = Integer.parseInt(exchange.getRequestURI().getPath().substring("/3/movie/".length()));
+        stubRequests.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+        if (id >= SLOW_FROM) {
+            try {
+                Thread.sleep(SLOW_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (id % MISSING_EVERY == 0) {
+            respond(exchange, 404, "{\"success\":false,\"status_code\":34}");
+            return;
+        }
+        respond(exchange, 200, String.format(Locale.ROOT,
+                "{\"id\":%d,\"title\":\"%s %d\",\"poster_path\":\"/stub%d.jpg\",\"release_date\":\"2001-05-%02d\","
+                        + "\"genres\":[{\"id\":18,\"name\":\"Drama\"}],\"vote_average\":%.1f}",
+                id, titlePrefix, id, id, 1 + id % 28, (id % 100) / 10.0));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
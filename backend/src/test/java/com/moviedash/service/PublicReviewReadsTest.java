@@ -0,0 +1,242 @@
+package com.moviedash.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviedash.resilience.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PublicReviewReadsTest
+ *
+ * Stale-on-error serving of GET /reviews/movie/{movieId} with a fault injected into the database:
+ * every statement on the reviews table is delayed past public-reads.slow-call-duration (SLOW) or
+ * fails (FAIL) while the fault is on. Other statements (users, outbox, token sync) are untouched.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:public-reads;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "request-logging.enabled=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.moviedash=ERROR",
+        "limiter.enabled=false",
+        "public-reads.enabled=true",
+        "public-reads.window-size=10",
+        "public-reads.minimum-calls=4",
+        "public-reads.failure-rate-threshold=0.5",
+        "public-reads.slow-call-duration=300ms",
+        "public-reads.slow-call-rate-threshold=0.5",
+        "public-reads.open-duration=1s",
+        "public-reads.half-open-probes=1"})
+class PublicReviewReadsTest {
+
+    /** public-reads.window-size: the breaker opens within this many faulty reads */
+    private static final int WINDOW_SIZE = 10;
+    private static final long SLOW_MILLIS = 600;
+    private static final int MOVIES = 5;
+    private static final Pattern REVIEWS_TABLE = Pattern.compile("\\breviews\\b", Pattern.CASE_INSENSITIVE);
+
+    enum Fault { NONE, SLOW, FAIL }
+
+    private static volatile Fault fault = Fault.NONE;
+    /** Statements on the reviews table prepared so far */
+    private static final AtomicInteger reviewStatements = new AtomicInteger();
+
+    private static final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PublicReviewReads publicReviewReads;
+
+    private static boolean seeded;
+
+    @TestConfiguration
+    static class FaultInjection {
+
+        @Bean
+        static BeanPostProcessor faultInjectingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            ? faultInjecting(dataSource) : bean;
+                }
+            };
+        }
+
+    }
+
+    @BeforeEach
+    void healthyAndClosed() throws Exception {
+        fault = Fault.NONE;
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (publicReviewReads.getBreakerState() != CircuitBreaker.State.CLOSED && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            read(1);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, publicReviewReads.getBreakerState());
+        // Every movie is read once while healthy, so each has a stale copy
+        for (int movie = 1; movie <= MOVIES; movie++) {
+            assertTrue(read(movie).headers().firstValue("Warning").isEmpty());
+        }
+    }
+
+    @Test
+    void failedReadIsAnsweredWithTheStaleCopy() throws Exception {
+        JsonNode fresh = json.readTree(read(2).body()).path("data");
+
+        fault = Fault.FAIL;
+        HttpResponse<String> stale = read(2);
+
+        assertEquals(200, stale.statusCode());
+        assertTrue(stale.headers().firstValue("Warning").orElse("").startsWith("110 "), "Warning: " + stale.headers());
+        assertTrue(Long.parseLong(stale.headers().firstValue("Age").orElseThrow()) >= 0);
+        assertEquals(fresh, json.readTree(stale.body()).path("data"));
+    }
+
+    @Test
+    void openBreakerServesStaleWithoutCallingTheDatabase() throws Exception {
+        fault = Fault.FAIL;
+        for (int i = 0; i < WINDOW_SIZE && publicReviewReads.getBreakerState() == CircuitBreaker.State.CLOSED; i++) {
+            assertEquals(200, read(1 + i % MOVIES).statusCode());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, publicReviewReads.getBreakerState());
+
+        int before = reviewStatements.get();
+        for (int movie = 1; movie <= MOVIES; movie++) {
+            HttpResponse<String> stale = read(movie);
+            assertEquals(200, stale.statusCode());
+            assertTrue(stale.headers().firstValue("Warning").isPresent());
+        }
+        assertEquals(before, reviewStatements.get(), "statements on the reviews table while open");
+
+        // Nothing stale to serve for a movie never read
+        HttpResponse<String> unavailable = read(999);
+        assertEquals(503, unavailable.statusCode());
+        assertTrue(unavailable.headers().firstValue("Retry-After").isPresent());
+        assertEquals(before, reviewStatements.get());
+    }
+
+    @Test
+    void slowDatabaseOpensTheBreakerAndStaleAnswersAreFast() throws Exception {
+        fault = Fault.SLOW;
+        for (int i = 0; i < WINDOW_SIZE && publicReviewReads.getBreakerState() == CircuitBreaker.State.CLOSED; i++) {
+            HttpResponse<String> slow = read(1 + i % MOVIES);
+            assertEquals(200, slow.statusCode());
+            assertTrue(slow.headers().firstValue("Warning").isEmpty(), "slow but successful reads are fresh");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, publicReviewReads.getBreakerState());
+
+        long started = System.nanoTime();
+        HttpResponse<String> stale = read(3);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertTrue(stale.headers().firstValue("Warning").isPresent());
+        assertTrue(elapsedMillis < SLOW_MILLIS, "stale answer took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void breakerClosesAgainOnceTheDatabaseRecovers() throws Exception {
+        fault = Fault.FAIL;
+        for (int i = 0; i < WINDOW_SIZE && publicReviewReads.getBreakerState() == CircuitBreaker.State.CLOSED; i++) {
+            read(1 + i % MOVIES);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, publicReviewReads.getBreakerState());
+
+        fault = Fault.NONE;
+        Thread.sleep(1200);
+        HttpResponse<String> probe = read(4);
+        assertFalse(probe.headers().firstValue("Warning").isPresent(), "probe after open-duration reads the database");
+        assertEquals(CircuitBreaker.State.CLOSED, publicReviewReads.getBreakerState());
+    }
+
+    private void seed() throws Exception {
+        HttpResponse<String> registered = http.send(HttpRequest.newBuilder(uri("/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"stale\",\"email\":\"stale@example.com\",\"password\":\"secret1\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String token = json.readTree(registered.body()).path("data").path("token").asText();
+        for (int movie = 1; movie <= MOVIES; movie++) {
+            http.send(HttpRequest.newBuilder(uri("/reviews"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"movieId\":" + movie + ",\"rating\":4,\"comment\":\"Seeded\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    /**
+     * Identity encoding, so the read goes through PublicReviewReads and not the gzip cache
+     */
+    private HttpResponse<String> read(int movieId) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(uri("/reviews/movie/" + movieId)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static DataSource faultInjecting(DataSource dataSource) {
+        ClassLoader loader = PublicReviewReadsTest.class.getClassLoader();
+        return (DataSource) Proxy.newProxyInstance(loader, new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            if (!(result instanceof Connection connection)) {
+                return result;
+            }
+            return Proxy.newProxyInstance(loader, new Class<?>[]{Connection.class}, (p, m, a) -> {
+                if (m.getName().startsWith("prepare") && a != null && a[0] instanceof String sql
+                        && REVIEWS_TABLE.matcher(sql).find()) {
+                    reviewStatements.incrementAndGet();
+                    Fault current = fault;
+                    if (current != Fault.NONE) {
+                        Thread.sleep(current == Fault.SLOW ? SLOW_MILLIS : 0);
+                        if (current == Fault.FAIL) {
+                            throw new SQLTransientConnectionException("Injected failure");
+                        }
+                    }
+                }
+                return invoke(connection, m, a);
+            });
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.moviedash.shard;
+
+import com.moviedash.TestApplications;
+import com.moviedash.dto.response.ShardStatusResponse;
+import com.moviedash.entity.User;
+import com.moviedash.repository.UserRepository;
+import com.moviedash.service.FavoriteService;
+import com.moviedash.service.ReviewService;
+import com.moviedash.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ShardRebalanceTest
+ *
+ * A rebalance over H2 file databases. Seeds users with reviews and favorites on shard 0 plus one more
+ * shard, then boots again with more shards configured (their schema is created at startup) and
+ * rebalances onto them while writers keep adding reviews: single-user writes for any user, and
+ * batches of several users (createOrUpdateReviews) for users who stay on their shard, which take
+ * several lock stripes at once. Afterwards every database is read directly:
+ * - Reviews = seeded + written during the rebalance; favorites = seeded
+ * - No favorite or review is on two shards, and every one is on its user's shard
+ * - Every seeded row still exists with the same ID, user, movie and rating
+ * - The new shards received rows, and counts read through the application match
+ */
+class ShardRebalanceTest {
+
+    private static final int USERS = 60;
+    private static final int ADDED_SHARDS = 3;
+    private static final int WRITERS = 4;
+    private static final int FIRST_WRITTEN_MOVIE = 100_000;
+
+    @TempDir
+    Path work;
+
+    @Test
+    void rebalanceUnderWritesKeepsEveryRowOnItsUsersShard() throws Exception {
+        List<String> urls = new ArrayList<>();
+        for (int shard = 0; shard <= 1 + ADDED_SHARDS; shard++) {
+            urls.add("jdbc:h2:file:" + work.resolve("shard" + shard) + ";DB_CLOSE_ON_EXIT=FALSE");
+        }
+        ConfigurableApplicationContext seeding = start(urls.subList(0, 2));
+        try {
+            seed(seeding, USERS);
+        } finally {
+            seeding.close();
+        }
+        Map<String, Set<String>> seeded = rows(urls.subList(0, 2));
+
+        ConfigurableApplicationContext context = start(urls);
+        try {
+            rebalance(context, urls, seeded);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int users) {
+        UserService userService = context.getBean(UserService.class);
+        ReviewService reviewService = context.getBean(ReviewService.class);
+        FavoriteService favoriteService = context.getBean(FavoriteService.class);
+        for (int u = 0; u < users; u++) {
+            User user = userService.register("user" + u, "user" + u + "@example.com", "secret1");
+            List<ReviewService.ReviewWrite> writes = new ArrayList<>();
+            for (int movie = 1; movie <= 1 + u % 5; movie++) {
+                writes.add(new ReviewService.ReviewWrite(user, movie, movie % 5 + 1, "Seeded review " + movie));
+            }
+            reviewService.createOrUpdateReviews(writes);
+            favoriteService.addFavorite(user, 10 + u % 7);
+            favoriteService.addFavorite(user, 20 + u % 3);
+        }
+    }
+
+    private static void rebalance(ConfigurableApplicationContext context, List<String> urls,
+                                  Map<String, Set<String>> seeded) throws Exception {
+        ShardTemplate shardTemplate = context.getBean(ShardTemplate.class);
+        ShardRebalancer rebalancer = context.getBean(ShardRebalancer.class);
+        ReviewService reviewService = context.getBean(ReviewService.class);
+        List<User> users = context.getBean(UserRepository.class).findAll();
+        ShardRing before = shardTemplate.ring();
+        List<Integer> joining = new ArrayList<>(shardTemplate.shards());
+        joining.removeAll(before.shards());
+        ShardRing target = before.with(joining);
+        // Users who stay on their shard can be batched together for the whole run
+        Map<Integer, List<User>> staying = new HashMap<>();
+        for (User user : users) {
+            if (before.shardOf(user.getId()) == target.shardOf(user.getId())) {
+                staying.computeIfAbsent(before.shardOf(user.getId()), shard -> new ArrayList<>()).add(user);
+            }
+        }
+        List<List<User>> batchGroups = staying.values().stream().filter(group -> group.size() >= 3).toList();
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger nextMovie = new AtomicInteger(FIRST_WRITTEN_MOVIE);
+        AtomicLong written = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            boolean batching = w % 2 == 1 && !batchGroups.isEmpty();
+            Thread writer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (!done.get()) {
+                    try {
+                        if (batching) {
+                            List<User> group = batchGroups.get(random.nextInt(batchGroups.size()));
+                            Set<Integer> picked = new HashSet<>();
+                            while (picked.size() < 3) {
+                                picked.add(random.nextInt(group.size()));
+                            }
+                            List<ReviewService.ReviewWrite> writes = new ArrayList<>();
+                            for (int index : picked) {
+                                writes.add(new ReviewService.ReviewWrite(group.get(index), nextMovie.getAndIncrement(), 4, "Batch write"));
+                            }
+                            reviewService.createOrUpdateReviews(writes);
+                            written.addAndGet(writes.size());
+                        } else {
+                            User user = users.get(random.nextInt(users.size()));
+                            reviewService.createOrUpdateReview(user, nextMovie.getAndIncrement(), 3, "Written during the rebalance");
+                            written.incrementAndGet();
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                        return;
+                    }
+                }
+            }, "writer-" + w);
+            writer.setDaemon(true);
+            writer.start();
+            threads.add(writer);
+        }
+
+        long started = System.nanoTime();
+        rebalancer.start();
+        ShardStatusResponse status = rebalancer.status();
+        while (status.isRebalanceRunning() && System.nanoTime() - started < 120_000_000_000L) {
+            Thread.sleep(100);
+            status = rebalancer.status();
+        }
+        done.set(true);
+        assertFalse(status.isRebalanceRunning(), "rebalance did not finish within 120 s (writers blocked: lock-order deadlock?)");
+        for (Thread writer : threads) {
+            writer.join(10_000);
+        }
+        assertNull(status.getRebalanceError(), "rebalance error");
+        assertNull(failure.get(), "writer error");
+        assertEquals(shardTemplate.shards(), shardTemplate.ring().shards(), "shards on the ring");
+
+        Map<String, Set<String>> after = new HashMap<>();
+        Map<String, Long> totals = new HashMap<>();
+        Map<Integer, Long> perShard = new HashMap<>();
+        boolean placed = true;
+        for (int shard = 0; shard < urls.size(); shard++) {
+            Map<String, Set<String>> shardRows = rows(List.of(urls.get(shard)));
+            for (Map.Entry<String, Set<String>> table : shardRows.entrySet()) {
+                after.computeIfAbsent(table.getKey(), name -> new HashSet<>()).addAll(table.getValue());
+                totals.merge(table.getKey(), (long) table.getValue().size(), Long::sum);
+                perShard.merge(shard, (long) table.getValue().size(), Long::sum);
+                for (String row : table.getValue()) {
+                    long userId = Long.parseLong(row.split(":")[1]);
+                    placed &= shardTemplate.shardOf(userId) == shard;
+                }
+            }
+        }
+        long reviews = totals.get("reviews");
+        long favorites = totals.get("favorites");
+        assertEquals(seeded.get("reviews").size() + written.get(), reviews, "reviews = seeded + written during the rebalance");
+        assertEquals(seeded.get("favorites").size(), favorites, "favorites = seeded");
+        assertEquals(reviews, after.get("reviews").size(), "distinct reviews (none on two shards)");
+        assertEquals(favorites, after.get("favorites").size(), "distinct favorites (none on two shards)");
+        assertTrue(placed, "every row on its user's shard");
+        assertTrue(after.get("reviews").containsAll(seeded.get("reviews")), "seeded reviews kept their ID, user, movie and rating");
+        assertTrue(after.get("favorites").containsAll(seeded.get("favorites")), "seeded favorites kept their ID, user and movie");
+        assertTrue(joining.stream().allMatch(shard -> perShard.getOrDefault(shard, 0L) > 0), "rows per shard " + perShard);
+        long counted = users.stream().mapToLong(user -> reviewService.countUserReviews(user.getId())).sum();
+        assertEquals(reviews, counted, "reviews counted through the application");
+    }
+
+    /**
+     * Rows of the sharded tables as "id:user_id:movie_id[:rating]", over the given databases
+     */
+    private static Map<String, Set<String>> rows(List<String> urls) throws Exception {
+        Map<String, Set<String>> rows = new HashMap<>();
+        rows.put("reviews", new HashSet<>());
+        rows.put("favorites", new HashSet<>());
+        for (String url : urls) {
+            try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                try (ResultSet result = statement.executeQuery("SELECT id, user_id, movie_id, rating FROM reviews")) {
+                    while (result.next()) {
+                        rows.get("reviews").add(result.getLong(1) + ":" + result.getLong(2) + ":" + result.getInt(3) + ":" + result.getInt(4));
+                    }
+                }
+                try (ResultSet result = statement.executeQuery("SELECT id, user_id, movie_id FROM favorites")) {
+                    while (result.next()) {
+                        rows.get("favorites").add(result.getLong(1) + ":" + result.getLong(2) + ":" + result.getInt(3));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static ConfigurableApplicationContext start(List<String> urls) {
+        List<String> args = new ArrayList<>(List.of("--sharding.enabled=true"));
+        for (int shard = 1; shard < urls.size(); shard++) {
+            args.add("--sharding.shards[" + (shard - 1) + "].url=" + urls.get(shard));
+            args.add("--sharding.shards[" + (shard - 1) + "].username=sa");
+        }
+        return TestApplications.start(urls.get(0), args.toArray(String[]::new));
+    }
+
+}
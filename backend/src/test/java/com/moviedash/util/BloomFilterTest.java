@@ -0,0 +1,51 @@
+package com.moviedash.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BloomFilterTest
+ */
+class BloomFilterTest {
+
+    @Test
+    void everyAddedValueMightBeContained() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] added = new String[10_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = UUID.randomUUID().toString();
+            filter.add(added[i]);
+        }
+        for (String value : added) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("jti-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow three times that before calling the sizing broken
+        assertTrue(falsePositives < 3_000, falsePositives + " false positives in 100000");
+    }
+
+    @Test
+    void anEmptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("jti-1"));
+    }
+
+}
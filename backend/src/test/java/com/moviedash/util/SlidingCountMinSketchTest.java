@@ -0,0 +1,73 @@
+package com.moviedash.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SlidingCountMinSketchTest
+ */
+class SlidingCountMinSketchTest {
+
+    @Test
+    void neverUndercounts() {
+        // Narrow rows, so many keys share columns and every estimate has collisions in it
+        SlidingCountMinSketch sketch = new SlidingCountMinSketch(4, 64, 3);
+        Map<Long, Long> counts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // Skewed: a few keys take most of the traffic
+            long key = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 2_000);
+            sketch.add(SlidingCountMinSketch.hash(key));
+            counts.merge(key, 1L, Long::sum);
+            if (i % 20_000 == 19_999) {
+                sketch.advance();
+            }
+        }
+        counts.forEach((key, count) -> {
+            long estimate = sketch.estimate(SlidingCountMinSketch.hash(key));
+            assertTrue(estimate >= count, "key " + key + ": " + estimate + " < " + count);
+        });
+    }
+
+    @Test
+    void advancingPastEverySliceExpiresOldCounts() {
+        SlidingCountMinSketch sketch = new SlidingCountMinSketch(4, 1024, 3);
+        long key = SlidingCountMinSketch.hash(7);
+        for (int i = 0; i < 10; i++) {
+            sketch.add(key);
+        }
+        sketch.advance();
+        sketch.add(key);
+        assertEquals(11, sketch.estimate(key), "both slices are in the window");
+
+        sketch.advance();
+        assertEquals(11, sketch.estimate(key));
+        sketch.advance();
+        assertEquals(1, sketch.estimate(key), "the first slice was dropped");
+        sketch.advance();
+        assertEquals(0, sketch.estimate(key));
+    }
+
+    @Test
+    void exceedsAgreesWithEstimate() {
+        SlidingCountMinSketch sketch = new SlidingCountMinSketch(4, 1024, 2);
+        long hot = SlidingCountMinSketch.hash(1);
+        long cold = SlidingCountMinSketch.hash(2);
+        for (int i = 0; i < 100; i++) {
+            sketch.add(hot);
+        }
+        sketch.add(cold);
+
+        assertTrue(sketch.exceeds(hot, 99));
+        assertFalse(sketch.exceeds(hot, sketch.estimate(hot)));
+        assertFalse(sketch.exceeds(cold, 50));
+    }
+
+}
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ReadPathBenchmark
+ *
+ * Closed-loop load generator for the public review read path. Every client keeps exactly one
+ * request in flight for the whole run, and the server process is sampled while they do.
+ *
+ * Usage (single-file program, no build needed):
+ *   java bench/ReadPathBenchmark.java <url> <clients> <seconds> <server pid> [metric url] [accept]
+ *
+ * Reports:
+ * - requests/s, status counts and latency percentiles as seen by the clients
+ * - peak and mean server threads (/proc/<pid>/status) and open file descriptors (sockets)
+ * - peak and mean DB connections in use, read from an actuator gauge such as
+ *   hikaricp.connections.active or r2dbc.pool.acquired (BENCH_TOKEN is sent as a bearer token)
+ */
+public class ReadPathBenchmark {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+    private static final long[] BUCKETS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, Long.MAX_VALUE};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: ReadPathBenchmark <url> <clients> <seconds> <server pid> [metric url] [accept]");
+            System.exit(2);
+        }
+        URI target = URI.create(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        long deadline = System.nanoTime() + Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        long pid = Long.parseLong(args[3]);
+        URI metric = args.length > 4 && !args[4].isEmpty() ? URI.create(args[4]) : null;
+        String accept = args.length > 5 ? args[5] : "application/json";
+        String token = System.getenv("BENCH_TOKEN");
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .header("Accept", accept)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder[] latency = new LongAdder[BUCKETS_MS.length];
+        for (int i = 0; i < latency.length; i++) {
+            latency[i] = new LongAdder();
+        }
+        CountDownLatch done = new CountDownLatch(clients);
+
+        Sampler sampler = new Sampler(pid, metric, token);
+        Thread samplerThread = new Thread(sampler, "sampler");
+        samplerThread.setDaemon(true);
+        samplerThread.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            new Client(http, request, deadline, statuses, latency, done).next();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.stop();
+
+        long total = statuses.values().stream().mapToLong(LongAdder::sum).sum();
+        System.out.printf("url=%s accept=%s clients=%d%n", target, accept, clients);
+        System.out.printf("  requests=%d (%.0f/s) statuses=%s%n", total, total / seconds, statuses);
+        System.out.printf("  latency p50%s p90%s p99%s%n",
+                percentile(latency, total, 0.50), percentile(latency, total, 0.90), percentile(latency, total, 0.99));
+        System.out.printf("  server threads peak=%d mean=%.0f | open fds peak=%d mean=%.0f | db connections peak=%s mean=%s%n",
+                sampler.threadsPeak.get(), sampler.mean(sampler.threadsSum),
+                sampler.fdsPeak.get(), sampler.mean(sampler.fdsSum),
+                metric == null ? "n/a" : String.format("%.0f", sampler.dbPeak),
+                metric == null ? "n/a" : String.format("%.1f", sampler.mean(sampler.dbSum)));
+        System.exit(0);
+    }
+
+    private static String percentile(LongAdder[] latency, long total, double p) {
+        long seen = 0;
+        for (int i = 0; i < latency.length; i++) {
+            seen += latency[i].sum();
+            if (seen >= Math.ceil(total * p)) {
+                return BUCKETS_MS[i] == Long.MAX_VALUE ? ">30000ms" : "<=" + BUCKETS_MS[i] + "ms";
+            }
+        }
+        return "n/a";
+    }
+
+    /**
+     * One closed-loop client: sends the next request when the previous one completes
+     */
+    private record Client(HttpClient http, HttpRequest request, long deadline,
+                          Map<String, LongAdder> statuses, LongAdder[] latency, CountDownLatch done) {
+
+        void next() {
+            if (System.nanoTime() - deadline >= 0) {
+                done.countDown();
+                return;
+            }
+            long sent = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                String status = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                long elapsedMs = (System.nanoTime() - sent) / 1_000_000;
+                int bucket = 0;
+                while (elapsedMs > BUCKETS_MS[bucket]) {
+                    bucket++;
+                }
+                latency[bucket].increment();
+                next();
+            });
+        }
+
+    }
+
+    /**
+     * Samples the server process every 200 ms
+     */
+    private static final class Sampler implements Runnable {
+
+        private final long pid;
+        private final URI metric;
+        private final String token;
+        private final HttpClient http = HttpClient.newHttpClient();
+        private volatile boolean running = true;
+
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong threadsPeak = new AtomicLong();
+        private final AtomicLong fdsPeak = new AtomicLong();
+        private final LongAdder threadsSum = new LongAdder();
+        private final LongAdder fdsSum = new LongAdder();
+        private double dbPeak;
+        private double dbSum;
+
+        Sampler(long pid, URI metric, String token) {
+            this.pid = pid;
+            this.metric = metric;
+            this.token = token;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    long threads = threads();
+                    long fds = openFileDescriptors();
+                    double db = metric != null ? dbConnections() : 0;
+                    threadsPeak.accumulateAndGet(threads, Math::max);
+                    fdsPeak.accumulateAndGet(fds, Math::max);
+                    threadsSum.add(threads);
+                    fdsSum.add(fds);
+                    synchronized (this) {
+                        dbPeak = Math.max(dbPeak, db);
+                        dbSum += db;
+                    }
+                    samples.incrementAndGet();
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // The server may be too busy to answer the metrics call; skip this sample
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        double mean(LongAdder sum) {
+            return samples.get() == 0 ? 0 : (double) sum.sum() / samples.get();
+        }
+
+        synchronized double mean(double sum) {
+            return samples.get() == 0 ? 0 : sum / samples.get();
+        }
+
+        private long threads() throws IOException {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("Threads:")) {
+                    return Long.parseLong(line.substring("Threads:".length()).trim());
+                }
+            }
+            return 0;
+        }
+
+        private long openFileDescriptors() throws IOException {
+            try (var fds = Files.list(Path.of("/proc", String.valueOf(pid), "fd"))) {
+                return fds.count();
+            }
+        }
+
+        private double dbConnections() throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(metric).timeout(Duration.ofSeconds(2));
+            if (token != null && !token.isEmpty()) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            String body = http.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = METRIC_VALUE.matcher(body);
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# read-path-benchmark.sh
+#
+# Compares the servlet backend and this reactive module on GET /reviews/movie/{movieId} with many
+# concurrent clients: throughput, latency, server threads, sockets and DB connections in use.
+#
+# Usage: scripts/read-path-benchmark.sh [clients] [seconds] [reviews]
+#   defaults: 10000 clients, 30 s per target, 50 reviews on the benchmarked movie
+#   server logs are kept in $LOG_DIR (default target/read-path-benchmark)
+#
+# Needs both jars (mvn package in ../backend and here). Both apps share one fresh H2 database
+# (AUTO_SERVER=TRUE), seeded through the backend API. Servlet requests are sent without
+# Accept-Encoding so every one reaches the database, like the reactive ones; the backend's
+# concurrency limiter stays at its defaults, so shed requests show up as 503s.
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CLIENTS="${1:-10000}"
+SECONDS_PER_TARGET="${2:-30}"
+REVIEWS="${3:-50}"
+MOVIE=550
+
+BACKEND_JAR=../backend/target/movie-dash-backend-1.0.0.jar
+REACTIVE_JAR=target/movie-dash-reactive-1.0.0.jar
+SERVLET_PORT=18280
+REACTIVE_PORT=18281
+WORK="$(mktemp -d)"
+LOG_DIR="${LOG_DIR:-target/read-path-benchmark}"
+mkdir -p "$LOG_DIR"
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do kill "$pid" 2>/dev/null || true; done
+    rm -rf "$WORK"
+}
+trap cleanup EXIT
+
+ulimit -n "$(ulimit -Hn)" || true
+
+wait_for() {
+    for _ in $(seq 120); do
+        curl -sf -o /dev/null "$1" && return 0
+        sleep 1
+    done
+    echo "timed out waiting for $1" >&2
+    exit 1
+}
+
+java -jar "$BACKEND_JAR" --server.port=$SERVLET_PORT \
+    --spring.datasource.url="jdbc:h2:file:$WORK/db/moviedash;AUTO_SERVER=TRUE" \
+    --spring.jpa.show-sql=false --logging.level.com.moviedash=INFO \
+    --logging.level.org.springframework.security=WARN --request-logging.enabled=false \
+    > "$LOG_DIR/servlet.log" 2>&1 &
+SERVLET_PID=$!
+PIDS+=("$SERVLET_PID")
+wait_for "http://localhost:$SERVLET_PORT/auth/test"
+
+echo "Seeding $REVIEWS reviews for movie $MOVIE"
+TOKEN=""
+for i in $(seq "$REVIEWS"); do
+    TOKEN=$(curl -sf -X POST "http://localhost:$SERVLET_PORT/auth/register" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"bench$i\",\"email\":\"bench$i@example.com\",\"password\":\"benchmark\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    curl -sf -o /dev/null -X POST "http://localhost:$SERVLET_PORT/reviews" -H "Authorization: Bearer $TOKEN" \
+        -H 'Content-Type: application/json' \
+        -d "{\"movieId\":$MOVIE,\"rating\":$(( i % 5 + 1 )),\"comment\":\"Benchmark review number $i\"}"
+done
+
+java -jar "$REACTIVE_JAR" --server.port=$REACTIVE_PORT \
+    --spring.r2dbc.url="r2dbc:h2:file:///$WORK/db/moviedash?AUTO_SERVER=TRUE" \
+    > "$LOG_DIR/reactive.log" 2>&1 &
+REACTIVE_PID=$!
+PIDS+=("$REACTIVE_PID")
+wait_for "http://localhost:$REACTIVE_PORT/actuator/health"
+
+run() {
+    BENCH_TOKEN="$TOKEN" java -Xss256k bench/ReadPathBenchmark.java "$@"
+    echo
+}
+
+echo
+run "http://localhost:$SERVLET_PORT/reviews/movie/$MOVIE" "$CLIENTS" "$SECONDS_PER_TARGET" "$SERVLET_PID" \
+    "http://localhost:$SERVLET_PORT/actuator/metrics/hikaricp.connections.active"
+run "http://localhost:$REACTIVE_PORT/reviews/movie/$MOVIE" "$CLIENTS" "$SECONDS_PER_TARGET" "$REACTIVE_PID" \
+    "http://localhost:$REACTIVE_PORT/actuator/metrics/r2dbc.pool.acquired"
+run "http://localhost:$REACTIVE_PORT/reviews/movie/$MOVIE" "$CLIENTS" "$SECONDS_PER_TARGET" "$REACTIVE_PID" \
+    "http://localhost:$REACTIVE_PORT/actuator/metrics/r2dbc.pool.acquired" application/x-ndjson
@@ -0,0 +1,13 @@
+package com.moviedash.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class MovieDashReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(MovieDashReactiveApplication.class, args);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.moviedash.reactive.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * DatabaseSchedulerConfig
+ *
+ * Chooses where database queries are subscribed.
+ *
+ * - r2dbc-mysql is non-blocking: queries run on the Netty event loop (Schedulers.immediate())
+ * - r2dbc-h2 wraps the embedded H2 engine and blocks the calling thread for the whole query, which
+ *   would stall every connection on that event loop; its queries run on a bounded worker pool sized
+ *   to the R2DBC pool instead, so thread count stays capped by the number of DB connections
+ */
+@Slf4j
+@Configuration
+public class DatabaseSchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(ConnectionFactory connectionFactory,
+                                       @Value("${spring.r2dbc.pool.max-size:10}") int poolMaxSize) {
+        String driver = connectionFactory.getMetadata().getName();
+        if (!"H2".equalsIgnoreCase(driver)) {
+            return Schedulers.immediate();
+        }
+        log.info("R2DBC driver {} blocks; running queries on {} worker threads", driver, poolMaxSize);
+        return Schedulers.newBoundedElastic(poolMaxSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "r2dbc-h2");
+    }
+
+}
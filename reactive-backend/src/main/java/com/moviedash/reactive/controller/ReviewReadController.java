@@ -0,0 +1,54 @@
+package com.moviedash.reactive.controller;
+
+import com.moviedash.dto.response.ApiResponse;
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
+import com.moviedash.reactive.service.ReviewReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ReviewReadController
+ *
+ * Public review reads, served without blocking a thread per request.
+ *
+ * Endpoints:
+ * - GET /reviews/movie/{movieId} (application/json): same body as the servlet backend
+ * - GET /reviews/movie/{movieId} (application/x-ndjson): one ReviewResponse per line, written as
+ *   rows arrive and only as fast as the client reads
+ * - GET /reviews/movie/{movieId}/stats: review count and average rating
+ */
+@RestController
+@RequestMapping("/reviews")
+@RequiredArgsConstructor
+public class ReviewReadController {
+
+    private final ReviewReadService reviewReadService;
+
+    @GetMapping(value = "/movie/{movieId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ApiResponse<List<ReviewResponse>>> getMovieReviews(@PathVariable Integer movieId) {
+        return reviewReadService.streamMovieReviews(movieId)
+                .collectList()
+                .map(ApiResponse::success);
+    }
+
+    @GetMapping(value = "/movie/{movieId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReviewResponse> streamMovieReviews(@PathVariable Integer movieId) {
+        return reviewReadService.streamMovieReviews(movieId);
+    }
+
+    @GetMapping("/movie/{movieId}/stats")
+    public Mono<ApiResponse<ReviewStatsResponse>> getMovieReviewStats(@PathVariable Integer movieId) {
+        return reviewReadService.getMovieReviewStats(movieId)
+                .map(ApiResponse::success);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.moviedash.reactive.exception;
+
+import com.moviedash.dto.response.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * GlobalExceptionHandler
+ *
+ * Returns the same ApiResponse error body as the servlet backend.
+ *
+ * - Malformed input, e.g. a non-numeric movie ID (400 Bad Request)
+ * - No DB connection freed up within spring.r2dbc.pool.max-acquire-time (503 Service Unavailable,
+ *   Retry-After: 1), matching the servlet backend's load shedding
+ * - Anything else (500 Internal Server Error)
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInputException(ServerWebInputException ex) {
+        log.warn("Invalid request: {}", ex.getReason());
+        return ResponseEntity.badRequest().body(ApiResponse.error("Invalid request parameters"));
+    }
+
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOverload(DataAccessResourceFailureException ex) {
+        log.warn("Shedding request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("Server is busy, please retry shortly"));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex) {
+        log.error("Unexpected error: {}", ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("An unexpected error occurred. Please try again later."));
+    }
+
+}
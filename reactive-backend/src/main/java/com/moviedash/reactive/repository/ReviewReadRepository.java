@@ -0,0 +1,86 @@
+package com.moviedash.reactive.repository;
+
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReviewReadRepository
+ *
+ * Read-only queries against the reviews and users tables owned by the servlet backend.
+ *
+ * Notes:
+ * - Plain SQL through DatabaseClient: there are no entities here, rows map straight to the shared DTOs
+ * - Column names follow the backend's JPA naming (snake_case)
+ * - Rows are emitted as the driver reads them, so a slow subscriber slows the query instead of
+ *   buffering the whole result
+ * - Queries are subscribed on the databaseScheduler (see DatabaseSchedulerConfig)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewReadRepository {
+
+    private static final String MOVIE_REVIEWS = """
+            SELECT r.id, r.movie_id, r.rating, r.comment, r.created_at, u.username, u.id AS user_id
+            FROM reviews r
+            JOIN users u ON u.id = r.user_id
+            WHERE r.movie_id = :movieId
+            ORDER BY r.created_at, r.id
+            """;
+
+    private static final String MOVIE_STATS = """
+            SELECT COUNT(*) AS review_count, AVG(CAST(rating AS DOUBLE PRECISION)) AS average_rating
+            FROM reviews
+            WHERE movie_id = :movieId
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    public Flux<ReviewResponse> findByMovieId(Integer movieId) {
+        return databaseClient.sql(MOVIE_REVIEWS)
+                .bind("movieId", movieId)
+                .map(ReviewReadRepository::toReviewResponse)
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    public Mono<ReviewStatsResponse> summarizeByMovieId(Integer movieId) {
+        return databaseClient.sql(MOVIE_STATS)
+                .bind("movieId", movieId)
+                .map(row -> new ReviewStatsResponse(
+                        movieId,
+                        row.get("review_count", Long.class),
+                        toDouble(row.get("average_rating"))))
+                .one()
+                .subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * AVG comes back as a driver-specific numeric type (not always DOUBLE), so decode whatever number arrives
+     */
+    private static Double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+
+    private static ReviewResponse toReviewResponse(Readable row) {
+        return new ReviewResponse(
+                row.get("id", Long.class),
+                row.get("movie_id", Integer.class),
+                row.get("rating", Integer.class),
+                row.get("comment", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("username", String.class),
+                row.get("user_id", Long.class)
+        );
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.moviedash.reactive.service;
+
+import com.moviedash.dto.response.ReviewResponse;
+import com.moviedash.dto.response.ReviewStatsResponse;
+import com.moviedash.reactive.repository.ReviewReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class ReviewReadService {
+
+    private final ReviewReadRepository reviewReadRepository;
+
+    /**
+     * Stream the reviews of a movie, one element per review
+     *
+     * @param movieId the TMDb movie ID
+     * @return reviews in id order
+     */
+    public Flux<ReviewResponse> streamMovieReviews(Integer movieId) {
+        return reviewReadRepository.findByMovieId(movieId);
+    }
+
+    /**
+     * Get the review count and average rating of a movie
+     *
+     * @param movieId the TMDb movie ID
+     * @return stats; averageRating is null when there are no reviews
+     */
+    public Mono<ReviewStatsResponse> getMovieReviewStats(Integer movieId) {
+        return reviewReadRepository.summarizeByMovieId(movieId);
+    }
+
+}
@@ -1,5 +1,6 @@
-import React, { useState } from "react";
+import React, { useState, useEffect } from "react";
 import { useAuth } from "../context/AuthContext";
+import { authService } from "../services/authService";
 import { Navigate, Link as RouterLink } from "react-router-dom";
 import {
   Box,
@@ -22,8 +23,34 @@ const Register = () => {
   const [email, setEmail] = useState("");
   const [password, setPassword] = useState("");
   const [formError, setFormError] = useState(null);
+  const [availability, setAvailability] = useState(null);
   const theme = useTheme();
 
+  // Check the username once typing pauses; the answer comes from the server's in-memory index
+  useEffect(() => {
+    setAvailability(null);
+    if (username.length < 3) {
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const result = await authService.checkUsername(username);
+        if (!cancelled) {
+          setAvailability(result);
+        }
+      } catch (err) {
+        // Registration still reports a taken username
+      }
+    }, 300);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [username]);
+
+  const usernameTaken = availability && !availability.available;
+
   if (user) {
     return <Navigate to="/" replace />;
   }
@@ -39,6 +66,10 @@ const Register = () => {
       setFormError("Password must be at least 6 characters long.");
       return;
     }
+    if (usernameTaken) {
+      setFormError("Username is already taken.");
+      return;
+    }
     await register(username, email, password);
   };
 
@@ -119,6 +150,16 @@ const Register = () => {
                   margin="normal"
                   variant="outlined"
                   required
+                  error={Boolean(usernameTaken)}
+                  helperText={
+                    usernameTaken
+                      ? availability.suggestions.length > 0
+                        ? `Taken. Try ${availability.suggestions.join(", ")}`
+                        : "Taken"
+                      : availability
+                      ? "Available"
+                      : " "
+                  }
                 />
                 <TextField
                   fullWidth
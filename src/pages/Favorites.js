@@ -18,6 +18,17 @@ import { motion } from "framer-motion";
 import ModernMovieCard from "../components/ModernMovieCard";
 import BookmarkIcon from "@mui/icons-material/Bookmark";
 
+// Backend movie metadata -> the TMDB movie shape ModernMovieCard expects
+const toCardMovie = (movie) => ({
+  id: movie.id,
+  title: movie.title,
+  poster_path: movie.posterPath,
+  release_date: movie.releaseDate,
+  vote_average: movie.voteAverage,
+  genres: (movie.genres || []).map((name) => ({ name })),
+  media_type: "movie",
+});
+
 const Favorites = () => {
   const { user, loading: authLoading } = useAuth();
   const navigate = useNavigate();
@@ -44,8 +55,8 @@ const Favorites = () => {
 
         console.log("Fetching favorites...");
         
-        // Get favorites from backend (returns array of { id, movieId, addedAt })
-        const favorites = await authService.getFavorites();
+        // Get favorites with movie details from backend (one request, no TMDB call per movie)
+        const favorites = await authService.getFavoritesWithMovies();
         console.log("Favorites from backend:", favorites);
 
         if (!favorites || favorites.length === 0) {
@@ -55,10 +66,11 @@ const Favorites = () => {
           return;
         }
 
-        console.log(`Fetching details for ${favorites.length} movies...`);
-        
-        // Fetch movie details from TMDB for each favorite
+        // Only movies the backend has no details for yet are fetched from TMDB
         const moviePromises = favorites.map(async (favorite) => {
+          if (favorite.movie) {
+            return toCardMovie(favorite.movie);
+          }
           try {
             const response = await tmdbApi.get(`/movie/${favorite.movieId}`);
             return response.data;
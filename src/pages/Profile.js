@@ -41,10 +41,19 @@ const Profile = () => {
 
     const fetchUserData = async () => {
       try {
-        const [favoritesData, reviewsData] = await Promise.all([
-          authService.getFavorites(),
-          authService.getUserReviews(),
+        // Favorites and reviews in one round trip
+        const [favoritesResult, reviewsResult] = await authService.batch([
+          "/favorites",
+          "/reviews/user",
         ]);
+        if (favoritesResult.status !== 200 || reviewsResult.status !== 200) {
+          throw new Error(
+            (favoritesResult.status !== 200 ? favoritesResult : reviewsResult).body?.message ||
+              "Failed to load user data"
+          );
+        }
+        const favoritesData = favoritesResult.body.data || [];
+        const reviewsData = reviewsResult.body.data || [];
         setFavorites(favoritesData);
         setReviews(reviewsData);
 
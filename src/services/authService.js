@@ -78,6 +78,21 @@ export const authService = {
     }
   },
 
+  // Username availability, checked as the user types
+  checkUsername: async (username) => {
+    const response = await fetch(
+      `${API_URL}/auth/available?username=${encodeURIComponent(username)}`
+    );
+    const result = await response.json();
+
+    if (!response.ok) {
+      throw new Error(result.message || "Failed to check username");
+    }
+
+    // Backend returns: { success: true, data: { username, available, suggestions: [...] } }
+    return result.data;
+  },
+
   // Get current user
   getCurrentUser: async () => {
     try {
@@ -156,6 +171,29 @@ export const authService = {
     }
   },
 
+  // Favorites with title, poster, year, genres and rating from the backend's metadata store
+  getFavoritesWithMovies: async () => {
+    const response = await fetch(`${API_URL}/favorites?expand=movie`, {
+      method: "GET",
+      headers: getHeaders(),
+    });
+
+    if (!response.ok) {
+      let errorMsg = "Failed to fetch favorites";
+      try {
+        const result = await response.json();
+        errorMsg = result.message || result.error || errorMsg;
+      } catch (e) {
+        errorMsg = response.statusText || errorMsg;
+      }
+      throw new Error(errorMsg);
+    }
+
+    const result = await response.json();
+    // Backend returns: { success: true, data: [{ id, movieId, addedAt, movie: { id, title, posterPath, ... } | null }] }
+    return result.data || [];
+  },
+
   addToFavorites: async (movieId) => {
     try {
       const response = await fetch(`${API_URL}/favorites`, {
@@ -346,4 +384,33 @@ export const authService = {
       throw error;
     }
   },
+
+  /**
+   * Run several GET requests in one round trip
+   * @param {string[]} paths - Paths with any query string, e.g. ["/favorites", "/reviews/user"]
+   * @returns {Promise<Array<{status: number, body: Object}>>} One result per path, in order; a failed
+   *   sub-request does not reject the promise, check its status
+   */
+  batch: async (paths) => {
+    const response = await fetch(`${API_URL}/batch`, {
+      method: "POST",
+      headers: getHeaders(),
+      body: JSON.stringify({ requests: paths.map((path) => ({ method: "GET", path })) }),
+    });
+
+    if (!response.ok) {
+      let errorMsg = "Failed to run batch";
+      try {
+        const result = await response.json();
+        errorMsg = result.message || result.error || errorMsg;
+      } catch (e) {
+        errorMsg = response.statusText || errorMsg;
+      }
+      throw new Error(errorMsg);
+    }
+
+    const result = await response.json();
+    // Backend returns: { success: true, data: [{ status, body: { success, message, data } }] }
+    return result.data || [];
+  },
 };